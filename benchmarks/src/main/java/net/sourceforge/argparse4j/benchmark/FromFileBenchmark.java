@@ -0,0 +1,89 @@
+package net.sourceforge.argparse4j.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/**
+ * Expansion of an argument file with {@link #lines} lines, given by the
+ * prefix set with
+ * {@link net.sourceforge.argparse4j.ArgumentParserBuilder#fromFilePrefix(String)}.
+ * The first half of the file alternates options with their values, the
+ * second half are positional arguments. It stays in the file system cache, so the reading itself is
+ * cheap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FromFileBenchmark {
+
+    private static final int OPTIONS = 20;
+
+    @Param({ "10", "1000", "100000" })
+    public int lines;
+
+    private ArgumentParser parser_;
+    private File file_;
+    private String[] args_;
+
+    @Setup
+    public void setUp() throws IOException {
+        parser_ = ArgumentParsers.newFor("bench").fromFilePrefix("@")
+                .terminalWidthDetection(false).build();
+        for (int i = 0; i < OPTIONS; ++i) {
+            parser_.addArgument("--option-" + i).action(Arguments.append());
+        }
+        parser_.addArgument("inputs").nargs("*");
+        file_ = File.createTempFile("argparse4j-bench", ".args");
+        try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+                new FileOutputStream(file_), StandardCharsets.UTF_8))) {
+            int i = 0;
+            for (; i + 1 < lines / 2; i += 2) {
+                writer.println("--option-" + (i / 2 % OPTIONS));
+                writer.println("value-" + i);
+            }
+            for (; i < lines; ++i) {
+                writer.println("input-" + i);
+            }
+        }
+        args_ = new String[] { "@" + file_.getPath() };
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (file_ != null && !file_.delete()) {
+            file_.deleteOnExit();
+        }
+    }
+
+    @Benchmark
+    public Namespace expand() throws ArgumentParserException {
+        return parser_.parseArgs(args_);
+    }
+}
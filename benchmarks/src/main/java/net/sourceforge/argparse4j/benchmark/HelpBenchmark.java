@@ -0,0 +1,117 @@
+package net.sourceforge.argparse4j.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.Argument;
+import net.sourceforge.argparse4j.inf.ArgumentGroup;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.MutuallyExclusiveGroup;
+import net.sourceforge.argparse4j.inf.Subparsers;
+
+/**
+ * <p>
+ * {@link ArgumentParser#formatHelp()} and
+ * {@link ArgumentParser#formatUsage()} of a parser with {@link #options}
+ * options in groups, a mutually exclusive group, choices, positional
+ * arguments and sub-commands.
+ * </p>
+ * <p>
+ * The parser reuses formatted text until its definition changes. The
+ * {@code cached} benchmarks measure the reuse, the others change the
+ * description before each call, so that the text is formatted each time.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HelpBenchmark {
+
+    private static final int OPTIONS_PER_GROUP = 10;
+    private static final int COMMANDS = 10;
+    private static final String DESCRIPTION = "Runs the benchmark. "
+            + "The description is long enough to be wrapped over several "
+            + "lines at the default format width of the parser.";
+
+    @Param({ "10", "100", "1000" })
+    public int options;
+
+    private ArgumentParser parser_;
+
+    @Setup
+    public void setUp() {
+        parser_ = ArgumentParsers.newFor("bench")
+                .terminalWidthDetection(false).build()
+                .description(DESCRIPTION).epilog("See the documentation.");
+        ArgumentGroup group = null;
+        for (int i = 0; i < options; ++i) {
+            if (i % OPTIONS_PER_GROUP == 0) {
+                group = parser_.addArgumentGroup("group " + i
+                        / OPTIONS_PER_GROUP);
+            }
+            if (i % 3 == 0) {
+                Argument arg = i / 3 < 26 ? group.addArgument(
+                        "-" + (char) ('A' + i / 3), "--option-" + i) : group
+                        .addArgument("--option-" + i);
+                arg.metavar("VALUE").setDefault(i)
+                        .help("sets option " + i + " of the benchmark, which "
+                                + "has a help text long enough to wrap");
+            } else if (i % 3 == 1) {
+                group.addArgument("--flag-" + i).action(Arguments.storeTrue())
+                        .help("enables flag " + i);
+            } else {
+                group.addArgument("--choice-" + i)
+                        .choices("alpha", "beta", "gamma", "delta")
+                        .help("chooses " + i);
+            }
+        }
+        MutuallyExclusiveGroup mutex = parser_.addMutuallyExclusiveGroup()
+                .required(true);
+        mutex.addArgument("--quiet").action(Arguments.storeTrue());
+        mutex.addArgument("--verbose").action(Arguments.storeTrue());
+        parser_.addArgument("input").nargs("+").help("input files");
+        parser_.addArgument("output").help("output file");
+        Subparsers subparsers = parser_.addSubparsers().title("commands");
+        for (int c = 0; c < COMMANDS; ++c) {
+            subparsers.addParser("command-" + c).help("runs command " + c);
+        }
+    }
+
+    @Benchmark
+    public String formatHelp() {
+        parser_.description(DESCRIPTION);
+        return parser_.formatHelp();
+    }
+
+    @Benchmark
+    public String formatUsage() {
+        parser_.description(DESCRIPTION);
+        return parser_.formatUsage();
+    }
+
+    @Benchmark
+    public String cachedFormatHelp() {
+        return parser_.formatHelp();
+    }
+
+    @Benchmark
+    public String cachedFormatUsage() {
+        return parser_.formatUsage();
+    }
+}
@@ -0,0 +1,74 @@
+package net.sourceforge.argparse4j.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/**
+ * Consumption of {@link #tokens} values by a positional argument with
+ * {@code nargs("*")}, as when a shell expands a glob over a large directory
+ * tree. Work which is not linear in the number of tokens shows up as a
+ * growing time per token between the parameters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class NargsBenchmark {
+
+    @Param({ "1000", "1000000" })
+    public int tokens;
+
+    private ArgumentParser parser_;
+    private ArgumentParser typedParser_;
+    private String[] args_;
+
+    @Setup
+    public void setUp() {
+        parser_ = newParser();
+        parser_.addArgument("files").nargs("*");
+        typedParser_ = newParser();
+        typedParser_.addArgument("files").type(Integer.class).nargs("*");
+        args_ = new String[tokens + 1];
+        args_[0] = "--verbose";
+        for (int i = 1; i < args_.length; ++i) {
+            args_[i] = Integer.toString(i);
+        }
+    }
+
+    private static ArgumentParser newParser() {
+        ArgumentParser parser = ArgumentParsers.newFor("bench")
+                .terminalWidthDetection(false).build();
+        parser.addArgument("--verbose").action(Arguments.storeTrue());
+        parser.addArgument("--output");
+        return parser;
+    }
+
+    @Benchmark
+    public Namespace strings() throws ArgumentParserException {
+        return parser_.parseArgs(args_);
+    }
+
+    @Benchmark
+    public Namespace integers() throws ArgumentParserException {
+        return typedParser_.parseArgs(args_);
+    }
+}
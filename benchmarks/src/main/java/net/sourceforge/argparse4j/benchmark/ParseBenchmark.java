@@ -0,0 +1,146 @@
+package net.sourceforge.argparse4j.benchmark;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/**
+ * <p>
+ * Parsing of named arguments by a parser with {@link #options} flags, besides
+ * a fixed set of short flags and typed options.
+ * </p>
+ * <p>
+ * Each benchmark parses a short command line, so the results show how the
+ * cost of resolving a flag grows with the size of the parser: full names,
+ * unique prefixes, clusters of short flags, conversion by
+ * {@link net.sourceforge.argparse4j.impl.type.ReflectArgumentType} and
+ * conversion to enums.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+
+    public enum Color {
+        RED, GREEN, BLUE, CYAN, MAGENTA, YELLOW, BLACK, WHITE
+    }
+
+    /**
+     * Converted through {@code valueOf(String)} found by reflection.
+     */
+    public static final class Point {
+        private final int x_;
+        private final int y_;
+
+        private Point(int x, int y) {
+            x_ = x;
+            y_ = y;
+        }
+
+        public static Point valueOf(String s) {
+            int comma = s.indexOf(',');
+            return new Point(Integer.parseInt(s.substring(0, comma)),
+                    Integer.parseInt(s.substring(comma + 1)));
+        }
+
+        @Override
+        public String toString() {
+            return x_ + "," + y_;
+        }
+    }
+
+    private static final int FLAGS_PER_COMMAND_LINE = 10;
+
+    @Param({ "10", "100", "1000" })
+    public int options;
+
+    private ArgumentParser parser_;
+    private String[] flagArgs_;
+    private String[] abbreviatedArgs_;
+    private String[] clusterArgs_;
+    private String[] conversionArgs_;
+    private String[] enumArgs_;
+
+    @Setup
+    public void setUp() {
+        parser_ = ArgumentParsers.newFor("bench")
+                .terminalWidthDetection(false).build();
+        for (int i = 0; i < options; ++i) {
+            parser_.addArgument("--flag-" + i + "-end")
+                    .action(Arguments.storeTrue());
+        }
+        for (char c = 'a'; c <= 'g'; ++c) {
+            parser_.addArgument("-" + c).action(Arguments.storeTrue());
+        }
+        parser_.addArgument("-v").action(Arguments.count());
+        parser_.addArgument("--int").type(Integer.class);
+        parser_.addArgument("--long").type(Long.class);
+        parser_.addArgument("--double").type(Double.class);
+        parser_.addArgument("--file").type(File.class);
+        parser_.addArgument("--point").type(Point.class);
+        parser_.addArgument("--color").type(Color.class);
+        parser_.addArgument("--colors").type(Color.class).nargs("+");
+
+        flagArgs_ = new String[FLAGS_PER_COMMAND_LINE];
+        abbreviatedArgs_ = new String[FLAGS_PER_COMMAND_LINE];
+        for (int i = 0; i < FLAGS_PER_COMMAND_LINE; ++i) {
+            // Spread over the whole parser, so that lookups do not only hit
+            // the first flags.
+            int flag = (int) ((long) i * options / FLAGS_PER_COMMAND_LINE);
+            flagArgs_[i] = "--flag-" + flag + "-end";
+            abbreviatedArgs_[i] = "--flag-" + flag + "-";
+        }
+        clusterArgs_ = new String[] { "-abcdefg", "-vvvv", "-gfe", "-vd" };
+        conversionArgs_ = new String[] { "--int", "42", "--long", "-7",
+                "--double", "1.5e3", "--file", "/tmp/input.txt", "--point",
+                "3,4" };
+        enumArgs_ = new String[] { "--color", "MAGENTA", "--colors", "RED",
+                "GREEN", "BLUE", "CYAN", "BLACK", "WHITE" };
+    }
+
+    @Benchmark
+    public Namespace simpleFlags() throws ArgumentParserException {
+        return parser_.parseArgs(flagArgs_);
+    }
+
+    @Benchmark
+    public Namespace abbreviatedFlags() throws ArgumentParserException {
+        return parser_.parseArgs(abbreviatedArgs_);
+    }
+
+    @Benchmark
+    public Namespace shortOptionClusters() throws ArgumentParserException {
+        return parser_.parseArgs(clusterArgs_);
+    }
+
+    @Benchmark
+    public Namespace typeConversion() throws ArgumentParserException {
+        return parser_.parseArgs(conversionArgs_);
+    }
+
+    @Benchmark
+    public Namespace enumConversion() throws ArgumentParserException {
+        return parser_.parseArgs(enumArgs_);
+    }
+}
@@ -0,0 +1,280 @@
+package net.sourceforge.argparse4j.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.Subparser;
+import net.sourceforge.argparse4j.inf.Subparsers;
+
+/**
+ * <p>
+ * The command line interfaces run by {@link RegressionSuite}, shaped like
+ * widely used tools: {@code git} (a flat list of many sub-commands),
+ * {@code kubectl} (nested sub-commands with global options) and
+ * {@code ffmpeg} (a single level with many single-dash options, repeated
+ * inputs and typed values).
+ * </p>
+ * <p>
+ * Besides the well-known options, each interface has generated commands and
+ * options to reach the size of the real tool. Everything is deterministic, so
+ * that the results can be compared with a stored baseline.
+ * </p>
+ */
+final class RegressionCorpus {
+
+    /**
+     * A parser and the command lines parsed with it.
+     */
+    static final class Cli {
+        private final String name_;
+        private final ArgumentParser parser_;
+        private final List<String[]> commandLines_;
+
+        Cli(String name, ArgumentParser parser, List<String[]> commandLines) {
+            name_ = name;
+            parser_ = parser;
+            commandLines_ = Collections.unmodifiableList(commandLines);
+        }
+
+        String getName() {
+            return name_;
+        }
+
+        ArgumentParser getParser() {
+            return parser_;
+        }
+
+        List<String[]> getCommandLines() {
+            return commandLines_;
+        }
+    }
+
+    private static final int GIT_GENERATED_COMMANDS = 120;
+    private static final int KUBECTL_RESOURCES = 60;
+    private static final int FFMPEG_GENERATED_OPTIONS = 400;
+
+    private RegressionCorpus() {
+    }
+
+    static List<Cli> all() {
+        return Arrays.asList(git(), kubectl(), ffmpeg());
+    }
+
+    static Cli git() {
+        ArgumentParser parser = newParser("git");
+        parser.addArgument("-C").dest("directories")
+                .action(Arguments.append()).metavar("PATH");
+        parser.addArgument("-c").dest("config").action(Arguments.append())
+                .metavar("NAME=VALUE");
+        parser.addArgument("--git-dir");
+        parser.addArgument("--work-tree");
+        parser.addArgument("-p", "--paginate").action(Arguments.storeTrue());
+        parser.addArgument("-P", "--no-pager").action(Arguments.storeTrue());
+        Subparsers subparsers = parser.addSubparsers().dest("command");
+
+        Subparser commit = subparsers.addParser("commit").help("record changes");
+        commit.addArgument("-a", "--all").action(Arguments.storeTrue());
+        commit.addArgument("-m", "--message").action(Arguments.append());
+        commit.addArgument("--amend").action(Arguments.storeTrue());
+        commit.addArgument("--author");
+        commit.addArgument("-s", "--signoff").action(Arguments.storeTrue());
+        commit.addArgument("-q", "--quiet").action(Arguments.storeTrue());
+        commit.addArgument("pathspec").nargs("*");
+
+        Subparser log = subparsers.addParser("log").help("show commit logs");
+        log.addArgument("--oneline").action(Arguments.storeTrue());
+        log.addArgument("--graph").action(Arguments.storeTrue());
+        log.addArgument("-n", "--max-count").type(Integer.class);
+        log.addArgument("--since");
+        log.addArgument("--author");
+        log.addArgument("revision").nargs("?");
+        log.addArgument("paths").nargs("*");
+
+        Subparser checkout = subparsers.addParser("checkout")
+                .aliases("co").help("switch branches");
+        checkout.addArgument("-b").dest("new_branch");
+        checkout.addArgument("-f", "--force").action(Arguments.storeTrue());
+        checkout.addArgument("branch").nargs("?");
+
+        Subparser push = subparsers.addParser("push").help("update remote");
+        push.addArgument("-u", "--set-upstream").action(Arguments.storeTrue());
+        push.addArgument("-f", "--force").action(Arguments.storeTrue());
+        push.addArgument("--tags").action(Arguments.storeTrue());
+        push.addArgument("--dry-run").action(Arguments.storeTrue());
+        push.addArgument("repository").nargs("?");
+        push.addArgument("refspec").nargs("*");
+
+        for (int c = 0; c < GIT_GENERATED_COMMANDS; ++c) {
+            Subparser command = subparsers.addParser("command-" + c)
+                    .help("generated command " + c);
+            for (int i = 0; i < 6; ++i) {
+                command.addArgument("--option-" + i);
+                command.addArgument("--flag-" + i)
+                        .action(Arguments.storeTrue());
+            }
+            command.addArgument("args").nargs("*");
+        }
+
+        List<String[]> commandLines = new ArrayList<>();
+        add(commandLines, "commit", "-a", "-m", "Fix the parser",
+                "--signoff");
+        add(commandLines, "commit", "--amend", "--author",
+                "A U Thor <author@example.com>", "-m", "Subject", "-m",
+                "Body", "src/Main.java", "src/Util.java");
+        add(commandLines, "-C", "/tmp/repo", "-c", "user.name=Someone",
+                "--no-pager", "log", "--oneline", "--graph", "-n", "20",
+                "main", "src", "docs");
+        add(commandLines, "log", "--since=2.weeks", "--author=someone",
+                "-n30");
+        add(commandLines, "co", "-b", "feature/parser");
+        add(commandLines, "push", "-u", "origin", "feature/parser",
+                "--tags");
+        add(commandLines, "-p", "command-77", "--option-3", "value",
+                "--flag-5", "one", "two", "three");
+        add(commandLines, "--git-dir=/tmp/repo/.git", "--work-tree",
+                "/tmp/repo", "command-119", "--flag-0", "--option-5=x");
+        return new Cli("git", parser, commandLines);
+    }
+
+    static Cli kubectl() {
+        ArgumentParser parser = newParser("kubectl");
+        parser.addArgument("-n", "--namespace").setDefault("default");
+        parser.addArgument("--context");
+        parser.addArgument("--kubeconfig");
+        parser.addArgument("-v").dest("verbosity").type(Integer.class)
+                .setDefault(0);
+        parser.addArgument("--request-timeout").setDefault("0");
+        Subparsers subparsers = parser.addSubparsers().dest("command");
+
+        String[] outputs = { "json", "yaml", "wide", "name" };
+        for (String verb : new String[] { "get", "describe", "delete" }) {
+            Subparser command = subparsers.addParser(verb)
+                    .help(verb + " resources");
+            command.addArgument("-o", "--output").choices(outputs);
+            command.addArgument("-l", "--selector");
+            command.addArgument("-A", "--all-namespaces")
+                    .action(Arguments.storeTrue());
+            command.addArgument("-w", "--watch").action(Arguments.storeTrue());
+            command.addArgument("--field-selector");
+            command.addArgument("resource").choices(resources());
+            command.addArgument("names").nargs("*");
+        }
+
+        Subparser apply = subparsers.addParser("apply").help("apply a config");
+        apply.addArgument("-f", "--filename").action(Arguments.append())
+                .required(true);
+        apply.addArgument("--dry-run").choices("none", "client", "server")
+                .setDefault("none");
+        apply.addArgument("--prune").action(Arguments.storeTrue());
+        apply.addArgument("-R", "--recursive").action(Arguments.storeTrue());
+
+        Subparsers rollout = subparsers.addParser("rollout")
+                .help("manage rollouts").addSubparsers()
+                .dest("rollout_command");
+        for (String verb : new String[] { "status", "history", "undo",
+                "restart", "pause", "resume" }) {
+            Subparser command = rollout.addParser(verb);
+            command.addArgument("--revision").type(Integer.class);
+            command.addArgument("--timeout");
+            command.addArgument("resource");
+        }
+
+        Subparsers config = subparsers.addParser("config")
+                .help("modify kubeconfig files").addSubparsers()
+                .dest("config_command");
+        config.addParser("view").addArgument("--minify")
+                .action(Arguments.storeTrue());
+        config.addParser("use-context").addArgument("name");
+        config.addParser("set-context").addArgument("name").nargs("?");
+
+        List<String[]> commandLines = new ArrayList<>();
+        add(commandLines, "get", "pods");
+        add(commandLines, "-n", "kube-system", "get", "resource-42", "-o",
+                "wide", "-l", "app=web,tier=frontend", "name-1", "name-2");
+        add(commandLines, "--context", "prod", "describe", "resource-7",
+                "name-1");
+        add(commandLines, "delete", "resource-59", "-A",
+                "--field-selector=status.phase=Failed");
+        add(commandLines, "apply", "-f", "deployment.yaml", "-f",
+                "service.yaml", "--dry-run", "server", "-R");
+        add(commandLines, "-v", "6", "rollout", "status", "deployment/web",
+                "--timeout", "60s");
+        add(commandLines, "rollout", "undo", "deployment/web", "--revision",
+                "3");
+        add(commandLines, "--kubeconfig", "/tmp/config", "config",
+                "use-context", "staging");
+        return new Cli("kubectl", parser, commandLines);
+    }
+
+    private static List<String> resources() {
+        List<String> resources = new ArrayList<>(Arrays.asList("pods",
+                "services", "deployments", "nodes", "namespaces"));
+        for (int i = 0; i < KUBECTL_RESOURCES; ++i) {
+            resources.add("resource-" + i);
+        }
+        return resources;
+    }
+
+    static Cli ffmpeg() {
+        ArgumentParser parser = newParser("ffmpeg");
+        parser.addArgument("-y").action(Arguments.storeTrue())
+                .help("overwrite output files");
+        parser.addArgument("-i").dest("inputs").action(Arguments.append())
+                .required(true);
+        parser.addArgument("-ss").dest("start");
+        parser.addArgument("-t").dest("duration");
+        parser.addArgument("-vf").dest("video_filter");
+        parser.addArgument("-af").dest("audio_filter");
+        parser.addArgument("-r").dest("rate").type(Double.class);
+        parser.addArgument("-s").dest("size");
+        parser.addArgument("-vcodec").choices("copy", "libx264", "libx265",
+                "libvpx-vp9", "prores");
+        parser.addArgument("-acodec").choices("copy", "aac", "libopus",
+                "flac");
+        parser.addArgument("-b").dest("bitrate");
+        parser.addArgument("-map").action(Arguments.append());
+        parser.addArgument("-metadata").action(Arguments.append());
+        parser.addArgument("-threads").type(Integer.class).setDefault(0);
+        parser.addArgument("-loglevel").choices("quiet", "error", "warning",
+                "info", "verbose", "debug");
+        parser.addArgument("-an").action(Arguments.storeTrue());
+        parser.addArgument("-vn").action(Arguments.storeTrue());
+        for (int i = 0; i < FFMPEG_GENERATED_OPTIONS; ++i) {
+            if (i % 2 == 0) {
+                parser.addArgument("-option" + i);
+            } else {
+                parser.addArgument("-flag" + i).action(Arguments.storeTrue());
+            }
+        }
+        parser.addArgument("output");
+
+        List<String[]> commandLines = new ArrayList<>();
+        add(commandLines, "-i", "input.mp4", "output.mkv");
+        add(commandLines, "-y", "-i", "input.mov", "-vcodec", "libx264",
+                "-acodec", "aac", "-b", "4M", "-r", "29.97", "-s",
+                "1920x1080", "output.mp4");
+        add(commandLines, "-ss", "00:01:30", "-t", "10", "-i", "input.mp4",
+                "-vf", "scale=640:-1,fps=15", "-an", "clip.gif");
+        add(commandLines, "-i", "video.mp4", "-i", "audio.wav", "-i",
+                "subtitles.srt", "-map", "0:v", "-map", "1:a", "-map", "2:s",
+                "-metadata", "title=Sample", "-metadata", "year=2024",
+                "-threads", "8", "-loglevel", "error", "muxed.mkv");
+        add(commandLines, "-i", "input.flac", "-option120", "x",
+                "-flag255", "-option398", "y", "-flag1", "output.opus");
+        return new Cli("ffmpeg", parser, commandLines);
+    }
+
+    private static ArgumentParser newParser(String prog) {
+        return ArgumentParsers.newFor(prog).terminalWidthDetection(false)
+                .build();
+    }
+
+    private static void add(List<String[]> commandLines, String... args) {
+        commandLines.add(args);
+    }
+}
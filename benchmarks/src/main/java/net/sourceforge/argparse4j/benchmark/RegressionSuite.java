@@ -0,0 +1,438 @@
+package net.sourceforge.argparse4j.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/**
+ * <p>
+ * Fails the build when parsing allocates meaningfully more, and warns when it
+ * gets meaningfully slower.
+ * </p>
+ * <p>
+ * Each command line interface of {@link RegressionCorpus} parses its command
+ * lines in turn, and two metrics are taken after a warm up:
+ * </p>
+ * <ul>
+ * <li><b>score</b>: parses per second, divided by the iterations per second
+ * of a fixed calibration workload measured in the same run. The raw
+ * throughput depends on the machine; the ratio is much less sensitive to it,
+ * so that a baseline recorded on one machine is usable on another. Each
+ * metric is the median of the measured rounds. Still, the score of the same
+ * build varies by tens of percent between runs on a shared machine, which
+ * would make a gate on it fail spuriously.</li>
+ * <li><b>bytes per parse</b>: bytes allocated by the parsing thread, from
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}. This
+ * does not depend on the machine and has a tight tolerance.</li>
+ * </ul>
+ * <p>
+ * The metrics are compared with the baseline file, a properties file with
+ * the keys {@code <cli>.score} and {@code <cli>.bytesPerParse}. Bytes per
+ * parse above the baseline by more than the allocation tolerance is a
+ * regression: the report marks it and the exit value is 1. A score below the
+ * baseline by more than the throughput tolerance is reported as a warning,
+ * and only fails with {@code --fail-on-score}, e.g. on a dedicated machine.
+ * Metrics missing from the baseline are reported, but do not fail.
+ * {@code --update-baseline} writes the measured metrics to the baseline file
+ * instead of comparing.
+ * </p>
+ * <p>
+ * Both metrics depend on the JDK, e.g. on its escape analysis and on the
+ * implementation of the JDK classes used by parsing, so the baseline also
+ * records the {@code java.version} and {@code java.vm.name} it was measured
+ * with. If the feature version of the running JDK or its VM differs, the
+ * metrics are reported for information, but nothing fails.
+ * </p>
+ * <p>
+ * Usage: {@code java -cp <classpath> net.sourceforge.argparse4j.benchmark.RegressionSuite [--baseline FILE] [--report FILE] [--update-baseline] [--fail-on-score]}
+ * </p>
+ */
+public final class RegressionSuite {
+
+    private static final String SCORE = "score";
+    private static final String BYTES_PER_PARSE = "bytesPerParse";
+    private static final String JAVA_VERSION = "java.version";
+    private static final String VM_NAME = "java.vm.name";
+    private static final int ALLOCATION_PARSES = 10000;
+    private static final String[] CALIBRATION_INPUT = { "name=value",
+            "--flag", "key=1", "path=/usr/local/bin", "-x", "size=4MiB" };
+
+    private static int sink_;
+
+    private RegressionSuite() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        ArgumentParser parser = ArgumentParsers.newFor("RegressionSuite")
+                .build()
+                .description("Compares the parse throughput and allocation "
+                        + "of generated command line interfaces with a "
+                        + "stored baseline.");
+        parser.addArgument("--baseline").type(File.class)
+                .setDefault(new File("regression-baseline.properties"))
+                .help("baseline properties file");
+        parser.addArgument("--report").type(File.class)
+                .help("file to write the report to, besides standard output");
+        parser.addArgument("--update-baseline").action(Arguments.storeTrue())
+                .help("write the measured metrics to the baseline file");
+        parser.addArgument("--fail-on-score").action(Arguments.storeTrue())
+                .help("fail on a score regression instead of warning");
+        parser.addArgument("--throughput-tolerance").type(Double.class)
+                .setDefault(0.25)
+                .help("allowed relative decrease of the score");
+        parser.addArgument("--allocation-tolerance").type(Double.class)
+                .setDefault(0.05)
+                .help("allowed relative increase of the bytes per parse");
+        parser.addArgument("--warmup").type(Integer.class).setDefault(3)
+                .help("seconds of warm up per command line interface");
+        parser.addArgument("--rounds").type(Integer.class).setDefault(5)
+                .help("number of measured rounds");
+        parser.addArgument("--round-time").type(Integer.class)
+                .setDefault(1000).help("milliseconds per round");
+        Namespace ns;
+        try {
+            ns = parser.parseArgs(args);
+        } catch (ArgumentParserException e) {
+            parser.handleError(e);
+            System.exit(2);
+            return;
+        }
+        int rounds = ns.getInt("rounds");
+        long roundNanos = ns.getInt("round_time") * 1000000L;
+        long warmupNanos = ns.getInt("warmup") * 1000000000L;
+
+        Map<String, Double> measured = new TreeMap<>();
+        double calibration = measureCalibration(warmupNanos, rounds,
+                roundNanos);
+        for (RegressionCorpus.Cli cli : RegressionCorpus.all()) {
+            double throughput = measureThroughput(cli, warmupNanos, rounds,
+                    roundNanos);
+            measured.put(cli.getName() + "." + SCORE, throughput
+                    / calibration);
+            measured.put(cli.getName() + "." + BYTES_PER_PARSE,
+                    measureBytesPerParse(cli, rounds));
+        }
+
+        File baselineFile = ns.get("baseline");
+        if (ns.getBoolean("update_baseline")) {
+            writeBaseline(baselineFile, measured);
+            System.out.println("Wrote " + baselineFile);
+            return;
+        }
+        Properties baseline = readBaseline(baselineFile);
+        StringWriter report = new StringWriter();
+        boolean regressed = report(new PrintWriter(report), measured,
+                baseline, calibration, ns.getDouble("throughput_tolerance"),
+                ns.getDouble("allocation_tolerance"),
+                ns.getBoolean("fail_on_score"), isSameJdk(baseline));
+        System.out.print(report);
+        File reportFile = ns.get("report");
+        if (reportFile != null) {
+            write(reportFile, report.toString());
+        }
+        if (regressed) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean report(PrintWriter out, Map<String, Double> measured,
+            Properties baseline, double calibration,
+            double throughputTolerance, double allocationTolerance,
+            boolean failOnScore, boolean sameJdk) {
+        out.printf(Locale.ROOT, "argparse4j parse regression report (java %s, "
+                + "%s)%n", System.getProperty(JAVA_VERSION),
+                System.getProperty(VM_NAME));
+        out.printf(Locale.ROOT, "baseline: java %s, %s%s%n",
+                baseline.getProperty(JAVA_VERSION, "unknown"),
+                baseline.getProperty(VM_NAME, "unknown"),
+                sameJdk ? "" : " (another JDK, not compared)");
+        out.printf(Locale.ROOT, "calibration: %.0f iterations/s%n",
+                calibration);
+        out.printf(Locale.ROOT, "tolerance: score -%.0f%% (%s), bytes per "
+                + "parse +%.0f%%%n%n", throughputTolerance * 100,
+                failOnScore ? "fails" : "warns", allocationTolerance * 100);
+        out.printf(Locale.ROOT, "%-24s %14s %14s %9s  %s%n", "metric",
+                "measured", "baseline", "change", "status");
+        boolean regressed = false;
+        boolean slower = false;
+        for (Map.Entry<String, Double> e : measured.entrySet()) {
+            String key = e.getKey();
+            double value = e.getValue();
+            String base = baseline.getProperty(key);
+            if (base == null) {
+                out.printf(Locale.ROOT, "%-24s %14s %14s %9s  %s%n", key,
+                        format(key, value), "-", "-", "NEW");
+                continue;
+            }
+            double baseValue = Double.parseDouble(base);
+            double change = (value - baseValue) / baseValue;
+            String status;
+            if (key.endsWith("." + SCORE)) {
+                status = change < -throughputTolerance
+                        ? failOnScore ? "REGRESSION" : "WARNING"
+                        : change > throughputTolerance ? "IMPROVED" : "OK";
+                slower |= change < -throughputTolerance;
+            } else {
+                status = change > allocationTolerance ? "REGRESSION"
+                        : change < -allocationTolerance ? "IMPROVED" : "OK";
+            }
+            if (!sameJdk) {
+                status = "-";
+            }
+            regressed |= status.equals("REGRESSION");
+            out.printf(Locale.ROOT, "%-24s %14s %14s %+8.1f%%  %s%n", key,
+                    format(key, value), format(key, baseValue), change * 100,
+                    status);
+        }
+        out.println();
+        if (!sameJdk) {
+            out.println("SKIPPED: the baseline was not recorded with this "
+                    + "JDK, so nothing is compared. Run on the JDK of the "
+                    + "baseline, or keep a baseline per JDK with "
+                    + "--baseline.");
+            out.flush();
+            return false;
+        }
+        if (slower && !regressed) {
+            out.println("WARNING: the score is below the tolerance. Scores "
+                    + "vary between runs; rerun to confirm before "
+                    + "investigating.");
+        }
+        out.println(regressed ? "FAILED: performance regressed beyond the "
+                + "tolerance. If this is intended, rerun with "
+                + "--update-baseline and commit the baseline."
+                : "PASSED");
+        out.flush();
+        return regressed;
+    }
+
+    /**
+     * Returns whether the baseline was recorded with the feature version and
+     * VM of the running JDK. Updates and builds of the same feature version
+     * are compared, as they rarely change the metrics.
+     */
+    private static boolean isSameJdk(Properties baseline) {
+        String version = baseline.getProperty(JAVA_VERSION);
+        String vmName = baseline.getProperty(VM_NAME);
+        return version != null && vmName != null
+                && featureVersion(version).equals(featureVersion(
+                        System.getProperty(JAVA_VERSION)))
+                && vmName.equals(System.getProperty(VM_NAME));
+    }
+
+    /**
+     * Returns the feature version of a {@code java.version}, e.g. 17 for
+     * 17.0.9 and 8 for 1.8.0_392.
+     */
+    private static String featureVersion(String javaVersion) {
+        String version = javaVersion.startsWith("1.")
+                ? javaVersion.substring(2) : javaVersion;
+        int end = 0;
+        while (end < version.length()
+                && Character.isDigit(version.charAt(end))) {
+            ++end;
+        }
+        return version.substring(0, end);
+    }
+
+    private static String format(String key, double value) {
+        return key.endsWith("." + SCORE) ? String.format(Locale.ROOT,
+                "%.4g", value) : String.format(Locale.ROOT, "%.0f", value);
+    }
+
+    /**
+     * Returns parses per second, the median of {@code rounds} rounds.
+     */
+    private static double measureThroughput(RegressionCorpus.Cli cli,
+            long warmupNanos, int rounds, long roundNanos) {
+        ArgumentParser parser = cli.getParser();
+        List<String[]> commandLines = cli.getCommandLines();
+        // Fail early on a broken corpus, rather than measuring exceptions.
+        for (String[] commandLine : commandLines) {
+            parse(parser, commandLine);
+        }
+        runFor(parser, commandLines, warmupNanos);
+        double[] throughputs = new double[rounds];
+        for (int r = 0; r < rounds; ++r) {
+            long start = System.nanoTime();
+            long parses = runFor(parser, commandLines, roundNanos);
+            throughputs[r] = parses * 1e9 / (System.nanoTime() - start);
+        }
+        return median(throughputs);
+    }
+
+    private static long runFor(ArgumentParser parser,
+            List<String[]> commandLines, long nanos) {
+        long end = System.nanoTime() + nanos;
+        long parses = 0;
+        do {
+            for (String[] commandLine : commandLines) {
+                parse(parser, commandLine);
+            }
+            parses += commandLines.size();
+        } while (System.nanoTime() < end);
+        return parses;
+    }
+
+    /**
+     * Returns the bytes allocated per parse, the minimum of {@code rounds}
+     * rounds, as allocation only goes up by unrelated activity such as class
+     * loading.
+     */
+    private static double measureBytesPerParse(RegressionCorpus.Cli cli,
+            int rounds) {
+        com.sun.management.ThreadMXBean bean = threadMXBean();
+        long thread = Thread.currentThread().getId();
+        ArgumentParser parser = cli.getParser();
+        List<String[]> commandLines = cli.getCommandLines();
+        int iterations = ALLOCATION_PARSES / commandLines.size();
+        double min = Double.MAX_VALUE;
+        for (int r = 0; r < rounds; ++r) {
+            long before = bean.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < iterations; ++i) {
+                for (String[] commandLine : commandLines) {
+                    parse(parser, commandLine);
+                }
+            }
+            long allocated = bean.getThreadAllocatedBytes(thread) - before;
+            min = Math.min(min, (double) allocated
+                    / (iterations * commandLines.size()));
+        }
+        return Math.rint(min);
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory
+                .getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            throw new IllegalStateException(
+                    "allocation counters are not supported by this JVM");
+        }
+        com.sun.management.ThreadMXBean allocationBean =
+                (com.sun.management.ThreadMXBean) bean;
+        if (!allocationBean.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException(
+                    "allocation counters are not supported by this JVM");
+        }
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+        return allocationBean;
+    }
+
+    private static void parse(ArgumentParser parser, String[] commandLine) {
+        try {
+            sink_ += parser.parseArgs(commandLine).getAttrs().size();
+        } catch (ArgumentParserException e) {
+            throw new IllegalStateException("corpus command line "
+                    + Arrays.toString(commandLine) + " failed: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the iterations per second of a fixed workload of string
+     * handling and hashing, the kind of work parsing consists of, which does
+     * not use argparse4j.
+     */
+    private static double measureCalibration(long warmupNanos, int rounds,
+            long roundNanos) {
+        calibrateFor(warmupNanos);
+        double[] throughputs = new double[rounds];
+        for (int r = 0; r < rounds; ++r) {
+            long start = System.nanoTime();
+            long iterations = calibrateFor(roundNanos);
+            throughputs[r] = iterations * 1e9 / (System.nanoTime() - start);
+        }
+        return median(throughputs);
+    }
+
+    private static long calibrateFor(long nanos) {
+        long end = System.nanoTime() + nanos;
+        long iterations = 0;
+        do {
+            Map<String, String> map = new HashMap<>();
+            List<String> flags = new ArrayList<>();
+            for (String s : CALIBRATION_INPUT) {
+                int eq = s.indexOf('=');
+                if (eq == -1) {
+                    flags.add(s.toLowerCase(Locale.ROOT));
+                } else {
+                    map.put(s.substring(0, eq), s.substring(eq + 1));
+                }
+            }
+            sink_ += map.hashCode() + flags.hashCode();
+            ++iterations;
+        } while ((iterations & 0xff) != 0 || System.nanoTime() < end);
+        return iterations;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int n = sorted.length;
+        return n % 2 == 1 ? sorted[n / 2]
+                : (sorted[n / 2 - 1] + sorted[n / 2]) / 2;
+    }
+
+    private static Properties readBaseline(File file) throws IOException {
+        Properties baseline = new Properties();
+        if (file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                baseline.load(in);
+            }
+        } else {
+            System.out.println("No baseline " + file
+                    + ", all metrics are new.");
+        }
+        return baseline;
+    }
+
+    private static void writeBaseline(File file, Map<String, Double> measured)
+            throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# Baseline of ").append(RegressionSuite.class.getName())
+                .append(".\n# Written by --update-baseline; see its "
+                        + "documentation for the metrics.\n");
+        sb.append(JAVA_VERSION).append('=')
+                .append(System.getProperty(JAVA_VERSION)).append('\n');
+        sb.append(VM_NAME).append('=')
+                .append(System.getProperty(VM_NAME)).append('\n');
+        for (Map.Entry<String, Double> e : measured.entrySet()) {
+            sb.append(e.getKey()).append('=')
+                    .append(format(e.getKey(), e.getValue())).append('\n');
+        }
+        write(file, sb.toString());
+    }
+
+    private static void write(File file, String s) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Could not create directory " + dir);
+        }
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file),
+                StandardCharsets.ISO_8859_1)) {
+            writer.write(s);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package net.sourceforge.argparse4j.benchmark;
+
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.function.Supplier;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentGroup;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+import net.sourceforge.argparse4j.inf.Subparsers;
+
+/**
+ * <p>
+ * A large command line interface, as found in build tools and cloud clients:
+ * {@value #GLOBAL_GROUPS} groups of global options and {@value #COMMANDS}
+ * sub-commands, 560 options in total. All help text comes from a resource
+ * bundle.
+ * </p>
+ * <p>
+ * The help text is passed as suppliers by default, so neither the bundle nor
+ * any of the text is touched unless help is requested. Setting system property
+ * {@value #MODE_PROPERTY} to {@code eager} looks up all text while the parser
+ * is built, as an application not using suppliers does. Setting it to
+ * {@code jvm} exits right away without loading argparse4j, which gives the
+ * baseline start up time of the JVM.
+ * </p>
+ */
+public final class SampleCli {
+
+    static final String MODE_PROPERTY = "argparse4j.benchmark.mode";
+    static final int GLOBAL_GROUPS = 4;
+    static final int GLOBAL_OPTIONS_PER_GROUP = 20;
+    static final int COMMANDS = 40;
+    static final int OPTIONS_PER_COMMAND = 12;
+
+    private static final String[] SUBSYSTEMS = { "network", "storage",
+            "logging", "security" };
+    private static final String[] MODES = { "fast", "safe", "auto", "off" };
+
+    /**
+     * Arguments parsed by the benchmark: a few global options, a command with
+     * some of its options and input files.
+     */
+    static final String[] SAMPLE_ARGS = { "--network-option-3", "7",
+            "--logging-flag-1", "--security-option-9", "strict",
+            "command-27", "--command-27-option-2", "42", "--command-27-flag-4",
+            "--command-27-mode", "safe", "input1.txt", "input2.txt" };
+
+    private static ResourceBundle bundle_;
+
+    private final boolean eager_;
+
+    private SampleCli(boolean eager) {
+        eager_ = eager;
+    }
+
+    public static void main(String[] args) {
+        String mode = System.getProperty(MODE_PROPERTY, "lazy");
+        if (mode.equals("jvm")) {
+            return;
+        }
+        ArgumentParser parser = new SampleCli(mode.equals("eager"))
+                .buildParser();
+        try {
+            Namespace ns = parser.parseArgs(args.length == 0 ? SAMPLE_ARGS
+                    : args);
+            if (ns.get("command") == null) {
+                System.exit(1);
+            }
+        } catch (ArgumentParserException e) {
+            parser.handleError(e);
+            System.exit(2);
+        }
+    }
+
+    ArgumentParser buildParser() {
+        ArgumentParser parser = ArgumentParsers.newFor("sample").build();
+        parser.descriptionSupplier(text("description", COMMANDS, GLOBAL_GROUPS
+                * GLOBAL_OPTIONS_PER_GROUP + COMMANDS * OPTIONS_PER_COMMAND));
+        parser.epilogSupplier(text("epilog", "sample"));
+        for (String subsystem : SUBSYSTEMS) {
+            ArgumentGroup group = parser.addArgumentGroup(subsystem)
+                    .descriptionSupplier(text("group.description", subsystem));
+            for (int i = 0; i < GLOBAL_OPTIONS_PER_GROUP / 2; ++i) {
+                String name = subsystem + "-option-" + i;
+                group.addArgument("--" + name).helpSupplier(
+                        text("option.help", name, "sample"));
+                name = subsystem + "-flag-" + i;
+                group.addArgument("--" + name)
+                        .action(Arguments.storeTrue())
+                        .helpSupplier(text("flag.help", name, "sample"));
+            }
+        }
+        Subparsers subparsers = parser.addSubparsers().dest("command");
+        for (int c = 0; c < COMMANDS; ++c) {
+            String command = "command-" + c;
+            Subparser subparser = subparsers.addParser(command)
+                    .helpSupplier(text("command.help", command))
+                    .descriptionSupplier(text("command.description", command,
+                            OPTIONS_PER_COMMAND));
+            for (int i = 0; i < (OPTIONS_PER_COMMAND - 2) / 2; ++i) {
+                String name = command + "-option-" + i;
+                subparser.addArgument("--" + name).type(Integer.class)
+                        .setDefault(0)
+                        .helpSupplier(text("option.help", name, command));
+                name = command + "-flag-" + i;
+                subparser.addArgument("--" + name)
+                        .action(Arguments.storeTrue())
+                        .helpSupplier(text("flag.help", name, command));
+            }
+            subparser.addArgument("--" + command + "-mode").choices(MODES)
+                    .setDefault("auto")
+                    .helpSupplier(text("choice.help", command, command));
+            subparser.addArgument("input").nargs("*")
+                    .helpSupplier(text("input.help", command));
+        }
+        return parser;
+    }
+
+    private Supplier<String> text(String key, Object... args) {
+        if (eager_) {
+            String s = format(key, args);
+            return () -> s;
+        }
+        return () -> format(key, args);
+    }
+
+    private static String format(String key, Object... args) {
+        if (bundle_ == null) {
+            bundle_ = ResourceBundle.getBundle(SampleCli.class.getName());
+        }
+        return String.format(Locale.ROOT, bundle_.getString(key), args);
+    }
+}
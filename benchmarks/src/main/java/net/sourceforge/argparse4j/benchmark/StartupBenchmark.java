@@ -0,0 +1,141 @@
+package net.sourceforge.argparse4j.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/**
+ * <p>
+ * Measures the time from starting a JVM to having the parsed
+ * {@link Namespace} of {@link SampleCli}, which is what the user of a command
+ * line tool waits for before the tool does anything.
+ * </p>
+ * <p>
+ * Each run starts a new JVM with the class path of this JVM, in each of the
+ * modes of {@link SampleCli}: {@code jvm} (no argparse4j at all),
+ * {@code lazy} (help text passed as suppliers) and {@code eager} (help text
+ * looked up while building). The wall clock time of the runs is reported as
+ * minimum, median and mean, together with the difference of the medians to
+ * the {@code jvm} baseline, which is the cost of argparse4j. The runs of the
+ * modes are interleaved, so that a change of the machine's load affects all
+ * of them alike.
+ * </p>
+ * <p>
+ * Usage: {@code java -cp <classpath> net.sourceforge.argparse4j.benchmark.StartupBenchmark [--runs N] [--warmup N] [-J<jvm option>...]}
+ * </p>
+ */
+public final class StartupBenchmark {
+
+    private static final String[] MODES = { "jvm", "lazy", "eager" };
+
+    public static void main(String[] args) throws IOException,
+            InterruptedException {
+        ArgumentParser parser = ArgumentParsers
+                .newFor("StartupBenchmark").build()
+                .description("Measures JVM start to parsed Namespace of a "
+                        + "large sample command line interface.");
+        parser.addArgument("--runs").type(Integer.class).setDefault(20)
+                .help("number of measured runs per mode");
+        parser.addArgument("--warmup").type(Integer.class).setDefault(3)
+                .help("number of unmeasured runs per mode, to fill the "
+                        + "file system cache");
+        parser.addArgument("--java")
+                .setDefault(System.getProperty("java.home") + File.separator
+                        + "bin" + File.separator + "java")
+                .help("java executable to run");
+        parser.addArgument("-J").dest("jvm_options").action(Arguments.append())
+                .setDefault(new ArrayList<String>())
+                .help("option passed to the measured JVMs, e.g. "
+                        + "-J-XX:TieredStopAtLevel=1");
+        Namespace ns;
+        try {
+            ns = parser.parseArgs(args);
+        } catch (ArgumentParserException e) {
+            parser.handleError(e);
+            System.exit(1);
+            return;
+        }
+        int runs = ns.getInt("runs");
+        int warmup = ns.getInt("warmup");
+        List<String> jvmOptions = ns.getList("jvm_options");
+
+        long[][] times = new long[MODES.length][runs];
+        for (int i = -warmup; i < runs; ++i) {
+            for (int m = 0; m < MODES.length; ++m) {
+                long t = run(ns.getString("java"), jvmOptions, MODES[m]);
+                if (i >= 0) {
+                    times[m][i] = t;
+                }
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "%-6s %10s %10s %10s %12s%n", "mode",
+                "min [ms]", "median", "mean", "- jvm [ms]");
+        double baseline = median(times[0]);
+        for (int m = 0; m < MODES.length; ++m) {
+            double median = median(times[m]);
+            System.out.printf(Locale.ROOT, "%-6s %10.1f %10.1f %10.1f %12s%n",
+                    MODES[m], millis(min(times[m])), millis(median),
+                    millis(mean(times[m])), m == 0 ? "" : String.format(
+                            Locale.ROOT, "%.1f", millis(median - baseline)));
+        }
+    }
+
+    private static long run(String java, List<String> jvmOptions, String mode)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmOptions);
+        command.add("-D" + SampleCli.MODE_PROPERTY + "=" + mode);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(SampleCli.class.getName());
+        command.addAll(Arrays.asList(SampleCli.SAMPLE_ARGS));
+        ProcessBuilder pb = new ProcessBuilder(command).inheritIO();
+        long start = System.nanoTime();
+        int exitValue = pb.start().waitFor();
+        long elapsed = System.nanoTime() - start;
+        if (exitValue != 0) {
+            throw new IllegalStateException(mode + " run failed with exit value "
+                    + exitValue);
+        }
+        return elapsed;
+    }
+
+    private static long min(long[] times) {
+        long min = Long.MAX_VALUE;
+        for (long t : times) {
+            min = Math.min(min, t);
+        }
+        return min;
+    }
+
+    private static double median(long[] times) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        int n = sorted.length;
+        return n % 2 == 1 ? sorted[n / 2]
+                : (sorted[n / 2 - 1] + sorted[n / 2]) / 2.0;
+    }
+
+    private static double mean(long[] times) {
+        double sum = 0;
+        for (long t : times) {
+            sum += t;
+        }
+        return sum / times.length;
+    }
+
+    private static double millis(double nanos) {
+        return nanos / 1e6;
+    }
+}
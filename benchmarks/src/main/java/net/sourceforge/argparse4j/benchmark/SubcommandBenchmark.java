@@ -0,0 +1,103 @@
+package net.sourceforge.argparse4j.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+import net.sourceforge.argparse4j.inf.Subparsers;
+
+/**
+ * <p>
+ * Dispatch through a tree of sub-commands {@link #depth} levels deep, where
+ * each level has {@link #fanout} commands. The last command of each level has
+ * the next level below it, the others are leaves with a few options.
+ * </p>
+ * <p>
+ * The command line walks down to the deepest level, passing an option at
+ * each level, both with full command names and with unique prefixes.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SubcommandBenchmark {
+
+    @Param({ "1", "4", "16" })
+    public int depth;
+
+    @Param({ "10", "100" })
+    public int fanout;
+
+    private ArgumentParser parser_;
+    private String[] args_;
+    private String[] abbreviatedArgs_;
+
+    @Setup
+    public void setUp() {
+        parser_ = ArgumentParsers.newFor("bench")
+                .terminalWidthDetection(false).build();
+        parser_.addArgument("--verbose").action(Arguments.storeTrue());
+        List<String> args = new ArrayList<>();
+        List<String> abbreviatedArgs = new ArrayList<>();
+        args.add("--verbose");
+        abbreviatedArgs.add("--verbose");
+        Subparsers subparsers = parser_.addSubparsers()
+                .dest("command-0");
+        for (int level = 0; level < depth; ++level) {
+            Subparser next = null;
+            for (int c = 0; c < fanout; ++c) {
+                String command = "level-" + level + "-command-" + c + "-run";
+                Subparser subparser = subparsers.addParser(command)
+                        .help("runs " + command);
+                subparser.addArgument("--option-" + level);
+                subparser.addArgument("--flag-" + level)
+                        .action(Arguments.storeTrue());
+                next = subparser;
+            }
+            String command = "level-" + level + "-command-" + (fanout - 1);
+            args.add(command + "-run");
+            abbreviatedArgs.add(command + "-");
+            args.add("--option-" + level);
+            abbreviatedArgs.add("--option-" + level);
+            args.add("value");
+            abbreviatedArgs.add("value");
+            if (level + 1 < depth) {
+                subparsers = next.addSubparsers().dest(
+                        "command-" + (level + 1));
+            }
+        }
+        args_ = args.toArray(new String[0]);
+        abbreviatedArgs_ = abbreviatedArgs.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public Namespace dispatch() throws ArgumentParserException {
+        return parser_.parseArgs(args_);
+    }
+
+    @Benchmark
+    public Namespace abbreviatedDispatch() throws ArgumentParserException {
+        return parser_.parseArgs(abbreviatedArgs_);
+    }
+}
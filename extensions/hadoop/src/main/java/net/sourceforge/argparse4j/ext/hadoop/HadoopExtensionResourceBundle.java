@@ -26,12 +26,17 @@ package net.sourceforge.argparse4j.ext.hadoop;
 import java.util.Locale;
 import java.util.ResourceBundle;
 
+import net.sourceforge.argparse4j.helper.ResourceBundleCache;
+
 class HadoopExtensionResourceBundle {
+    private static final ResourceBundleCache bundles_ = new ResourceBundleCache(
+            locale -> ResourceBundle.getBundle(
+                    "net/sourceforge/argparse4j/ext/hadoop/HadoopExtension", locale));
+
     private HadoopExtensionResourceBundle() {
     }
     
     static ResourceBundle get(Locale locale) {
-        return ResourceBundle.getBundle(
-                "net/sourceforge/argparse4j/ext/hadoop/HadoopExtension", locale);
+        return bundles_.get(locale);
     }
 }
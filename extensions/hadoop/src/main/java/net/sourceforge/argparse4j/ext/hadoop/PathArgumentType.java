@@ -23,8 +23,6 @@
  */
 package net.sourceforge.argparse4j.ext.hadoop;
 
-import net.sourceforge.argparse4j.helper.MessageLocalization;
-import net.sourceforge.argparse4j.helper.TextHelper;
 import net.sourceforge.argparse4j.inf.Argument;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
 import net.sourceforge.argparse4j.inf.ArgumentParserException;
@@ -62,11 +60,8 @@ public class PathArgumentType implements ArgumentType<Path> {
         } catch (IllegalArgumentException e) {
             String localizedTypeName = HadoopExtensionResourceBundle
                     .get(parser.getConfig().getLocale()).getString("path");
-            throw new ArgumentParserException(
-                    String.format(TextHelper.LOCALE_ROOT, MessageLocalization
-                                    .localize(parser.getConfig().getResourceBundle(),
-                                            "couldNotConvertToError"), value,
-                            localizedTypeName), e.getCause(), parser, arg);
+            throw new ArgumentParserException(e.getCause(), parser, arg,
+                    "couldNotConvertToError", value, localizedTypeName);
 
         }
         return path;
@@ -0,0 +1,354 @@
+package net.sourceforge.argparse4j.ext.jfr;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import net.sourceforge.argparse4j.inf.Argument;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.ParseListener;
+
+/**
+ * <p>
+ * A {@link ParseListener} which emits Java Flight Recorder events, so that
+ * parsing shows up in recordings next to the rest of an application.
+ * </p>
+ * <p>
+ * The events are in the category {@code argparse4j}:
+ * </p>
+ * <ul>
+ * <li>{@value #PARSE}: a parse from start to end, with the number of
+ * arguments, the selected sub-command and the error, if any. Its duration is
+ * that of the parse, so the usual {@code threshold} setting applies.</li>
+ * <li>{@value #FROM_FILE}: an argument file was read, with its size, the
+ * number of arguments read and the read time.</li>
+ * <li>{@value #COMMAND_SELECTION}: a sub-command was selected, with the time
+ * taken to resolve it.</li>
+ * <li>{@value #SLOW_CONVERSION}: the conversion of a value took at least the
+ * threshold given to the constructor.</li>
+ * <li>{@value #HELP}: help was formatted, with its length, whether formatted
+ * text was reused and the format time.</li>
+ * </ul>
+ * <p>
+ * All events have the program name of the parser and the sub-command as
+ * passed to {@link ParseListener}. Except for the parse event, the events
+ * are reported after the fact and have no duration of their own; the time
+ * taken is in a field.
+ * </p>
+ *
+ * <pre>
+ * ArgumentParser parser = ArgumentParsers.newFor("prog")
+ *         .parseListener(new JfrParseListener()).build();
+ * </pre>
+ *
+ * <pre>
+ * $ java -XX:StartFlightRecording=filename=prog.jfr -jar prog.jar ...
+ * $ jfr print --categories argparse4j prog.jfr
+ * </pre>
+ *
+ * @since 0.9.1
+ */
+public final class JfrParseListener implements ParseListener {
+
+    /**
+     * The name of the parse event.
+     */
+    public static final String PARSE = "net.sourceforge.argparse4j.Parse";
+
+    /**
+     * The name of the argument file event.
+     */
+    public static final String FROM_FILE = "net.sourceforge.argparse4j.FromFile";
+
+    /**
+     * The name of the sub-command selection event.
+     */
+    public static final String COMMAND_SELECTION = "net.sourceforge.argparse4j.CommandSelection";
+
+    /**
+     * The name of the slow conversion event.
+     */
+    public static final String SLOW_CONVERSION = "net.sourceforge.argparse4j.SlowConversion";
+
+    /**
+     * The name of the help event.
+     */
+    public static final String HELP = "net.sourceforge.argparse4j.Help";
+
+    /**
+     * The default threshold for slow conversions, one millisecond.
+     */
+    public static final Duration DEFAULT_SLOW_CONVERSION_THRESHOLD = Duration
+            .ofMillis(1);
+
+    @Name(PARSE)
+    @Label("Parse")
+    @Description("Parsing of a command line")
+    @Category("argparse4j")
+    @StackTrace(false)
+    static final class ParseEvent extends Event {
+        @Label("Parser")
+        @Description("Program name of the parser")
+        String parser;
+
+        @Label("Arguments")
+        @Description("Number of arguments in the command line")
+        int arguments;
+
+        @Label("Command")
+        @Description("Sub-command selected last, empty for none")
+        String command;
+
+        @Label("Succeeded")
+        boolean succeeded;
+
+        @Label("Error")
+        String error;
+    }
+
+    @Name(FROM_FILE)
+    @Label("Argument File Read")
+    @Category("argparse4j")
+    @StackTrace(false)
+    static final class FromFileEvent extends Event {
+        @Label("Parser")
+        String parser;
+
+        @Label("Command")
+        String command;
+
+        @Label("File")
+        String file;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Arguments")
+        @Description("Number of arguments read from the file")
+        int arguments;
+
+        @Label("Read Time")
+        @Timespan
+        long readTime;
+    }
+
+    @Name(COMMAND_SELECTION)
+    @Label("Sub-command Selection")
+    @Category("argparse4j")
+    @StackTrace(false)
+    static final class CommandSelectionEvent extends Event {
+        @Label("Parser")
+        String parser;
+
+        @Label("Command")
+        String command;
+
+        @Label("Resolution Time")
+        @Timespan
+        long resolutionTime;
+    }
+
+    @Name(SLOW_CONVERSION)
+    @Label("Slow Conversion")
+    @Description("Conversion of a value which took at least the threshold")
+    @Category("argparse4j")
+    static final class SlowConversionEvent extends Event {
+        @Label("Parser")
+        String parser;
+
+        @Label("Command")
+        String command;
+
+        @Label("Argument")
+        @Description("Destination of the argument")
+        String argument;
+
+        @Label("Conversion Time")
+        @Timespan
+        long conversionTime;
+    }
+
+    @Name(HELP)
+    @Label("Help Formatting")
+    @Category("argparse4j")
+    @StackTrace(false)
+    static final class HelpEvent extends Event {
+        @Label("Parser")
+        String parser;
+
+        @Label("Command")
+        String command;
+
+        @Label("Length")
+        @Description("Length of the help text in characters")
+        int length;
+
+        @Label("Cached")
+        @Description("Whether help formatted earlier was reused")
+        boolean cached;
+
+        @Label("Format Time")
+        @Timespan
+        long formatTime;
+    }
+
+    /**
+     * A parse in progress on a thread.
+     */
+    private static final class Frame {
+        private final ArgumentParser parser_;
+        private final ParseEvent event_;
+
+        Frame(ArgumentParser parser, ParseEvent event) {
+            parser_ = parser;
+            event_ = event;
+        }
+    }
+
+    private final long slowConversionNanos_;
+    private final ThreadLocal<ArrayDeque<Frame>> frames_ = ThreadLocal
+            .withInitial(ArrayDeque::new);
+
+    /**
+     * Creates a listener which reports conversions taking at least
+     * {@link #DEFAULT_SLOW_CONVERSION_THRESHOLD}.
+     */
+    public JfrParseListener() {
+        this(DEFAULT_SLOW_CONVERSION_THRESHOLD);
+    }
+
+    /**
+     * Creates a listener which reports conversions taking at least
+     * {@code slowConversionThreshold}.
+     *
+     * @param slowConversionThreshold
+     *            The threshold, {@link Duration#ZERO} to report all
+     *            conversions.
+     */
+    public JfrParseListener(Duration slowConversionThreshold) {
+        if (slowConversionThreshold == null
+                || slowConversionThreshold.isNegative()) {
+            throw new IllegalArgumentException(
+                    "slowConversionThreshold must be zero or positive");
+        }
+        slowConversionNanos_ = slowConversionThreshold.toNanos();
+    }
+
+    @Override
+    public void parseStarted(ArgumentParser parser, String[] args) {
+        ArrayDeque<Frame> frames = frames_.get();
+        // A parse ended by an unchecked exception leaves its frame behind.
+        // The same parser cannot be parsing in an outer frame on the same
+        // thread, so such a frame is dropped here.
+        for (Iterator<Frame> it = frames.iterator(); it.hasNext();) {
+            if (it.next().parser_ == parser) {
+                it.remove();
+            }
+        }
+        ParseEvent event = new ParseEvent();
+        event.parser = prog(parser);
+        event.arguments = args.length;
+        event.command = "";
+        event.begin();
+        frames.push(new Frame(parser, event));
+    }
+
+    @Override
+    public void phaseCompleted(String command, Phase phase, Argument argument,
+            long nanos) {
+        if (phase != Phase.CONVERSION || nanos < slowConversionNanos_) {
+            return;
+        }
+        SlowConversionEvent event = new SlowConversionEvent();
+        if (event.isEnabled()) {
+            event.parser = currentProg();
+            event.command = command;
+            event.argument = argument == null ? null : argument.getDest();
+            event.conversionTime = nanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void fromFileRead(String command, String file, long bytes,
+            int arguments, long nanos) {
+        FromFileEvent event = new FromFileEvent();
+        if (event.isEnabled()) {
+            event.parser = currentProg();
+            event.command = command;
+            event.file = file;
+            event.bytes = bytes;
+            event.arguments = arguments;
+            event.readTime = nanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void commandSelected(String command, long nanos) {
+        Frame frame = frames_.get().peek();
+        if (frame != null) {
+            frame.event_.command = command;
+        }
+        CommandSelectionEvent event = new CommandSelectionEvent();
+        if (event.isEnabled()) {
+            event.parser = frame == null ? "" : frame.event_.parser;
+            event.command = command;
+            event.resolutionTime = nanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void parseFinished(ArgumentParser parser, long nanos,
+            ArgumentParserException error) {
+        ArrayDeque<Frame> frames = frames_.get();
+        Frame frame;
+        do {
+            frame = frames.poll();
+        } while (frame != null && frame.parser_ != parser);
+        if (frame == null) {
+            return;
+        }
+        ParseEvent event = frame.event_;
+        event.end();
+        if (event.shouldCommit()) {
+            event.succeeded = error == null;
+            event.error = error == null ? null : error.getMessage();
+            event.commit();
+        }
+    }
+
+    @Override
+    public void helpFormatted(ArgumentParser parser, String command,
+            int length, boolean cached, long nanos) {
+        HelpEvent event = new HelpEvent();
+        if (event.isEnabled()) {
+            event.parser = prog(parser);
+            event.command = command;
+            event.length = length;
+            event.cached = cached;
+            event.formatTime = nanos;
+            event.commit();
+        }
+    }
+
+    private String currentProg() {
+        Frame frame = frames_.get().peek();
+        return frame == null ? "" : frame.event_.parser;
+    }
+
+    private static String prog(ArgumentParser parser) {
+        return parser.getConfig().getProg();
+    }
+}
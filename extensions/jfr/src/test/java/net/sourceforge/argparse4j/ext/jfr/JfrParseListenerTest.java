@@ -0,0 +1,176 @@
+package net.sourceforge.argparse4j.ext.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Subparser;
+
+public class JfrParseListenerTest {
+
+    private static List<RecordedEvent> record(Runnable runnable)
+            throws IOException {
+        Path file = Files.createTempFile("argparse4j", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : new String[] { JfrParseListener.PARSE,
+                    JfrParseListener.FROM_FILE,
+                    JfrParseListener.COMMAND_SELECTION,
+                    JfrParseListener.SLOW_CONVERSION,
+                    JfrParseListener.HELP }) {
+                recording.enable(name);
+            }
+            recording.start();
+            runnable.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static List<RecordedEvent> events(List<RecordedEvent> events,
+            String name) {
+        List<RecordedEvent> result = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name)) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+    private static ArgumentParser newParser(JfrParseListener listener) {
+        ArgumentParser parser = ArgumentParsers.newFor("prog")
+                .fromFilePrefix("@").parseListener(listener)
+                .locale(Locale.US).build();
+        parser.addArgument("--count").type(Integer.class);
+        Subparser remote = parser.addSubparsers().addParser("remote");
+        remote.addSubparsers().addParser("add").addArgument("name");
+        return parser;
+    }
+
+    @Test
+    public void testParseEvents() throws IOException {
+        ArgumentParser parser = newParser(
+                new JfrParseListener(Duration.ZERO));
+        Path args = Files.createTempFile("argparse4j", ".txt");
+        Files.write(args, "--count\n3\n".getBytes(StandardCharsets.UTF_8));
+        String[] error = new String[1];
+        List<RecordedEvent> events;
+        try {
+            events = record(() -> {
+                try {
+                    parser.parseArgs(new String[] { "@" + args, "remote",
+                            "add", "origin" });
+                } catch (ArgumentParserException e) {
+                    throw new AssertionError(e);
+                }
+                try {
+                    parser.parseArgs(new String[] { "--count", "x" });
+                    fail();
+                } catch (ArgumentParserException e) {
+                    error[0] = e.getMessage();
+                }
+            });
+        } finally {
+            Files.delete(args);
+        }
+
+        List<RecordedEvent> parses = events(events, JfrParseListener.PARSE);
+        assertEquals(2, parses.size());
+        RecordedEvent parse = parses.get(0);
+        assertEquals("prog", parse.getString("parser"));
+        assertEquals(4, parse.getInt("arguments"));
+        assertEquals("remote add", parse.getString("command"));
+        assertTrue(parse.getBoolean("succeeded"));
+        assertNull(parse.getString("error"));
+        parse = parses.get(1);
+        assertEquals(2, parse.getInt("arguments"));
+        assertEquals("", parse.getString("command"));
+        assertFalse(parse.getBoolean("succeeded"));
+        assertEquals(error[0], parse.getString("error"));
+
+        List<RecordedEvent> fromFiles = events(events,
+                JfrParseListener.FROM_FILE);
+        assertEquals(1, fromFiles.size());
+        RecordedEvent fromFile = fromFiles.get(0);
+        assertEquals("prog", fromFile.getString("parser"));
+        assertEquals("", fromFile.getString("command"));
+        assertEquals(args.toString(), fromFile.getString("file"));
+        assertEquals(10, fromFile.getLong("bytes"));
+        assertEquals(2, fromFile.getInt("arguments"));
+
+        List<RecordedEvent> selections = events(events,
+                JfrParseListener.COMMAND_SELECTION);
+        assertEquals(2, selections.size());
+        assertEquals("remote", selections.get(0).getString("command"));
+        assertEquals("remote add", selections.get(1).getString("command"));
+        assertEquals("prog", selections.get(1).getString("parser"));
+
+        List<RecordedEvent> conversions = events(events,
+                JfrParseListener.SLOW_CONVERSION);
+        assertEquals(3, conversions.size());
+        assertEquals("count", conversions.get(0).getString("argument"));
+        assertEquals("remote add", conversions.get(1).getString("command"));
+        assertEquals("name", conversions.get(1).getString("argument"));
+        assertEquals("count", conversions.get(2).getString("argument"));
+    }
+
+    @Test
+    public void testSlowConversionThreshold() throws IOException {
+        ArgumentParser parser = newParser(
+                new JfrParseListener(Duration.ofHours(1)));
+        List<RecordedEvent> events = record(() -> {
+            try {
+                parser.parseArgs(new String[] { "--count", "3", "remote",
+                        "add", "origin" });
+            } catch (ArgumentParserException e) {
+                throw new AssertionError(e);
+            }
+        });
+        assertEquals(1, events(events, JfrParseListener.PARSE).size());
+        assertTrue(events(events, JfrParseListener.SLOW_CONVERSION).isEmpty());
+    }
+
+    @Test
+    public void testHelpEvents() throws IOException {
+        ArgumentParser parser = newParser(new JfrParseListener());
+        String[] help = new String[1];
+        List<RecordedEvent> events = record(() -> {
+            help[0] = parser.formatHelp();
+            parser.formatHelp();
+        });
+        List<RecordedEvent> helps = events(events, JfrParseListener.HELP);
+        assertEquals(2, helps.size());
+        assertEquals("prog", helps.get(0).getString("parser"));
+        assertEquals("", helps.get(0).getString("command"));
+        assertEquals(help[0].length(), helps.get(0).getInt("length"));
+        assertFalse(helps.get(0).getBoolean("cached"));
+        assertTrue(helps.get(1).getBoolean("cached"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeThreshold() {
+        new JfrParseListener(Duration.ofMillis(-1));
+    }
+}
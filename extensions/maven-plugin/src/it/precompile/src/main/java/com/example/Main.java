@@ -0,0 +1,36 @@
+package com.example;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+
+public class Main {
+
+    /**
+     * The number of calls of {@link #newParser()} in this class loader. The
+     * precompile goal calls it in a class loader of its own.
+     */
+    static int factoryCalls;
+
+    public static ArgumentParser newParser() {
+        ++factoryCalls;
+        ArgumentParser parser = ArgumentParsers.newFor("prog").build()
+                .description("Precompiled sample.");
+        parser.addArgument("-v", "--verbose").action(Arguments.storeTrue());
+        parser.addArgument("--jobs").type(Integer.class).setDefault(1);
+        parser.addArgument("file").nargs("*");
+        return parser;
+    }
+
+    public static void main(String[] args) {
+        ArgumentParser parser = ArgumentParsers.newPrecompiled(Main.class,
+                "newParser");
+        try {
+            System.out.println(parser.parseArgs(args));
+        } catch (ArgumentParserException e) {
+            parser.handleError(e);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example;
+
+import static org.junit.Assert.assertEquals;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+import org.junit.Test;
+
+public class MainTest {
+
+    @Test
+    public void testNewPrecompiled() throws Exception {
+        ArgumentParser parser = ArgumentParsers.newPrecompiled(Main.class,
+                "newParser");
+        assertEquals(0, Main.factoryCalls);
+        Namespace ns = parser.parseArgs(new String[] { "-v", "--jobs", "4",
+                "a", "b" });
+        assertEquals(true, ns.getBoolean("verbose"));
+        assertEquals(4, (int) ns.getInt("jobs"));
+        assertEquals(2, ns.getList("file").size());
+        assertEquals(Main.newParser().formatHelp(), parser.formatHelp());
+    }
+}
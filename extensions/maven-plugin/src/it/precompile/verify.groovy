@@ -0,0 +1,9 @@
+def resource = 'META-INF/argparse4j/com.example.Main.newParser.parser'
+assert new File(basedir, "target/classes/" + resource).isFile()
+def jar = new java.util.jar.JarFile(
+        new File(basedir, 'target/precompile-it-1.0-SNAPSHOT.jar'))
+try {
+    assert jar.getEntry(resource) != null
+} finally {
+    jar.close()
+}
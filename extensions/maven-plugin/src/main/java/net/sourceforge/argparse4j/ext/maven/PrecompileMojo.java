@@ -0,0 +1,129 @@
+package net.sourceforge.argparse4j.ext.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.List;
+
+import net.sourceforge.argparse4j.PrecompiledParser;
+
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * <p>
+ * Precompiles the parsers of the project with {@link PrecompiledParser}, so
+ * that {@link net.sourceforge.argparse4j.ArgumentParsers#newPrecompiled(Class,
+ * String)} loads them from the JAR file instead of running the code which
+ * builds them.
+ * </p>
+ * <p>
+ * Each factory method is called with the compiled classes and the runtime
+ * dependencies of the project, which are loaded anew for each of them, and
+ * its resource is written to the class output directory, from where it is
+ * packaged. The classes of argparse4j
+ * are the ones of this plugin, so the version of the plugin should be the one
+ * of the argparse4j dependency. Otherwise the precompiled parsers are not
+ * used at run time.
+ * </p>
+ *
+ * <pre>
+ * &lt;plugin&gt;
+ *     &lt;groupId&gt;net.sourceforge.argparse4j&lt;/groupId&gt;
+ *     &lt;artifactId&gt;argparse4j-maven-plugin&lt;/artifactId&gt;
+ *     &lt;executions&gt;
+ *         &lt;execution&gt;
+ *             &lt;goals&gt;
+ *                 &lt;goal&gt;precompile&lt;/goal&gt;
+ *             &lt;/goals&gt;
+ *             &lt;configuration&gt;
+ *                 &lt;factories&gt;
+ *                     &lt;factory&gt;com.example.Main#newParser&lt;/factory&gt;
+ *                 &lt;/factories&gt;
+ *             &lt;/configuration&gt;
+ *         &lt;/execution&gt;
+ *     &lt;/executions&gt;
+ * &lt;/plugin&gt;
+ * </pre>
+ *
+ * @since 0.9.1
+ */
+@Mojo(name = "precompile", defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+        requiresDependencyResolution = ResolutionScope.RUNTIME,
+        threadSafe = true)
+public class PrecompileMojo extends AbstractMojo {
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    /**
+     * The factory methods, as {@code CLASS#METHOD}. Each names a static
+     * method without parameters which returns a parser.
+     */
+    @Parameter(required = true)
+    private List<String> factories;
+
+    /**
+     * The directory the resources are written to.
+     */
+    @Parameter(defaultValue = "${project.build.outputDirectory}",
+            required = true)
+    private File outputDirectory;
+
+    /**
+     * Skips precompiling.
+     */
+    @Parameter(property = "argparse4j.precompile.skip", defaultValue = "false")
+    private boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Skipping precompiling of parsers");
+            return;
+        }
+        URL[] classPath = projectClassPath();
+        for (String factory : factories) {
+            try {
+                File file = PrecompiledParser.write(factory, classPath,
+                        outputDirectory);
+                getLog().info("Precompiled " + factory + " to " + file);
+            } catch (IOException | ReflectiveOperationException
+                    | RuntimeException e) {
+                throw new MojoExecutionException(
+                        "Could not precompile parser: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Returns the runtime class path of the project, from which
+     * {@link PrecompiledParser} loads its classes. The argparse4j classes
+     * which build the parsers are the ones of this plugin.
+     */
+    private URL[] projectClassPath() throws MojoExecutionException {
+        List<String> elements;
+        try {
+            elements = project.getRuntimeClasspathElements();
+        } catch (DependencyResolutionRequiredException e) {
+            throw new MojoExecutionException(
+                    "Could not resolve the class path", e);
+        }
+        URL[] urls = new URL[elements.size()];
+        try {
+            for (int i = 0; i < urls.length; ++i) {
+                urls[i] = new File(elements.get(i)).toURI().toURL();
+            }
+        } catch (MalformedURLException e) {
+            throw new MojoExecutionException("Invalid class path element", e);
+        }
+        return urls;
+    }
+}
@@ -10,4 +10,6 @@ module net.sourceforge.argparse4j {
     exports net.sourceforge.argparse4j.impl.type;
     exports net.sourceforge.argparse4j.inf;
     exports net.sourceforge.argparse4j.internal;
+
+    uses net.sourceforge.argparse4j.inf.SubcommandProvider;
 }
@@ -2,18 +2,17 @@ package net.sourceforge.argparse4j;
 
 import static net.sourceforge.argparse4j.ArgumentParsers.DEFAULT_FORMAT_WIDTH;
 import static net.sourceforge.argparse4j.ArgumentParsers.DEFAULT_PREFIX_CHARS;
-import static net.sourceforge.argparse4j.ArgumentParsers.cjkWidthLangs_;
 
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 
-import net.sourceforge.argparse4j.helper.ASCIITextWidthCounter;
-import net.sourceforge.argparse4j.helper.CJKTextWidthCounter;
-import net.sourceforge.argparse4j.helper.TextWidthCounter;
 import net.sourceforge.argparse4j.inf.Argument;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArrayConverter;
+import net.sourceforge.argparse4j.inf.ParseListener;
 import net.sourceforge.argparse4j.internal.ArgumentParserConfigurationImpl;
 import net.sourceforge.argparse4j.internal.ArgumentParserImpl;
-import net.sourceforge.argparse4j.internal.TerminalWidth;
 
 /**
  * ArgumentParserBuilder is a class to build new ArgumentParser with a given
@@ -26,7 +25,11 @@ public class ArgumentParserBuilder {
     private boolean addHelp_ = true;
     private String prefixChars_ = DEFAULT_PREFIX_CHARS;
     private String fromFilePrefix_ = null;
-    private Locale locale_ = Locale.getDefault();
+    /**
+     * The locale given by {@link #locale(Locale)}, or null for the default
+     * locale at the time the parser is built.
+     */
+    private Locale locale_;
     private boolean cjkWidthHack_ = true;
     private int defaultFormatWidth_ = DEFAULT_FORMAT_WIDTH;
     private boolean terminalWidthDetection_ = true;
@@ -34,6 +37,9 @@ public class ArgumentParserBuilder {
     private boolean noDestConversionForPositionalArgs_ = false;
     private boolean includeArgumentNamesAsKeysInResult_ = false;
     boolean mustHelpTextIncludeMutualExclusivity_ = false;
+    private final Map<Class<?>, ArrayConverter<?>> arrayConverters_ = new HashMap<>();
+    private boolean stackTraceEnabled_ = true;
+    private ParseListener parseListener_;
 
     ArgumentParserBuilder(String prog, DefaultSettings defaultSettings) {
         prog_ = prog;
@@ -144,6 +150,12 @@ public class ArgumentParserBuilder {
      * terminal width and use it to format help messages. This  feature is
      * enabled by default. </p>
      *
+     * <p> The terminal width is detected when help or usage is formatted for
+     * the first time, not when the parser is built, so that parsers which
+     * never print help do not pay for it. The {@code COLUMNS} environment
+     * variable is consulted first; otherwise the width is probed once per
+     * JVM. </p>
+     *
      * @param flag
      *         {@code true} or {@code false}
      * @return This builder.
@@ -242,6 +254,76 @@ public class ArgumentParserBuilder {
         return this;
     }
 
+    /**
+     * <p>
+     * Register a converter used to assign a {@link java.util.List} result to
+     * fields and methods of its array type, which are annotated with
+     * {@link net.sourceforge.argparse4j.annotation.Arg}. A converter replaces
+     * the one previously registered for the same array type.
+     * </p>
+     *
+     * <p>
+     * Arrays of primitive types, of {@link String} and of other reference
+     * types are converted without a converter.
+     * </p>
+     *
+     * @param converter
+     *         The converter.
+     * @return This builder.
+     * @since 0.9.1
+     */
+    public ArgumentParserBuilder arrayConverter(ArrayConverter<?> converter) {
+        arrayConverters_.put(converter.getArrayType(), converter);
+        return this;
+    }
+
+    /**
+     * <p>
+     * If {@code false}, {@link net.sourceforge.argparse4j.inf.ArgumentParserException}
+     * and its subclasses created while parsing do not capture their stack
+     * trace. Default value: {@code true}.
+     * </p>
+     *
+     * <p>
+     * Capturing the stack trace is the dominant cost of rejecting an
+     * argument. Applications which parse many untrusted command lines, most
+     * of which are rejected, and only report the error message, can turn it
+     * off. Setting the system property {@code argparse4j.debug} to
+     * {@code true} captures stack traces regardless of this setting.
+     * </p>
+     *
+     * @param flag
+     *         {@code true} or {@code false}
+     * @return This builder.
+     * @since 0.9.1
+     */
+    public ArgumentParserBuilder stackTraceEnabled(boolean flag) {
+        stackTraceEnabled_ = flag;
+        return this;
+    }
+
+    /**
+     * <p>
+     * Sets the listener which receives the phases of parsing and their
+     * timings, for the parser and all of its sub-commands. Default value:
+     * {@code null}, i.e. no listener.
+     * </p>
+     *
+     * <p>
+     * Without a listener, parsing has no overhead for the instrumentation.
+     * </p>
+     *
+     * @param listener
+     *         The listener, or {@code null}.
+     * @return This builder.
+     * @see net.sourceforge.argparse4j.impl.ParseMetrics
+     * @since 0.9.1
+     */
+    public ArgumentParserBuilder parseListener(ParseListener listener) {
+        parseListener_ = listener;
+        return this;
+    }
+
     /**
      * <p>
      * Add a text to the help of mutually-exclusive groups explaining that at
@@ -266,24 +348,13 @@ public class ArgumentParserBuilder {
 
     private ArgumentParserConfigurationImpl config() {
         return new ArgumentParserConfigurationImpl(prog_, addHelp_, prefixChars_,
-                fromFilePrefix_, locale_, createTextWidthCounter(),
-                getFormatWidth(), singleMetavar_,
+                fromFilePrefix_, locale_, cjkWidthHack_,
+                defaultFormatWidth_, terminalWidthDetection_, singleMetavar_,
                 noDestConversionForPositionalArgs_,
                 includeArgumentNamesAsKeysInResult_,
-                mustHelpTextIncludeMutualExclusivity_);
-    }
-
-    private TextWidthCounter createTextWidthCounter() {
-        return cjkWidthHack_ && cjkWidthLangs_.contains(locale_.getLanguage()) ? new CJKTextWidthCounter() : new ASCIITextWidthCounter();
-    }
-
-    private int getFormatWidth() {
-        if (terminalWidthDetection_) {
-            int w = new TerminalWidth().getTerminalWidth() - 5;
-            return w <= 0 ? defaultFormatWidth_ : w;
-        } else {
-            return defaultFormatWidth_;
-        }
+                mustHelpTextIncludeMutualExclusivity_,
+                new HashMap<>(arrayConverters_), stackTraceEnabled_,
+                parseListener_);
     }
 
 }
@@ -23,14 +23,11 @@
  */
 package net.sourceforge.argparse4j;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Locale;
+import java.util.Collections;
 
-import net.sourceforge.argparse4j.helper.ASCIITextWidthCounter;
-import net.sourceforge.argparse4j.helper.CJKTextWidthCounter;
 import net.sourceforge.argparse4j.inf.Argument;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArrayConverter;
 import net.sourceforge.argparse4j.internal.ArgumentParserConfigurationImpl;
 import net.sourceforge.argparse4j.internal.ArgumentParserImpl;
 import net.sourceforge.argparse4j.internal.TerminalWidth;
@@ -85,6 +82,38 @@ public final class ArgumentParsers {
         return new ArgumentParserBuilder(prog, defaultSettings);
     }
 
+    /**
+     * <p>
+     * Returns the parser returned by the static method {@code factoryMethod}
+     * of {@code factoryClass}, loading it from the resource written by
+     * {@link PrecompiledParser} at build time if there is one.
+     * </p>
+     * <p>
+     * Loading a precompiled parser replaces running the code which builds the
+     * parser, and its help and usage text were formatted at build time. If
+     * there is no resource, or one of the classes loaded by the factory
+     * method or argparse4j changed since it was written, the factory method
+     * is called instead. Files, system properties or the environment read by
+     * the factory method are not checked, so the parser should only depend
+     * on code.
+     * </p>
+     *
+     * @param factoryClass
+     *            The class declaring the factory method. The resource is
+     *            looked up through it.
+     * @param factoryMethod
+     *            The name of a static method without parameters of
+     *            {@code factoryClass} which returns the parser.
+     * @return The parser.
+     * @throws IllegalArgumentException
+     *             If the factory method has to be called and cannot be.
+     * @since 0.9.1
+     */
+    public static ArgumentParser newPrecompiled(Class<?> factoryClass,
+            String factoryMethod) {
+        return PrecompiledParser.newParser(factoryClass, factoryMethod);
+    }
+
     /**
      * <p>
      * Creates {@link ArgumentParser} with given program name.
@@ -177,20 +206,17 @@ public final class ArgumentParsers {
     public static ArgumentParser newArgumentParser(String prog,
             boolean addHelp, String prefixChars, String fromFilePrefix) {
         ArgumentParserConfigurationImpl config = new ArgumentParserConfigurationImpl(
-                prog, addHelp, prefixChars, fromFilePrefix, Locale.getDefault(),
-                cjkWidthHack_ && cjkWidthLangs_.contains(Locale.getDefault()
-                        .getLanguage()) ? new CJKTextWidthCounter() : new ASCIITextWidthCounter(),
-                getFormatWidth(), isSingleMetavar(),
+                prog, addHelp, prefixChars, fromFilePrefix, null, cjkWidthHack_,
+                DEFAULT_FORMAT_WIDTH, getTerminalWidthDetection(),
+                isSingleMetavar(),
                 getNoDestConversionForPositionalArgs(),
                 false,
-                false);
+                false,
+                Collections.<Class<?>, ArrayConverter<?>> emptyMap(), true,
+                null);
         return new ArgumentParserImpl(config);
     }
 
-    private static final String[] cjkWidthLangsSrc_ = { "ja", "zh", "ko" };
-    static List<String> cjkWidthLangs_ = Arrays
-            .asList(cjkWidthLangsSrc_);
-
     private static boolean cjkWidthHack_ = true;
 
     /**
@@ -0,0 +1,72 @@
+package net.sourceforge.argparse4j;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+
+/**
+ * The parts shared by the tools which run at build time with the factory
+ * method of an application: {@link NativeImageMetadata}, {@link ParserSpec},
+ * {@link ShellCompletion} and {@link PrecompiledParser}.
+ */
+final class BuildTools {
+
+    private BuildTools() {
+    }
+
+    /**
+     * Calls the static method without parameters named by {@code factory} in
+     * the form {@code CLASS#METHOD}, and returns the parser it returns.
+     */
+    static ArgumentParser newParser(String factory, ClassLoader loader)
+            throws ReflectiveOperationException {
+        int hash = factory.indexOf('#');
+        if (hash == -1) {
+            throw new IllegalArgumentException(
+                    "factory must be CLASS#METHOD: " + factory);
+        }
+        return newParser(Class.forName(factory.substring(0, hash), true,
+                loader), factory.substring(hash + 1));
+    }
+
+    /**
+     * Writes the output of a {@code main} method to {@code output}, creating
+     * its directory if needed, or to standard output if {@code output} is
+     * null.
+     */
+    static void writeOutput(File output, byte[] bytes) throws IOException {
+        if (output == null) {
+            System.out.write(bytes);
+            System.out.flush();
+            return;
+        }
+        File dir = output.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Could not create directory " + dir);
+        }
+        try (OutputStream out = new FileOutputStream(output)) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Calls the static method without parameters {@code factoryMethod} of
+     * {@code factoryClass}, and returns the parser it returns.
+     */
+    static ArgumentParser newParser(Class<?> factoryClass,
+            String factoryMethod) throws ReflectiveOperationException {
+        Method method = factoryClass.getDeclaredMethod(factoryMethod);
+        method.setAccessible(true);
+        try {
+            return (ArgumentParser) method.invoke(null);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Could not create the parser",
+                    e.getCause());
+        }
+    }
+}
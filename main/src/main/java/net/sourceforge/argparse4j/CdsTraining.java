@@ -0,0 +1,163 @@
+package net.sourceforge.argparse4j;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.MutuallyExclusiveGroup;
+import net.sourceforge.argparse4j.inf.ParseDiagnostic;
+import net.sourceforge.argparse4j.inf.ParseResult;
+import net.sourceforge.argparse4j.inf.Subparser;
+
+/**
+ * <p>
+ * Training run for a class data sharing (CDS) archive of an application using
+ * argparse4j.
+ * </p>
+ * <p>
+ * A short-lived command line tool spends much of its run time loading and
+ * linking classes. A CDS archive contains these classes in a pre-parsed form
+ * and is created by running the application once with
+ * {@code -XX:ArchiveClassesAtExit} (Java 13 or later):
+ * </p>
+ *
+ * <pre>
+ * java -XX:ArchiveClassesAtExit=app.jsa -cp app.jar:argparse4j.jar \
+ *     net.sourceforge.argparse4j.CdsTraining
+ * java -XX:SharedArchiveFile=app.jsa -cp app.jar:argparse4j.jar com.example.Main ...
+ * </pre>
+ * <p>
+ * The class path must consist of JAR files and be the same in both runs.
+ * </p>
+ * <p>
+ * The archive only contains the classes loaded during the training run, and a
+ * normal run of a tool does not load the classes needed for help and error
+ * messages. {@link #main(String[])} therefore exercises parsing, help, usage,
+ * version and error messages of argparse4j on a sample parser. To include the
+ * classes of the application as well, call {@link #train(ArgumentParser,
+ * String[][])} with the parser of the application and representative
+ * arguments from a training entry point of the application, and create the
+ * archive by running that entry point.
+ * </p>
+ * <p>
+ * Nothing is printed, and {@link System#exit(int)} is not called.
+ * </p>
+ *
+ * @since 0.9.1
+ */
+public final class CdsTraining {
+
+    private enum Mode {
+        FAST, SAFE
+    }
+
+    private static final String[][] SAMPLE_ARGS = {
+            { "--count", "3", "-vv", "--size", "4MiB", "--mode", "FAST",
+                    "--ratio", "0.5", "--tag", "a", "--tag", "b", "run",
+                    "--timeout", "1.5s", "-n", "in1", "in2" },
+            { "--long", "-12", "--enabled", "true", "--quiet", "check" },
+            { "-h" },
+            { "run", "-h" },
+            { "--version" },
+            { "--cuont", "3", "run" },
+            { "--count", "x", "run" },
+            { "--count" },
+            { "--mode", "SLOW", "rnu" },
+            { "--quiet", "--verbose", "run", "--timeout" },
+            { "--count", "3" } };
+
+    private CdsTraining() {
+    }
+
+    /**
+     * Runs the training with a sample parser.
+     *
+     * @param args
+     *            Ignored.
+     */
+    public static void main(String[] args) {
+        train(newSampleParser(), SAMPLE_ARGS);
+    }
+
+    /**
+     * <p>
+     * Parses each of {@code argsList} with {@code parser} using
+     * {@link ArgumentParser#tryParse(String[])}, and formats the error message
+     * of each failure as well as the help, usage and version of
+     * {@code parser}. All output is discarded.
+     * </p>
+     * <p>
+     * Besides arguments which succeed, {@code argsList} should contain some
+     * which fail, so that the classes for error messages are loaded.
+     * </p>
+     *
+     * @param parser
+     *            The parser of the application.
+     * @param argsList
+     *            The arguments to parse.
+     */
+    public static void train(ArgumentParser parser, String[]... argsList) {
+        PrintWriter out = new PrintWriter(new NullWriter());
+        for (String[] args : argsList) {
+            ParseResult result = parser.tryParse(args);
+            for (ParseDiagnostic diagnostic : result.getDiagnostics()) {
+                out.print(diagnostic.getMessage());
+                if (diagnostic.getException() != null) {
+                    parser.handleError(diagnostic.getException(), out);
+                }
+            }
+        }
+        parser.printUsage(out);
+        parser.printHelp(out);
+        parser.printVersion(out);
+        out.flush();
+    }
+
+    private static ArgumentParser newSampleParser() {
+        ArgumentParser parser = ArgumentParsers.newFor("sample")
+                .fromFilePrefix("@").build()
+                .description("Sample parser for the CDS training.")
+                .epilog("See the documentation of ${prog}.")
+                .version("${prog} 1.0");
+        parser.addArgument("--version").action(Arguments.version());
+        parser.addArgument("--count").type(Integer.class).setDefault(1)
+                .help("number of repetitions");
+        parser.addArgument("--long").type(Arguments.longType());
+        parser.addArgument("--ratio").type(Double.class)
+                .choices(Arguments.range(0.0, 1.0));
+        parser.addArgument("--size").type(Arguments.sizeType())
+                .help("buffer size");
+        parser.addArgument("--mode").type(Mode.class).setDefault(Mode.SAFE);
+        parser.addArgument("--enabled").type(Arguments.booleanType());
+        parser.addArgument("--tag").action(Arguments.append());
+        parser.addArgument("-v").action(Arguments.count());
+        MutuallyExclusiveGroup output = parser.addMutuallyExclusiveGroup(
+                "output");
+        output.addArgument("--quiet").action(Arguments.storeTrue());
+        output.addArgument("--verbose").action(Arguments.storeTrue());
+        Subparser run = parser.addSubparsers().dest("command")
+                .addParser("run").help("runs the inputs").defaultHelp(true);
+        run.addArgument("--timeout").type(Arguments.durationType())
+                .required(true);
+        run.addArgument("-n").action(Arguments.storeFalse())
+                .dest("execute");
+        run.addArgument("input").nargs("+");
+        parser.addSubparsers().addParser("check").aliases("c");
+        return parser;
+    }
+
+    private static final class NullWriter extends Writer {
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package net.sourceforge.argparse4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import net.sourceforge.argparse4j.annotation.Arg;
+import net.sourceforge.argparse4j.impl.type.ReflectArgumentType;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.ArgumentType;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.internal.ArgumentImpl;
+import net.sourceforge.argparse4j.internal.ArgumentParserImpl;
+import net.sourceforge.argparse4j.internal.SubparserImpl;
+
+/**
+ * <p>
+ * Generates the reflection metadata which a GraalVM native image of an
+ * application needs for argparse4j.
+ * </p>
+ * <p>
+ * argparse4j uses reflection in two places: {@link ReflectArgumentType},
+ * which is what {@link net.sourceforge.argparse4j.inf.Argument#type(Class)}
+ * creates, looks up {@code valueOf(String)} or the constructor of types which
+ * it does not convert directly (see
+ * {@link ReflectArgumentType#requiresReflection()}), and
+ * {@link ArgumentParser#parseArgs(String[], Object)} sets the fields and calls
+ * the methods annotated with {@link Arg}. A native image only supports these
+ * for the classes and members listed in {@code reflect-config.json}. This
+ * class lists exactly the ones used by a parser and the given user data
+ * classes.
+ * </p>
+ * <p>
+ * It runs at build time on the JVM, e.g. from the {@code process-classes}
+ * phase, and the output goes to
+ * {@code META-INF/native-image/<groupId>/<artifactId>/reflect-config.json} in
+ * the class path of the image:
+ * </p>
+ *
+ * <pre>
+ * java -cp target/classes:argparse4j.jar net.sourceforge.argparse4j.NativeImageMetadata \
+ *     -o target/classes/META-INF/native-image/com.example/app/reflect-config.json \
+ *     com.example.Main#newParser com.example.Main$Options
+ * </pre>
+ * <p>
+ * {@code com.example.Main#newParser} names a static method without parameters
+ * which returns the parser of the application, including all its
+ * sub-commands. The following arguments are the classes of the objects passed
+ * to {@link ArgumentParser#parseArgs(String[], Object)}.
+ * </p>
+ *
+ * @since 0.9.1
+ */
+public final class NativeImageMetadata {
+
+    private NativeImageMetadata() {
+    }
+
+    /**
+     * Writes the {@code reflect-config.json} of the parser returned by a
+     * static method and of user data classes, as shown above.
+     *
+     * @param args
+     *            The command line arguments. Run with {@code -h} for their
+     *            description.
+     * @throws IOException
+     *             If the output cannot be written.
+     * @throws ReflectiveOperationException
+     *             If the factory method cannot be called, or a class cannot
+     *             be loaded.
+     */
+    public static void main(String[] args) throws IOException,
+            ReflectiveOperationException {
+        ArgumentParser parser = ArgumentParsers
+                .newFor("NativeImageMetadata").build()
+                .description("Generates reflect-config.json for a native "
+                        + "image of an application using argparse4j.");
+        parser.addArgument("-o", "--output").type(File.class)
+                .help("file to write, instead of standard output");
+        parser.addArgument("factory").metavar("CLASS#METHOD").help(
+                "static method without parameters returning the parser");
+        parser.addArgument("userData").metavar("CLASS").nargs("*").help(
+                "class of objects passed to parseArgs(String[], Object)");
+        Namespace ns;
+        try {
+            ns = parser.parseArgs(args);
+        } catch (ArgumentParserException e) {
+            parser.handleError(e);
+            System.exit(1);
+            return;
+        }
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        ArgumentParser applicationParser = BuildTools.newParser(ns.getString("factory"),
+                loader);
+        List<String> userDataNames = ns.getList("userData");
+        Class<?>[] userDataClasses = new Class<?>[userDataNames.size()];
+        for (int i = 0; i < userDataClasses.length; ++i) {
+            userDataClasses[i] = Class.forName(userDataNames.get(i), false,
+                    loader);
+        }
+        BuildTools.writeOutput(ns.<File> get("output"),
+                reflectConfig(applicationParser, userDataClasses)
+                        .getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * <p>
+     * Returns the contents of {@code reflect-config.json} for {@code parser}
+     * and the given user data classes.
+     * </p>
+     * <p>
+     * For each argument of {@code parser} and its sub-commands, whose type
+     * requires reflection, the {@code valueOf(String)} method or the
+     * constructor which is used for conversion is listed. For each user data
+     * class and its superclasses, the members annotated with {@link Arg} are
+     * listed, as well as the arrays which are created for them.
+     * </p>
+     *
+     * @param parser
+     *            The parser, created by {@link ArgumentParsers}.
+     * @param userDataClasses
+     *            The classes of the objects passed to
+     *            {@link ArgumentParser#parseArgs(String[], Object)}.
+     * @return The metadata in JSON.
+     */
+    public static String reflectConfig(ArgumentParser parser,
+            Class<?>... userDataClasses) {
+        Map<String, Entry> entries = new TreeMap<>();
+        for (ArgumentImpl arg : toImpl(parser).getAllArguments()) {
+            ArgumentType<?> type = arg.getType();
+            if (type instanceof ReflectArgumentType
+                    && ((ReflectArgumentType<?>) type).requiresReflection()) {
+                addConversion(entries, ((ReflectArgumentType<?>) type)
+                        .getType());
+            }
+        }
+        for (Class<?> userDataClass : userDataClasses) {
+            addUserData(entries, userDataClass);
+        }
+        StringBuilder sb = new StringBuilder("[");
+        String sep = "\n";
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            sb.append(sep);
+            e.getValue().appendTo(sb, e.getKey());
+            sep = ",\n";
+        }
+        return sb.append("\n]\n").toString();
+    }
+
+    private static ArgumentParserImpl toImpl(ArgumentParser parser) {
+        if (parser instanceof ArgumentParserImpl) {
+            return (ArgumentParserImpl) parser;
+        } else if (parser instanceof SubparserImpl) {
+            return ((SubparserImpl) parser).getParser();
+        }
+        throw new IllegalArgumentException(
+                "parser must be created by ArgumentParsers");
+    }
+
+    /**
+     * Mirrors the lookup of {@link ReflectArgumentType}: valueOf(String) if
+     * it is a public static method returning the type, and the constructor if
+     * there is no such method or it cannot be accessed.
+     */
+    private static void addConversion(Map<String, Entry> entries,
+            Class<?> type) {
+        boolean valueOf = false;
+        try {
+            Method m = type.getMethod("valueOf", String.class);
+            valueOf = Modifier.isStatic(m.getModifiers())
+                    && type.isAssignableFrom(m.getReturnType());
+        } catch (NoSuchMethodException e) {
+            // Converted by the constructor.
+        }
+        Entry entry = entry(entries, type);
+        if (valueOf) {
+            entry.methods_.add(method("valueOf", String.class));
+        }
+        if (!valueOf || !Modifier.isPublic(type.getModifiers())) {
+            entry.methods_.add(method("<init>", String.class));
+        }
+    }
+
+    private static void addUserData(Map<String, Entry> entries,
+            Class<?> userDataClass) {
+        for (Class<?> c = userDataClass; c != null && c != Object.class; c = c
+                .getSuperclass()) {
+            Entry entry = entry(entries, c);
+            // parseArgs() iterates over all declared members.
+            entry.queryAll_ = true;
+            for (Field field : c.getDeclaredFields()) {
+                if (field.isAnnotationPresent(Arg.class)) {
+                    entry.fields_.add(field.getName());
+                    addArrays(entries, field.getType());
+                }
+            }
+            for (Method method : c.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(Arg.class)) {
+                    entry.methods_.add(method(method.getName(),
+                            method.getParameterTypes()));
+                    for (Class<?> parameterType : method.getParameterTypes()) {
+                        addArrays(entries, parameterType);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the array types which
+     * {@link net.sourceforge.argparse4j.helper.ReflectHelper} creates by
+     * {@link java.lang.reflect.Array#newInstance(Class, int)} for
+     * {@code type}.
+     */
+    private static void addArrays(Map<String, Entry> entries, Class<?> type) {
+        for (Class<?> t = type; t.isArray(); t = t.getComponentType()) {
+            Class<?> componentType = t.getComponentType();
+            if (!componentType.isPrimitive() && componentType != String.class) {
+                entry(entries, t);
+            }
+        }
+    }
+
+    private static Entry entry(Map<String, Entry> entries, Class<?> type) {
+        Entry entry = entries.get(type.getTypeName());
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(type.getTypeName(), entry);
+        }
+        return entry;
+    }
+
+    private static String method(String name, Class<?>... parameterTypes) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{ \"name\": \"").append(name)
+                .append("\", \"parameterTypes\": [");
+        for (int i = 0; i < parameterTypes.length; ++i) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('"').append(parameterTypes[i].getTypeName()).append('"');
+        }
+        return sb.append("] }").toString();
+    }
+
+    private static final class Entry {
+        private final Set<String> fields_ = new TreeSet<>();
+        private final Set<String> methods_ = new TreeSet<>();
+        private boolean queryAll_;
+
+        void appendTo(StringBuilder sb, String name) {
+            sb.append("  {\n    \"name\": \"").append(name).append('"');
+            if (queryAll_) {
+                sb.append(",\n    \"queryAllDeclaredFields\": true");
+                sb.append(",\n    \"queryAllDeclaredMethods\": true");
+            }
+            if (!fields_.isEmpty()) {
+                sb.append(",\n    \"fields\": [");
+                String sep = "\n";
+                for (String field : fields_) {
+                    sb.append(sep).append("      { \"name\": \"").append(field)
+                            .append("\", \"allowWrite\": true }");
+                    sep = ",\n";
+                }
+                sb.append("\n    ]");
+            }
+            if (!methods_.isEmpty()) {
+                sb.append(",\n    \"methods\": [");
+                String sep = "\n";
+                for (String method : methods_) {
+                    sb.append(sep).append("      ").append(method);
+                    sep = ",\n";
+                }
+                sb.append("\n    ]");
+            }
+            sb.append("\n  }");
+        }
+    }
+}
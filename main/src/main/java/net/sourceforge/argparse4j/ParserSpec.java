@@ -0,0 +1,249 @@
+package net.sourceforge.argparse4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.internal.ArgumentParserImpl;
+import net.sourceforge.argparse4j.internal.ParserSpecReader;
+import net.sourceforge.argparse4j.internal.ParserSpecWriter;
+
+/**
+ * <p>
+ * Stores the definition of a parser as a parser spec, and loads a parser from
+ * a spec.
+ * </p>
+ * <p>
+ * The definition of a parser is usually the same on every run of an
+ * application, but its builder code runs on every start. A spec written at
+ * build time and loaded at run time replaces the builder code: loading
+ * creates the main parser from the spec, and defines each sub-command only
+ * when it is first needed, like
+ * {@link net.sourceforge.argparse4j.inf.Subparsers#addParser(String, String, java.util.function.Consumer)}.
+ * </p>
+ * <p>
+ * A spec stores the arguments, argument groups, mutually exclusive groups,
+ * sub-commands and defaults of a parser and all of its sub-commands, and the
+ * settings of {@link ArgumentParserBuilder} except for the parse listener.
+ * Text given as a {@link java.util.function.Supplier}, e.g. a localized
+ * description, is stored as it is when the spec is written. Only the argument
+ * types, actions and choices of argparse4j can be stored, as well as values
+ * of the basic Java types, enums, {@link File}, {@link java.time.Duration}
+ * and lists of these. Anything else, e.g. a custom argument type, makes
+ * writing the spec fail, so that a spec never loads as a different parser.
+ * </p>
+ * <p>
+ * The binary format is versioned, and a spec is read only by a version of
+ * argparse4j which supports its format version. JSON is written for
+ * inspection and review only and cannot be loaded.
+ * </p>
+ *
+ * <pre>
+ * // At build time
+ * try (OutputStream out = new FileOutputStream("target/classes/prog.spec")) {
+ *     ParserSpec.write(Main.newParser(), out);
+ * }
+ *
+ * // At run time
+ * ArgumentParser parser;
+ * try (InputStream in = Main.class.getResourceAsStream("/prog.spec")) {
+ *     parser = ParserSpec.read(in);
+ * }
+ * </pre>
+ * <p>
+ * {@link #main(String[])} writes the spec of a parser returned by a static
+ * method, e.g. from the {@code process-classes} phase of a build:
+ * </p>
+ *
+ * <pre>
+ * java -cp target/classes:argparse4j.jar net.sourceforge.argparse4j.ParserSpec \
+ *     -o target/classes/prog.spec com.example.Main#newParser
+ * </pre>
+ *
+ * @since 0.9.1
+ */
+public final class ParserSpec {
+
+    private ParserSpec() {
+    }
+
+    /**
+     * Writes the spec of the parser returned by a static method, as shown
+     * above.
+     *
+     * @param args
+     *            The command line arguments. Run with {@code -h} for their
+     *            description.
+     * @throws IOException
+     *             If the output cannot be written.
+     * @throws ReflectiveOperationException
+     *             If the factory method cannot be called.
+     */
+    public static void main(String[] args) throws IOException,
+            ReflectiveOperationException {
+        ArgumentParser parser = ArgumentParsers.newFor("ParserSpec").build()
+                .description("Writes the parser spec of an application "
+                        + "using argparse4j.");
+        parser.addArgument("-o", "--output").type(File.class)
+                .help("file to write, instead of standard output");
+        parser.addArgument("--json").action(Arguments.storeTrue())
+                .help("write JSON for inspection instead of the binary spec");
+        parser.addArgument("factory").metavar("CLASS#METHOD").help(
+                "static method without parameters returning the parser");
+        Namespace ns;
+        try {
+            ns = parser.parseArgs(args);
+        } catch (ArgumentParserException e) {
+            parser.handleError(e);
+            System.exit(1);
+            return;
+        }
+        ArgumentParser applicationParser = BuildTools.newParser(
+                ns.getString("factory"),
+                Thread.currentThread().getContextClassLoader());
+        BuildTools.writeOutput(ns.<File> get("output"),
+                ns.getBoolean("json")
+                        ? toJson(applicationParser)
+                                .getBytes(StandardCharsets.UTF_8)
+                        : toBytes(applicationParser));
+    }
+
+    /**
+     * Returns the spec of {@code parser} in the binary format.
+     *
+     * @param parser
+     *            The main parser, created by {@link ArgumentParsers}.
+     * @return The spec.
+     * @throws IllegalArgumentException
+     *             If {@code parser} is not a main parser created by
+     *             {@link ArgumentParsers}, or uses something which cannot be
+     *             stored.
+     */
+    public static byte[] toBytes(ArgumentParser parser) {
+        return ParserSpecWriter.toBytes(impl(parser));
+    }
+
+    /**
+     * Writes the spec of {@code parser} in the binary format to {@code out}.
+     *
+     * @param parser
+     *            The main parser, created by {@link ArgumentParsers}.
+     * @param out
+     *            The stream to write to. It is not closed.
+     * @throws IOException
+     *             If writing fails.
+     * @throws IllegalArgumentException
+     *             If {@code parser} is not a main parser created by
+     *             {@link ArgumentParsers}, or uses something which cannot be
+     *             stored.
+     */
+    public static void write(ArgumentParser parser, OutputStream out)
+            throws IOException {
+        out.write(toBytes(parser));
+    }
+
+    /**
+     * Returns the spec of {@code parser} as JSON, with the same content as
+     * the binary format.
+     *
+     * @param parser
+     *            The main parser, created by {@link ArgumentParsers}.
+     * @return The JSON text.
+     * @throws IllegalArgumentException
+     *             If {@code parser} is not a main parser created by
+     *             {@link ArgumentParsers}, or uses something which cannot be
+     *             stored.
+     */
+    public static String toJson(ArgumentParser parser) {
+        return ParserSpecWriter.toJson(impl(parser));
+    }
+
+    /**
+     * Loads the parser described by {@code spec}. Classes named in the spec
+     * are loaded by the context class loader of the current thread.
+     *
+     * @param spec
+     *            The spec in the binary format. It must not be modified
+     *            afterwards.
+     * @return The parser.
+     * @throws IOException
+     *             If {@code spec} is not a parser spec, or has a format
+     *             version which is not supported.
+     * @throws IllegalStateException
+     *             If a class named in the spec cannot be loaded. For the
+     *             arguments of a sub-command, this happens when the
+     *             sub-command is first needed.
+     */
+    public static ArgumentParser read(byte[] spec) throws IOException {
+        return read(spec, Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * Loads the parser described by {@code spec}.
+     *
+     * @param spec
+     *            The spec in the binary format. It must not be modified
+     *            afterwards.
+     * @param loader
+     *            The class loader of the classes named in the spec, e.g.
+     *            enum types, or {@code null} for the class loader of
+     *            argparse4j.
+     * @return The parser.
+     * @throws IOException
+     *             If {@code spec} is not a parser spec, or has a format
+     *             version which is not supported.
+     * @throws IllegalStateException
+     *             If a class named in the spec cannot be loaded. For the
+     *             arguments of a sub-command, this happens when the
+     *             sub-command is first needed.
+     */
+    public static ArgumentParser read(byte[] spec, ClassLoader loader)
+            throws IOException {
+        return ParserSpecReader.read(spec, loader == null
+                ? ParserSpec.class.getClassLoader() : loader);
+    }
+
+    /**
+     * Loads the parser described by the spec read from {@code in}, until the
+     * end of the stream. Classes named in the spec are loaded by the context
+     * class loader of the current thread.
+     *
+     * @param in
+     *            The stream of the spec in the binary format. It is not
+     *            closed.
+     * @return The parser.
+     * @throws IOException
+     *             If reading fails, or the stream is not a parser spec or
+     *             has a format version which is not supported.
+     * @throws IllegalStateException
+     *             If a class named in the spec cannot be loaded.
+     */
+    public static ArgumentParser read(InputStream in) throws IOException {
+        return read(readAll(in));
+    }
+
+    static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        byte[] buf = new byte[8192];
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            out.write(buf, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static ArgumentParserImpl impl(ArgumentParser parser) {
+        if (!(parser instanceof ArgumentParserImpl)) {
+            throw new IllegalArgumentException(
+                    "parser must be created by ArgumentParsers");
+        }
+        return (ArgumentParserImpl) parser;
+    }
+}
@@ -0,0 +1,401 @@
+package net.sourceforge.argparse4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+import net.sourceforge.argparse4j.helper.TextHelper;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.internal.ArgumentParserImpl;
+
+/**
+ * <p>
+ * Precompiles the parser of an application at build time, so that
+ * {@link ArgumentParsers#newPrecompiled(Class, String)} loads it at run time
+ * instead of running the code which builds it.
+ * </p>
+ * <p>
+ * The parser is returned by a static method without parameters of the
+ * application, its factory method. Precompiling calls the factory method and
+ * writes the resource named by {@link #resourceName(Class, String)}, which
+ * contains the {@link ParserSpec} of the parser and the help and usage text of
+ * the main parser, formatted at the default format width for the locale of
+ * the parser. The same restrictions as for {@link ParserSpec} apply, and a
+ * parse listener set by the factory method is not stored.
+ * </p>
+ * <p>
+ * The factory method is called in a class loader of its own, which loads the
+ * classes of the application from the given class path rather than through
+ * its parent, and records the classes it loads. The resource also contains
+ * the names of these classes and a hash of their class files, of the factory
+ * method and of the version and build time of argparse4j, so that another
+ * snapshot build of the same version is detected as well. A precompiled
+ * parser is only loaded if the hash is still the same. Otherwise, e.g. after
+ * a class which defines part of the parser was changed and compiled without
+ * precompiling again, the factory method is called. The class files must not be modified
+ * after precompiling, e.g. by shading. Anything else the factory method reads,
+ * such as files, system properties or the environment, is not covered by the
+ * hash, so the definition of the parser should only depend on code.
+ * </p>
+ * <p>
+ * In a Maven build, the {@code precompile} goal of the
+ * {@code argparse4j-maven-plugin} runs in the {@code process-classes} phase.
+ * Other builds can run {@link #main(String[])} after compiling, with the
+ * class path of the application:
+ * </p>
+ *
+ * <pre>
+ * java -cp target/classes:argparse4j.jar net.sourceforge.argparse4j.PrecompiledParser \
+ *     -d target/classes com.example.Main#newParser
+ * </pre>
+ *
+ * @since 0.9.1
+ */
+public final class PrecompiledParser {
+
+    private static final byte[] MAGIC = { 'A', 'P', '4', 'C' };
+    private static final int VERSION = 2;
+
+    private PrecompiledParser() {
+    }
+
+    /**
+     * Precompiles the parsers returned by static methods with the class path
+     * of this JVM, as shown above.
+     *
+     * @param args
+     *            The command line arguments. Run with {@code -h} for their
+     *            description.
+     * @throws IOException
+     *             If a class file cannot be read, or writing fails.
+     * @throws ReflectiveOperationException
+     *             If a factory method cannot be called.
+     */
+    public static void main(String[] args) throws IOException,
+            ReflectiveOperationException {
+        ArgumentParser parser = ArgumentParsers.newFor("PrecompiledParser")
+                .build().description("Precompiles the parsers of an "
+                        + "application using argparse4j.");
+        parser.addArgument("-d", "--directory").type(File.class)
+                .required(true)
+                .help("class output directory to write the resources to");
+        parser.addArgument("factories").metavar("CLASS#METHOD").nargs("+")
+                .help("static method without parameters returning a parser");
+        Namespace ns;
+        try {
+            ns = parser.parseArgs(args);
+        } catch (ArgumentParserException e) {
+            parser.handleError(e);
+            System.exit(1);
+            return;
+        }
+        String[] elements = System.getProperty("java.class.path")
+                .split(File.pathSeparator);
+        URL[] classPath = new URL[elements.length];
+        for (int i = 0; i < elements.length; ++i) {
+            classPath[i] = new File(elements[i]).toURI().toURL();
+        }
+        File directory = ns.get("directory");
+        for (String factory : ns.<String> getList("factories")) {
+            write(factory, classPath, directory);
+        }
+    }
+
+    /**
+     * Returns the name of the resource of a precompiled parser.
+     *
+     * @param factoryClass
+     *            The class declaring the factory method.
+     * @param factoryMethod
+     *            The name of the factory method.
+     * @return The absolute resource name, without a leading slash.
+     */
+    public static String resourceName(Class<?> factoryClass,
+            String factoryMethod) {
+        return resourceName(factoryClass.getName() + "#" + factoryMethod);
+    }
+
+    private static String resourceName(String factory) {
+        return "META-INF/argparse4j/" + factory.replace('#', '.') + ".parser";
+    }
+
+    /**
+     * Calls the factory method and returns the contents of the resource of
+     * the precompiled parser.
+     *
+     * @param factory
+     *            The factory method, as {@code CLASS#METHOD}. It names a
+     *            static method without parameters which returns the parser.
+     * @param classPath
+     *            The class path of the application, which contains the
+     *            factory class. The classes of argparse4j are the ones of
+     *            this class.
+     * @return The contents of the resource.
+     * @throws IOException
+     *             If the factory class is not in {@code classPath}, or a class
+     *             file cannot be read.
+     * @throws ReflectiveOperationException
+     *             If the factory method cannot be called.
+     * @throws IllegalArgumentException
+     *             If the parser cannot be stored in a {@link ParserSpec}.
+     */
+    public static byte[] toBytes(String factory, URL[] classPath)
+            throws IOException, ReflectiveOperationException {
+        Thread thread = Thread.currentThread();
+        ClassLoader contextLoader = thread.getContextClassLoader();
+        try (RecordingClassLoader loader = new RecordingClassLoader(classPath,
+                PrecompiledParser.class.getClassLoader())) {
+            thread.setContextClassLoader(loader);
+            ArgumentParser parser = BuildTools.newParser(factory,
+                    loader);
+            List<String> classNames = loader.getDefinedClasses();
+            if (!classNames.contains(
+                    factory.substring(0, factory.indexOf('#')))) {
+                throw new IOException("factory class of " + factory
+                        + " is not in the class path");
+            }
+            long hash = definitionHash(loader, factory, classNames);
+            if (hash == -1) {
+                throw new IOException("class files of " + factory
+                        + " cannot be read");
+            }
+            byte[] spec = ParserSpec.toBytes(parser);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                    spec.length * 2);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.write(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(classNames.size());
+            for (String name : classNames) {
+                out.writeUTF(name);
+            }
+            out.writeLong(hash);
+            out.writeInt(spec.length);
+            out.write(spec);
+            ((ArgumentParserImpl) parser).writePrecompiledText(out);
+            out.flush();
+            return bytes.toByteArray();
+        } finally {
+            thread.setContextClassLoader(contextLoader);
+        }
+    }
+
+    /**
+     * Calls the factory method and writes the resource of the precompiled
+     * parser to a class output directory.
+     *
+     * @param factory
+     *            The factory method, as {@code CLASS#METHOD}. It names a
+     *            static method without parameters which returns the parser.
+     * @param classPath
+     *            The class path of the application, which contains the
+     *            factory class. The classes of argparse4j are the ones of
+     *            this class.
+     * @param directory
+     *            The class output directory, e.g. {@code target/classes}.
+     * @return The file written.
+     * @throws IOException
+     *             If the factory class is not in {@code classPath}, a class
+     *             file cannot be read, or writing fails.
+     * @throws ReflectiveOperationException
+     *             If the factory method cannot be called.
+     * @throws IllegalArgumentException
+     *             If the parser cannot be stored in a {@link ParserSpec}.
+     */
+    public static File write(String factory, URL[] classPath, File directory)
+            throws IOException, ReflectiveOperationException {
+        byte[] bytes = toBytes(factory, classPath);
+        File file = new File(directory, resourceName(factory));
+        BuildTools.writeOutput(file, bytes);
+        return file;
+    }
+
+    static ArgumentParser newParser(Class<?> factoryClass,
+            String factoryMethod) {
+        ArgumentParser parser = load(factoryClass, factoryMethod);
+        if (parser != null) {
+            return parser;
+        }
+        try {
+            return BuildTools.newParser(factoryClass, factoryMethod);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(String.format(
+                    TextHelper.LOCALE_ROOT, "cannot call factory method %s#%s",
+                    factoryClass.getName(), factoryMethod), e);
+        }
+    }
+
+    /**
+     * Loads the precompiled parser from its resource, or returns {@code null}
+     * if there is none for the current definition.
+     */
+    static ArgumentParser load(Class<?> factoryClass, String factoryMethod) {
+        byte[] bytes;
+        try (InputStream in = factoryClass.getResourceAsStream(
+                "/" + resourceName(factoryClass, factoryMethod))) {
+            if (in == null) {
+                return null;
+            }
+            bytes = ParserSpec.readAll(in);
+        } catch (IOException e) {
+            return null;
+        }
+        return load(factoryClass, factoryMethod, bytes);
+    }
+
+    static ArgumentParser load(Class<?> factoryClass, String factoryMethod,
+            byte[] bytes) {
+        try {
+            DataInputStream in = new DataInputStream(
+                    new ByteArrayInputStream(bytes));
+            for (byte b : MAGIC) {
+                if (in.readByte() != b) {
+                    return null;
+                }
+            }
+            if (in.readInt() != VERSION) {
+                return null;
+            }
+            int numClasses = in.readInt();
+            if (numClasses < 0 || numClasses > in.available()) {
+                return null;
+            }
+            List<String> classNames = new ArrayList<>(numClasses);
+            for (int i = 0; i < numClasses; ++i) {
+                classNames.add(in.readUTF());
+            }
+            if (in.readLong() != definitionHash(factoryClass.getClassLoader(),
+                    factoryClass.getName() + "#" + factoryMethod,
+                    classNames)) {
+                return null;
+            }
+            int length = in.readInt();
+            if (length < 0 || length > in.available()) {
+                return null;
+            }
+            byte[] spec = new byte[length];
+            in.readFully(spec);
+            ArgumentParserImpl parser = (ArgumentParserImpl) ParserSpec
+                    .read(spec, factoryClass.getClassLoader());
+            parser.readPrecompiledText(in);
+            return parser;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the CRC-32 of the factory method, the names and class files of
+     * the classes loaded while it ran and the version and build time of
+     * argparse4j, or -1 if a class file cannot be read, e.g. in a native
+     * image. The CRC is cheap to compute at startup, and the hash only has to
+     * detect stale resources, not tampering.
+     */
+    private static long definitionHash(ClassLoader loader, String factory,
+            List<String> classNames) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(factory.getBytes(StandardCharsets.UTF_8));
+        for (String name : classNames) {
+            crc.update(name.getBytes(StandardCharsets.UTF_8));
+            try (InputStream in = loader.getResourceAsStream(
+                    name.replace('.', '/') + ".class")) {
+                if (in == null) {
+                    return -1;
+                }
+                crc.update(ParserSpec.readAll(in));
+            }
+        }
+        try (InputStream in = PrecompiledParser.class
+                .getResourceAsStream("version.txt")) {
+            if (in != null) {
+                crc.update(ParserSpec.readAll(in));
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Loads the classes of the application from its class path rather than
+     * through its parent, and records the names of the classes it defines,
+     * which are the ones loaded while the factory method runs. The classes of
+     * argparse4j itself, and of the JDK, are loaded through the parent, so
+     * that the parser is an instance of the classes which write it.
+     */
+    private static final class RecordingClassLoader extends URLClassLoader {
+
+        private final Set<String> definedClasses = new TreeSet<>();
+
+        RecordingClassLoader(URL[] classPath, ClassLoader parent) {
+            super(classPath, parent);
+        }
+
+        /**
+         * Returns the names of the classes defined so far, in sorted order.
+         */
+        synchronized List<String> getDefinedClasses() {
+            return new ArrayList<>(definedClasses);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve)
+                throws ClassNotFoundException {
+            // Not registered as parallel capable, so this locks the loader.
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if (c == null && !name.startsWith("java.")
+                        && !isArgparse4jClass(name)) {
+                    try {
+                        c = findClass(name);
+                        definedClasses.add(name);
+                    } catch (ClassNotFoundException e) {
+                        // Not in the class path, e.g. a class of the JDK
+                    }
+                }
+                if (c == null) {
+                    return super.loadClass(name, resolve);
+                }
+                if (resolve) {
+                    resolveClass(c);
+                }
+                return c;
+            }
+        }
+
+        private boolean isArgparse4jClass(String name) {
+            if (!name.startsWith("net.sourceforge.argparse4j.")) {
+                return false;
+            }
+            CodeSource own = PrecompiledParser.class.getProtectionDomain()
+                    .getCodeSource();
+            try {
+                return Objects.equals(own, getParent().loadClass(name)
+                        .getProtectionDomain().getCodeSource());
+            } catch (ClassNotFoundException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public URL getResource(String name) {
+            // Class files are hashed as they were loaded.
+            URL url = findResource(name);
+            return url != null ? url : super.getResource(name);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package net.sourceforge.argparse4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.internal.ArgumentParserImpl;
+import net.sourceforge.argparse4j.internal.ShellCompletionWriter;
+
+/**
+ * <p>
+ * Generates bash, zsh and fish completion scripts for a parser.
+ * </p>
+ * <p>
+ * A script contains the flags, sub-commands and their aliases of the parser
+ * and all of its sub-commands, the values of choices given as a collection or
+ * an enum type, and whether a value is a file or a directory, as given by
+ * {@link net.sourceforge.argparse4j.impl.type.FileArgumentType}. These are
+ * completed by the shell alone, without starting the JVM. Only the values of
+ * a {@link net.sourceforge.argparse4j.impl.choice.DynamicArgumentChoice} are
+ * completed by running the application, which must then call
+ * {@link #complete(ArgumentParser)} before parsing:
+ * </p>
+ *
+ * <pre>
+ * public static void main(String[] args) {
+ *     ArgumentParser parser = newParser();
+ *     if (ShellCompletion.complete(parser)) {
+ *         return;
+ *     }
+ *     ...
+ * }
+ * </pre>
+ * <p>
+ * Arguments and sub-commands whose help is suppressed are not offered.
+ * Writing a script defines all sub-commands, including the ones defined
+ * lazily. {@link #main(String[])} writes the script of a parser returned by a
+ * static method, e.g. at build time:
+ * </p>
+ *
+ * <pre>
+ * java -cp target/classes:argparse4j.jar net.sourceforge.argparse4j.ShellCompletion \
+ *     --shell bash -o target/prog.bash com.example.Main#newParser
+ * </pre>
+ *
+ * @since 0.9.1
+ */
+public final class ShellCompletion {
+
+    /**
+     * The shells completion scripts are generated for.
+     */
+    public enum Shell {
+        BASH, ZSH, FISH
+    }
+
+    private ShellCompletion() {
+    }
+
+    /**
+     * Writes the completion script of the parser returned by a static
+     * method, as shown above.
+     *
+     * @param args
+     *            The command line arguments. Run with {@code -h} for their
+     *            description.
+     * @throws IOException
+     *             If the output cannot be written.
+     * @throws ReflectiveOperationException
+     *             If the factory method cannot be called.
+     */
+    public static void main(String[] args) throws IOException,
+            ReflectiveOperationException {
+        ArgumentParser parser = ArgumentParsers.newFor("ShellCompletion")
+                .build().description("Writes the shell completion script of "
+                        + "an application using argparse4j.");
+        parser.addArgument("-s", "--shell")
+                .type(Arguments.caseInsensitiveEnumType(Shell.class))
+                .setDefault(Shell.BASH).help("shell to write the script for");
+        parser.addArgument("-o", "--output").type(File.class)
+                .help("file to write, instead of standard output");
+        parser.addArgument("factory").metavar("CLASS#METHOD").help(
+                "static method without parameters returning the parser");
+        Namespace ns;
+        try {
+            ns = parser.parseArgs(args);
+        } catch (ArgumentParserException e) {
+            parser.handleError(e);
+            System.exit(1);
+            return;
+        }
+        ArgumentParser applicationParser = BuildTools.newParser(
+                ns.getString("factory"),
+                Thread.currentThread().getContextClassLoader());
+        BuildTools.writeOutput(ns.<File> get("output"),
+                script(applicationParser, ns.<Shell> get("shell"))
+                        .getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the completion script of {@code parser} for {@code shell}. The
+     * command completed is the program name of the parser.
+     *
+     * @param parser
+     *            The main parser, created by {@link ArgumentParsers}.
+     * @param shell
+     *            The shell.
+     * @return The script.
+     * @throws IllegalArgumentException
+     *             If {@code parser} is not a main parser created by
+     *             {@link ArgumentParsers}.
+     */
+    public static String script(ArgumentParser parser, Shell shell) {
+        ArgumentParserImpl impl = impl(parser);
+        switch (shell) {
+            case ZSH:
+                return ShellCompletionWriter.zsh(impl);
+            case FISH:
+                return ShellCompletionWriter.fish(impl);
+            default:
+                return ShellCompletionWriter.bash(impl);
+        }
+    }
+
+    /**
+     * <p>
+     * Completes the value of a dynamic choice if the application was run by
+     * a completion script to do so.
+     * </p>
+     * <p>
+     * If the environment variable {@code ARGPARSE4J_COMPLETE} is set, the
+     * values of the argument it names which start with
+     * {@code ARGPARSE4J_COMPLETE_PREFIX} are printed to standard output, one
+     * per line, and {@code true} is returned. The application should then
+     * exit without parsing the command line. Otherwise nothing is done.
+     * </p>
+     *
+     * @param parser
+     *            The main parser, created by {@link ArgumentParsers}.
+     * @return {@code true} if the values were printed.
+     * @throws IllegalArgumentException
+     *             If {@code parser} is not a main parser created by
+     *             {@link ArgumentParsers}.
+     */
+    public static boolean complete(ArgumentParser parser) {
+        String key = System.getenv(ShellCompletionWriter.REQUEST_ENV);
+        if (key == null) {
+            return false;
+        }
+        String prefix = System.getenv(ShellCompletionWriter.PREFIX_ENV);
+        complete(parser, key, prefix == null ? "" : prefix, System.out);
+        return true;
+    }
+
+    static void complete(ArgumentParser parser, String key, String prefix,
+            PrintStream out) {
+        for (String value : ShellCompletionWriter.complete(impl(parser), key,
+                prefix)) {
+            out.println(value);
+        }
+        out.flush();
+    }
+
+    private static ArgumentParserImpl impl(ArgumentParser parser) {
+        if (!(parser instanceof ArgumentParserImpl)) {
+            throw new IllegalArgumentException(
+                    "parser must be created by ArgumentParsers");
+        }
+        return (ArgumentParserImpl) parser;
+    }
+}
@@ -26,12 +26,17 @@ package net.sourceforge.argparse4j.ext.java7;
 import java.util.Locale;
 import java.util.ResourceBundle;
 
+import net.sourceforge.argparse4j.helper.ResourceBundleCache;
+
 class Java7ExtensionResourceBundle {
+    private static final ResourceBundleCache bundles_ = new ResourceBundleCache(
+            locale -> ResourceBundle.getBundle(
+                    "net/sourceforge/argparse4j/ext/java7/Java7Extension", locale));
+
     private Java7ExtensionResourceBundle() {
     }
     
     static ResourceBundle get(Locale locale) {
-        return ResourceBundle.getBundle(
-                "net/sourceforge/argparse4j/ext/java7/Java7Extension", locale);
+        return bundles_.get(locale);
     }
 }
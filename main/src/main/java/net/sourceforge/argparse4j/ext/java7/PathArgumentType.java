@@ -29,8 +29,6 @@ import java.nio.file.FileSystems;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 
-import net.sourceforge.argparse4j.helper.MessageLocalization;
-import net.sourceforge.argparse4j.helper.TextHelper;
 import net.sourceforge.argparse4j.impl.type.FileVerification;
 import net.sourceforge.argparse4j.inf.Argument;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
@@ -223,11 +221,8 @@ public class PathArgumentType implements ArgumentType<Path> {
         } catch (InvalidPathException e) {
             String localizedTypeName = Java7ExtensionResourceBundle
                     .get(parser.getConfig().getLocale()).getString("path");
-            throw new ArgumentParserException(
-                    String.format(TextHelper.LOCALE_ROOT, MessageLocalization
-                                    .localize(parser.getConfig().getResourceBundle(),
-                                            "couldNotConvertToError"), value,
-                            localizedTypeName), e.getCause(), parser, arg);
+            throw new ArgumentParserException(e.getCause(), parser, arg,
+                    "couldNotConvertToError", value, localizedTypeName);
 
         }
 
@@ -25,4 +25,24 @@ public class MessageLocalization {
         return resourceBundle.containsKey(key) ? resourceBundle.getString(key)
                 : unlocalizedMessage;
     }
+
+    /**
+     * Returns message {@code key} of {@code resourceBundle} formatted with
+     * {@code args}, as {@code String.format(Locale.ROOT, message, args)} does.
+     * The message is parsed once per bundle and key, see
+     * {@link MessageTemplate}.
+     *
+     * @param resourceBundle
+     *            The resource bundle.
+     * @param key
+     *            The key of the message.
+     * @param args
+     *            The arguments of the message.
+     * @return The formatted message.
+     * @since 0.9.1
+     */
+    public static String format(ResourceBundle resourceBundle, String key,
+            Object... args) {
+        return MessageTemplate.get(resourceBundle, key).format(args);
+    }
 }
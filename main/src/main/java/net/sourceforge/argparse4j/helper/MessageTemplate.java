@@ -0,0 +1,253 @@
+package net.sourceforge.argparse4j.helper;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Formattable;
+import java.util.List;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * A message pattern such as {@code "invalid choice: '%s' (choose from %s)"},
+ * parsed once and rendered by appending the arguments directly.
+ * </p>
+ * <p>
+ * The patterns of the argparse4j resource bundles only use {@code %s},
+ * {@code %d}, {@code %n} and {@code %%}, optionally with an explicit argument
+ * index such as {@code %2$s}. Rendering these gives the same result as
+ * {@code String.format(Locale.ROOT, pattern, args)}. Patterns using any other
+ * conversion, flag or width, as well as arguments which need special
+ * treatment, e.g. {@link Formattable} objects or non-integral {@code %d}
+ * arguments, are handed over to {@link String#format(java.util.Locale, String, Object...)}.
+ * </p>
+ * <p>
+ * <strong>The application code should not use this class directly.</strong>
+ * </p>
+ *
+ * @since 0.9.1
+ */
+public final class MessageTemplate {
+
+    private static final Map<ResourceBundle, ConcurrentMap<String, MessageTemplate>> templates_ = Collections
+            .synchronizedMap(new WeakHashMap<ResourceBundle, ConcurrentMap<String, MessageTemplate>>());
+
+    private final String pattern_;
+    /**
+     * literals_[i] is the text before the i-th specifier; the last element is
+     * the text after the last specifier. {@code null} if the pattern is
+     * rendered by String.format().
+     */
+    private final String[] literals_;
+    private final int[] argIndexes_;
+    private final boolean[] integral_;
+    private final int literalLength_;
+
+    private MessageTemplate(String pattern, String[] literals,
+            int[] argIndexes, boolean[] integral) {
+        pattern_ = pattern;
+        literals_ = literals;
+        argIndexes_ = argIndexes;
+        integral_ = integral;
+        int len = 0;
+        if (literals != null) {
+            for (String literal : literals) {
+                len += literal.length();
+            }
+        }
+        literalLength_ = len;
+    }
+
+    /**
+     * Returns the template for message {@code key} of {@code bundle}. The
+     * template is parsed on the first call for the bundle and key, and shared
+     * afterwards.
+     *
+     * @param bundle
+     *            The resource bundle.
+     * @param key
+     *            The key of the message.
+     * @return The template.
+     * @throws java.util.MissingResourceException
+     *             If {@code bundle} has no message {@code key}.
+     */
+    public static MessageTemplate get(ResourceBundle bundle, String key) {
+        ConcurrentMap<String, MessageTemplate> templates = templates_
+                .get(bundle);
+        if (templates == null) {
+            synchronized (templates_) {
+                templates = templates_.get(bundle);
+                if (templates == null) {
+                    templates = new ConcurrentHashMap<>();
+                    templates_.put(bundle, templates);
+                }
+            }
+        }
+        MessageTemplate template = templates.get(key);
+        if (template == null) {
+            template = compile(bundle.getString(key));
+            templates.putIfAbsent(key, template);
+        }
+        return template;
+    }
+
+    /**
+     * Parses {@code pattern}.
+     *
+     * @param pattern
+     *            The pattern, in the syntax of {@link java.util.Formatter}.
+     * @return The template.
+     */
+    public static MessageTemplate compile(String pattern) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> argIndexes = new ArrayList<>();
+        List<Boolean> integral = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int ordinaryIndex = 0;
+        int len = pattern.length();
+        for (int i = 0; i < len; ++i) {
+            char c = pattern.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            }
+            if (++i == len) {
+                return new MessageTemplate(pattern, null, null, null);
+            }
+            c = pattern.charAt(i);
+            if (c == '%') {
+                literal.append('%');
+                continue;
+            } else if (c == 'n') {
+                literal.append(TextHelper.LINESEP);
+                continue;
+            }
+            int argIndex;
+            int digitsEnd = i;
+            while (digitsEnd < len && pattern.charAt(digitsEnd) >= '0'
+                    && pattern.charAt(digitsEnd) <= '9') {
+                ++digitsEnd;
+            }
+            if (digitsEnd > i && digitsEnd < len
+                    && pattern.charAt(digitsEnd) == '$'
+                    && pattern.charAt(i) != '0' && digitsEnd - i < 9) {
+                argIndex = Integer.parseInt(pattern.substring(i, digitsEnd)) - 1;
+                i = digitsEnd + 1;
+                if (i == len) {
+                    return new MessageTemplate(pattern, null, null, null);
+                }
+                c = pattern.charAt(i);
+            } else {
+                argIndex = ordinaryIndex++;
+            }
+            if (c != 's' && c != 'd') {
+                // Flags, width, precision or other conversions.
+                return new MessageTemplate(pattern, null, null, null);
+            }
+            literals.add(literal.toString());
+            literal.setLength(0);
+            argIndexes.add(argIndex);
+            integral.add(c == 'd');
+        }
+        literals.add(literal.toString());
+        int n = argIndexes.size();
+        int[] indexes = new int[n];
+        boolean[] ints = new boolean[n];
+        for (int i = 0; i < n; ++i) {
+            indexes[i] = argIndexes.get(i);
+            ints[i] = integral.get(i);
+        }
+        return new MessageTemplate(pattern,
+                literals.toArray(new String[literals.size()]), indexes, ints);
+    }
+
+    /**
+     * Renders this template with {@code args}.
+     *
+     * @param args
+     *            The arguments.
+     * @return The message.
+     */
+    public String format(Object... args) {
+        if (!canAppend(args)) {
+            return String.format(TextHelper.LOCALE_ROOT, pattern_, args);
+        }
+        if (argIndexes_.length == 0) {
+            return literals_[0];
+        }
+        StringBuilder sb = new StringBuilder(literalLength_ + 16
+                * argIndexes_.length);
+        append(sb, args);
+        return sb.toString();
+    }
+
+    /**
+     * Appends this template rendered with {@code args} to {@code sb}.
+     *
+     * @param sb
+     *            The buffer to append to.
+     * @param args
+     *            The arguments.
+     * @return {@code sb}
+     */
+    public StringBuilder appendTo(StringBuilder sb, Object... args) {
+        if (!canAppend(args)) {
+            return sb.append(String.format(TextHelper.LOCALE_ROOT, pattern_,
+                    args));
+        }
+        append(sb, args);
+        return sb;
+    }
+
+    private void append(StringBuilder sb, Object[] args) {
+        int n = argIndexes_.length;
+        for (int i = 0; i < n; ++i) {
+            sb.append(literals_[i]);
+            Object arg = args[argIndexes_[i]];
+            if (arg instanceof String) {
+                sb.append((String) arg);
+            } else {
+                sb.append(arg);
+            }
+        }
+        sb.append(literals_[n]);
+    }
+
+    /**
+     * Returns {@code true} if rendering with {@code args} by appending gives
+     * the same result as {@link String#format(java.util.Locale, String, Object...)}.
+     * Otherwise String.format() is used, which also raises the same exception
+     * for missing or mismatched arguments.
+     */
+    private boolean canAppend(Object[] args) {
+        if (literals_ == null) {
+            return false;
+        }
+        for (int i = 0, n = argIndexes_.length; i < n; ++i) {
+            int argIndex = argIndexes_[i];
+            if (args == null || argIndex >= args.length) {
+                return false;
+            }
+            Object arg = args[argIndex];
+            if (integral_[i]) {
+                if (!(arg == null || arg instanceof Integer
+                        || arg instanceof Long || arg instanceof Short
+                        || arg instanceof Byte || arg instanceof BigInteger)) {
+                    return false;
+                }
+            } else if (arg instanceof Formattable) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return pattern_;
+    }
+}
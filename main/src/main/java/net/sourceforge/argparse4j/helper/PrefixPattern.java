@@ -23,7 +23,6 @@
  */
 package net.sourceforge.argparse4j.helper;
 
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -31,23 +30,32 @@ import java.util.regex.Pattern;
  * This object performs operations related to prefixChars of option flags.
  * </p>
  * <p>
+ * The prefix of a flag is the longest run of prefixChars at its beginning.
+ * It is found by scanning the characters, so that parsing does not need
+ * {@link java.util.regex}.
+ * </p>
+ * <p>
  * <strong>The application code should not use this class directly.</strong>
  * </p>
  */
 public class PrefixPattern {
 
     private final String prefixChars_;
-    private final Pattern prefixPattern_;
+    private volatile Pattern prefixPattern_;
 
     /**
      * Creates this object using given {@code prefixChars}.
      * 
      * @param prefixChars
      *            The prefixChars
+     * @throws IllegalArgumentException
+     *             If {@code prefixChars} is empty.
      */
     public PrefixPattern(String prefixChars) {
+        if (prefixChars.isEmpty()) {
+            throw new IllegalArgumentException("prefixChars cannot be empty");
+        }
         prefixChars_ = prefixChars;
-        prefixPattern_ = compilePrefixPattern(prefixChars);
     }
 
     /**
@@ -58,8 +66,8 @@ public class PrefixPattern {
      * @return {@code true} or {@code false}
      */
     public boolean match(String str) {
-        Matcher m = prefixPattern_.matcher(str);
-        return m.find() && !m.group(0).equals(str);
+        int len = prefixLength(str);
+        return len > 0 && len < str.length();
     }
 
     /**
@@ -71,8 +79,8 @@ public class PrefixPattern {
      * @return {@code true} or {@code false}
      */
     public boolean matchLongFlag(String str) {
-        Matcher m = prefixPattern_.matcher(str);
-        return m.find() && !m.group(0).equals(str) && m.group(0).length() >= 2;
+        int len = prefixLength(str);
+        return len >= 2 && len < str.length();
     }
 
     /**
@@ -84,8 +92,7 @@ public class PrefixPattern {
      * @return {@code true} or {@code false}
      */
     public boolean matchShortFlag(String str) {
-        Matcher m = prefixPattern_.matcher(str);
-        return m.find() && !m.group(0).equals(str) && m.group(0).length() == 1;
+        return prefixLength(str) == 1 && str.length() > 1;
     }
 
     /**
@@ -101,9 +108,9 @@ public class PrefixPattern {
      * @return The string after prefixChars are removed from {@code str}
      */
     public String removePrefix(String str) {
-        Matcher m = prefixPattern_.matcher(str);
-        if (m.find() && !m.group(0).equals(str)) {
-            return m.replaceFirst("");
+        int len = prefixLength(str);
+        if (len > 0 && len < str.length()) {
+            return str.substring(len);
         } else {
             return str;
         }
@@ -119,17 +126,33 @@ public class PrefixPattern {
     }
 
     /**
-     * Returns compiled regular expression pattern of prefixChars.
+     * Returns compiled regular expression pattern of prefixChars. The pattern
+     * is compiled on the first call.
      * 
      * @return The compiled regular expression pattern of prefixChars.
      */
     public Pattern getPrefixPattern() {
-        return prefixPattern_;
+        Pattern pattern = prefixPattern_;
+        if (pattern == null) {
+            pattern = Pattern.compile("^[" + Pattern.quote(prefixChars_)
+                    + "]+");
+            prefixPattern_ = pattern;
+        }
+        return pattern;
     }
 
-    private static Pattern compilePrefixPattern(String prefixChars) {
-        String qs = Pattern.quote(prefixChars);
-        return Pattern.compile("^[" + qs + "]+");
+    /**
+     * Returns the length of the prefix of {@code str}, which is 0 if
+     * {@code str} does not start with one of prefixChars.
+     */
+    private int prefixLength(String str) {
+        int i = 0;
+        for (int len = str.length(); i < len; ++i) {
+            if (prefixChars_.indexOf(str.charAt(i)) < 0) {
+                break;
+            }
+        }
+        return i;
     }
 
 }
@@ -24,7 +24,11 @@
 package net.sourceforge.argparse4j.helper;
 
 import java.lang.reflect.Array;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+
+import net.sourceforge.argparse4j.inf.ArrayConverter;
 
 /**
  * <p>
@@ -63,17 +67,165 @@ public final class ReflectHelper {
      * @return The converted object
      */
     public static Object list2Array(Class<?> targetType, Object src) {
-        if (targetType.isArray() && src instanceof List) {
-            List<?> list = (List<?>) src;
-            int len = list.size();
-            Object dest = Array.newInstance(targetType.getComponentType(), len);
-            for (int i = 0; i < len; ++i) {
-                Array.set(dest, i,
-                        list2Array(targetType.getComponentType(), list.get(i)));
+        return list2Array(targetType, src,
+                Collections.<Class<?>, ArrayConverter<?>> emptyMap());
+    }
+
+    /**
+     * <p>
+     * Convert {@code src} to object of type {@code targetType} recursively,
+     * using {@code converters} for the array types they are registered for.
+     * </p>
+     * <p>
+     * This behaves like {@link #list2Array(Class, Object)}, but arrays of
+     * primitive types and of non-array reference types are filled in a plain
+     * loop, without a reflective call per element. Elements whose type does
+     * not match a primitive component type exactly, e.g. {@link Integer}
+     * elements for a {@code long[]}, are still stored with
+     * {@link Array#set(Object, int, Object)}, so that widening conversions
+     * and errors are the same.
+     * </p>
+     *
+     * @param targetType
+     *            The target type
+     * @param src
+     *            The src object
+     * @param converters
+     *            The converters keyed by the array type they produce
+     * @return The converted object
+     * @since 0.9.1
+     */
+    public static Object list2Array(Class<?> targetType, Object src,
+            Map<Class<?>, ArrayConverter<?>> converters) {
+        if (!targetType.isArray() || !(src instanceof List)) {
+            return src;
+        }
+        List<?> list = (List<?>) src;
+        ArrayConverter<?> converter = converters.get(targetType);
+        if (converter != null) {
+            return converter.convert(list);
+        }
+        Class<?> componentType = targetType.getComponentType();
+        if (componentType.isPrimitive()) {
+            return primitiveArray(componentType, list);
+        }
+        int len = list.size();
+        if (componentType == String.class) {
+            return toArray(list, new String[len]);
+        }
+        if (!componentType.isArray()) {
+            return toArray(list, (Object[]) Array.newInstance(componentType,
+                    len));
+        }
+        Object[] dest = (Object[]) Array.newInstance(componentType, len);
+        int i = 0;
+        for (Object e : list) {
+            Array.set(dest, i++, list2Array(componentType, e, converters));
+        }
+        return dest;
+    }
+
+    private static Object[] toArray(List<?> list, Object[] dest) {
+        try {
+            return list.toArray(dest);
+        } catch (ArrayStoreException e) {
+            // Array.set() reports this as IllegalArgumentException.
+            throw new IllegalArgumentException("array element type mismatch",
+                    e);
+        }
+    }
+
+    private static Object primitiveArray(Class<?> componentType, List<?> list) {
+        int len = list.size();
+        int i = 0;
+        if (componentType == int.class) {
+            int[] dest = new int[len];
+            for (Object e : list) {
+                if (e instanceof Integer) {
+                    dest[i] = (Integer) e;
+                } else {
+                    Array.set(dest, i, e);
+                }
+                ++i;
+            }
+            return dest;
+        } else if (componentType == long.class) {
+            long[] dest = new long[len];
+            for (Object e : list) {
+                if (e instanceof Long) {
+                    dest[i] = (Long) e;
+                } else {
+                    Array.set(dest, i, e);
+                }
+                ++i;
+            }
+            return dest;
+        } else if (componentType == double.class) {
+            double[] dest = new double[len];
+            for (Object e : list) {
+                if (e instanceof Double) {
+                    dest[i] = (Double) e;
+                } else {
+                    Array.set(dest, i, e);
+                }
+                ++i;
+            }
+            return dest;
+        } else if (componentType == boolean.class) {
+            boolean[] dest = new boolean[len];
+            for (Object e : list) {
+                if (e instanceof Boolean) {
+                    dest[i] = (Boolean) e;
+                } else {
+                    Array.set(dest, i, e);
+                }
+                ++i;
+            }
+            return dest;
+        } else if (componentType == float.class) {
+            float[] dest = new float[len];
+            for (Object e : list) {
+                if (e instanceof Float) {
+                    dest[i] = (Float) e;
+                } else {
+                    Array.set(dest, i, e);
+                }
+                ++i;
+            }
+            return dest;
+        } else if (componentType == short.class) {
+            short[] dest = new short[len];
+            for (Object e : list) {
+                if (e instanceof Short) {
+                    dest[i] = (Short) e;
+                } else {
+                    Array.set(dest, i, e);
+                }
+                ++i;
+            }
+            return dest;
+        } else if (componentType == byte.class) {
+            byte[] dest = new byte[len];
+            for (Object e : list) {
+                if (e instanceof Byte) {
+                    dest[i] = (Byte) e;
+                } else {
+                    Array.set(dest, i, e);
+                }
+                ++i;
             }
             return dest;
         } else {
-            return src;
+            char[] dest = new char[len];
+            for (Object e : list) {
+                if (e instanceof Character) {
+                    dest[i] = (Character) e;
+                } else {
+                    Array.set(dest, i, e);
+                }
+                ++i;
+            }
+            return dest;
         }
     }
 }
@@ -0,0 +1,63 @@
+package net.sourceforge.argparse4j.helper;
+
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * Process-wide cache of one family of resource bundles, keyed by locale.
+ * </p>
+ * <p>
+ * Each bundle is loaded the first time it is asked for, by the function given
+ * to the constructor, and shared afterwards. The function is supplied by the
+ * owner of the bundle, so that {@link ResourceBundle#getBundle(String, Locale)}
+ * is called from the module containing the bundle. Keep instances in static
+ * fields.
+ * </p>
+ * <p>
+ * <strong>The application code should not use this class directly.</strong>
+ * </p>
+ *
+ * @since 0.9.1
+ */
+public final class ResourceBundleCache {
+
+    private final Function<Locale, ResourceBundle> loader_;
+    private final ConcurrentMap<Locale, ResourceBundle> bundles_ = new ConcurrentHashMap<>();
+
+    /**
+     * Creates ResourceBundleCache which loads bundles with {@code loader}.
+     *
+     * @param loader
+     *            Loads the bundle of a locale, typically by calling
+     *            {@link ResourceBundle#getBundle(String, Locale)}.
+     */
+    public ResourceBundleCache(Function<Locale, ResourceBundle> loader) {
+        loader_ = loader;
+    }
+
+    /**
+     * Returns the bundle of {@code locale}, loading it if this is the first
+     * request for {@code locale}.
+     *
+     * @param locale
+     *            The locale.
+     * @return The resource bundle.
+     * @throws java.util.MissingResourceException
+     *             If the bundle cannot be found.
+     */
+    public ResourceBundle get(Locale locale) {
+        ResourceBundle bundle = bundles_.get(locale);
+        if (bundle == null) {
+            bundle = loader_.apply(locale);
+            ResourceBundle prev = bundles_.putIfAbsent(locale, bundle);
+            if (prev != null) {
+                bundle = prev;
+            }
+        }
+        return bundle;
+    }
+}
@@ -92,37 +92,79 @@ public final class TextHelper {
         return concat(a, offset, sep, "", "");
     }
 
+    /**
+     * Line break iterator of the current thread, reused by
+     * {@link #wrap(TextWidthCounter, String, int, int, String, String)}.
+     * BreakIterator is not thread safe and is expensive to create.
+     */
+    private static final ThreadLocal<LineBreaker> lineBreaker_ = new ThreadLocal<>();
+
+    private static final class LineBreaker {
+        final Locale locale;
+        final BreakIterator iterator;
+
+        LineBreaker(Locale locale) {
+            this.locale = locale;
+            iterator = BreakIterator.getLineInstance(locale);
+        }
+    }
+
+    private static BreakIterator lineBreakIterator() {
+        Locale locale = Locale.getDefault();
+        LineBreaker breaker = lineBreaker_.get();
+        if (breaker == null || !breaker.locale.equals(locale)) {
+            breaker = new LineBreaker(locale);
+            lineBreaker_.set(breaker);
+        }
+        return breaker.iterator;
+    }
+
     public static String wrap(TextWidthCounter textWidthCounter, String s,
             int width, int initialOffset, String initialIndent,
             String subsequentIndent) {
-        BreakIterator iter = BreakIterator.getLineInstance();
+        BreakIterator iter = lineBreakIterator();
         iter.setText(s);
-        StringBuilder res = new StringBuilder(initialIndent);
-        StringBuilder sb = new StringBuilder();
+        // Segments are appended to res directly. lineStart is where the
+        // current line starts in res, so that it can be justified in place
+        // when the next segment does not fit.
+        StringBuilder res = new StringBuilder(s.length() + initialIndent.length()
+                + 16);
+        res.append(initialIndent);
+        int lineStart = res.length();
         int currentWidth = initialOffset + initialIndent.length();
+        boolean narrow = textWidthCounter.getClass() == ASCIITextWidthCounter.class;
+        CJKTextWidthCounter cjk = textWidthCounter.getClass() == CJKTextWidthCounter.class
+                ? (CJKTextWidthCounter) textWidthCounter : null;
         for (int start = iter.first(), end = iter.next(); end != BreakIterator.DONE; start = end, end = iter
                 .next()) {
-            String sub = s.substring(start, end);
-            int subWidth = textWidthCounter.width(sub);
+            int subWidth;
+            if (narrow) {
+                subWidth = end - start;
+            } else if (cjk != null) {
+                subWidth = cjk.width(s, start, end);
+            } else {
+                subWidth = textWidthCounter.width(s.substring(start, end));
+            }
             currentWidth += subWidth;
             if (currentWidth > width) {
-                res.append(adjustSpace(sb, width, currentWidth - subWidth))
-                        .append(TextHelper.LINESEP).append(subsequentIndent);
-                sb.delete(0, sb.length());
+                justify(res, lineStart, width, currentWidth - subWidth);
+                res.append(TextHelper.LINESEP).append(subsequentIndent);
+                lineStart = res.length();
                 currentWidth = subsequentIndent.length() + subWidth;
             }
-            sb.append(sub);
+            res.append(s, start, end);
             // What if the application specifies text with line separator \n,
             // while TextHelper.LINESEP is not \n (e.g., \r\n)? Historically, we
             // just checked only \n here. For backward compatibility, We also
-            // check that line ends with \n too.
-            if (sub.endsWith(TextHelper.LINESEP) || sub.endsWith("\n")) {
-                res.append(sb).append(subsequentIndent);
-                sb.delete(0, sb.length());
+            // check that line ends with \n too. Both cases end with \n.
+            if (s.charAt(end - 1) == '\n') {
+                res.append(subsequentIndent);
+                lineStart = res.length();
                 currentWidth = subsequentIndent.length();
             }
         }
-        res.append(sb);
+        // Do not keep a reference to s in the cached iterator.
+        iter.setText("");
         return res.toString();
     }
 
@@ -142,25 +184,32 @@ public final class TextHelper {
      */
     public static StringBuilder adjustSpace(StringBuilder sb, int width,
             int curWidth) {
-        int i, len = sb.length();
-        int origLen = len;
-        i = 0;
-        while (i < len && sb.charAt(i) == ' ') {
-            ++i;
+        justify(sb, 0, width, curWidth);
+        return sb;
+    }
+
+    /**
+     * Does what {@link #adjustSpace(StringBuilder, int, int)} does to the
+     * characters of {@code sb} from {@code from} to its end. The line is
+     * copied once and written back with the white spaces added, so this takes
+     * time linear in the length of the line.
+     */
+    private static void justify(StringBuilder sb, int from, int width,
+            int curWidth) {
+        int end = sb.length();
+        int first = from;
+        while (first < end && sb.charAt(first) == ' ') {
+            ++first;
         }
-        sb.delete(0, i);
-        len = sb.length();
-        i = len - 1;
-        while (i >= 0 && sb.charAt(i) == ' ') {
-            --i;
+        int last = end;
+        while (last > first && sb.charAt(last - 1) == ' ') {
+            --last;
         }
-        sb.delete(i + 1, len);
-        len = sb.length();
-        curWidth -= origLen - len;
+        curWidth -= (first - from) + (end - last);
 
         int numWsBlock = 0;
         boolean cont = false;
-        for (i = 0; i < len; ++i) {
+        for (int i = first; i < last; ++i) {
             if (sb.charAt(i) == ' ') {
                 if (!cont) {
                     cont = true;
@@ -171,7 +220,9 @@ public final class TextHelper {
             }
         }
         if (numWsBlock == 0) {
-            return sb;
+            sb.setLength(last);
+            sb.delete(from, first);
+            return;
         }
         // Distribute needWs white spaces to numWsBlock blocks.
         // Put one more space to the middle of the blocks to look nicer if
@@ -181,24 +232,29 @@ public final class TextHelper {
         int rem = needWs % numWsBlock;
         int remStart = (numWsBlock - rem + 1) / 2;
         int remEnd = remStart + rem;
+        char[] line = new char[last - first];
+        sb.getChars(first, last, line, 0);
+        sb.setLength(from);
+        if (needWs > 0) {
+            sb.ensureCapacity(from + line.length + needWs);
+        }
         cont = false;
         int b = 0;
-        for (i = 0; i < len; ++i) {
-            if (sb.charAt(i) == ' ') {
+        for (char c : line) {
+            if (c == ' ') {
                 if (!cont) {
                     cont = true;
                     int add = eachWs + (remStart <= b && b < remEnd ? 1 : 0);
                     for (int j = 0; j < add; ++j) {
-                        sb.insert(i, ' ');
+                        sb.append(' ');
                     }
-                    len = sb.length();
                     ++b;
                 }
             } else {
                 cont = false;
             }
+            sb.append(c);
         }
-        return sb;
     }
 
     public static void printHelp(PrintWriter writer, String title, String help,
@@ -38,10 +38,15 @@ import net.sourceforge.argparse4j.impl.choice.RangeArgumentChoice;
 import net.sourceforge.argparse4j.impl.type.BooleanArgumentType;
 import net.sourceforge.argparse4j.impl.type.CaseInsensitiveEnumNameArgumentType;
 import net.sourceforge.argparse4j.impl.type.CaseInsensitiveEnumStringArgumentType;
+import net.sourceforge.argparse4j.impl.type.DoubleArgumentType;
+import net.sourceforge.argparse4j.impl.type.DurationArgumentType;
 import net.sourceforge.argparse4j.impl.type.EnumArgumentType;
 import net.sourceforge.argparse4j.impl.type.EnumStringArgumentType;
 import net.sourceforge.argparse4j.impl.type.FileArgumentType;
+import net.sourceforge.argparse4j.impl.type.IntegerArgumentType;
+import net.sourceforge.argparse4j.impl.type.LongArgumentType;
 import net.sourceforge.argparse4j.impl.type.ReflectArgumentType;
+import net.sourceforge.argparse4j.impl.type.SizeArgumentType;
 import net.sourceforge.argparse4j.inf.Argument;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
 import net.sourceforge.argparse4j.inf.FeatureControl;
@@ -382,4 +387,122 @@ public final class Arguments {
             String falseValue) {
         return new BooleanArgumentType(trueValue, falseValue);
     }
+
+    /**
+     * <p>
+     * Returns {@link IntegerArgumentType} accepting any {@code int} value.
+     * </p>
+     * <p>
+     * Read {@link IntegerArgumentType} documentation to know the difference
+     * between the use of {@link IntegerArgumentType} and passing
+     * {@link Integer} class to {@link Argument#type(Class)}.
+     * </p>
+     *
+     * @return The IntegerArgumentType object
+     * @since 0.9.1
+     */
+    public static IntegerArgumentType intType() {
+        return new IntegerArgumentType();
+    }
+
+    /**
+     * <p>
+     * Returns {@link IntegerArgumentType} accepting values in range [
+     * {@code min}, {@code max}], inclusive.
+     * </p>
+     *
+     * @param min
+     *            The lower bound of the range, inclusive.
+     * @param max
+     *            The upper bound of the range, inclusive.
+     * @return The IntegerArgumentType object
+     * @since 0.9.1
+     */
+    public static IntegerArgumentType intType(int min, int max) {
+        return new IntegerArgumentType(min, max);
+    }
+
+    /**
+     * <p>
+     * Returns {@link LongArgumentType} accepting any {@code long} value.
+     * </p>
+     *
+     * @return The LongArgumentType object
+     * @since 0.9.1
+     */
+    public static LongArgumentType longType() {
+        return new LongArgumentType();
+    }
+
+    /**
+     * <p>
+     * Returns {@link LongArgumentType} accepting values in range [{@code min},
+     * {@code max}], inclusive.
+     * </p>
+     *
+     * @param min
+     *            The lower bound of the range, inclusive.
+     * @param max
+     *            The upper bound of the range, inclusive.
+     * @return The LongArgumentType object
+     * @since 0.9.1
+     */
+    public static LongArgumentType longType(long min, long max) {
+        return new LongArgumentType(min, max);
+    }
+
+    /**
+     * <p>
+     * Returns {@link DoubleArgumentType} accepting any {@code double} value.
+     * </p>
+     *
+     * @return The DoubleArgumentType object
+     * @since 0.9.1
+     */
+    public static DoubleArgumentType doubleType() {
+        return new DoubleArgumentType();
+    }
+
+    /**
+     * <p>
+     * Returns {@link DoubleArgumentType} accepting values in range [
+     * {@code min}, {@code max}], inclusive.
+     * </p>
+     *
+     * @param min
+     *            The lower bound of the range, inclusive.
+     * @param max
+     *            The upper bound of the range, inclusive.
+     * @return The DoubleArgumentType object
+     * @since 0.9.1
+     */
+    public static DoubleArgumentType doubleType(double min, double max) {
+        return new DoubleArgumentType(min, max);
+    }
+
+    /**
+     * <p>
+     * Returns {@link SizeArgumentType}, which converts sizes such as
+     * {@code 512MiB} to the number of bytes.
+     * </p>
+     *
+     * @return The SizeArgumentType object
+     * @since 0.9.1
+     */
+    public static SizeArgumentType sizeType() {
+        return new SizeArgumentType();
+    }
+
+    /**
+     * <p>
+     * Returns {@link DurationArgumentType}, which converts durations such as
+     * {@code 1h30m} to {@link java.time.Duration}.
+     * </p>
+     *
+     * @return The DurationArgumentType object
+     * @since 0.9.1
+     */
+    public static DurationArgumentType durationType() {
+        return new DurationArgumentType();
+    }
 }
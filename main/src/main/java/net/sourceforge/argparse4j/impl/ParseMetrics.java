@@ -0,0 +1,263 @@
+package net.sourceforge.argparse4j.impl;
+
+import java.util.Formatter;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.sourceforge.argparse4j.helper.TextHelper;
+import net.sourceforge.argparse4j.inf.Argument;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.ParseListener;
+
+/**
+ * <p>
+ * A {@link ParseListener} which counts parses and the phases of parsing, and
+ * sums up their durations, in total and per sub-command.
+ * </p>
+ * <p>
+ * An instance can be shared by any number of parsers and threads. The
+ * counters are updated without locking, and reading them while parses are
+ * running gives a consistent value for each counter, but not necessarily
+ * across counters. {@link #toString()} formats all counters as a table.
+ * </p>
+ *
+ * <pre>
+ * ParseMetrics metrics = new ParseMetrics();
+ * ArgumentParser parser = ArgumentParsers.newFor("prog")
+ *         .parseListener(metrics).build();
+ * ...
+ * long conversionNanos = metrics.getNanos(ParseListener.Phase.CONVERSION);
+ * </pre>
+ *
+ * @since 0.9.1
+ */
+public final class ParseMetrics implements ParseListener {
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final LongAdder parses_ = new LongAdder();
+    private final LongAdder failedParses_ = new LongAdder();
+    private final LongAdder parseNanos_ = new LongAdder();
+    private final LongAdder fromFileBytes_ = new LongAdder();
+    private final ConcurrentMap<String, Counters> commands_ = new ConcurrentHashMap<>();
+
+    private static final class Counters {
+        private final LongAdder selections_ = new LongAdder();
+        private final LongAdder[] counts_ = new LongAdder[PHASES.length];
+        private final LongAdder[] nanos_ = new LongAdder[PHASES.length];
+
+        Counters() {
+            for (int i = 0; i < PHASES.length; ++i) {
+                counts_[i] = new LongAdder();
+                nanos_[i] = new LongAdder();
+            }
+        }
+    }
+
+    @Override
+    public void phaseCompleted(String command, Phase phase, Argument argument,
+            long nanos) {
+        Counters counters = counters(command);
+        counters.counts_[phase.ordinal()].increment();
+        counters.nanos_[phase.ordinal()].add(nanos);
+    }
+
+    @Override
+    public void fromFileRead(String command, String file, long bytes,
+            int arguments, long nanos) {
+        fromFileBytes_.add(bytes);
+    }
+
+    @Override
+    public void commandSelected(String command, long nanos) {
+        counters(command).selections_.increment();
+    }
+
+    @Override
+    public void parseFinished(ArgumentParser parser, long nanos,
+            ArgumentParserException error) {
+        parses_.increment();
+        parseNanos_.add(nanos);
+        if (error != null) {
+            failedParses_.increment();
+        }
+    }
+
+    private Counters counters(String command) {
+        Counters counters = commands_.get(command);
+        if (counters == null) {
+            counters = commands_.computeIfAbsent(command, c -> new Counters());
+        }
+        return counters;
+    }
+
+    /**
+     * Returns the number of finished parses.
+     *
+     * @return The number of parses.
+     */
+    public long getParseCount() {
+        return parses_.sum();
+    }
+
+    /**
+     * Returns the number of finished parses which ended with an error.
+     *
+     * @return The number of failed parses.
+     */
+    public long getFailedParseCount() {
+        return failedParses_.sum();
+    }
+
+    /**
+     * Returns the total duration of the finished parses.
+     *
+     * @return The duration in nanoseconds.
+     */
+    public long getParseNanos() {
+        return parseNanos_.sum();
+    }
+
+    /**
+     * Returns the total number of bytes read from argument files.
+     *
+     * @return The number of bytes.
+     */
+    public long getFromFileBytes() {
+        return fromFileBytes_.sum();
+    }
+
+    /**
+     * Returns the sub-commands for which an event was recorded, in
+     * alphabetical order. The main parser is the empty string.
+     *
+     * @return The sub-commands.
+     */
+    public Set<String> getCommands() {
+        return new TreeSet<>(commands_.keySet());
+    }
+
+    /**
+     * Returns how often {@code phase} was completed, in all parsers.
+     *
+     * @param phase
+     *            The phase.
+     * @return The count.
+     */
+    public long getCount(Phase phase) {
+        long sum = 0;
+        for (Counters counters : commands_.values()) {
+            sum += counters.counts_[phase.ordinal()].sum();
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the total duration of {@code phase}, in all parsers.
+     *
+     * @param phase
+     *            The phase.
+     * @return The duration in nanoseconds.
+     */
+    public long getNanos(Phase phase) {
+        long sum = 0;
+        for (Counters counters : commands_.values()) {
+            sum += counters.nanos_[phase.ordinal()].sum();
+        }
+        return sum;
+    }
+
+    /**
+     * Returns how often {@code phase} was completed in the parser of
+     * {@code command}.
+     *
+     * @param command
+     *            The sub-command, as passed to {@link ParseListener}.
+     * @param phase
+     *            The phase.
+     * @return The count.
+     */
+    public long getCount(String command, Phase phase) {
+        Counters counters = commands_.get(command);
+        return counters == null ? 0 : counters.counts_[phase.ordinal()].sum();
+    }
+
+    /**
+     * Returns the total duration of {@code phase} in the parser of
+     * {@code command}.
+     *
+     * @param command
+     *            The sub-command, as passed to {@link ParseListener}.
+     * @param phase
+     *            The phase.
+     * @return The duration in nanoseconds.
+     */
+    public long getNanos(String command, Phase phase) {
+        Counters counters = commands_.get(command);
+        return counters == null ? 0 : counters.nanos_[phase.ordinal()].sum();
+    }
+
+    /**
+     * Returns how often {@code command} was selected.
+     *
+     * @param command
+     *            The sub-command, as passed to {@link ParseListener}.
+     * @return The count.
+     */
+    public long getSelectionCount(String command) {
+        Counters counters = commands_.get(command);
+        return counters == null ? 0 : counters.selections_.sum();
+    }
+
+    /**
+     * Sets all counters to zero. Counts of parses running at the same time
+     * may be partly lost.
+     */
+    public void reset() {
+        parses_.reset();
+        failedParses_.reset();
+        parseNanos_.reset();
+        fromFileBytes_.reset();
+        commands_.clear();
+    }
+
+    /**
+     * Returns the counters as a table, with the count and total duration of
+     * each phase per sub-command.
+     */
+    @Override
+    public String toString() {
+        Formatter f = new Formatter(new StringBuilder(),
+                TextHelper.LOCALE_ROOT);
+        f.format("parses: %d (%d failed), %.3f ms, from file: %d bytes%n",
+                getParseCount(), getFailedParseCount(),
+                getParseNanos() / 1e6, getFromFileBytes());
+        f.format("%-20s %-16s %10s %12s%n", "command", "phase", "count",
+                "total [us]");
+        Map<String, Counters> commands = new TreeMap<>(commands_);
+        for (Map.Entry<String, Counters> e : commands.entrySet()) {
+            String command = e.getKey().isEmpty() ? "(main)" : e.getKey();
+            Counters counters = e.getValue();
+            long selections = counters.selections_.sum();
+            if (selections > 0) {
+                f.format("%-20s %-16s %10d %12s%n", command, "(selected)",
+                        selections, "");
+            }
+            for (Phase phase : PHASES) {
+                long count = counters.counts_[phase.ordinal()].sum();
+                if (count > 0) {
+                    f.format("%-20s %-16s %10d %12.1f%n", command, phase,
+                            count,
+                            counters.nanos_[phase.ordinal()].sum() / 1e3);
+                }
+            }
+        }
+        return f.toString();
+    }
+}
@@ -95,4 +95,14 @@ public class CollectionArgumentChoice<E> implements ArgumentChoice {
     public String toString() {
         return textualFormat();
     }
+
+    /**
+     * Returns the values to choose from.
+     *
+     * @return The values.
+     * @since 0.9.1
+     */
+    public Collection<E> getValues() {
+        return values_;
+    }
 }
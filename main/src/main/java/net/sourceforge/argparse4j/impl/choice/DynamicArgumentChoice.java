@@ -0,0 +1,63 @@
+package net.sourceforge.argparse4j.impl.choice;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+import net.sourceforge.argparse4j.inf.ArgumentChoice;
+
+/**
+ * <p>
+ * Choice from values which are only known at run time, e.g. the branches of a
+ * repository.
+ * </p>
+ * <p>
+ * The values are obtained from the supplier each time they are needed: when a
+ * value given on the command line is checked, when help or an error message
+ * is formatted, and when a completion script generated by
+ * {@link net.sourceforge.argparse4j.ShellCompletion} completes the argument.
+ * Completion scripts contain the values of a {@link CollectionArgumentChoice},
+ * but run the application to complete the values of this choice.
+ * </p>
+ *
+ * @param <E>
+ *            The type of the values.
+ * @since 0.9.1
+ */
+public class DynamicArgumentChoice<E> implements ArgumentChoice {
+
+    private final Supplier<? extends Collection<E>> values_;
+
+    /**
+     * Initializes this object from the supplier of the values.
+     *
+     * @param values
+     *            Supplies the valid values.
+     */
+    public DynamicArgumentChoice(Supplier<? extends Collection<E>> values) {
+        values_ = values;
+    }
+
+    @Override
+    public boolean contains(Object val) {
+        return new CollectionArgumentChoice<>(getValues()).contains(val);
+    }
+
+    @Override
+    public String textualFormat() {
+        return new CollectionArgumentChoice<>(getValues()).textualFormat();
+    }
+
+    @Override
+    public String toString() {
+        return textualFormat();
+    }
+
+    /**
+     * Returns the values to choose from, as supplied now.
+     *
+     * @return The values.
+     */
+    public Collection<E> getValues() {
+        return values_.get();
+    }
+}
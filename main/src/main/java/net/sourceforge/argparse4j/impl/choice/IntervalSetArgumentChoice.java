@@ -0,0 +1,336 @@
+package net.sourceforge.argparse4j.impl.choice;
+
+import java.util.Arrays;
+
+import net.sourceforge.argparse4j.helper.TextHelper;
+import net.sourceforge.argparse4j.inf.ArgumentChoice;
+
+/**
+ * <p>
+ * Choices from a union of integral ranges.
+ * </p>
+ *
+ * <p>
+ * The given value will be checked if it is in one of the ranges [first,
+ * last], inclusive. Overlapping and adjacent ranges are merged when the object
+ * is built, and the resulting disjoint ranges are kept sorted in primitive
+ * arrays, so that {@link #contains(Object)} is a binary search which does not
+ * allocate. {@link #contains(int)} and {@link #contains(long)} can be used to
+ * check primitive values directly.
+ * </p>
+ *
+ * <p>
+ * Use {@link #intBuilder()} or {@link #parseInts(String)} if the argument type
+ * is {@link Integer}, and {@link #longBuilder()} or {@link #parseLongs(String)}
+ * if it is {@link Long}. The textual format lists the merged ranges, e.g.
+ * {@code {1-1024,8080,9000-9100}}.
+ * </p>
+ *
+ * @since 0.9.1
+ */
+public class IntervalSetArgumentChoice implements ArgumentChoice {
+
+    private final Class<? extends Number> type_;
+    private final long[] firsts_;
+    private final long[] lasts_;
+
+    private IntervalSetArgumentChoice(Class<? extends Number> type,
+            long[] firsts, long[] lasts) {
+        type_ = type;
+        firsts_ = firsts;
+        lasts_ = lasts;
+    }
+
+    /**
+     * Returns a builder for a choice accepting {@link Integer} values.
+     *
+     * @return The builder.
+     */
+    public static Builder intBuilder() {
+        return new Builder(Integer.class, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a builder for a choice accepting {@link Long} values.
+     *
+     * @return The builder.
+     */
+    public static Builder longBuilder() {
+        return new Builder(Long.class, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * <p>
+     * Creates a choice accepting {@link Integer} values from its textual
+     * specification.
+     * </p>
+     * <p>
+     * The specification is a comma separated list of single values and
+     * inclusive ranges {@code first-last}, e.g. {@code "1-1024,8080"}. Negative
+     * bounds are allowed, e.g. {@code "-10--1"}. Surrounding braces, as
+     * produced by {@link #textualFormat()}, are accepted as well.
+     * </p>
+     *
+     * @param spec
+     *            The specification.
+     * @return The choice.
+     */
+    public static IntervalSetArgumentChoice parseInts(String spec) {
+        return intBuilder().add(spec).build();
+    }
+
+    /**
+     * Creates a choice accepting {@link Long} values from its textual
+     * specification. See {@link #parseInts(String)} for the syntax.
+     *
+     * @param spec
+     *            The specification.
+     * @return The choice.
+     */
+    public static IntervalSetArgumentChoice parseLongs(String spec) {
+        return longBuilder().add(spec).build();
+    }
+
+    /**
+     * Returns {@code true} iff {@code val} is in one of the ranges.
+     *
+     * @param val
+     *            The value to check.
+     * @return {@code true} or {@code false}.
+     */
+    public boolean contains(int val) {
+        return contains((long) val);
+    }
+
+    /**
+     * Returns {@code true} iff {@code val} is in one of the ranges.
+     *
+     * @param val
+     *            The value to check.
+     * @return {@code true} or {@code false}.
+     */
+    public boolean contains(long val) {
+        // Find the last range whose first value is <= val.
+        int low = 0;
+        int high = firsts_.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (firsts_[mid] <= val) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high >= 0 && val <= lasts_[high];
+    }
+
+    @Override
+    public boolean contains(Object val) {
+        if (type_.equals(val.getClass())) {
+            return contains(((Number) val).longValue());
+        } else {
+            throw new IllegalArgumentException(String.format(
+                    TextHelper.LOCALE_ROOT,
+                    "type mismatch (Make sure that you specified correct Argument.type()):"
+                            + " expected: %s actual: %s", type_.getName(), val
+                            .getClass().getName()));
+        }
+    }
+
+    /**
+     * Returns the number of disjoint ranges after merging.
+     *
+     * @return The number of ranges.
+     */
+    public int getRangeCount() {
+        return firsts_.length;
+    }
+
+    /**
+     * Returns the type of the values, {@link Integer} or {@link Long}.
+     *
+     * @return The type.
+     */
+    public Class<? extends Number> getType() {
+        return type_;
+    }
+
+    /**
+     * Returns the first value of a range.
+     *
+     * @param index
+     *            The index of the range, less than {@link #getRangeCount()}.
+     * @return The first value, inclusive.
+     */
+    public long getFirst(int index) {
+        return firsts_[index];
+    }
+
+    /**
+     * Returns the last value of a range.
+     *
+     * @param index
+     *            The index of the range, less than {@link #getRangeCount()}.
+     * @return The last value, inclusive.
+     */
+    public long getLast(int index) {
+        return lasts_[index];
+    }
+
+    @Override
+    public String textualFormat() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        for (int i = 0; i < firsts_.length; ++i) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            sb.append(firsts_[i]);
+            if (firsts_[i] != lasts_[i]) {
+                sb.append("-").append(lasts_[i]);
+            }
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return textualFormat();
+    }
+
+    /**
+     * <p>
+     * Collects ranges for {@link IntervalSetArgumentChoice}.
+     * </p>
+     * <p>
+     * Ranges may be added in any order and may overlap.
+     * </p>
+     */
+    public static final class Builder {
+        private final Class<? extends Number> type_;
+        private final long min_;
+        private final long max_;
+        private long[] firsts_ = new long[8];
+        private long[] lasts_ = new long[8];
+        private int size_;
+
+        private Builder(Class<? extends Number> type, long min, long max) {
+            type_ = type;
+            min_ = min;
+            max_ = max;
+        }
+
+        /**
+         * Adds a single value.
+         *
+         * @param value
+         *            The value.
+         * @return This builder.
+         */
+        public Builder add(long value) {
+            return add(value, value);
+        }
+
+        /**
+         * Adds range [{@code first}, {@code last}], inclusive.
+         *
+         * @param first
+         *            The lower bound of the range, inclusive.
+         * @param last
+         *            The upper bound of the range, inclusive.
+         * @return This builder.
+         */
+        public Builder add(long first, long last) {
+            if (first > last) {
+                throw new IllegalArgumentException(String.format(
+                        TextHelper.LOCALE_ROOT,
+                        "invalid range: first (%d) is greater than last (%d)",
+                        first, last));
+            }
+            if (first < min_ || last > max_) {
+                throw new IllegalArgumentException(String.format(
+                        TextHelper.LOCALE_ROOT,
+                        "range %d-%d does not fit in %s", first, last,
+                        type_.getSimpleName()));
+            }
+            if (size_ == firsts_.length) {
+                firsts_ = Arrays.copyOf(firsts_, size_ * 2);
+                lasts_ = Arrays.copyOf(lasts_, size_ * 2);
+            }
+            firsts_[size_] = first;
+            lasts_[size_] = last;
+            ++size_;
+            return this;
+        }
+
+        /**
+         * Adds ranges from textual specification. See
+         * {@link IntervalSetArgumentChoice#parseInts(String)} for the syntax.
+         *
+         * @param spec
+         *            The specification.
+         * @return This builder.
+         */
+        public Builder add(String spec) {
+            String s = spec.trim();
+            if (s.startsWith("{") && s.endsWith("}")) {
+                s = s.substring(1, s.length() - 1);
+            }
+            for (String item : s.split(",")) {
+                item = item.trim();
+                if (item.isEmpty()) {
+                    continue;
+                }
+                // Search from index 1 so that a leading minus sign is not
+                // taken as the separator.
+                int p = item.indexOf('-', 1);
+                try {
+                    if (p == -1) {
+                        add(Long.parseLong(item));
+                    } else {
+                        add(Long.parseLong(item.substring(0, p).trim()),
+                                Long.parseLong(item.substring(p + 1).trim()));
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(String.format(
+                            TextHelper.LOCALE_ROOT,
+                            "invalid range specification '%s'", item), e);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Sorts and merges the collected ranges, and creates the choice.
+         *
+         * @return The choice.
+         */
+        public IntervalSetArgumentChoice build() {
+            Integer[] order = new Integer[size_];
+            for (int i = 0; i < size_; ++i) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(firsts_[a], firsts_[b]));
+            long[] firsts = new long[size_];
+            long[] lasts = new long[size_];
+            int n = 0;
+            for (int i = 0; i < size_; ++i) {
+                long first = firsts_[order[i]];
+                long last = lasts_[order[i]];
+                // Merge if overlapping or adjacent. lasts[n - 1] + 1 cannot
+                // overflow here because first <= max_ follows it.
+                if (n > 0 && (lasts[n - 1] == Long.MAX_VALUE
+                        || first <= lasts[n - 1] + 1)) {
+                    lasts[n - 1] = Math.max(lasts[n - 1], last);
+                } else {
+                    firsts[n] = first;
+                    lasts[n] = last;
+                    ++n;
+                }
+            }
+            return new IntervalSetArgumentChoice(type_,
+                    Arrays.copyOf(firsts, n), Arrays.copyOf(lasts, n));
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package net.sourceforge.argparse4j.impl.choice;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import net.sourceforge.argparse4j.helper.TextHelper;
+import net.sourceforge.argparse4j.inf.ArgumentChoice;
+
+/**
+ * <p>
+ * Choices from a set of patterns.
+ * </p>
+ *
+ * <p>
+ * The given value will be checked if it entirely matches at least one of the
+ * patterns. All patterns are compiled into a single deterministic automaton
+ * when this object is created, so {@link #contains(Object)} inspects each
+ * character of the value exactly once, regardless of the number of patterns.
+ * </p>
+ *
+ * <p>
+ * Patterns use one of two syntaxes:
+ * </p>
+ * <ul>
+ * <li>{@link Syntax#GLOB}: {@code *} matches any sequence of characters,
+ * {@code ?} matches any single character, {@code [a-z]} and {@code [!a-z]}
+ * match a character in or not in the set, {@code {a,b}} matches one of the
+ * alternatives and {@code \} escapes the next character.</li>
+ * <li>{@link Syntax#REGEX}: the part of {@link java.util.regex.Pattern} syntax
+ * that describes regular languages, i.e., literals, escapes such as
+ * {@code \d}, {@code \w} and {@code \s}, character classes, {@code .}, groups,
+ * {@code |} and the {@code *}, {@code +}, {@code ?} and {@code {m,n}}
+ * quantifiers. Back references, lookaround and similar constructs are
+ * rejected.</li>
+ * </ul>
+ *
+ * <p>
+ * When a value is rejected, {@link #closestPatterns(String)} returns the
+ * patterns which matched the longest prefix of it. They are used in the error
+ * message reported to the user.
+ * </p>
+ *
+ * @since 0.9.1
+ */
+public class PatternArgumentChoice implements ArgumentChoice {
+
+    /**
+     * The number of closest patterns shown in an error message.
+     */
+    private static final int MAX_CLOSEST_SHOWN = 5;
+
+    /**
+     * Syntax of the patterns.
+     */
+    public enum Syntax {
+        /**
+         * Shell-like wildcard patterns.
+         */
+        GLOB,
+        /**
+         * Regular expressions describing regular languages.
+         */
+        REGEX
+    }
+
+    private final Syntax syntax_;
+    private final List<String> patterns_;
+    private final PatternAutomaton automaton_;
+
+    /**
+     * Compiles given patterns.
+     *
+     * @param syntax
+     *            The syntax of the patterns.
+     * @param patterns
+     *            The patterns.
+     * @throws IllegalArgumentException
+     *             If one of the patterns is invalid or not supported.
+     */
+    public PatternArgumentChoice(Syntax syntax, String... patterns) {
+        this(syntax, Arrays.asList(patterns));
+    }
+
+    /**
+     * Compiles given patterns.
+     *
+     * @param syntax
+     *            The syntax of the patterns.
+     * @param patterns
+     *            The patterns.
+     * @throws IllegalArgumentException
+     *             If one of the patterns is invalid or not supported.
+     */
+    public PatternArgumentChoice(Syntax syntax, Collection<String> patterns) {
+        syntax_ = syntax;
+        patterns_ = Collections.unmodifiableList(new ArrayList<>(patterns));
+        automaton_ = new PatternAutomaton(syntax, patterns_);
+    }
+
+    /**
+     * Compiles given glob patterns.
+     *
+     * @param patterns
+     *            The patterns.
+     * @return The choice.
+     */
+    public static PatternArgumentChoice globs(String... patterns) {
+        return new PatternArgumentChoice(Syntax.GLOB, patterns);
+    }
+
+    /**
+     * Compiles given regular expressions.
+     *
+     * @param patterns
+     *            The patterns.
+     * @return The choice.
+     */
+    public static PatternArgumentChoice regexes(String... patterns) {
+        return new PatternArgumentChoice(Syntax.REGEX, patterns);
+    }
+
+    @Override
+    public boolean contains(Object val) {
+        if (val instanceof CharSequence) {
+            return automaton_.matches((CharSequence) val);
+        } else {
+            throw new IllegalArgumentException(String.format(
+                    TextHelper.LOCALE_ROOT,
+                    "type mismatch (Make sure that you specified correct Argument.type()):"
+                            + " expected: %s actual: %s", String.class.getName(),
+                    val.getClass().getName()));
+        }
+    }
+
+    /**
+     * <p>
+     * Returns the patterns which matched the longest prefix of {@code value},
+     * in the order they were given.
+     * </p>
+     * <p>
+     * If {@code value} is rejected after consuming some characters, these are
+     * the patterns which were still able to match at that point. If no
+     * character could be consumed, all patterns are returned.
+     * </p>
+     *
+     * @param value
+     *            The value.
+     * @return The closest patterns.
+     */
+    public List<String> closestPatterns(String value) {
+        BitSet indexes = automaton_.closest(value);
+        List<String> res = new ArrayList<>();
+        for (int i = indexes.nextSetBit(0); i >= 0; i = indexes
+                .nextSetBit(i + 1)) {
+            res.add(patterns_.get(i));
+        }
+        return res;
+    }
+
+    /**
+     * Returns {@link #closestPatterns(String)} formatted for an error message.
+     * At most 5 patterns are listed.
+     *
+     * @param value
+     *            The value.
+     * @return The formatted patterns.
+     */
+    public String formatClosestPatterns(String value) {
+        List<String> closest = closestPatterns(value);
+        if (closest.size() > MAX_CLOSEST_SHOWN) {
+            closest = new ArrayList<>(closest.subList(0, MAX_CLOSEST_SHOWN));
+            closest.add("...");
+        }
+        return TextHelper.concat(closest, 0, ",", "{", "}");
+    }
+
+    /**
+     * Returns the syntax of the patterns.
+     *
+     * @return The syntax.
+     */
+    public Syntax getSyntax() {
+        return syntax_;
+    }
+
+    /**
+     * Returns the patterns.
+     *
+     * @return The patterns.
+     */
+    public List<String> getPatterns() {
+        return patterns_;
+    }
+
+    @Override
+    public String textualFormat() {
+        return TextHelper.concat(patterns_, 0, ",", "{", "}");
+    }
+
+    @Override
+    public String toString() {
+        return textualFormat();
+    }
+}
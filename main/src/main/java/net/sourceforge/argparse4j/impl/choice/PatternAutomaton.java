@@ -0,0 +1,980 @@
+package net.sourceforge.argparse4j.impl.choice;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import net.sourceforge.argparse4j.helper.TextHelper;
+
+/**
+ * <p>
+ * Deterministic automaton recognizing the union of a set of patterns.
+ * </p>
+ * <p>
+ * Each pattern is parsed into a small syntax tree, all trees are compiled into
+ * one Thompson NFA, and the NFA is converted into a DFA by subset construction.
+ * The states reachable by short prefixes are built when the automaton is
+ * created, and the others the first time a value reaches them, so that a
+ * large pattern set does not pay for states no value ever visits. The alphabet
+ * of the DFA is the set of equivalence classes of code points induced by the
+ * character sets used in the patterns, so the transition table stays small
+ * even though patterns may use the full Unicode range.
+ * </p>
+ * <p>
+ * The NFA is kept to explain rejections. {@link #closest(CharSequence)}
+ * simulates it over the rejected value, scoring each path by the number of
+ * characters consumed by non-wildcard steps, so that a leading {@code *} does
+ * not make a pattern look close to everything.
+ * </p>
+ */
+final class PatternAutomaton {
+
+    private static final int MAX_CODE_POINT = Character.MAX_CODE_POINT;
+    private static final int[] ANY = { 0, MAX_CODE_POINT };
+    /**
+     * Upper bounds of the number of DFA states built and of the total number
+     * of NFA states in them. Patterns such as many globs with several
+     * {@code *} each can make subset construction blow up exponentially, so
+     * states beyond the limits are not materialized. Transitions into them
+     * are marked {@link #FALLBACK} and the rest of the value is matched by
+     * simulating the NFA from the last DFA state.
+     */
+    private static final int MAX_DFA_STATES = 1 << 14;
+    private static final int MAX_DFA_WORK = 1 << 20;
+    /**
+     * The number of DFA states built when the automaton is created.
+     */
+    private static final int EAGER_DFA_STATES = 256;
+    private static final int DEAD = -1;
+    private static final int FALLBACK = -2;
+    private static final int UNKNOWN = -3;
+
+    private final Nfa nfa_;
+    private final int[] starts_;
+    private final int numPatterns_;
+    private final int[] boundaries_;
+    private final int[] asciiClasses_;
+    private final int numClasses_;
+    /**
+     * The DFA states built so far. States are only added, and only while
+     * holding the lock of this object, which also guards {@link #ids_},
+     * {@link #scratch_} and {@link #work_}. A state is complete before the
+     * table containing it is published, so {@link #matches(CharSequence)}
+     * reads the table without locking.
+     */
+    private volatile Table table_ = new Table(16);
+    private final Map<IntArrayKey, Integer> ids_ = new HashMap<>();
+    private final Scratch scratch_;
+    private int work_;
+
+    PatternAutomaton(PatternArgumentChoice.Syntax syntax,
+            List<String> patterns) {
+        Nfa nfa = new Nfa();
+        starts_ = new int[patterns.size()];
+        for (int i = 0; i < patterns.size(); ++i) {
+            String pattern = patterns.get(i);
+            Node node = syntax == PatternArgumentChoice.Syntax.GLOB
+                    ? new GlobParser(pattern).parse()
+                    : new RegexParser(pattern).parse();
+            nfa.owner = i;
+            int match = nfa.add(Nfa.MATCH, null, -1, -1);
+            starts_[i] = node.compile(nfa, match);
+        }
+        nfa_ = nfa;
+        numPatterns_ = patterns.size();
+
+        // Alphabet partitioning: every character set is a union of
+        // [boundaries_[k], boundaries_[k + 1]) intervals.
+        TreeSet<Integer> bounds = new TreeSet<>();
+        bounds.add(0);
+        bounds.add(MAX_CODE_POINT + 1);
+        for (int st = 0; st < nfa.size; ++st) {
+            int[] set = nfa.sets[st];
+            if (set == null) {
+                continue;
+            }
+            for (int k = 0; k < set.length; k += 2) {
+                bounds.add(set[k]);
+                bounds.add(set[k + 1] + 1);
+            }
+        }
+        boundaries_ = new int[bounds.size()];
+        int n = 0;
+        for (int b : bounds) {
+            boundaries_[n++] = b;
+        }
+        numClasses_ = boundaries_.length - 1;
+        asciiClasses_ = new int[128];
+        for (int c = 0; c < 128; ++c) {
+            asciiClasses_[c] = searchClass(c);
+        }
+
+        // Subset construction, breadth first so that the states for short
+        // prefixes are built first. The remaining states are built on demand.
+        scratch_ = new Scratch(nfa.size);
+        synchronized (this) {
+            addState(nfa.closure(starts_, starts_.length, scratch_));
+            for (int s = 0; s < table_.size
+                    && table_.size < EAGER_DFA_STATES; ++s) {
+                for (int c = 0; c < numClasses_; ++c) {
+                    transition(s, c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if {@code s} matches one of the patterns entirely.
+     * The value is scanned once, one table lookup per code point once the
+     * states on its path have been built. Only building a state takes the
+     * lock, so concurrent validations do not wait for each other once the
+     * states they visit exist.
+     */
+    boolean matches(CharSequence s) {
+        Table table = table_;
+        int state = 0;
+        for (int i = 0, len = s.length(); i < len;) {
+            int cp = Character.codePointAt(s, i);
+            int c = classOf(cp);
+            int next = table.rows[state][c];
+            if (next == UNKNOWN || next >= table.size) {
+                // Not built yet, or built after the table was read.
+                synchronized (this) {
+                    next = transition(state, c);
+                    table = table_;
+                }
+            }
+            if (next == DEAD) {
+                return false;
+            } else if (next == FALLBACK) {
+                return simulate(table.dfaStates[state], s, i);
+            }
+            i += Character.charCount(cp);
+            state = next;
+        }
+        return table.accept[state];
+    }
+
+    /**
+     * Returns the transition from {@code state} on class {@code c}, computing
+     * and recording it if necessary. The caller holds the lock.
+     */
+    private int transition(int state, int c) {
+        Table table = table_;
+        int next = table.rows[state][c];
+        if (next != UNKNOWN) {
+            return next;
+        }
+        int[] target = step(table.dfaStates[state], boundaries_[c],
+                scratch_);
+        if (target == null) {
+            next = DEAD;
+        } else {
+            IntArrayKey key = new IntArrayKey(target);
+            Integer id = ids_.get(key);
+            if (id != null) {
+                next = id;
+            } else if (table.size == MAX_DFA_STATES
+                    || work_ + target.length > MAX_DFA_WORK) {
+                next = FALLBACK;
+            } else {
+                next = addState(target);
+            }
+        }
+        // The target state, if new, is published before the transition to it.
+        table_.rows[state][c] = next;
+        return next;
+    }
+
+    private int addState(int[] states) {
+        Table table = table_;
+        int id = table.size;
+        int[] row = new int[numClasses_];
+        Arrays.fill(row, UNKNOWN);
+        table_ = table.add(states, row, accepts(states));
+        ids_.put(new IntArrayKey(states), id);
+        work_ += states.length;
+        return id;
+    }
+
+    /**
+     * Returns the NFA states reached from {@code states} on {@code cp}, or
+     * {@code null} if there are none.
+     */
+    private int[] step(int[] states, int cp, Scratch scratch) {
+        int[] next = scratch.next;
+        int count = 0;
+        for (int st : states) {
+            if (nfa_.kinds[st] == Nfa.SET && inSet(nfa_.sets[st], cp)) {
+                if (count == next.length) {
+                    next = scratch.next = Arrays.copyOf(next, count * 2);
+                }
+                next[count++] = nfa_.out1[st];
+            }
+        }
+        return count == 0 ? null : nfa_.closure(next, count, scratch);
+    }
+
+    /**
+     * Matches the rest of {@code s} from {@code index} by NFA simulation,
+     * starting from the NFA states in {@code states}.
+     */
+    private boolean simulate(int[] states, CharSequence s, int index) {
+        // Values only get here once the DFA hit its limits, so a scratch of
+        // their own costs less than waiting for the lock.
+        Scratch scratch = new Scratch(nfa_.size);
+        for (int i = index, len = s.length(); i < len;) {
+            int cp = Character.codePointAt(s, i);
+            i += Character.charCount(cp);
+            states = step(states, cp, scratch);
+            if (states == null) {
+                return false;
+            }
+        }
+        return accepts(states);
+    }
+
+    private boolean accepts(int[] states) {
+        for (int st : states) {
+            if (nfa_.kinds[st] == Nfa.MATCH) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the indexes of the patterns which came closest to matching
+     * {@code s}: those whose best path consumed the largest number of
+     * characters through non-wildcard steps before failing. If no pattern
+     * made any such progress, all patterns are returned. This is only used to
+     * report errors, so it is a plain NFA simulation.
+     */
+    BitSet closest(CharSequence s) {
+        int n = nfa_.size;
+        int[] best = new int[numPatterns_];
+        int[] scores = new int[n];
+        Arrays.fill(scores, -1);
+        for (int st : starts_) {
+            scores[st] = 0;
+        }
+        propagate(scores);
+        for (int i = 0, len = s.length(); i < len;) {
+            int cp = Character.codePointAt(s, i);
+            i += Character.charCount(cp);
+            int[] next = new int[n];
+            Arrays.fill(next, -1);
+            boolean any = false;
+            for (int st = 0; st < n; ++st) {
+                if (scores[st] >= 0 && nfa_.kinds[st] == Nfa.SET
+                        && inSet(nfa_.sets[st], cp)) {
+                    int[] set = nfa_.sets[st];
+                    int score = scores[st]
+                            + (set[set.length - 1] == MAX_CODE_POINT ? 0 : 1);
+                    int to = nfa_.out1[st];
+                    next[to] = Math.max(next[to], score);
+                    any = true;
+                }
+            }
+            if (!any) {
+                break;
+            }
+            scores = next;
+            propagate(scores);
+            for (int st = 0; st < n; ++st) {
+                int owner = nfa_.owners[st];
+                best[owner] = Math.max(best[owner], scores[st]);
+            }
+        }
+        int max = 0;
+        for (int b : best) {
+            max = Math.max(max, b);
+        }
+        BitSet res = new BitSet();
+        for (int p = 0; p < numPatterns_; ++p) {
+            if (best[p] == max) {
+                res.set(p);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Propagates scores along epsilon transitions, keeping the maximum.
+     */
+    private void propagate(int[] scores) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int st = 0; st < scores.length; ++st) {
+                if (scores[st] < 0 || nfa_.kinds[st] != Nfa.SPLIT) {
+                    continue;
+                }
+                for (int to : new int[] { nfa_.out1[st], nfa_.out2[st] }) {
+                    if (to >= 0 && scores[to] < scores[st]) {
+                        scores[to] = scores[st];
+                        changed = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private int classOf(int cp) {
+        return cp < 128 ? asciiClasses_[cp] : searchClass(cp);
+    }
+
+    private int searchClass(int cp) {
+        int i = Arrays.binarySearch(boundaries_, cp);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    private static boolean inSet(int[] set, int cp) {
+        for (int k = 0; k < set.length; k += 2) {
+            if (set[k] <= cp && cp <= set[k + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sorted NFA state set used as the key of a DFA state.
+     */
+    private static final class IntArrayKey {
+        private final int[] a;
+        private final int hash;
+
+        IntArrayKey(int[] a) {
+            this.a = a;
+            this.hash = Arrays.hashCode(a);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof IntArrayKey
+                    && Arrays.equals(a, ((IntArrayKey) obj).a);
+        }
+    }
+
+    /**
+     * Work arrays for {@link Nfa#closure(int[], int, Scratch)}. States are
+     * marked with a generation number, so the arrays never need clearing.
+     */
+    private static final class Scratch {
+        final int[] marks;
+        final int[] stack;
+        int[] next = new int[16];
+        int generation;
+
+        Scratch(int size) {
+            marks = new int[size];
+            stack = new int[size];
+        }
+    }
+
+    /**
+     * The DFA states numbered below {@code size}: their NFA states,
+     * transition rows and whether they accept. A table is never changed
+     * except for filling in the {@link #UNKNOWN} cells of its rows, so adding
+     * a state returns a new table, which shares the arrays while they have
+     * room.
+     */
+    private static final class Table {
+        final int[][] dfaStates;
+        final int[][] rows;
+        final boolean[] accept;
+        final int size;
+
+        Table(int capacity) {
+            this(new int[capacity][], new int[capacity][],
+                    new boolean[capacity], 0);
+        }
+
+        private Table(int[][] dfaStates, int[][] rows, boolean[] accept,
+                int size) {
+            this.dfaStates = dfaStates;
+            this.rows = rows;
+            this.accept = accept;
+            this.size = size;
+        }
+
+        Table add(int[] states, int[] row, boolean accepts) {
+            int[][] newDfaStates = dfaStates;
+            int[][] newRows = rows;
+            boolean[] newAccept = accept;
+            if (size == dfaStates.length) {
+                int capacity = size * 2;
+                newDfaStates = Arrays.copyOf(dfaStates, capacity);
+                newRows = Arrays.copyOf(rows, capacity);
+                newAccept = Arrays.copyOf(accept, capacity);
+            }
+            newDfaStates[size] = states;
+            newRows[size] = row;
+            newAccept[size] = accepts;
+            return new Table(newDfaStates, newRows, newAccept, size + 1);
+        }
+    }
+
+    /**
+     * Thompson NFA. SET states consume one code point in their set and move
+     * to out1, SPLIT states are epsilon transitions to out1 and out2 (-1 if
+     * absent), MATCH states accept.
+     */
+    private static final class Nfa {
+        static final int SET = 0;
+        static final int SPLIT = 1;
+        static final int MATCH = 2;
+
+        int[] kinds = new int[16];
+        int[][] sets = new int[16][];
+        int[] out1 = new int[16];
+        int[] out2 = new int[16];
+        int[] owners = new int[16];
+        int size;
+        int owner;
+
+        int add(int kind, int[] set, int o1, int o2) {
+            if (size == kinds.length) {
+                kinds = Arrays.copyOf(kinds, size * 2);
+                sets = Arrays.copyOf(sets, size * 2);
+                out1 = Arrays.copyOf(out1, size * 2);
+                out2 = Arrays.copyOf(out2, size * 2);
+                owners = Arrays.copyOf(owners, size * 2);
+            }
+            kinds[size] = kind;
+            sets[size] = set;
+            out1[size] = o1;
+            out2[size] = o2;
+            owners[size] = owner;
+            return size++;
+        }
+
+        /**
+         * Returns the sorted SET and MATCH states reachable from the first
+         * {@code count} states of {@code from} by epsilon transitions.
+         */
+        int[] closure(int[] from, int count, Scratch scratch) {
+            int gen = ++scratch.generation;
+            int[] marks = scratch.marks;
+            int[] stack = scratch.stack;
+            int sp = 0;
+            for (int i = 0; i < count; ++i) {
+                if (marks[from[i]] != gen) {
+                    marks[from[i]] = gen;
+                    stack[sp++] = from[i];
+                }
+            }
+            int[] res = new int[8];
+            int n = 0;
+            while (sp > 0) {
+                int s = stack[--sp];
+                if (kinds[s] == SPLIT) {
+                    int o = out1[s];
+                    if (o >= 0 && marks[o] != gen) {
+                        marks[o] = gen;
+                        stack[sp++] = o;
+                    }
+                    o = out2[s];
+                    if (o >= 0 && marks[o] != gen) {
+                        marks[o] = gen;
+                        stack[sp++] = o;
+                    }
+                } else {
+                    if (n == res.length) {
+                        res = Arrays.copyOf(res, n * 2);
+                    }
+                    res[n++] = s;
+                }
+            }
+            res = Arrays.copyOf(res, n);
+            Arrays.sort(res);
+            return res;
+        }
+    }
+
+    private abstract static class Node {
+        /**
+         * Compiles this node into {@code nfa} so that it continues with
+         * {@code next} after matching. Returns the entry state.
+         */
+        abstract int compile(Nfa nfa, int next);
+    }
+
+    private static final class SetNode extends Node {
+        final int[] set;
+
+        SetNode(int[] set) {
+            this.set = set;
+        }
+
+        @Override
+        int compile(Nfa nfa, int next) {
+            return nfa.add(Nfa.SET, set, next, -1);
+        }
+    }
+
+    private static final class SeqNode extends Node {
+        final List<Node> items = new ArrayList<>();
+
+        @Override
+        int compile(Nfa nfa, int next) {
+            for (int i = items.size() - 1; i >= 0; --i) {
+                next = items.get(i).compile(nfa, next);
+            }
+            return next;
+        }
+    }
+
+    private static final class AltNode extends Node {
+        final List<Node> items = new ArrayList<>();
+
+        @Override
+        int compile(Nfa nfa, int next) {
+            int entry = items.get(items.size() - 1).compile(nfa, next);
+            for (int i = items.size() - 2; i >= 0; --i) {
+                entry = nfa.add(Nfa.SPLIT, null, items.get(i).compile(nfa, next),
+                        entry);
+            }
+            return entry;
+        }
+    }
+
+    private static final class RepeatNode extends Node {
+        final Node item;
+        final int min;
+        /** -1 means unbounded. */
+        final int max;
+
+        RepeatNode(Node item, int min, int max) {
+            this.item = item;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        int compile(Nfa nfa, int next) {
+            int entry = next;
+            if (max == -1) {
+                int loop = nfa.add(Nfa.SPLIT, null, -1, next);
+                int body = item.compile(nfa, loop);
+                nfa.out1[loop] = body;
+                entry = loop;
+            } else {
+                for (int i = min; i < max; ++i) {
+                    entry = nfa.add(Nfa.SPLIT, null, item.compile(nfa, entry),
+                            next);
+                }
+            }
+            for (int i = 0; i < min; ++i) {
+                entry = item.compile(nfa, entry);
+            }
+            return entry;
+        }
+    }
+
+    private abstract static class Parser {
+        final String pattern;
+        int pos;
+
+        Parser(String pattern) {
+            this.pattern = pattern;
+        }
+
+        boolean more() {
+            return pos < pattern.length();
+        }
+
+        int peek() {
+            return pattern.codePointAt(pos);
+        }
+
+        int next() {
+            int cp = pattern.codePointAt(pos);
+            pos += Character.charCount(cp);
+            return cp;
+        }
+
+        IllegalArgumentException error(String reason) {
+            return new IllegalArgumentException(String.format(
+                    TextHelper.LOCALE_ROOT, "invalid pattern '%s': %s at index %d",
+                    pattern, reason, pos));
+        }
+
+        /**
+         * Parses a bracket expression. The opening '[' has been consumed.
+         */
+        int[] parseBracket(boolean allowCaretNegation,
+                boolean allowBangNegation) {
+            boolean negate = false;
+            if (more() && (allowCaretNegation && peek() == '^'
+                    || allowBangNegation && peek() == '!')) {
+                next();
+                negate = true;
+            }
+            List<int[]> parts = new ArrayList<>();
+            boolean first = true;
+            while (true) {
+                if (!more()) {
+                    throw error("unclosed character class");
+                }
+                int cp = next();
+                if (cp == ']' && !first) {
+                    break;
+                }
+                first = false;
+                int[] escaped = null;
+                if (cp == '\\') {
+                    escaped = parseClassEscape();
+                    if (escaped.length != 2 || escaped[0] != escaped[1]) {
+                        parts.add(escaped);
+                        continue;
+                    }
+                    cp = escaped[0];
+                } else if (cp == '[' || cp == '&' && more() && peek() == '&') {
+                    throw error("nested character classes are not supported");
+                }
+                if (more() && peek() == '-' && pos + 1 < pattern.length()
+                        && pattern.charAt(pos + 1) != ']') {
+                    next();
+                    int last = next();
+                    if (last == '\\') {
+                        int[] e = parseClassEscape();
+                        if (e.length != 2 || e[0] != e[1]) {
+                            throw error("invalid range");
+                        }
+                        last = e[0];
+                    }
+                    if (last < cp) {
+                        throw error("invalid range");
+                    }
+                    parts.add(new int[] { cp, last });
+                } else {
+                    parts.add(new int[] { cp, cp });
+                }
+            }
+            int[] set = union(parts);
+            return negate ? complement(set) : set;
+        }
+
+        int[] parseClassEscape() {
+            if (!more()) {
+                throw error("trailing backslash");
+            }
+            int cp = next();
+            return new int[] { cp, cp };
+        }
+    }
+
+    private static final class GlobParser extends Parser {
+
+        GlobParser(String pattern) {
+            super(pattern);
+        }
+
+        Node parse() {
+            SeqNode seq = parseSequence(false);
+            if (more()) {
+                throw error("unexpected '" + (char) peek() + "'");
+            }
+            return seq;
+        }
+
+        private SeqNode parseSequence(boolean inBraces) {
+            SeqNode seq = new SeqNode();
+            while (more()) {
+                int cp = peek();
+                if (inBraces && (cp == ',' || cp == '}')) {
+                    break;
+                }
+                next();
+                switch (cp) {
+                case '*':
+                    seq.items.add(new RepeatNode(new SetNode(ANY), 0, -1));
+                    break;
+                case '?':
+                    seq.items.add(new SetNode(ANY));
+                    break;
+                case '[':
+                    seq.items.add(new SetNode(parseBracket(true, true)));
+                    break;
+                case '{':
+                    AltNode alt = new AltNode();
+                    while (true) {
+                        alt.items.add(parseSequence(true));
+                        if (!more()) {
+                            throw error("unclosed '{'");
+                        }
+                        if (next() == '}') {
+                            break;
+                        }
+                    }
+                    seq.items.add(alt);
+                    break;
+                case '\\':
+                    if (!more()) {
+                        throw error("trailing backslash");
+                    }
+                    int lit = next();
+                    seq.items.add(new SetNode(new int[] { lit, lit }));
+                    break;
+                default:
+                    seq.items.add(new SetNode(new int[] { cp, cp }));
+                    break;
+                }
+            }
+            return seq;
+        }
+    }
+
+    /**
+     * Parses the subset of {@link java.util.regex.Pattern} syntax which
+     * describes regular languages: literals, escapes, character classes,
+     * {@code .}, groups, alternation and greedy or reluctant quantifiers.
+     * Anchors are accepted at the ends of the pattern, since matching is
+     * always done against the whole value.
+     */
+    private static final class RegexParser extends Parser {
+
+        RegexParser(String pattern) {
+            super(pattern);
+        }
+
+        Node parse() {
+            if (more() && peek() == '^') {
+                next();
+            }
+            Node node = parseAlternation();
+            if (more()) {
+                throw error("unmatched ')'");
+            }
+            return node;
+        }
+
+        private Node parseAlternation() {
+            AltNode alt = new AltNode();
+            alt.items.add(parseSequence());
+            while (more() && peek() == '|') {
+                next();
+                alt.items.add(parseSequence());
+            }
+            return alt.items.size() == 1 ? alt.items.get(0) : alt;
+        }
+
+        private Node parseSequence() {
+            SeqNode seq = new SeqNode();
+            while (more() && peek() != '|' && peek() != ')') {
+                if (peek() == '$' && pos == pattern.length() - 1) {
+                    next();
+                    break;
+                }
+                Node atom = parseAtom();
+                seq.items.add(parseQuantifiers(atom));
+            }
+            return seq;
+        }
+
+        private Node parseQuantifiers(Node atom) {
+            while (more()) {
+                int cp = peek();
+                int min;
+                int max;
+                if (cp == '*') {
+                    next();
+                    min = 0;
+                    max = -1;
+                } else if (cp == '+') {
+                    next();
+                    min = 1;
+                    max = -1;
+                } else if (cp == '?') {
+                    next();
+                    min = 0;
+                    max = 1;
+                } else if (cp == '{') {
+                    next();
+                    min = parseNumber();
+                    max = min;
+                    if (more() && peek() == ',') {
+                        next();
+                        max = more() && peek() == '}' ? -1 : parseNumber();
+                    }
+                    if (!more() || next() != '}' || max != -1 && max < min) {
+                        throw error("invalid repetition");
+                    }
+                } else {
+                    break;
+                }
+                if (more() && peek() == '?') {
+                    // Reluctant quantifiers match the same language.
+                    next();
+                } else if (more() && peek() == '+') {
+                    throw error("possessive quantifiers are not supported");
+                }
+                atom = new RepeatNode(atom, min, max);
+            }
+            return atom;
+        }
+
+        private int parseNumber() {
+            int start = pos;
+            while (more() && peek() >= '0' && peek() <= '9') {
+                next();
+            }
+            if (start == pos || pos - start > 4) {
+                throw error("invalid repetition");
+            }
+            return Integer.parseInt(pattern.substring(start, pos));
+        }
+
+        private Node parseAtom() {
+            int cp = next();
+            switch (cp) {
+            case '(':
+                if (more() && peek() == '?') {
+                    next();
+                    if (!more() || next() != ':') {
+                        throw error("only non-capturing groups (?:...) are supported");
+                    }
+                }
+                Node inner = parseAlternation();
+                if (!more() || next() != ')') {
+                    throw error("unclosed group");
+                }
+                return inner;
+            case '[':
+                return new SetNode(parseBracket(true, false));
+            case '.':
+                return new SetNode(complement(new int[] { '\n', '\n', '\r',
+                        '\r' }));
+            case '\\':
+                return new SetNode(parseClassEscape());
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw error("dangling quantifier");
+            case '^':
+            case '$':
+                throw error("anchors are only supported at the ends of the pattern");
+            default:
+                return new SetNode(new int[] { cp, cp });
+            }
+        }
+
+        @Override
+        int[] parseClassEscape() {
+            if (!more()) {
+                throw error("trailing backslash");
+            }
+            int cp = next();
+            switch (cp) {
+            case 'd':
+                return new int[] { '0', '9' };
+            case 'D':
+                return complement(new int[] { '0', '9' });
+            case 'w':
+                return WORD.clone();
+            case 'W':
+                return complement(WORD);
+            case 's':
+                return SPACE.clone();
+            case 'S':
+                return complement(SPACE);
+            case 't':
+                return new int[] { '\t', '\t' };
+            case 'n':
+                return new int[] { '\n', '\n' };
+            case 'r':
+                return new int[] { '\r', '\r' };
+            case 'f':
+                return new int[] { '\f', '\f' };
+            case 'x':
+                return single(parseHex(2));
+            case 'u':
+                return single(parseHex(4));
+            default:
+                if (Character.isLetterOrDigit(cp)) {
+                    throw error("unsupported escape '\\"
+                            + new String(Character.toChars(cp)) + "'");
+                }
+                return single(cp);
+            }
+        }
+
+        private int parseHex(int digits) {
+            if (pos + digits > pattern.length()) {
+                throw error("invalid hexadecimal escape");
+            }
+            try {
+                int v = Integer.parseInt(pattern.substring(pos, pos + digits),
+                        16);
+                pos += digits;
+                return v;
+            } catch (NumberFormatException e) {
+                throw error("invalid hexadecimal escape");
+            }
+        }
+
+        private static final int[] WORD = { '0', '9', 'A', 'Z', '_', '_', 'a',
+                'z' };
+        private static final int[] SPACE = { '\t', '\r', ' ', ' ' };
+    }
+
+    private static int[] single(int cp) {
+        return new int[] { cp, cp };
+    }
+
+    /**
+     * Returns the sorted, merged union of inclusive ranges.
+     */
+    private static int[] union(List<int[]> parts) {
+        List<int[]> ranges = new ArrayList<>();
+        for (int[] part : parts) {
+            for (int k = 0; k < part.length; k += 2) {
+                ranges.add(new int[] { part[k], part[k + 1] });
+            }
+        }
+        ranges.sort((a, b) -> Integer.compare(a[0], b[0]));
+        List<int[]> merged = new ArrayList<>();
+        for (int[] r : ranges) {
+            int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && r[0] <= last[1] + 1) {
+                last[1] = Math.max(last[1], r[1]);
+            } else {
+                merged.add(r);
+            }
+        }
+        int[] res = new int[merged.size() * 2];
+        for (int i = 0; i < merged.size(); ++i) {
+            res[i * 2] = merged.get(i)[0];
+            res[i * 2 + 1] = merged.get(i)[1];
+        }
+        return res;
+    }
+
+    private static int[] complement(int[] set) {
+        List<int[]> res = new ArrayList<>();
+        int from = 0;
+        int[] sorted = union(Arrays.<int[]> asList(set));
+        for (int k = 0; k < sorted.length; k += 2) {
+            if (sorted[k] > from) {
+                res.add(new int[] { from, sorted[k] - 1 });
+            }
+            from = sorted[k + 1] + 1;
+        }
+        if (from <= MAX_CODE_POINT) {
+            res.add(new int[] { from, MAX_CODE_POINT });
+        }
+        return union(res);
+    }
+}
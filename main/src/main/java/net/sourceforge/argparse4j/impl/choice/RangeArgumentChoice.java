@@ -82,4 +82,24 @@ public class RangeArgumentChoice<T extends Comparable<T>> implements
     public String toString() {
         return textualFormat();
     }
+
+    /**
+     * Returns the lower bound of the range, inclusive.
+     *
+     * @return The lower bound.
+     * @since 0.9.1
+     */
+    public T getMin() {
+        return min_;
+    }
+
+    /**
+     * Returns the upper bound of the range, inclusive.
+     *
+     * @return The upper bound.
+     * @since 0.9.1
+     */
+    public T getMax() {
+        return max_;
+    }
 }
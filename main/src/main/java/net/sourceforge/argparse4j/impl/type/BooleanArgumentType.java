@@ -23,7 +23,6 @@
  */
 package net.sourceforge.argparse4j.impl.type;
 
-import net.sourceforge.argparse4j.helper.MessageLocalization;
 import net.sourceforge.argparse4j.helper.TextHelper;
 import net.sourceforge.argparse4j.inf.Argument;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
@@ -97,11 +96,8 @@ public class BooleanArgumentType implements ArgumentType<Boolean>,
             return Boolean.FALSE;
         }
 
-        throw new ArgumentParserException(String.format(TextHelper.LOCALE_ROOT,
-                MessageLocalization.localize(
-                        parser.getConfig().getResourceBundle(),
-                        "couldNotConvertChooseFromError"),
-                value, inferMetavar()[0]), parser, arg);
+        throw new ArgumentParserException(parser, arg,
+                "couldNotConvertChooseFromError", value, inferMetavar()[0]);
     }
 
     /**
@@ -117,6 +113,26 @@ public class BooleanArgumentType implements ArgumentType<Boolean>,
                 falseValue_ }, 0, ",", "{", "}") };
     }
 
+    /**
+     * Returns the string used as true value.
+     *
+     * @return The true value.
+     * @since 0.9.1
+     */
+    public String getTrueValue() {
+        return trueValue_;
+    }
+
+    /**
+     * Returns the string used as false value.
+     *
+     * @return The false value.
+     * @since 0.9.1
+     */
+    public String getFalseValue() {
+        return falseValue_;
+    }
+
     private final String trueValue_;
     private final String falseValue_;
 }
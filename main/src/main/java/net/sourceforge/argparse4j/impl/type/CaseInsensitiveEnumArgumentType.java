@@ -2,7 +2,6 @@ package net.sourceforge.argparse4j.impl.type;
 
 import java.util.Locale;
 
-import net.sourceforge.argparse4j.helper.MessageLocalization;
 import net.sourceforge.argparse4j.helper.TextHelper;
 import net.sourceforge.argparse4j.inf.Argument;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
@@ -68,11 +67,8 @@ public class CaseInsensitiveEnumArgumentType<T extends Enum<T>>
 
         String choices = TextHelper.concat(getStringRepresentations(), 0,
                 ",", "{", "}");
-        throw new ArgumentParserException(String.format(TextHelper.LOCALE_ROOT,
-                MessageLocalization.localize(
-                        parser.getConfig().getResourceBundle(),
-                        "couldNotConvertChooseFromError"),
-                value, choices), parser, arg);
+        throw new ArgumentParserException(parser, arg,
+                "couldNotConvertChooseFromError", value, choices);
     }
 
     /**
@@ -129,4 +125,14 @@ public class CaseInsensitiveEnumArgumentType<T extends Enum<T>>
     private String toCaseInsensitiveForm(String value) {
         return value.toLowerCase(lowerCasingLocale_);
     }
+
+    /**
+     * Returns the enum type.
+     *
+     * @return The type.
+     * @since 0.9.1
+     */
+    public Class<T> getType() {
+        return type_;
+    }
 }
@@ -27,8 +27,6 @@ import static net.sourceforge.argparse4j.helper.TypeNameLocalization.localizeTyp
 
 import java.lang.reflect.InvocationTargetException;
 
-import net.sourceforge.argparse4j.helper.MessageLocalization;
-import net.sourceforge.argparse4j.helper.TextHelper;
 import net.sourceforge.argparse4j.inf.Argument;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
 import net.sourceforge.argparse4j.inf.ArgumentParserException;
@@ -79,13 +77,8 @@ public class ConstructorArgumentType<T> implements ArgumentType<T> {
         } catch (InvocationTargetException e) {
             String localizedTypeName = localizeTypeNameIfPossible(parser,
                     type_);
-            throw new ArgumentParserException(
-                    String.format(TextHelper.LOCALE_ROOT,
-                            MessageLocalization.localize(
-                                    parser.getConfig().getResourceBundle(),
-                                    "couldNotConvertToError"),
-                            value, localizedTypeName),
-                    e.getCause(), parser, arg);
+            throw new ArgumentParserException(e.getCause(), parser, arg,
+                    "couldNotConvertToError", value, localizedTypeName);
         }
         return obj;
     }
@@ -94,4 +87,13 @@ public class ConstructorArgumentType<T> implements ArgumentType<T> {
         throw new IllegalArgumentException("Failed to instantiate object", e);
     }
 
+    /**
+     * Returns the type String value is converted to.
+     *
+     * @return The type.
+     * @since 0.9.1
+     */
+    public Class<T> getType() {
+        return type_;
+    }
 }
@@ -0,0 +1,133 @@
+package net.sourceforge.argparse4j.impl.type;
+
+import net.sourceforge.argparse4j.inf.Argument;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.ArgumentType;
+import net.sourceforge.argparse4j.inf.MetavarInference;
+
+/**
+ * <p>
+ * DoubleArgumentType converts a string to {@link Double}, optionally checking
+ * that the value is in range [min, max], inclusive.
+ * </p>
+ * <p>
+ * Decimal ({@code 1.5e-3}) and hexadecimal ({@code 0x1.8p1}) floating point
+ * literals, {@code Infinity} and {@code NaN} are accepted, and underscores may
+ * separate digits ({@code 1_000.5}). The {@code f} and {@code d} suffixes and
+ * surrounding white space, which {@link Double#valueOf(String)} tolerates, are
+ * rejected. {@code NaN} is never in range when bounds are given.
+ * </p>
+ *
+ * @since 0.9.1
+ */
+public class DoubleArgumentType implements ArgumentType<Double>,
+        MetavarInference {
+
+    private final double min_;
+    private final double max_;
+    private final boolean bounded_;
+
+    /**
+     * Creates DoubleArgumentType accepting any {@code double} value.
+     */
+    public DoubleArgumentType() {
+        min_ = Double.NEGATIVE_INFINITY;
+        max_ = Double.POSITIVE_INFINITY;
+        bounded_ = false;
+    }
+
+    /**
+     * Creates DoubleArgumentType accepting values in range [{@code min},
+     * {@code max}], inclusive.
+     *
+     * @param min
+     *            The lower bound of the range, inclusive.
+     * @param max
+     *            The upper bound of the range, inclusive.
+     */
+    public DoubleArgumentType(double min, double max) {
+        if (!(min <= max)) {
+            throw new IllegalArgumentException("min must not be greater than max");
+        }
+        min_ = min;
+        max_ = max;
+        bounded_ = true;
+    }
+
+    @Override
+    public Double convert(ArgumentParser parser, Argument arg, String value)
+            throws ArgumentParserException {
+        return convertToDouble(parser, arg, value);
+    }
+
+    /**
+     * Converts {@code value} to a {@code double} without boxing it.
+     *
+     * @param parser
+     *            The parser.
+     * @param arg
+     *            The argument this type attached to.
+     * @param value
+     *            The attribute value.
+     * @return The converted value.
+     * @throws ArgumentParserException
+     *             If conversion fails or the value is out of range.
+     */
+    public double convertToDouble(ArgumentParser parser, Argument arg,
+            String value) throws ArgumentParserException {
+        double v;
+        try {
+            v = NumberSyntax.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw NumberSyntax.conversionError(parser, arg, value,
+                    Double.class);
+        }
+        if (bounded_ && !(min_ <= v && v <= max_)) {
+            throw NumberSyntax.rangeError(parser, arg, value,
+                    NumberSyntax.formatRange(min_, max_));
+        }
+        return v;
+    }
+
+    /**
+     * <p>
+     * Infers metavar from the range, e.g. {@code {0.0..1.0}}, if one was
+     * given.
+     * </p>
+     *
+     * @see net.sourceforge.argparse4j.inf.MetavarInference#inferMetavar()
+     */
+    @Override
+    public String[] inferMetavar() {
+        return bounded_ ? new String[] { NumberSyntax.formatRange(min_, max_) }
+                : null;
+    }
+
+    /**
+     * Returns the lower bound of accepted values, inclusive.
+     *
+     * @return The lower bound.
+     */
+    public double getMin() {
+        return min_;
+    }
+
+    /**
+     * Returns the upper bound of accepted values, inclusive.
+     *
+     * @return The upper bound.
+     */
+    public double getMax() {
+        return max_;
+    }
+
+    /**
+     * Returns {@code true} if this type was created with a range.
+     *
+     * @return {@code true} if bounded.
+     */
+    public boolean isBounded() {
+        return bounded_;
+    }
+}
@@ -0,0 +1,249 @@
+package net.sourceforge.argparse4j.impl.type;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.argparse4j.inf.Argument;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.ArgumentType;
+import net.sourceforge.argparse4j.inf.MetavarInference;
+
+/**
+ * <p>
+ * DurationArgumentType converts a duration such as {@code 250ms} or
+ * {@code 1h30m} to {@link Duration}.
+ * </p>
+ * <p>
+ * The value is a sequence of components, each a non-negative decimal number
+ * followed by a unit: {@code d} (days), {@code h}, {@code m}, {@code s},
+ * {@code ms}, {@code us} (or {@code µs}) and {@code ns}. Components must be
+ * given from the largest unit to the smallest, each unit at most once.
+ * Numbers may have a fraction as long as the result is a whole number of
+ * nanoseconds, e.g. {@code 1.5h}. ISO-8601 durations accepted by
+ * {@link Duration#parse(CharSequence)}, such as {@code PT1H30M}, are accepted
+ * as well.
+ * </p>
+ * <p>
+ * If a default unit is given to the constructor, a bare number without unit
+ * is interpreted in that unit.
+ * </p>
+ * <p>
+ * Durations are limited to what fits in a {@code long} number of nanoseconds,
+ * about 292 years. The value is scanned in a single pass without creating
+ * intermediate objects. {@link #convertToNanos(ArgumentParser, Argument, String)}
+ * returns the primitive number of nanoseconds, and {@link #nanos()} returns an
+ * {@link ArgumentType} producing it.
+ * </p>
+ *
+ * @since 0.9.1
+ */
+public class DurationArgumentType implements ArgumentType<Duration>,
+        MetavarInference {
+
+    private static final long NANOS_PER_MICRO = 1000L;
+    private static final long NANOS_PER_MILLI = 1000L * NANOS_PER_MICRO;
+    private static final long NANOS_PER_SECOND = 1000L * NANOS_PER_MILLI;
+    private static final long NANOS_PER_MINUTE = 60L * NANOS_PER_SECOND;
+    private static final long NANOS_PER_HOUR = 60L * NANOS_PER_MINUTE;
+    private static final long NANOS_PER_DAY = 24L * NANOS_PER_HOUR;
+
+    /**
+     * Nanoseconds per unit, in the order the units must appear.
+     */
+    private static final long[] UNIT_NANOS = { NANOS_PER_DAY, NANOS_PER_HOUR,
+            NANOS_PER_MINUTE, NANOS_PER_SECOND, NANOS_PER_MILLI,
+            NANOS_PER_MICRO, 1L };
+
+    private final TimeUnit defaultUnit_;
+
+    /**
+     * Creates DurationArgumentType which requires a unit on every component.
+     */
+    public DurationArgumentType() {
+        this(null);
+    }
+
+    /**
+     * Creates DurationArgumentType which interprets a bare number in
+     * {@code defaultUnit}.
+     *
+     * @param defaultUnit
+     *            The unit of a bare number, or {@code null} to require units.
+     */
+    public DurationArgumentType(TimeUnit defaultUnit) {
+        defaultUnit_ = defaultUnit;
+    }
+
+    /**
+     * Returns the unit of a bare number, or {@code null} if units are required.
+     *
+     * @return The unit.
+     */
+    public TimeUnit getDefaultUnit() {
+        return defaultUnit_;
+    }
+
+    @Override
+    public Duration convert(ArgumentParser parser, Argument arg, String value)
+            throws ArgumentParserException {
+        return Duration.ofNanos(convertToNanos(parser, arg, value));
+    }
+
+    /**
+     * Converts {@code value} to the number of nanoseconds without creating a
+     * {@link Duration}.
+     *
+     * @param parser
+     *            The parser.
+     * @param arg
+     *            The argument this type attached to.
+     * @param value
+     *            The attribute value.
+     * @return The number of nanoseconds.
+     * @throws ArgumentParserException
+     *             If conversion fails or the duration is too long.
+     */
+    public long convertToNanos(ArgumentParser parser, Argument arg,
+            String value) throws ArgumentParserException {
+        try {
+            return parseNanos(value);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw NumberSyntax.conversionError(parser, arg, value,
+                    Duration.class);
+        } catch (ArithmeticException e) {
+            throw NumberSyntax.rangeError(parser, arg, value,
+                    NumberSyntax.formatRange("0ns", Long.MAX_VALUE + "ns"));
+        }
+    }
+
+    /**
+     * Returns an {@link ArgumentType} which converts like this object, but
+     * produces the number of nanoseconds as {@link Long}.
+     *
+     * @return The ArgumentType object.
+     */
+    public ArgumentType<Long> nanos() {
+        return new NanosArgumentType();
+    }
+
+    private long parseNanos(String s) {
+        int len = s.length();
+        if (len > 0 && (s.charAt(0) == 'P' || s.charAt(0) == 'p')) {
+            Duration d = Duration.parse(s);
+            if (d.isNegative()) {
+                throw new NumberFormatException(s);
+            }
+            return d.toNanos();
+        }
+        long total = 0;
+        int lastUnit = -1;
+        int i = 0;
+        while (i < len) {
+            long mantissa = 0;
+            int digits = 0;
+            int fractionDigits = -1;
+            for (; i < len; ++i) {
+                char c = s.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    mantissa = Math.addExact(Math.multiplyExact(mantissa, 10),
+                            c - '0');
+                    ++digits;
+                    if (fractionDigits >= 0) {
+                        ++fractionDigits;
+                    }
+                } else if (c == '_' && digits > 0 && isDigit(s.charAt(i - 1))
+                        && i + 1 < len && isDigit(s.charAt(i + 1))) {
+                    continue;
+                } else if (c == '.' && fractionDigits < 0) {
+                    fractionDigits = 0;
+                } else {
+                    break;
+                }
+            }
+            if (digits == 0) {
+                throw new NumberFormatException(s);
+            }
+            int unit;
+            if (i == len) {
+                if (lastUnit != -1 || defaultUnit_ == null) {
+                    throw new NumberFormatException(s);
+                }
+                return NumberSyntax.scale(mantissa, Math.max(fractionDigits,
+                        0), defaultUnit_.toNanos(1));
+            }
+            char c = s.charAt(i++);
+            boolean followedByS = i < len && s.charAt(i) == 's';
+            switch (c) {
+            case 'd':
+                unit = 0;
+                break;
+            case 'h':
+                unit = 1;
+                break;
+            case 'm':
+                unit = followedByS ? 4 : 2;
+                break;
+            case 's':
+                unit = 3;
+                break;
+            case 'u':
+            case '\u00b5':
+                unit = followedByS ? 5 : -1;
+                break;
+            case 'n':
+                unit = followedByS ? 6 : -1;
+                break;
+            default:
+                unit = -1;
+                break;
+            }
+            if (unit >= 4) {
+                ++i;
+            }
+            if (unit <= lastUnit) {
+                throw new NumberFormatException(s);
+            }
+            lastUnit = unit;
+            total = Math.addExact(total, NumberSyntax.scale(mantissa,
+                    Math.max(fractionDigits, 0), UNIT_NANOS[unit]));
+        }
+        if (lastUnit == -1) {
+            throw new NumberFormatException(s);
+        }
+        return total;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * <p>
+     * Infers metavar describing the accepted syntax:
+     * {@code [Nd][Nh][Nm][Ns][Nms][Nus][Nns]}.
+     * </p>
+     *
+     * @see net.sourceforge.argparse4j.inf.MetavarInference#inferMetavar()
+     */
+    @Override
+    public String[] inferMetavar() {
+        return new String[] { "[Nd][Nh][Nm][Ns][Nms][Nus][Nns]" };
+    }
+
+    private class NanosArgumentType implements ArgumentType<Long>,
+            MetavarInference {
+
+        @Override
+        public Long convert(ArgumentParser parser, Argument arg, String value)
+                throws ArgumentParserException {
+            return convertToNanos(parser, arg, value);
+        }
+
+        @Override
+        public String[] inferMetavar() {
+            return DurationArgumentType.this.inferMetavar();
+        }
+    }
+}
@@ -23,7 +23,6 @@
  */
 package net.sourceforge.argparse4j.impl.type;
 
-import net.sourceforge.argparse4j.helper.MessageLocalization;
 import net.sourceforge.argparse4j.helper.TextHelper;
 import net.sourceforge.argparse4j.inf.Argument;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
@@ -66,14 +65,18 @@ public class EnumArgumentType<T extends Enum<T>> implements ArgumentType<T> {
         } catch (IllegalArgumentException e) {
             String choices = TextHelper.concat(type_.getEnumConstants(), 0,
                     ",", "{", "}");
-            throw new ArgumentParserException(
-                    String.format(TextHelper.LOCALE_ROOT,
-                            MessageLocalization.localize(
-                                    parser.getConfig().getResourceBundle(),
-                                    "couldNotConvertChooseFromError"),
-                            value, choices),
-                    e, parser, arg);
+            throw new ArgumentParserException(e, parser, arg,
+                    "couldNotConvertChooseFromError", value, choices);
         }
     }
 
+    /**
+     * Returns the enum type.
+     *
+     * @return The type.
+     * @since 0.9.1
+     */
+    public Class<T> getType() {
+        return type_;
+    }
 }
@@ -23,7 +23,6 @@
  */
 package net.sourceforge.argparse4j.impl.type;
 
-import net.sourceforge.argparse4j.helper.MessageLocalization;
 import net.sourceforge.argparse4j.helper.TextHelper;
 import net.sourceforge.argparse4j.inf.Argument;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
@@ -77,11 +76,8 @@ public class EnumStringArgumentType<T extends Enum<T>> implements
 
         String choices = TextHelper.concat(type_.getEnumConstants(), 0,
                 ",", "{", "}");
-        throw new ArgumentParserException(String.format(TextHelper.LOCALE_ROOT,
-                MessageLocalization.localize(
-                        parser.getConfig().getResourceBundle(),
-                        "couldNotConvertChooseFromError"),
-                value, choices), parser, arg);
+        throw new ArgumentParserException(parser, arg,
+                "couldNotConvertChooseFromError", value, choices);
     }
 
     /**
@@ -101,4 +97,14 @@ public class EnumStringArgumentType<T extends Enum<T>> implements
         return new String[] { TextHelper.concat(type_.getEnumConstants(),
                 0, ",", "{", "}") };
     }
+
+    /**
+     * Returns the enum type.
+     *
+     * @return The type.
+     * @since 0.9.1
+     */
+    public Class<T> getType() {
+        return type_;
+    }
 }
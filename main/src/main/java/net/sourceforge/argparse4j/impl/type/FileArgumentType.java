@@ -175,6 +175,26 @@ public class FileArgumentType implements ArgumentType<File> {
         return this;
     }
 
+    /**
+     * Returns {@code true} if {@code -} is accepted as standard input.
+     *
+     * @return {@code true} if standard input is accepted.
+     * @since 0.9.1
+     */
+    public boolean isAcceptSystemIn() {
+        return acceptSystemIn;
+    }
+
+    /**
+     * Returns the first of the alternative verifications, see {@link #or()}.
+     *
+     * @return The verification.
+     * @since 0.9.1
+     */
+    public FileVerification getFileVerification() {
+        return firstFileVerification;
+    }
+
     @Override
     public File convert(ArgumentParser parser, Argument arg, String value)
             throws ArgumentParserException {
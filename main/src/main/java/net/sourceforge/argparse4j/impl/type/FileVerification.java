@@ -26,8 +26,6 @@ package net.sourceforge.argparse4j.impl.type;
 import java.io.File;
 import java.io.IOException;
 
-import net.sourceforge.argparse4j.helper.MessageLocalization;
-import net.sourceforge.argparse4j.helper.TextHelper;
 import net.sourceforge.argparse4j.inf.Argument;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
 import net.sourceforge.argparse4j.inf.ArgumentParserException;
@@ -62,6 +60,16 @@ public class FileVerification {
         return nextFileVerification;
     }
 
+    /**
+     * Returns the verification tried if this one fails, or {@code null}.
+     *
+     * @return The next verification.
+     * @since 0.9.1
+     */
+    public FileVerification getNextFileVerification() {
+        return nextFileVerification;
+    }
+
     public void verify(final ArgumentParser parser, final Argument arg,
             final File file) throws ArgumentParserException {
         if (verifyIsAbsolute) {
@@ -213,10 +221,7 @@ public class FileVerification {
 
     private void throwException(ArgumentParser parser, Argument arg, File file,
             String messageKey) throws ArgumentParserException {
-        throw new ArgumentParserException(String.format(TextHelper.LOCALE_ROOT,
-                MessageLocalization
-                        .localize(parser.getConfig().getResourceBundle(),
-                                messageKey), file), parser, arg);
+        throw new ArgumentParserException(parser, arg, messageKey, file);
     }
 
     // Methods to allow mocking the return values of "File" methods.
@@ -0,0 +1,144 @@
+package net.sourceforge.argparse4j.impl.type;
+
+import net.sourceforge.argparse4j.inf.Argument;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.ArgumentType;
+import net.sourceforge.argparse4j.inf.MetavarInference;
+
+/**
+ * <p>
+ * IntegerArgumentType converts a string to {@link Integer}, optionally
+ * checking that the value is in range [min, max], inclusive.
+ * </p>
+ * <p>
+ * Unlike passing {@link Integer} class to {@link Argument#type(Class)}, the
+ * value is parsed directly from its characters, without reflection, and the
+ * range check is made on the primitive value, so no separate
+ * {@link net.sourceforge.argparse4j.impl.choice.RangeArgumentChoice} is
+ * needed. Besides decimal digits, hexadecimal ({@code 0x1F}), octal
+ * ({@code 0o17}) and binary ({@code 0b101}) literals are accepted, and
+ * underscores may separate digits ({@code 1_000_000}). A leading zero does not
+ * make a literal octal.
+ * </p>
+ * <p>
+ * Values which are out of range are reported the same way as a
+ * {@link net.sourceforge.argparse4j.impl.choice.RangeArgumentChoice} reports
+ * them.
+ * </p>
+ *
+ * @since 0.9.1
+ */
+public class IntegerArgumentType implements ArgumentType<Integer>,
+        MetavarInference {
+
+    private final int min_;
+    private final int max_;
+    private final boolean bounded_;
+
+    /**
+     * Creates IntegerArgumentType accepting any {@code int} value.
+     */
+    public IntegerArgumentType() {
+        min_ = Integer.MIN_VALUE;
+        max_ = Integer.MAX_VALUE;
+        bounded_ = false;
+    }
+
+    /**
+     * Creates IntegerArgumentType accepting values in range [{@code min},
+     * {@code max}], inclusive.
+     *
+     * @param min
+     *            The lower bound of the range, inclusive.
+     * @param max
+     *            The upper bound of the range, inclusive.
+     */
+    public IntegerArgumentType(int min, int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("min must not be greater than max");
+        }
+        min_ = min;
+        max_ = max;
+        bounded_ = true;
+    }
+
+    @Override
+    public Integer convert(ArgumentParser parser, Argument arg, String value)
+            throws ArgumentParserException {
+        return convertToInt(parser, arg, value);
+    }
+
+    /**
+     * Converts {@code value} to an {@code int} without boxing it.
+     *
+     * @param parser
+     *            The parser.
+     * @param arg
+     *            The argument this type attached to.
+     * @param value
+     *            The attribute value.
+     * @return The converted value.
+     * @throws ArgumentParserException
+     *             If conversion fails or the value is out of range.
+     */
+    public int convertToInt(ArgumentParser parser, Argument arg, String value)
+            throws ArgumentParserException {
+        long v;
+        try {
+            v = NumberSyntax.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw NumberSyntax.conversionError(parser, arg, value,
+                    Integer.class);
+        } catch (ArithmeticException e) {
+            throw NumberSyntax.rangeError(parser, arg, value,
+                    NumberSyntax.formatRange(min_, max_));
+        }
+        if (v < min_ || v > max_) {
+            throw NumberSyntax.rangeError(parser, arg, value,
+                    NumberSyntax.formatRange(min_, max_));
+        }
+        return (int) v;
+    }
+
+    /**
+     * <p>
+     * Infers metavar from the range, e.g. {@code {1..65535}}, if one was
+     * given.
+     * </p>
+     *
+     * @see net.sourceforge.argparse4j.inf.MetavarInference#inferMetavar()
+     */
+    @Override
+    public String[] inferMetavar() {
+        return bounded_ ? new String[] { NumberSyntax.formatRange(min_, max_) }
+                : null;
+    }
+
+    /**
+     * Returns the lower bound of accepted values, inclusive.
+     *
+     * @return The lower bound.
+     */
+    public int getMin() {
+        return min_;
+    }
+
+    /**
+     * Returns the upper bound of accepted values, inclusive.
+     *
+     * @return The upper bound.
+     */
+    public int getMax() {
+        return max_;
+    }
+
+    /**
+     * Returns {@code true} if this type was created with a range.
+     *
+     * @return {@code true} if bounded.
+     */
+    public boolean isBounded() {
+        return bounded_;
+    }
+}
@@ -0,0 +1,131 @@
+package net.sourceforge.argparse4j.impl.type;
+
+import net.sourceforge.argparse4j.inf.Argument;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.ArgumentType;
+import net.sourceforge.argparse4j.inf.MetavarInference;
+
+/**
+ * <p>
+ * LongArgumentType converts a string to {@link Long}, optionally checking
+ * that the value is in range [min, max], inclusive.
+ * </p>
+ * <p>
+ * The accepted syntax is the same as {@link IntegerArgumentType}'s.
+ * </p>
+ *
+ * @since 0.9.1
+ */
+public class LongArgumentType implements ArgumentType<Long>,
+        MetavarInference {
+
+    private final long min_;
+    private final long max_;
+    private final boolean bounded_;
+
+    /**
+     * Creates LongArgumentType accepting any {@code long} value.
+     */
+    public LongArgumentType() {
+        min_ = Long.MIN_VALUE;
+        max_ = Long.MAX_VALUE;
+        bounded_ = false;
+    }
+
+    /**
+     * Creates LongArgumentType accepting values in range [{@code min},
+     * {@code max}], inclusive.
+     *
+     * @param min
+     *            The lower bound of the range, inclusive.
+     * @param max
+     *            The upper bound of the range, inclusive.
+     */
+    public LongArgumentType(long min, long max) {
+        if (min > max) {
+            throw new IllegalArgumentException("min must not be greater than max");
+        }
+        min_ = min;
+        max_ = max;
+        bounded_ = true;
+    }
+
+    @Override
+    public Long convert(ArgumentParser parser, Argument arg, String value)
+            throws ArgumentParserException {
+        return convertToLong(parser, arg, value);
+    }
+
+    /**
+     * Converts {@code value} to a {@code long} without boxing it.
+     *
+     * @param parser
+     *            The parser.
+     * @param arg
+     *            The argument this type attached to.
+     * @param value
+     *            The attribute value.
+     * @return The converted value.
+     * @throws ArgumentParserException
+     *             If conversion fails or the value is out of range.
+     */
+    public long convertToLong(ArgumentParser parser, Argument arg, String value)
+            throws ArgumentParserException {
+        long v;
+        try {
+            v = NumberSyntax.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw NumberSyntax.conversionError(parser, arg, value, Long.class);
+        } catch (ArithmeticException e) {
+            throw NumberSyntax.rangeError(parser, arg, value,
+                    NumberSyntax.formatRange(min_, max_));
+        }
+        if (v < min_ || v > max_) {
+            throw NumberSyntax.rangeError(parser, arg, value,
+                    NumberSyntax.formatRange(min_, max_));
+        }
+        return v;
+    }
+
+    /**
+     * <p>
+     * Infers metavar from the range, e.g. {@code {0..4294967295}}, if one was
+     * given.
+     * </p>
+     *
+     * @see net.sourceforge.argparse4j.inf.MetavarInference#inferMetavar()
+     */
+    @Override
+    public String[] inferMetavar() {
+        return bounded_ ? new String[] { NumberSyntax.formatRange(min_, max_) }
+                : null;
+    }
+
+    /**
+     * Returns the lower bound of accepted values, inclusive.
+     *
+     * @return The lower bound.
+     */
+    public long getMin() {
+        return min_;
+    }
+
+    /**
+     * Returns the upper bound of accepted values, inclusive.
+     *
+     * @return The upper bound.
+     */
+    public long getMax() {
+        return max_;
+    }
+
+    /**
+     * Returns {@code true} if this type was created with a range.
+     *
+     * @return {@code true} if bounded.
+     */
+    public boolean isBounded() {
+        return bounded_;
+    }
+}
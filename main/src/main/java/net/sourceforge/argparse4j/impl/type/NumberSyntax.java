@@ -0,0 +1,256 @@
+package net.sourceforge.argparse4j.impl.type;
+
+import static net.sourceforge.argparse4j.helper.TypeNameLocalization.localizeTypeNameIfPossible;
+
+import net.sourceforge.argparse4j.helper.TextHelper;
+import net.sourceforge.argparse4j.inf.Argument;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+
+/**
+ * <p>
+ * Parsing of numeric literals shared by {@link IntegerArgumentType},
+ * {@link LongArgumentType}, {@link DoubleArgumentType},
+ * {@link SizeArgumentType} and {@link DurationArgumentType}.
+ * </p>
+ * <p>
+ * The literals are scanned directly from the characters of the value. Syntax
+ * errors are reported as {@link NumberFormatException} and values which do not
+ * fit in a {@code long} as {@link ArithmeticException}, so that the types can
+ * tell conversion errors and range errors apart.
+ * </p>
+ */
+final class NumberSyntax {
+
+    private NumberSyntax() {
+    }
+
+    /**
+     * <p>
+     * Parses an integral literal.
+     * </p>
+     * <p>
+     * The literal is an optional sign followed by decimal digits, or by
+     * {@code 0x}, {@code 0o} or {@code 0b} (case insensitive) and hexadecimal,
+     * octal or binary digits. Underscores may separate digits, as in Java
+     * literals. A leading zero does not make a literal octal.
+     * </p>
+     *
+     * @param s
+     *            The literal.
+     * @return The value.
+     * @throws NumberFormatException
+     *             If {@code s} is not a valid literal.
+     * @throws ArithmeticException
+     *             If the value does not fit in a {@code long}.
+     */
+    static long parseLong(String s) {
+        int len = s.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < len && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            negative = s.charAt(i) == '-';
+            ++i;
+        }
+        int radix = 10;
+        if (i + 1 < len && s.charAt(i) == '0') {
+            switch (s.charAt(i + 1)) {
+            case 'x':
+            case 'X':
+                radix = 16;
+                break;
+            case 'o':
+            case 'O':
+                radix = 8;
+                break;
+            case 'b':
+            case 'B':
+                radix = 2;
+                break;
+            default:
+                break;
+            }
+            if (radix != 10) {
+                i += 2;
+            }
+        }
+        if (i == len) {
+            throw new NumberFormatException(s);
+        }
+        // Accumulate negatively, as Long.parseLong() does, so that
+        // Long.MIN_VALUE can be represented.
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multmin = limit / radix;
+        long result = 0;
+        boolean lastWasDigit = false;
+        for (; i < len; ++i) {
+            char c = s.charAt(i);
+            if (c == '_') {
+                if (!lastWasDigit || i + 1 == len) {
+                    throw new NumberFormatException(s);
+                }
+                lastWasDigit = false;
+                continue;
+            }
+            int digit = Character.digit(c, radix);
+            if (digit < 0 || c > 0x7f) {
+                throw new NumberFormatException(s);
+            }
+            if (result < multmin || result * radix < limit + digit) {
+                // Keep validating the syntax, so that a malformed literal
+                // is not reported as being out of range.
+                for (++i; i < len; ++i) {
+                    c = s.charAt(i);
+                    if (c != '_' && (Character.digit(c, radix) < 0 || c > 0x7f)) {
+                        throw new NumberFormatException(s);
+                    }
+                }
+                throw new ArithmeticException(s);
+            }
+            result = result * radix - digit;
+            lastWasDigit = true;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * <p>
+     * Parses a floating point literal.
+     * </p>
+     * <p>
+     * This accepts what {@link Double#parseDouble(String)} accepts, except for
+     * surrounding white space and the {@code f} and {@code d} suffixes, and
+     * additionally allows underscores between digits. The value itself is
+     * computed by {@link Double#parseDouble(String)}, which rounds correctly;
+     * the underscores are removed only if there are any.
+     * </p>
+     *
+     * @param s
+     *            The literal.
+     * @return The value.
+     * @throws NumberFormatException
+     *             If {@code s} is not a valid literal.
+     */
+    static double parseDouble(String s) {
+        int len = s.length();
+        int i = 0;
+        if (i < len && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            ++i;
+        }
+        if (s.startsWith("Infinity", i) && i + 8 == len
+                || s.startsWith("NaN", i) && i + 3 == len) {
+            return Double.parseDouble(s);
+        }
+        boolean hex = i + 1 < len && s.charAt(i) == '0'
+                && (s.charAt(i + 1) == 'x' || s.charAt(i + 1) == 'X');
+        int radix = 10;
+        char exponentChar = 'e';
+        if (hex) {
+            i += 2;
+            radix = 16;
+            exponentChar = 'p';
+        }
+        int underscores = 0;
+        int digits = 0;
+        boolean dot = false;
+        boolean exponent = false;
+        boolean exponentDigits = false;
+        char prev = 0;
+        for (; i < len; ++i) {
+            char c = s.charAt(i);
+            if (c == '_') {
+                if (!isDigit(prev, exponent ? 10 : radix) || i + 1 == len
+                        || !isDigit(s.charAt(i + 1), exponent ? 10 : radix)) {
+                    throw new NumberFormatException(s);
+                }
+                ++underscores;
+            } else if (c == '.' && !dot && !exponent) {
+                dot = true;
+            } else if (Character.toLowerCase(c) == exponentChar && !exponent
+                    && digits > 0) {
+                exponent = true;
+                if (i + 1 < len
+                        && (s.charAt(i + 1) == '-' || s.charAt(i + 1) == '+')) {
+                    ++i;
+                }
+            } else if (exponent && isDigit(c, 10)) {
+                exponentDigits = true;
+            } else if (!exponent && isDigit(c, radix)) {
+                ++digits;
+            } else {
+                throw new NumberFormatException(s);
+            }
+            prev = c;
+        }
+        if (digits == 0 || exponent && !exponentDigits || hex && !exponent) {
+            throw new NumberFormatException(s);
+        }
+        if (underscores == 0) {
+            return Double.parseDouble(s);
+        }
+        char[] buf = new char[len - underscores];
+        int n = 0;
+        for (int k = 0; k < len; ++k) {
+            char c = s.charAt(k);
+            if (c != '_') {
+                buf[n++] = c;
+            }
+        }
+        return Double.parseDouble(new String(buf));
+    }
+
+    /**
+     * <p>
+     * Returns {@code mantissa / 10^fractionDigits * multiplier}.
+     * </p>
+     * <p>
+     * This is used by the unit-suffixed types, which scan a decimal number
+     * such as {@code 1.5} into mantissa 15 and 1 fraction digit.
+     * </p>
+     *
+     * @throws NumberFormatException
+     *             If the result is not integral, e.g. {@code 1.5} bytes.
+     * @throws ArithmeticException
+     *             If the result does not fit in a {@code long}.
+     */
+    static long scale(long mantissa, int fractionDigits, long multiplier) {
+        long divisor = 1;
+        for (int i = 0; i < fractionDigits; ++i) {
+            divisor = Math.multiplyExact(divisor, 10);
+        }
+        if (multiplier % divisor == 0) {
+            return Math.multiplyExact(mantissa, multiplier / divisor);
+        }
+        long product = Math.multiplyExact(mantissa, multiplier);
+        if (product % divisor != 0) {
+            throw new NumberFormatException();
+        }
+        return product / divisor;
+    }
+
+    private static boolean isDigit(char c, int radix) {
+        return c <= 0x7f && Character.digit(c, radix) >= 0;
+    }
+
+    static ArgumentParserException conversionError(ArgumentParser parser,
+            Argument arg, String value, Class<?> type) {
+        return conversionError(parser, arg, value,
+                localizeTypeNameIfPossible(parser, type));
+    }
+
+    static ArgumentParserException conversionError(ArgumentParser parser,
+            Argument arg, String value, String localizedTypeName) {
+        return new ArgumentParserException(parser, arg,
+                "couldNotConvertToError", value, localizedTypeName);
+    }
+
+    static ArgumentParserException rangeError(ArgumentParser parser,
+            Argument arg, String value, String range) {
+        return new ArgumentParserException(parser, arg, "invalidChoiceError",
+                value, range);
+    }
+
+    static String formatRange(Object min, Object max) {
+        return String.format(TextHelper.LOCALE_ROOT, "{%s..%s}", min, max);
+    }
+}
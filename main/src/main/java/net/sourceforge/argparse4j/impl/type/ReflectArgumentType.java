@@ -28,8 +28,9 @@ import static net.sourceforge.argparse4j.helper.TypeNameLocalization.localizeTyp
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 
-import net.sourceforge.argparse4j.helper.MessageLocalization;
 import net.sourceforge.argparse4j.helper.TextHelper;
 import net.sourceforge.argparse4j.impl.Arguments;
 import net.sourceforge.argparse4j.inf.Argument;
@@ -49,6 +50,14 @@ import net.sourceforge.argparse4j.inf.MetavarInference;
  * metavar string for Boolean values, and it is used when
  * {@link Argument#metavar(String...)} is not used.
  * </p>
+ * <p>
+ * Enums and the JDK types {@link Boolean}, {@link Byte}, {@link Short},
+ * {@link Integer}, {@link Long}, {@link Float}, {@link Double},
+ * {@link String}, {@link BigInteger} and {@link BigDecimal} are converted by
+ * calling the same method or constructor directly, so that they work in a
+ * native image without reflection metadata. See
+ * {@link #requiresReflection()}.
+ * </p>
  */
 public class ReflectArgumentType<T> implements ArgumentType<T>,
         MetavarInference {
@@ -106,13 +115,17 @@ public class ReflectArgumentType<T> implements ArgumentType<T>,
                 //noinspection unchecked
                 return (T) Enum.valueOf((Class<Enum>) type_, value);
             } catch (IllegalArgumentException e) {
-                throw new ArgumentParserException(
-                        String.format(TextHelper.LOCALE_ROOT,
-                                MessageLocalization.localize(
-                                        parser.getConfig().getResourceBundle(),
-                                        "couldNotConvertChooseFromError"),
-                                value, inferMetavar()[0]),
-                        parser, arg);
+                throw new ArgumentParserException(parser, arg,
+                        "couldNotConvertChooseFromError", value,
+                        inferMetavar()[0]);
+            }
+        }
+        if (!requiresReflection()) {
+            try {
+                //noinspection unchecked
+                return (T) convertJdkType(value);
+            } catch (RuntimeException e) {
+                throwArgumentParserException(parser, arg, value, e);
             }
         }
         Method m = null;
@@ -158,15 +171,75 @@ public class ReflectArgumentType<T> implements ArgumentType<T>,
         return obj;
     }
 
+    /**
+     * Converts {@code value} the way reflection would, i.e. by
+     * {@code valueOf(String)} if the type has it and by the constructor
+     * otherwise.
+     */
+    private Object convertJdkType(String value) {
+        if (type_ == Integer.class) {
+            return Integer.valueOf(value);
+        } else if (type_ == Long.class) {
+            return Long.valueOf(value);
+        } else if (type_ == Double.class) {
+            return Double.valueOf(value);
+        } else if (type_ == Boolean.class) {
+            return Boolean.valueOf(value);
+        } else if (type_ == String.class) {
+            return value;
+        } else if (type_ == Float.class) {
+            return Float.valueOf(value);
+        } else if (type_ == Short.class) {
+            return Short.valueOf(value);
+        } else if (type_ == Byte.class) {
+            return Byte.valueOf(value);
+        } else if (type_ == BigInteger.class) {
+            return new BigInteger(value);
+        } else {
+            return new BigDecimal(value);
+        }
+    }
+
+    /**
+     * Returns the type String value is converted to.
+     *
+     * @return The type.
+     * @since 0.9.1
+     */
+    public Class<T> getType() {
+        return type_;
+    }
+
+    /**
+     * <p>
+     * Returns {@code true} if {@link #convert(ArgumentParser, Argument, String)}
+     * looks up {@code valueOf(java.lang.String)} or the constructor of the type
+     * by reflection. This is the case unless the type is an enum or one of the
+     * JDK types listed in the class description.
+     * </p>
+     * <p>
+     * A native image needs reflection metadata for these lookups, see
+     * {@link net.sourceforge.argparse4j.NativeImageMetadata}.
+     * </p>
+     *
+     * @return {@code true} if conversion uses reflection.
+     * @since 0.9.1
+     */
+    public boolean requiresReflection() {
+        return !(type_.isEnum() || type_ == Integer.class
+                || type_ == Long.class || type_ == Double.class
+                || type_ == Boolean.class || type_ == String.class
+                || type_ == Float.class || type_ == Short.class
+                || type_ == Byte.class || type_ == BigInteger.class
+                || type_ == BigDecimal.class);
+    }
+
     private void throwArgumentParserException(ArgumentParser parser,
             Argument arg, String value, Throwable t)
             throws ArgumentParserException {
         String localizedTypeName = localizeTypeNameIfPossible(parser, type_);
-        throw new ArgumentParserException(String.format(TextHelper.LOCALE_ROOT,
-                MessageLocalization.localize(
-                        parser.getConfig().getResourceBundle(),
-                        "couldNotConvertToError"),
-                value, localizedTypeName), t, parser, arg);
+        throw new ArgumentParserException(t, parser, arg,
+                "couldNotConvertToError", value, localizedTypeName);
     }
 
     private void handleInstantiationError(Exception e) {
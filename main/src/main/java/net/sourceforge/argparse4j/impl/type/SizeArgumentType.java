@@ -0,0 +1,202 @@
+package net.sourceforge.argparse4j.impl.type;
+
+import net.sourceforge.argparse4j.helper.MessageLocalization;
+import net.sourceforge.argparse4j.inf.Argument;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.ArgumentType;
+import net.sourceforge.argparse4j.inf.MetavarInference;
+
+/**
+ * <p>
+ * SizeArgumentType converts a size with an optional unit suffix, such as
+ * {@code 512MiB} or {@code 4G}, to the number of bytes as {@link Long}.
+ * </p>
+ * <p>
+ * The value is a non-negative decimal number, optionally with a fraction and
+ * underscores between digits, followed by one of these units:
+ * </p>
+ * <ul>
+ * <li>none or {@code B}: bytes</li>
+ * <li>{@code KiB}, {@code MiB}, {@code GiB}, {@code TiB}, {@code PiB},
+ * {@code EiB} (or without the {@code B}): IEC binary units, powers of
+ * 1024</li>
+ * <li>{@code kB}, {@code MB}, {@code GB}, {@code TB}, {@code PB},
+ * {@code EB}: SI decimal units, powers of 1000</li>
+ * <li>{@code K}, {@code M}, {@code G}, {@code T}, {@code P}, {@code E}:
+ * binary units, following the convention of JVM options such as
+ * {@code -Xmx4G}</li>
+ * </ul>
+ * <p>
+ * Units are case insensitive. A fraction is allowed as long as the result is
+ * a whole number of bytes, e.g. {@code 1.5KiB} is 1536 bytes, but
+ * {@code 0.5B} is rejected.
+ * </p>
+ * <p>
+ * The value is scanned in a single pass without creating intermediate
+ * objects. {@link #convertToBytes(ArgumentParser, Argument, String)} returns
+ * the primitive value.
+ * </p>
+ *
+ * @since 0.9.1
+ */
+public class SizeArgumentType implements ArgumentType<Long>, MetavarInference {
+
+    private static final String UNITS = "KMGTPE";
+
+    private final long min_;
+    private final long max_;
+
+    /**
+     * Creates SizeArgumentType accepting any size which fits in a
+     * {@code long}.
+     */
+    public SizeArgumentType() {
+        this(0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates SizeArgumentType accepting sizes in range [{@code min},
+     * {@code max}] bytes, inclusive.
+     *
+     * @param min
+     *            The lower bound of the range, inclusive.
+     * @param max
+     *            The upper bound of the range, inclusive.
+     */
+    public SizeArgumentType(long min, long max) {
+        if (min < 0 || min > max) {
+            throw new IllegalArgumentException(
+                    "min must be non-negative and not greater than max");
+        }
+        min_ = min;
+        max_ = max;
+    }
+
+    @Override
+    public Long convert(ArgumentParser parser, Argument arg, String value)
+            throws ArgumentParserException {
+        return convertToBytes(parser, arg, value);
+    }
+
+    /**
+     * Converts {@code value} to the number of bytes without boxing it.
+     *
+     * @param parser
+     *            The parser.
+     * @param arg
+     *            The argument this type attached to.
+     * @param value
+     *            The attribute value.
+     * @return The number of bytes.
+     * @throws ArgumentParserException
+     *             If conversion fails or the size is out of range.
+     */
+    public long convertToBytes(ArgumentParser parser, Argument arg,
+            String value) throws ArgumentParserException {
+        long bytes;
+        try {
+            bytes = parseBytes(value);
+        } catch (NumberFormatException e) {
+            throw NumberSyntax.conversionError(parser, arg, value,
+                    MessageLocalization.localize(parser.getConfig()
+                            .getResourceBundle(), "type.Size", "size"));
+        } catch (ArithmeticException e) {
+            throw NumberSyntax.rangeError(parser, arg, value,
+                    NumberSyntax.formatRange(min_, max_));
+        }
+        if (bytes < min_ || bytes > max_) {
+            throw NumberSyntax.rangeError(parser, arg, value,
+                    NumberSyntax.formatRange(min_, max_));
+        }
+        return bytes;
+    }
+
+    private static long parseBytes(String s) {
+        int len = s.length();
+        int i = 0;
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < len; ++i) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                mantissa = Math.addExact(Math.multiplyExact(mantissa, 10),
+                        c - '0');
+                ++digits;
+                if (fractionDigits >= 0) {
+                    ++fractionDigits;
+                }
+            } else if (c == '_' && i > 0 && isDigit(s.charAt(i - 1))
+                    && i + 1 < len && isDigit(s.charAt(i + 1))) {
+                continue;
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException(s);
+        }
+        long multiplier = 1;
+        if (i < len) {
+            int exponent = UNITS.indexOf(Character.toUpperCase(s.charAt(i)));
+            if (exponent >= 0) {
+                ++i;
+                boolean binary = true;
+                if (i < len && (s.charAt(i) == 'i' || s.charAt(i) == 'I')) {
+                    ++i;
+                } else if (i < len && (s.charAt(i) == 'B' || s.charAt(i) == 'b')) {
+                    binary = false;
+                }
+                for (int k = 0; k <= exponent; ++k) {
+                    multiplier *= binary ? 1024 : 1000;
+                }
+            }
+            if (i < len && (s.charAt(i) == 'B' || s.charAt(i) == 'b')) {
+                ++i;
+            }
+            if (i < len) {
+                throw new NumberFormatException(s);
+            }
+        }
+        return NumberSyntax.scale(mantissa,
+                fractionDigits < 0 ? 0 : fractionDigits, multiplier);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * <p>
+     * Infers metavar describing the accepted syntax:
+     * {@code N[{K,M,G,T,P,E}[i]][B]}.
+     * </p>
+     *
+     * @see net.sourceforge.argparse4j.inf.MetavarInference#inferMetavar()
+     */
+    @Override
+    public String[] inferMetavar() {
+        return new String[] { "N[{K,M,G,T,P,E}[i]][B]" };
+    }
+
+    /**
+     * Returns the lower bound of accepted sizes in bytes, inclusive.
+     *
+     * @return The lower bound.
+     */
+    public long getMin() {
+        return min_;
+    }
+
+    /**
+     * Returns the upper bound of accepted sizes in bytes, inclusive.
+     *
+     * @return The upper bound.
+     */
+    public long getMax() {
+        return max_;
+    }
+}
@@ -25,6 +25,7 @@ package net.sourceforge.argparse4j.inf;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * This interface provides a way to specify parameters to argument to be
@@ -295,6 +296,25 @@ public interface Argument {
      */
     Argument metavar(String... metavar);
 
+    /**
+     * <p>
+     * Set the name for the argument in usage messages, which is obtained
+     * from {@code metavar} only when usage or help is formatted.
+     * </p>
+     * <p>
+     * The default implementation calls {@link #metavar(String...)} with the
+     * supplied names right away.
+     * </p>
+     *
+     * @param metavar
+     *            The supplier of the name for the argument in usage messages
+     * @return this
+     * @since 0.9.1
+     */
+    default Argument metavarSupplier(Supplier<String[]> metavar) {
+        return metavar(metavar.get());
+    }
+
     /**
      * Sets the brief description of what the argument does.
      * 
@@ -304,6 +324,27 @@ public interface Argument {
      */
     Argument help(String help);
 
+    /**
+     * <p>
+     * Sets the brief description of what the argument does, which is
+     * obtained from {@code help} only when help is formatted, e.g.
+     * {@code helpSupplier(() -> bundle.getString("foo.help"))}.
+     * </p>
+     * <p>
+     * The default implementation calls {@link #help(String)} with the
+     * supplied text right away.
+     * </p>
+     *
+     * @param help
+     *            The supplier of the brief description of what the argument
+     *            does
+     * @return this
+     * @since 0.9.1
+     */
+    default Argument helpSupplier(Supplier<String> help) {
+        return help(help.get());
+    }
+
     /**
      * <p>
      * Sets special value to control help message handling.
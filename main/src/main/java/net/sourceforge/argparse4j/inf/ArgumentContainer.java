@@ -1,5 +1,7 @@
 package net.sourceforge.argparse4j.inf;
 
+import java.util.function.Supplier;
+
 /**
  * A container to which arguments can be added.
  * 
@@ -30,4 +32,24 @@ public interface ArgumentContainer {
      * @return this
      */
     ArgumentContainer description(String description);
+
+    /**
+     * <p>
+     * Sets the description for the arguments of this container, which is
+     * obtained from {@code description} only when help is formatted.
+     * </p>
+     * <p>
+     * The default implementation calls {@link #description(String)} with
+     * the supplied text right away.
+     * </p>
+     *
+     * @param description
+     *            The supplier of the description of this container.
+     * @return this
+     * @since 0.9.1
+     */
+    default ArgumentContainer descriptionSupplier(
+            Supplier<String> description) {
+        return description(description.get());
+    }
 }
@@ -23,6 +23,8 @@
  */
 package net.sourceforge.argparse4j.inf;
 
+import java.util.function.Supplier;
+
 /**
  * This interface defines a method to conceptually group up {@link Argument}
  * objects.
@@ -30,4 +32,12 @@ package net.sourceforge.argparse4j.inf;
 public interface ArgumentGroup extends ArgumentContainer {
     @Override
     ArgumentGroup description(String description);
+
+    /**
+     * @since 0.9.1
+     */
+    @Override
+    default ArgumentGroup descriptionSupplier(Supplier<String> description) {
+        return description(description.get());
+    }
 }
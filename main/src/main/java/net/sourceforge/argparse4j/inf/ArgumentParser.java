@@ -24,11 +24,14 @@
 package net.sourceforge.argparse4j.inf;
 
 import java.io.PrintWriter;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import net.sourceforge.argparse4j.ArgumentParsers;
 import net.sourceforge.argparse4j.annotation.Arg;
+import net.sourceforge.argparse4j.helper.HelpScreenException;
 
 /**
  * <p>
@@ -129,6 +132,14 @@ public interface ArgumentParser extends ArgumentContainer {
     @Override
     ArgumentParser description(String description);
 
+    /**
+     * @since 0.9.1
+     */
+    @Override
+    default ArgumentParser descriptionSupplier(Supplier<String> description) {
+        return description(description.get());
+    }
+
     /**
      * Sets the text to display after the argument help.
      * 
@@ -138,6 +149,25 @@ public interface ArgumentParser extends ArgumentContainer {
      */
     ArgumentParser epilog(String epilog);
 
+    /**
+     * <p>
+     * Sets the text to display after the argument help, which is obtained
+     * from {@code epilog} only when help is formatted.
+     * </p>
+     * <p>
+     * The default implementation calls {@link #epilog(String)} with the
+     * supplied text right away.
+     * </p>
+     *
+     * @param epilog
+     *            The supplier of the text to display after the argument help.
+     * @return this
+     * @since 0.9.1
+     */
+    default ArgumentParser epilogSupplier(Supplier<String> epilog) {
+        return epilog(epilog.get());
+    }
+
     /**
      * <p>
      * Sets version string. It will be displayed {@link #printVersion()}.
@@ -321,6 +351,47 @@ public interface ArgumentParser extends ArgumentContainer {
      */
     Namespace parseArgs(String[] args) throws ArgumentParserException;
 
+    /**
+     * <p>
+     * Parses command line arguments without throwing on errors.
+     * </p>
+     * <p>
+     * Unlike {@link #parseArgs(String[])}, parsing continues after an error
+     * wherever the rest of the command line can still be interpreted, so
+     * that all problems are reported at once. Help and version flags are
+     * reported as diagnostics instead of printing help or exiting. The
+     * exceptions carried by the diagnostics are created but not thrown;
+     * build the parser with
+     * {@link net.sourceforge.argparse4j.ArgumentParserBuilder#stackTraceEnabled(boolean)}
+     * set to {@code false} to make them cheaper.
+     * </p>
+     * <p>
+     * The default implementation calls {@link #parseArgs(String[])} and
+     * reports at most one diagnostic. It prints help and exits on the version
+     * flag as {@link #parseArgs(String[])} does.
+     * </p>
+     *
+     * @param args
+     *            Command line arguments.
+     * @return The parsed {@link Namespace}, or the diagnostics.
+     * @since 0.9.1
+     */
+    default ParseResult tryParse(String[] args) {
+        try {
+            return new ParseResult(parseArgs(args),
+                    Collections.<ParseDiagnostic> emptyList());
+        } catch (HelpScreenException e) {
+            return new ParseResult(null, Collections
+                    .singletonList(new ParseDiagnostic(
+                            ParseDiagnostic.Kind.HELP, null, -1, null)));
+        } catch (ArgumentParserException e) {
+            return new ParseResult(null, Collections
+                    .singletonList(new ParseDiagnostic(
+                            ParseDiagnostic.Kind.OTHER, null, -1,
+                            e)));
+        }
+    }
+
     /**
      * <p>
      * Parses command line arguments.
@@ -23,4 +23,30 @@ public interface ArgumentParserConfiguration {
      * @return Locale
      */
     Locale getLocale();
+
+    /**
+     * <p>
+     * Returns {@code true} if {@link ArgumentParserException} created for the
+     * parser of this configuration captures its stack trace.
+     * </p>
+     *
+     * @return {@code true} if stack traces are captured.
+     * @since 0.9.1
+     */
+    default boolean isStackTraceEnabled() {
+        return true;
+    }
+
+    /**
+     * <p>
+     * Returns the program name of the parser of this configuration. The
+     * sub-commands of a parser share its program name.
+     * </p>
+     *
+     * @return The program name, or the empty string if it is not known.
+     * @since 0.9.1
+     */
+    default String getProg() {
+        return "";
+    }
 }
@@ -23,59 +23,227 @@
  */
 package net.sourceforge.argparse4j.inf;
 
-import java.util.Locale;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+
+import net.sourceforge.argparse4j.helper.MessageTemplate;
 
 /**
+ * <p>
  * The exception thrown from {@link ArgumentParser#parseArgs(String[])} if error
  * occurred while processing command line argument. The argument {@code parser}
  * in constructor is the ArgumentParser object where an error occurred.
+ * </p>
+ * <p>
+ * The constructors taking an {@link Argument} do not build the message text.
+ * It is rendered from the resource bundle of the parser when
+ * {@link #getMessage()} is called for the first time, so that rejected
+ * arguments which are handled without printing the message stay cheap.
+ * </p>
+ * <p>
+ * If {@link ArgumentParserConfiguration#isStackTraceEnabled()} of the parser
+ * returns {@code false}, the exception does not capture its stack trace and
+ * {@link #getStackTrace()} returns an empty array.
+ * </p>
  */
 public class ArgumentParserException extends Exception {
 
     private static final long serialVersionUID = 1L;
+    private static final StackTraceElement[] NO_STACK_TRACE = new StackTraceElement[0];
     private final transient ArgumentParser parser_;
+    private final transient Argument arg_;
+    private final transient String messageKey_;
+    private final transient Object[] messageArgs_;
+    private String message_;
+    private volatile boolean resolved_;
+    /**
+     * Set by the constructor. Until then {@link #fillInStackTrace()} does
+     * nothing, so that the constructor can decide whether to capture the
+     * stack trace once {@code parser} is known.
+     */
+    private boolean initialized_;
 
     public ArgumentParserException(ArgumentParser parser) {
         super();
         parser_ = parser;
+        arg_ = null;
+        messageKey_ = null;
+        messageArgs_ = null;
+        if (!omitStackTrace(parser)) {
+            super.fillInStackTrace();
+        }
     }
 
     public ArgumentParserException(String message, ArgumentParser parser) {
         super(message);
         parser_ = parser;
+        arg_ = null;
+        messageKey_ = null;
+        messageArgs_ = null;
+        if (!omitStackTrace(parser)) {
+            super.fillInStackTrace();
+        }
     }
 
     public ArgumentParserException(String message, Throwable cause,
             ArgumentParser parser) {
         super(message, cause);
         parser_ = parser;
+        arg_ = null;
+        messageKey_ = null;
+        messageArgs_ = null;
+        if (!omitStackTrace(parser)) {
+            super.fillInStackTrace();
+        }
     }
 
     public ArgumentParserException(Throwable cause, ArgumentParser parser) {
         super(cause);
         parser_ = parser;
+        arg_ = null;
+        messageKey_ = null;
+        messageArgs_ = null;
+        if (!omitStackTrace(parser)) {
+            super.fillInStackTrace();
+        }
     }
 
     public ArgumentParserException(String message, ArgumentParser parser,
             Argument arg) {
-        super(formatMessage(message, arg, parser.getConfig()));
+        super(message);
         parser_ = parser;
+        arg_ = arg;
+        messageKey_ = null;
+        messageArgs_ = null;
+        if (!omitStackTrace(parser)) {
+            super.fillInStackTrace();
+        }
     }
 
     public ArgumentParserException(String message, Throwable cause,
             ArgumentParser parser, Argument arg) {
-        super(formatMessage(message, arg, parser.getConfig()), cause);
+        super(message, cause);
         parser_ = parser;
+        arg_ = arg;
+        messageKey_ = null;
+        messageArgs_ = null;
+        if (!omitStackTrace(parser)) {
+            super.fillInStackTrace();
+        }
+    }
+
+    /**
+     * <p>
+     * Creates the exception whose message is {@code messageKey} of the
+     * resource bundle of {@code parser}, formatted with {@code messageArgs}
+     * when the message is first requested.
+     * </p>
+     *
+     * @param parser
+     *            The parser where an error occurred.
+     * @param arg
+     *            The argument the error is about, or {@code null}.
+     * @param messageKey
+     *            The key of the message in the resource bundle.
+     * @param messageArgs
+     *            The arguments of the message.
+     * @since 0.9.1
+     */
+    public ArgumentParserException(ArgumentParser parser, Argument arg,
+            String messageKey, Object... messageArgs) {
+        this(null, parser, arg, messageKey, messageArgs);
+    }
+
+    /**
+     * <p>
+     * Creates the exception whose message is {@code messageKey} of the
+     * resource bundle of {@code parser}, formatted with {@code messageArgs}
+     * when the message is first requested.
+     * </p>
+     *
+     * @param cause
+     *            The cause.
+     * @param parser
+     *            The parser where an error occurred.
+     * @param arg
+     *            The argument the error is about, or {@code null}.
+     * @param messageKey
+     *            The key of the message in the resource bundle.
+     * @param messageArgs
+     *            The arguments of the message.
+     * @since 0.9.1
+     */
+    public ArgumentParserException(Throwable cause, ArgumentParser parser,
+            Argument arg, String messageKey, Object... messageArgs) {
+        super(null, cause);
+        parser_ = parser;
+        arg_ = arg;
+        messageKey_ = messageKey;
+        messageArgs_ = messageArgs;
+        if (!omitStackTrace(parser)) {
+            super.fillInStackTrace();
+        }
+    }
+
+    private boolean omitStackTrace(ArgumentParser parser) {
+        initialized_ = true;
+        ArgumentParserConfiguration config = parser == null ? null : parser
+                .getConfig();
+        if (config == null || config.isStackTraceEnabled()) {
+            return false;
+        }
+        setStackTrace(NO_STACK_TRACE);
+        return true;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return initialized_ ? super.fillInStackTrace() : this;
+    }
+
+    @Override
+    public String getMessage() {
+        if (arg_ == null && messageKey_ == null) {
+            return resolved_ ? message_ : super.getMessage();
+        }
+        if (!resolved_) {
+            message_ = formatMessage();
+            resolved_ = true;
+        }
+        return message_;
     }
 
-    private static String formatMessage(String message, Argument arg,
-            ArgumentParserConfiguration config) {
-        return String.format(Locale.ROOT,
-                config.getResourceBundle().getString("argument"),
-                arg.textualName(), message);
+    private String formatMessage() {
+        ArgumentParserConfiguration config = parser_.getConfig();
+        String message = messageKey_ == null ? super.getMessage()
+                : MessageTemplate.get(config.getResourceBundle(), messageKey_)
+                        .format(messageArgs_);
+        if (arg_ == null) {
+            return message;
+        }
+        return MessageTemplate.get(config.getResourceBundle(), "argument")
+                .format(arg_.textualName(), message);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // The parser and the argument are not serialized.
+        message_ = getMessage();
+        resolved_ = true;
+        out.defaultWriteObject();
     }
 
     public ArgumentParser getParser() {
         return parser_;
     }
+
+    /**
+     * Returns the key of the message in the resource bundle of the parser.
+     *
+     * @return The key, or {@code null} if the exception was created with the
+     *         message text.
+     * @since 0.9.1
+     */
+    public String getMessageKey() {
+        return messageKey_;
+    }
 }
@@ -0,0 +1,42 @@
+package net.sourceforge.argparse4j.inf;
+
+import java.util.List;
+
+/**
+ * <p>
+ * This interface converts a {@link List} parse result to an array, when
+ * assigning it to an array-typed field or method parameter annotated with
+ * {@link net.sourceforge.argparse4j.annotation.Arg}.
+ * </p>
+ * <p>
+ * Arrays of primitive types, of {@link String} and of other reference types
+ * whose elements are stored as they are, are handled by argparse4j. Register
+ * an implementation of this interface with
+ * {@link net.sourceforge.argparse4j.ArgumentParserBuilder#arrayConverter(ArrayConverter)}
+ * for array types needing a different conversion, e.g. to build a
+ * {@code BigInteger[]} from a list of strings, or to produce a specialized
+ * array without reflection.
+ * </p>
+ *
+ * @param <A>
+ *            The array type
+ * @since 0.9.1
+ */
+public interface ArrayConverter<A> {
+
+    /**
+     * Returns the array type this object converts to, e.g. {@code int[].class}.
+     *
+     * @return The array type.
+     */
+    Class<A> getArrayType();
+
+    /**
+     * Converts {@code list} to an array.
+     *
+     * @param list
+     *            The list to convert.
+     * @return The array.
+     */
+    A convert(List<?> list);
+}
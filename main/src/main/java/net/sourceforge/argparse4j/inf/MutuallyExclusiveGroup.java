@@ -23,10 +23,21 @@
  */
 package net.sourceforge.argparse4j.inf;
 
+import java.util.function.Supplier;
+
 public interface MutuallyExclusiveGroup extends ArgumentContainer {
     @Override
     MutuallyExclusiveGroup description(String description);
 
+    /**
+     * @since 0.9.1
+     */
+    @Override
+    default MutuallyExclusiveGroup descriptionSupplier(
+            Supplier<String> description) {
+        return description(description.get());
+    }
+
     /**
      * <p>
      * If {@code true} is given, one of the arguments in this group must be
@@ -0,0 +1,162 @@
+package net.sourceforge.argparse4j.inf;
+
+/**
+ * <p>
+ * A problem found by {@link ArgumentParser#tryParse(String[])}.
+ * </p>
+ *
+ * @since 0.9.1
+ */
+public final class ParseDiagnostic {
+
+    /**
+     * The kind of a {@link ParseDiagnostic}.
+     */
+    public enum Kind {
+        /**
+         * A flag or positional value no argument accepts.
+         */
+        UNRECOGNIZED_ARGUMENT,
+        /**
+         * A sub-command which does not exist.
+         */
+        UNRECOGNIZED_COMMAND,
+        /**
+         * An abbreviation matching more than one flag or sub-command.
+         */
+        AMBIGUOUS,
+        /**
+         * A value which could not be converted, or is not one of the choices.
+         */
+        INVALID_VALUE,
+        /**
+         * A flag followed by fewer values than it requires.
+         */
+        MISSING_VALUE,
+        /**
+         * A value given to a flag which does not take one, e.g.
+         * {@code --verbose=yes}.
+         */
+        UNEXPECTED_VALUE,
+        /**
+         * A required argument, group or sub-command which is not given.
+         */
+        MISSING_ARGUMENT,
+        /**
+         * An argument given together with another member of its mutually
+         * exclusive group.
+         */
+        CONFLICTING_ARGUMENTS,
+        /**
+         * A file given with the from-file prefix which could not be read.
+         */
+        UNREADABLE_FILE,
+        /**
+         * The help flag. The help is not printed.
+         */
+        HELP,
+        /**
+         * The version flag. The version is not printed.
+         */
+        VERSION,
+        /**
+         * Any other error, e.g. one raised by a custom action.
+         */
+        OTHER
+    }
+
+    private final Kind kind_;
+    private final Argument argument_;
+    private final int tokenIndex_;
+    private final ArgumentParserException exception_;
+
+    /**
+     * Creates the diagnostic.
+     *
+     * @param kind
+     *            The kind.
+     * @param argument
+     *            The argument the diagnostic is about, or {@code null}.
+     * @param tokenIndex
+     *            The index of the offending token, or {@code -1}.
+     * @param exception
+     *            The exception {@link ArgumentParser#parseArgs(String[])}
+     *            would throw, or {@code null} for {@link Kind#HELP} and
+     *            {@link Kind#VERSION}.
+     */
+    public ParseDiagnostic(Kind kind, Argument argument, int tokenIndex,
+            ArgumentParserException exception) {
+        kind_ = kind;
+        argument_ = argument;
+        tokenIndex_ = tokenIndex;
+        exception_ = exception;
+    }
+
+    public Kind getKind() {
+        return kind_;
+    }
+
+    /**
+     * Returns the argument this diagnostic is about.
+     *
+     * @return The argument, or {@code null} if the diagnostic is not about a
+     *         particular argument.
+     */
+    public Argument getArgument() {
+        return argument_;
+    }
+
+    /**
+     * <p>
+     * Returns the index of the offending token in the command line.
+     * </p>
+     * <p>
+     * If arguments are read from files, the index refers to the command line
+     * with the file contents in place of the file names.
+     * </p>
+     *
+     * @return The index, or {@code -1} if the diagnostic is not about a
+     *         particular token, e.g. a missing required argument.
+     */
+    public int getTokenIndex() {
+        return tokenIndex_;
+    }
+
+    /**
+     * Returns the key of the message in the resource bundle of the parser.
+     *
+     * @return The key, or {@code null} if the message is not taken from the
+     *         resource bundle.
+     */
+    public String getMessageKey() {
+        return exception_ == null ? null : exception_.getMessageKey();
+    }
+
+    /**
+     * Returns the error message, as {@link ArgumentParserException#getMessage()}
+     * would. The message is formatted on the first call.
+     *
+     * @return The message, or {@code null} for {@link Kind#HELP} and
+     *         {@link Kind#VERSION}.
+     */
+    public String getMessage() {
+        return exception_ == null ? null : exception_.getMessage();
+    }
+
+    /**
+     * Returns the exception {@link ArgumentParser#parseArgs(String[])} would
+     * throw for this problem.
+     *
+     * @return The exception, or {@code null} for {@link Kind#HELP} and
+     *         {@link Kind#VERSION}.
+     */
+    public ArgumentParserException getException() {
+        return exception_;
+    }
+
+    @Override
+    public String toString() {
+        return kind_ + (tokenIndex_ == -1 ? "" : "@" + tokenIndex_)
+                + (exception_ == null ? "" : ": " + getMessage());
+    }
+}
@@ -0,0 +1,186 @@
+package net.sourceforge.argparse4j.inf;
+
+/**
+ * <p>
+ * Receives callbacks while a parser parses a command line, with the time
+ * spent in each phase of parsing.
+ * </p>
+ * <p>
+ * A listener is registered with
+ * {@link net.sourceforge.argparse4j.ArgumentParserBuilder#parseListener(ParseListener)}
+ * and applies to the parser and all of its sub-commands. Without a listener,
+ * the parser does not read the clock at all.
+ * </p>
+ * <p>
+ * The callbacks are made on the thread which parses, synchronously and in
+ * the middle of parsing, so they must be quick. A parser may be used by
+ * several threads at the same time, so a listener must be thread safe. The
+ * {@code command} passed to the callbacks identifies the parser in which the
+ * event happened: the empty string for the main parser, and the names of the
+ * sub-commands separated by spaces otherwise, e.g. {@code "remote add"}.
+ * Aliases are reported by the name of the sub-command.
+ * </p>
+ * <p>
+ * All methods do nothing by default.
+ * {@link net.sourceforge.argparse4j.impl.ParseMetrics} is an implementation
+ * which accumulates counts and times.
+ * </p>
+ *
+ * @since 0.9.1
+ */
+public interface ParseListener {
+
+    /**
+     * A phase of parsing, reported by
+     * {@link ParseListener#phaseCompleted(String, Phase, Argument, long)}.
+     */
+    enum Phase {
+        /**
+         * Reading an argument file given with the from-file prefix, and
+         * inserting its contents into the command line.
+         */
+        FROM_FILE,
+        /**
+         * Looking up the argument of a flag, including the resolution of
+         * abbreviations.
+         */
+        FLAG_RESOLUTION,
+        /**
+         * Converting one value by the type of an argument, including the
+         * check of its choices.
+         */
+        CONVERSION,
+        /**
+         * Running the action of an argument.
+         */
+        ACTION,
+        /**
+         * Assigning the collected positional values to the positional
+         * arguments. This includes the {@link #CONVERSION} and {@link #ACTION}
+         * of positional arguments, which are also reported on their own.
+         */
+        POSITIONAL,
+        /**
+         * Checking that the required arguments and groups are given.
+         */
+        VALIDATION
+    }
+
+    /**
+     * Called before {@code parser} parses {@code args}.
+     *
+     * @param parser
+     *            The parser, on which a parse method was called.
+     * @param args
+     *            The command line. It must not be modified.
+     */
+    default void parseStarted(ArgumentParser parser, String[] args) {
+    }
+
+    /**
+     * <p>
+     * Called after a phase of parsing is completed.
+     * </p>
+     * <p>
+     * For a phase which failed, e.g. a value which could not be converted,
+     * this is called before the error is thrown or collected.
+     * </p>
+     *
+     * @param command
+     *            The sub-command in which the phase happened.
+     * @param phase
+     *            The phase.
+     * @param argument
+     *            The argument the phase is about, or {@code null} for
+     *            {@link Phase#FROM_FILE}, {@link Phase#POSITIONAL},
+     *            {@link Phase#VALIDATION} and a flag which was not resolved.
+     * @param nanos
+     *            The duration of the phase in nanoseconds.
+     */
+    default void phaseCompleted(String command, Phase phase, Argument argument,
+            long nanos) {
+    }
+
+    /**
+     * Called after an argument file is read, in addition to
+     * {@link #phaseCompleted(String, Phase, Argument, long)} with
+     * {@link Phase#FROM_FILE}.
+     *
+     * @param command
+     *            The sub-command in which the file was given.
+     * @param file
+     *            The name of the file, without the prefix.
+     * @param bytes
+     *            The number of bytes read, 0 if the file could not be read.
+     * @param arguments
+     *            The number of arguments read from the file.
+     * @param nanos
+     *            The duration of reading and inserting the contents in
+     *            nanoseconds.
+     */
+    default void fromFileRead(String command, String file, long bytes,
+            int arguments, long nanos) {
+    }
+
+    /**
+     * Called when a sub-command is selected, before its arguments are
+     * parsed.
+     *
+     * @param command
+     *            The selected sub-command, including its parents.
+     * @param nanos
+     *            The time taken to resolve the sub-command from the command
+     *            line in nanoseconds, including the resolution of
+     *            abbreviations.
+     */
+    default void commandSelected(String command, long nanos) {
+    }
+
+    /**
+     * <p>
+     * Called after {@code parser} parsed a command line, whether successfully
+     * or not.
+     * </p>
+     * <p>
+     * This is not called if parsing is ended by an unchecked exception, e.g.
+     * one thrown by a custom action.
+     * </p>
+     *
+     * @param parser
+     *            The parser, on which a parse method was called.
+     * @param nanos
+     *            The duration of parsing in nanoseconds.
+     * @param error
+     *            The error which ended parsing, or {@code null} if it
+     *            succeeded. For {@link ArgumentParser#tryParse(String[])},
+     *            the first error collected.
+     */
+    default void parseFinished(ArgumentParser parser, long nanos,
+            ArgumentParserException error) {
+    }
+
+    /**
+     * <p>
+     * Called after the help of a parser is formatted, by
+     * {@link ArgumentParser#formatHelp()} or one of the methods printing
+     * help, including the help printed for the help flag while parsing.
+     * </p>
+     * <p>
+     * Unlike the other callbacks, this may happen outside of parsing.
+     * </p>
+     *
+     * @param parser
+     *            The parser whose help was formatted.
+     * @param command
+     *            The sub-command of {@code parser}.
+     * @param length
+     *            The length of the help text in characters.
+     * @param cached
+     *            {@code true} if text formatted earlier was reused.
+     * @param nanos
+     *            The duration of formatting in nanoseconds.
+     */
+    default void helpFormatted(ArgumentParser parser, String command,
+            int length, boolean cached, long nanos) {
+    }
+}
@@ -0,0 +1,63 @@
+package net.sourceforge.argparse4j.inf;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * The result of {@link ArgumentParser#tryParse(String[])}: either the parsed
+ * {@link Namespace}, or the problems found in the command line.
+ * </p>
+ *
+ * @since 0.9.1
+ */
+public final class ParseResult {
+
+    private final Namespace namespace_;
+    private final List<ParseDiagnostic> diagnostics_;
+
+    /**
+     * Creates the result.
+     *
+     * @param namespace
+     *            The parsed attributes. Ignored if {@code diagnostics} is not
+     *            empty.
+     * @param diagnostics
+     *            The problems found.
+     */
+    public ParseResult(Namespace namespace, List<ParseDiagnostic> diagnostics) {
+        diagnostics_ = Collections.unmodifiableList(diagnostics);
+        namespace_ = diagnostics.isEmpty() ? namespace : null;
+    }
+
+    /**
+     * Returns {@code true} if the command line was parsed without any
+     * diagnostic.
+     *
+     * @return {@code true} if parsing succeeded.
+     */
+    public boolean isSuccess() {
+        return diagnostics_.isEmpty();
+    }
+
+    /**
+     * Returns the parsed attributes.
+     *
+     * @return The attributes, or {@code null} if parsing did not succeed.
+     */
+    public Namespace getNamespace() {
+        return namespace_;
+    }
+
+    /**
+     * Returns the problems found, in the order they were found. Help and
+     * version flags are reported as diagnostics of kind
+     * {@link ParseDiagnostic.Kind#HELP} and
+     * {@link ParseDiagnostic.Kind#VERSION}.
+     *
+     * @return The unmodifiable list of diagnostics.
+     */
+    public List<ParseDiagnostic> getDiagnostics() {
+        return diagnostics_;
+    }
+}
@@ -0,0 +1,83 @@
+package net.sourceforge.argparse4j.inf;
+
+/**
+ * <p>
+ * Provides a sub-command which is discovered at run time, e.g. from a plug-in
+ * JAR file, by {@link Subparsers#addProviders()}.
+ * </p>
+ * <p>
+ * Providers are found by {@link java.util.ServiceLoader}. On the class path,
+ * a JAR file lists its providers in the file
+ * {@code META-INF/services/net.sourceforge.argparse4j.inf.SubcommandProvider}.
+ * On the module path, its module declares them with a
+ * {@code provides ... with ...} directive for this interface.
+ * </p>
+ * <p>
+ * All providers are instantiated to list their sub-commands in the help of
+ * the parser, but {@link #define(Subparser)} is only called for the
+ * sub-command which is selected or whose own help is needed. A provider
+ * should therefore be a small class whose constructor does nothing, and refer
+ * to the classes implementing the sub-command only from
+ * {@link #define(Subparser)}, so that they are not loaded for other
+ * sub-commands.
+ * </p>
+ *
+ * <pre>
+ * public class ClonePlugin implements SubcommandProvider {
+ *     public String getCommand() {
+ *         return "clone";
+ *     }
+ *
+ *     public String getHelp() {
+ *         return "clone a repository";
+ *     }
+ *
+ *     public void define(Subparser subparser) {
+ *         subparser.addArgument("repository");
+ *         subparser.setDefault("command", new CloneCommand());
+ *     }
+ * }
+ * </pre>
+ *
+ * @since 0.9.1
+ */
+public interface SubcommandProvider {
+
+    /**
+     * Returns the name of the sub-command.
+     *
+     * @return The name, which must be unique among the sub-commands of a
+     *         parser.
+     */
+    String getCommand();
+
+    /**
+     * Returns the one-line help of the sub-command, shown in the help of the
+     * parser. The default is no help.
+     *
+     * @return The help.
+     */
+    default String getHelp() {
+        return "";
+    }
+
+    /**
+     * Returns the alias names of the sub-command. The default is none.
+     *
+     * @return The aliases.
+     * @see Subparser#aliases(String...)
+     */
+    default String[] getAliases() {
+        return new String[0];
+    }
+
+    /**
+     * Defines the arguments of the sub-command, including nested
+     * sub-commands. Called at most once per parser, the first time the
+     * sub-command is needed.
+     *
+     * @param subparser
+     *            The sub-command to define.
+     */
+    void define(Subparser subparser);
+}
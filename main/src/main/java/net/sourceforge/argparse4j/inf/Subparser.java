@@ -24,6 +24,7 @@
 package net.sourceforge.argparse4j.inf;
 
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * <p>
@@ -36,9 +37,25 @@ public interface Subparser extends ArgumentParser {
     @Override
     Subparser description(String description);
 
+    /**
+     * @since 0.9.1
+     */
+    @Override
+    default Subparser descriptionSupplier(Supplier<String> description) {
+        return description(description.get());
+    }
+
     @Override
     Subparser epilog(String epilog);
 
+    /**
+     * @since 0.9.1
+     */
+    @Override
+    default Subparser epilogSupplier(Supplier<String> epilog) {
+        return epilog(epilog.get());
+    }
+
     @Override
     Subparser version(String version);
 
@@ -60,6 +77,25 @@ public interface Subparser extends ArgumentParser {
      */
     Subparser help(String help);
 
+    /**
+     * <p>
+     * Sets the text to display in help message, which is obtained from
+     * {@code help} only when help is formatted.
+     * </p>
+     * <p>
+     * The default implementation calls {@link #help(String)} with the
+     * supplied text right away.
+     * </p>
+     *
+     * @param help
+     *            The supplier of the text to display in help message.
+     * @return this
+     * @since 0.9.1
+     */
+    default Subparser helpSupplier(Supplier<String> help) {
+        return help(help.get());
+    }
+
     /**
      * <p>
      * Sets special value to control help message handling.
@@ -23,6 +23,12 @@
  */
 package net.sourceforge.argparse4j.inf;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.function.Consumer;
+
 import net.sourceforge.argparse4j.ArgumentParsers;
 
 /**
@@ -92,6 +98,112 @@ public interface Subparsers {
      */
     Subparser addParser(String command, boolean addHelp, String prefixChars);
 
+    /**
+     * <p>
+     * Adds and returns {@link Subparser} object with given sub-command name
+     * and help, whose arguments are defined by {@code definer}. The given
+     * command must be unique for each Subparsers instance.
+     * </p>
+     * <p>
+     * The definer is called with the returned object the first time the
+     * sub-command is needed: when it is selected on the command line, when
+     * its own help or usage is formatted, or when one of its methods which
+     * depend on its arguments is called. Until then only the command name
+     * and help are known, which is enough for the help of the parent parser.
+     * This saves defining sub-commands a command line does not use.
+     * </p>
+     * <p>
+     * The definer is called at most once, even if the parser is used by
+     * several threads. It can do anything that could be done with the
+     * result of {@link #addParser(String)}, including adding nested
+     * sub-commands. The default implementation calls it immediately.
+     * </p>
+     * 
+     * @param command
+     *            Sub-command name
+     * @param help
+     *            The one-line help of the sub-command, see
+     *            {@link Subparser#help(String)}
+     * @param definer
+     *            Adds the arguments of the sub-command
+     * @return {@link Subparser} object
+     * @since 0.9.1
+     */
+    default Subparser addParser(String command, String help,
+            Consumer<Subparser> definer) {
+        Subparser parser = addParser(command).help(help);
+        definer.accept(parser);
+        return parser;
+    }
+
+    /**
+     * <p>
+     * Adds a sub-command for each of {@code providers}, in the given order.
+     * </p>
+     * <p>
+     * Each sub-command is added with
+     * {@link #addParser(String, String, Consumer)}, so
+     * {@link SubcommandProvider#define(Subparser)} is only called when the
+     * sub-command is needed.
+     * </p>
+     * 
+     * @param providers
+     *            The providers of the sub-commands
+     * @return this
+     * @since 0.9.1
+     */
+    default Subparsers addProviders(
+            Iterable<? extends SubcommandProvider> providers) {
+        for (SubcommandProvider provider : providers) {
+            Subparser parser = addParser(provider.getCommand(),
+                    provider.getHelp(), provider::define);
+            String[] aliases = provider.getAliases();
+            if (aliases.length > 0) {
+                parser.aliases(aliases);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * <p>
+     * Adds a sub-command for each {@link SubcommandProvider} which
+     * {@link ServiceLoader} finds with {@code loader}, in the order of their
+     * commands.
+     * </p>
+     * <p>
+     * See {@link #addProviders(Iterable)}.
+     * </p>
+     * 
+     * @param loader
+     *            The class loader to find the providers with, or
+     *            {@code null} for the system class loader
+     * @return this
+     * @since 0.9.1
+     */
+    default Subparsers addProviders(ClassLoader loader) {
+        List<SubcommandProvider> providers = new ArrayList<>();
+        for (SubcommandProvider provider : ServiceLoader
+                .load(SubcommandProvider.class, loader)) {
+            providers.add(provider);
+        }
+        // The order of the service loader depends on the class path.
+        providers.sort(Comparator.comparing(SubcommandProvider::getCommand));
+        return addProviders(providers);
+    }
+
+    /**
+     * Adds a sub-command for each {@link SubcommandProvider} which
+     * {@link ServiceLoader} finds with the context class loader of the
+     * current thread. See {@link #addProviders(ClassLoader)}.
+     * 
+     * @return this
+     * @since 0.9.1
+     */
+    default Subparsers addProviders() {
+        return addProviders(Thread.currentThread().getContextClassLoader());
+    }
+
     /**
      * Sets the name of attribute which the selected command name is stored.
      * 
@@ -26,6 +26,7 @@ package net.sourceforge.argparse4j.internal;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import net.sourceforge.argparse4j.helper.TextHelper;
 import net.sourceforge.argparse4j.inf.ArgumentGroup;
@@ -46,6 +47,7 @@ public final class ArgumentGroupImpl implements ArgumentGroup,
     private int index_;
     private final String title_;
     private String description_ = "";
+    private Supplier<String> descriptionSupplier_;
     private final ArgumentParserImpl argumentParser_;
     private final List<ArgumentImpl> args_ = new ArrayList<>();
     /**
@@ -65,9 +67,32 @@ public final class ArgumentGroupImpl implements ArgumentGroup,
     @Override
     public ArgumentGroupImpl description(String description) {
         description_ = TextHelper.nonNull(description);
+        descriptionSupplier_ = null;
+        argumentParser_.getConfig().definitionChanged();
         return this;
     }
 
+    @Override
+    public ArgumentGroupImpl descriptionSupplier(Supplier<String> description) {
+        if (description == null) {
+            throw new IllegalArgumentException("description cannot be null");
+        }
+        description_ = "";
+        descriptionSupplier_ = description;
+        argumentParser_.getConfig().dynamicTextAdded();
+        argumentParser_.getConfig().definitionChanged();
+        return this;
+    }
+
+    String getTitle() {
+        return title_;
+    }
+
+    String getDescription() {
+        return descriptionSupplier_ == null ? description_
+                : TextHelper.nonNull(descriptionSupplier_.get());
+    }
+
     @Override
     public ArgumentImpl addArgument(String... nameOrFlags) {
         ArgumentImpl arg = argumentParser_.addArgument(this, nameOrFlags);
@@ -78,6 +103,7 @@ public final class ArgumentGroupImpl implements ArgumentGroup,
     @Override
     public ArgumentGroupImpl required(boolean required) {
         required_ = required;
+        argumentParser_.getConfig().definitionChanged();
         return this;
     }
 
@@ -86,10 +112,11 @@ public final class ArgumentGroupImpl implements ArgumentGroup,
             writer.print(title_);
             writer.println(":");
         }
-        if (!description_.isEmpty()) {
+        String description = getDescription();
+        if (!description.isEmpty()) {
             writer.print("  ");
             writer.println(TextHelper.wrap(
-                    argumentParser_.getTextWidthCounter(), description_,
+                    argumentParser_.getTextWidthCounter(), description,
                     format_width, 2, "", "  "));
             writer.println();
         }
@@ -142,6 +169,6 @@ public final class ArgumentGroupImpl implements ArgumentGroup,
      *         group.
      */
     boolean isSeparateHelp() {
-        return !mutex_ || !title_.isEmpty() || !description_.isEmpty();
+        return !mutex_ || !title_.isEmpty() || !getDescription().isEmpty();
     }
 }
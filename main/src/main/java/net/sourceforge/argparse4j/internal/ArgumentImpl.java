@@ -29,12 +29,15 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import net.sourceforge.argparse4j.helper.MessageLocalization;
 import net.sourceforge.argparse4j.helper.TextHelper;
 import net.sourceforge.argparse4j.helper.TextWidthCounter;
 import net.sourceforge.argparse4j.impl.Arguments;
 import net.sourceforge.argparse4j.impl.choice.CollectionArgumentChoice;
+import net.sourceforge.argparse4j.impl.choice.DynamicArgumentChoice;
+import net.sourceforge.argparse4j.impl.choice.PatternArgumentChoice;
 import net.sourceforge.argparse4j.impl.type.ReflectArgumentType;
 import net.sourceforge.argparse4j.impl.type.StringArgumentType;
 import net.sourceforge.argparse4j.inf.Argument;
@@ -62,9 +65,11 @@ public final class ArgumentImpl implements Argument {
     private FeatureControl helpControl_;
     private boolean required_;
     private String[] metavar_;
+    private Supplier<String[]> metavarSupplier_;
     private int minNumArg_ = -1;
     private int maxNumArg_ = -1;
     private String help_ = "";
+    private Supplier<String> helpSupplier_;
     private final ArgumentParserConfigurationImpl config_;
     private final ArgumentGroupImpl argumentGroup_;
 
@@ -176,7 +181,8 @@ public final class ArgumentImpl implements Argument {
     }
 
     String[] resolveMetavar() {
-        if (metavar_ == null) {
+        String[] given = getMetavar();
+        if (given == null) {
             if (choice_ == null) {
                 if (type_ instanceof MetavarInference) {
                     String[] metavar = ((MetavarInference) type_)
@@ -196,7 +202,7 @@ public final class ArgumentImpl implements Argument {
             return new String[] { choice_.textualFormat() };
         }
 
-        return metavar_;
+        return given;
     }
 
     String formatMetavar() {
@@ -267,17 +273,15 @@ public final class ArgumentImpl implements Argument {
         if (helpControl_ == Arguments.SUPPRESS) {
             return;
         }
-        String help;
+        String help = getHelp();
         if (defaultHelp && default_ != null) {
-            StringBuilder sb = new StringBuilder(help_);
-            if (!help_.isEmpty()) {
+            StringBuilder sb = new StringBuilder(help);
+            if (!help.isEmpty()) {
                 sb.append(" ");
             }
             sb.append("(").append(localize("default")).append(" ")
                     .append(default_.toString()).append(")");
             help = sb.toString();
-        } else {
-            help = help_;
         }
         TextHelper.printHelp(writer, formatHelpTitle(), help, textWidthCounter,
                 width);
@@ -287,9 +291,14 @@ public final class ArgumentImpl implements Argument {
             throws ArgumentParserException {
         Object obj = type_.convert(parser, this, value);
         if (choice_ != null && !choice_.contains(obj)) {
-            throw new ArgumentParserException(String.format(
-                    TextHelper.LOCALE_ROOT, localize("invalidChoiceError"),
-                    value, choice_.textualFormat()), parser, this);
+            if (choice_ instanceof PatternArgumentChoice) {
+                throw new ArgumentParserException(parser, this,
+                        "invalidChoiceClosestPatternsError", value,
+                        new ChoiceText(choice_, value));
+            }
+            throw new ArgumentParserException(parser, this,
+                    "invalidChoiceError", value,
+                    new ChoiceText(choice_, null));
         }
         return obj;
     }
@@ -300,6 +309,7 @@ public final class ArgumentImpl implements Argument {
             throw new IllegalArgumentException("nargs must be positive integer");
         }
         minNumArg_ = maxNumArg_ = n;
+        config_.definitionChanged();
         return this;
     }
 
@@ -322,6 +332,7 @@ public final class ArgumentImpl implements Argument {
                 throw new IllegalArgumentException(
                         "narg expects positive integer or one of '*', '+' or '?'");
         }
+        config_.definitionChanged();
         return this;
     }
 
@@ -329,6 +340,7 @@ public final class ArgumentImpl implements Argument {
     public ArgumentImpl setConst(Object value) {
         // Allow null
         const_ = value;
+        config_.definitionChanged();
         return this;
     }
 
@@ -337,6 +349,7 @@ public final class ArgumentImpl implements Argument {
     public final <E> ArgumentImpl setConst(E... values) {
         // Allow null
         const_ = Arrays.asList(values);
+        config_.definitionChanged();
         return this;
     }
 
@@ -344,6 +357,7 @@ public final class ArgumentImpl implements Argument {
     public ArgumentImpl setDefault(Object value) {
         // Allow null
         default_ = value;
+        config_.definitionChanged();
         return this;
     }
 
@@ -352,12 +366,14 @@ public final class ArgumentImpl implements Argument {
     public final <E> ArgumentImpl setDefault(E... values) {
         // Allow null
         default_ = Arrays.asList(values);
+        config_.definitionChanged();
         return this;
     }
 
     @Override
     public ArgumentImpl setDefault(FeatureControl ctrl) {
         defaultControl_ = ctrl;
+        config_.definitionChanged();
         return this;
     }
 
@@ -394,6 +410,7 @@ public final class ArgumentImpl implements Argument {
         } else {
             type_ = createReflectArgumentType(type);
         }
+        config_.definitionChanged();
         return this;
     }
 
@@ -403,12 +420,14 @@ public final class ArgumentImpl implements Argument {
             throw new IllegalArgumentException("type cannot be null");
         }
         type_ = type;
+        config_.definitionChanged();
         return this;
     }
 
     @Override
     public ArgumentImpl required(boolean required) {
         required_ = required;
+        config_.definitionChanged();
         return this;
     }
 
@@ -419,6 +438,7 @@ public final class ArgumentImpl implements Argument {
         }
         action_ = action;
         action_.onAttach(this);
+        config_.definitionChanged();
         return this;
     }
 
@@ -428,6 +448,10 @@ public final class ArgumentImpl implements Argument {
             throw new IllegalArgumentException("choice cannot be null");
         }
         choice_ = choice;
+        if (choice instanceof DynamicArgumentChoice) {
+            config_.dynamicTextAdded();
+        }
+        config_.definitionChanged();
         return this;
     }
 
@@ -437,6 +461,7 @@ public final class ArgumentImpl implements Argument {
             throw new IllegalArgumentException("choice cannot be null");
         }
         choice_ = new CollectionArgumentChoice<>(values);
+        config_.definitionChanged();
         return this;
     }
 
@@ -447,6 +472,7 @@ public final class ArgumentImpl implements Argument {
             throw new IllegalArgumentException("choice cannot be null");
         }
         choice_ = new CollectionArgumentChoice<>(values);
+        config_.definitionChanged();
         return this;
     }
 
@@ -456,12 +482,32 @@ public final class ArgumentImpl implements Argument {
             throw new IllegalArgumentException("dest cannot be null");
         }
         dest_ = dest;
+        config_.definitionChanged();
         return this;
     }
 
     @Override
     public ArgumentImpl metavar(String... metavar) {
-        if (metavar.length == 0) {
+        metavar_ = checkMetavar(metavar);
+        metavarSupplier_ = null;
+        config_.definitionChanged();
+        return this;
+    }
+
+    @Override
+    public ArgumentImpl metavarSupplier(Supplier<String[]> metavar) {
+        if (metavar == null) {
+            throw new IllegalArgumentException("metavar cannot be null");
+        }
+        metavar_ = null;
+        metavarSupplier_ = metavar;
+        config_.dynamicTextAdded();
+        config_.definitionChanged();
+        return this;
+    }
+
+    private static String[] checkMetavar(String[] metavar) {
+        if (metavar == null || metavar.length == 0) {
             throw new IllegalArgumentException("No metavar specified");
         }
         for (String m : metavar) {
@@ -469,19 +515,37 @@ public final class ArgumentImpl implements Argument {
                 throw new IllegalArgumentException("metavar cannot be null");
             }
         }
-        metavar_ = metavar;
-        return this;
+        return metavar;
     }
 
     @Override
     public ArgumentImpl help(String help) {
         help_ = TextHelper.nonNull(help);
+        helpSupplier_ = null;
+        config_.definitionChanged();
+        return this;
+    }
+
+    @Override
+    public ArgumentImpl helpSupplier(Supplier<String> help) {
+        if (help == null) {
+            throw new IllegalArgumentException("help cannot be null");
+        }
+        help_ = "";
+        helpSupplier_ = help;
+        if (!(help instanceof LocalizedText)) {
+            // The help cache is keyed by the bundle, which LocalizedText
+            // depends on; any other supplier can change at any time.
+            config_.dynamicTextAdded();
+        }
+        config_.definitionChanged();
         return this;
     }
 
     @Override
     public ArgumentImpl help(FeatureControl ctrl) {
         helpControl_ = ctrl;
+        config_.definitionChanged();
         return this;
     }
 
@@ -518,6 +582,14 @@ public final class ArgumentImpl implements Argument {
         }
     }
 
+    /**
+     * Returns the default value as set, without the special treatment of
+     * {@link #getDefault()}.
+     */
+    Object getRawDefault() {
+        return default_;
+    }
+
     @Override
     public FeatureControl getDefaultControl() {
         return defaultControl_;
@@ -536,6 +608,16 @@ public final class ArgumentImpl implements Argument {
         return required_;
     }
 
+    /**
+     * Sets the number of values directly, as found in a parser spec, without
+     * the checks of {@link #nargs(int)}.
+     */
+    void setNumArgs(int min, int max) {
+        minNumArg_ = min;
+        maxNumArg_ = max;
+        config_.definitionChanged();
+    }
+
     int getMinNumArg() {
         return minNumArg_;
     }
@@ -545,6 +627,9 @@ public final class ArgumentImpl implements Argument {
     }
 
     public String[] getMetavar() {
+        if (metavarSupplier_ != null) {
+            return checkMetavar(metavarSupplier_.get());
+        }
         return metavar_;
     }
 
@@ -556,8 +641,29 @@ public final class ArgumentImpl implements Argument {
         return action_;
     }
 
+    public ArgumentType<?> getType() {
+        return type_;
+    }
+
+    ArgumentChoice getChoice() {
+        return choice_;
+    }
+
+    /**
+     * Sets the help message to the message {@code key} of the resource
+     * bundle. The message is looked up when it is needed, not now.
+     *
+     * @param key
+     *            The key of the message.
+     * @return this
+     */
+    ArgumentImpl helpKey(String key) {
+        return helpSupplier(new LocalizedText(key));
+    }
+
     public String getHelp() {
-        return help_;
+        return helpSupplier_ == null ? help_
+                : TextHelper.nonNull(helpSupplier_.get());
     }
 
     String[] getFlags() {
@@ -568,4 +674,48 @@ public final class ArgumentImpl implements Argument {
         return MessageLocalization.localize(config_.getResourceBundle(),
                 messageKey);
     }
+
+    /**
+     * The message of a key of the resource bundle, used for the help of the
+     * built-in arguments. Not a lambda, see
+     * {@code ArgumentParserImpl.ValueSetter}.
+     */
+    private final class LocalizedText implements Supplier<String> {
+        private final String key_;
+
+        LocalizedText(String key) {
+            key_ = key;
+        }
+
+        @Override
+        public String get() {
+            return localize(key_);
+        }
+    }
+
+    /**
+     * The valid values of a choice as they are shown in an error message,
+     * formatted only when the message is, since most rejected values are
+     * never shown.
+     */
+    private static final class ChoiceText {
+        private final ArgumentChoice choice_;
+        /**
+         * The rejected value, to show the closest patterns of a
+         * {@link PatternArgumentChoice} for, or null for all values.
+         */
+        private final String value_;
+
+        ChoiceText(ArgumentChoice choice, String value) {
+            choice_ = choice;
+            value_ = value;
+        }
+
+        @Override
+        public String toString() {
+            return value_ == null ? choice_.textualFormat()
+                    : ((PatternArgumentChoice) choice_)
+                            .formatClosestPatterns(value_);
+        }
+    }
 }
@@ -1,34 +1,113 @@
 package net.sourceforge.argparse4j.internal;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
+import net.sourceforge.argparse4j.helper.ASCIITextWidthCounter;
+import net.sourceforge.argparse4j.helper.CJKTextWidthCounter;
 import net.sourceforge.argparse4j.helper.PrefixPattern;
+import net.sourceforge.argparse4j.helper.ResourceBundleCache;
 import net.sourceforge.argparse4j.helper.TextWidthCounter;
 import net.sourceforge.argparse4j.inf.ArgumentParserConfiguration;
+import net.sourceforge.argparse4j.inf.ArrayConverter;
+import net.sourceforge.argparse4j.inf.ParseListener;
 
 public class ArgumentParserConfigurationImpl
         implements ArgumentParserConfiguration {
+    // Not a lambda, so that building a parser does not bootstrap
+    // java.lang.invoke.
+    private static final ResourceBundleCache resourceBundles_ = new ResourceBundleCache(
+            new Function<Locale, ResourceBundle>() {
+                @Override
+                public ResourceBundle apply(Locale locale) {
+                    return ResourceBundle.getBundle(
+                            ArgumentParserImpl.class.getName(), locale);
+                }
+            });
+    /**
+     * If the system property {@code argparse4j.debug} is {@code true}, stack
+     * traces are captured regardless of the configuration.
+     */
+    private static final boolean DEBUG = Boolean.getBoolean("argparse4j.debug");
+    /**
+     * The languages for which the CJK width hack counts East Asian Width
+     * Wide/Full/Ambiguous characters as twice as wide.
+     */
+    private static final List<String> CJK_WIDTH_LANGS = Arrays.asList("ja",
+            "zh", "ko");
+
     final String prog_;
     final boolean addHelp_;
     final String prefixChars_;
     final PrefixPattern prefixPattern_;
     private final String fromFilePrefix_;
     final PrefixPattern fromFilePrefixPattern_;
-    private final ResourceBundle resourceBundle_;
+    final Locale locale_;
+    /**
+     * Whether {@link #locale_} was given, rather than being the default
+     * locale at the time the parser was built.
+     */
+    final boolean localeExplicit_;
+    /**
+     * Loaded on the first call of {@link #getResourceBundle()}, so that
+     * parsers which never produce help or an error do not load it.
+     */
+    private volatile ResourceBundle resourceBundle_;
+    final boolean cjkWidthHack_;
     final TextWidthCounter textWidthCounter_;
-    final int formatWidth_;
+    final int defaultFormatWidth_;
+    final boolean terminalWidthDetection_;
+    /**
+     * The width resolved by {@link #getFormatWidth()}, or 0 if it is not yet
+     * resolved. Races only cause the same value to be computed twice.
+     */
+    private int formatWidth_;
     final boolean singleMetavar_;
     final boolean noDestConversionForPositionalArgs_;
     final boolean includeArgumentNamesAsKeysInResult_;
     final boolean mustHelpTextIncludeMutualExclusivity_;
+    final Map<Class<?>, ArrayConverter<?>> arrayConverters_;
+    final boolean stackTraceEnabled_;
+    /**
+     * The listener of parsing, or null. Read on each phase of parsing, so
+     * that the instrumentation costs nothing but a null check without it.
+     */
+    final ParseListener parseListener_;
+    /**
+     * Incremented whenever the definition of the parser or any of its
+     * subparsers changes. Shared with the configurations of the subparsers,
+     * because usage of a subparser includes arguments of its parents.
+     */
+    private final AtomicLong definitionVersion_;
+    /**
+     * Set once an argument of the parser or any of its subparsers has choices
+     * or a metavar which can change while the definition does not, so that
+     * help and usage text is no longer cached. Shared like
+     * {@link #definitionVersion_}.
+     */
+    private final AtomicBoolean dynamicText_;
 
+    /**
+     * @param locale
+     *            The locale for messages, or null for the default locale.
+     * @param cjkWidthHack
+     *            Whether the CJK width hack is enabled, which only takes
+     *            effect for the languages it applies to.
+     */
     public ArgumentParserConfigurationImpl(String prog, boolean addHelp,
             String prefixChars, String fromFilePrefix, Locale locale,
-            TextWidthCounter textWidthCounter, int formatWidth,
-            boolean singleMetavar, boolean noDestConversionForPositionalArgs,
+            boolean cjkWidthHack, int defaultFormatWidth,
+            boolean terminalWidthDetection, boolean singleMetavar, boolean noDestConversionForPositionalArgs,
             boolean includeArgumentNamesAsKeysInResult,
-            boolean mustHelpTextIncludeMutualExclusivity) {
+            boolean mustHelpTextIncludeMutualExclusivity,
+            Map<Class<?>, ArrayConverter<?>> arrayConverters,
+            boolean stackTraceEnabled, ParseListener parseListener) {
         prog_ = prog;
         addHelp_ = addHelp;
         prefixChars_ = prefixChars;
@@ -36,23 +115,38 @@ public class ArgumentParserConfigurationImpl
         fromFilePrefix_ = fromFilePrefix;
         fromFilePrefixPattern_ = fromFilePrefix == null ? null : new PrefixPattern(
                 fromFilePrefix);
-        resourceBundle_ = ResourceBundle
-                .getBundle(ArgumentParserImpl.class.getName(), locale);
-        textWidthCounter_ = textWidthCounter;
-        formatWidth_ = formatWidth;
+        localeExplicit_ = locale != null;
+        locale_ = localeExplicit_ ? locale : Locale.getDefault();
+        cjkWidthHack_ = cjkWidthHack;
+        textWidthCounter_ = cjkWidthHack
+                && CJK_WIDTH_LANGS.contains(locale_.getLanguage())
+                        ? new CJKTextWidthCounter()
+                        : new ASCIITextWidthCounter();
+        defaultFormatWidth_ = defaultFormatWidth;
+        terminalWidthDetection_ = terminalWidthDetection;
         singleMetavar_ = singleMetavar;
         noDestConversionForPositionalArgs_ = noDestConversionForPositionalArgs;
         includeArgumentNamesAsKeysInResult_ = includeArgumentNamesAsKeysInResult;
         mustHelpTextIncludeMutualExclusivity_ = mustHelpTextIncludeMutualExclusivity;
+        arrayConverters_ = arrayConverters;
+        stackTraceEnabled_ = stackTraceEnabled;
+        parseListener_ = parseListener;
+        definitionVersion_ = new AtomicLong();
+        dynamicText_ = new AtomicBoolean();
     }
 
     private ArgumentParserConfigurationImpl(String prog, boolean addHelp,
-            String prefixChars, String fromFilePrefix,
-            ResourceBundle resourceBundle, TextWidthCounter textWidthCounter,
-            int formatWidth, boolean singleMetavar,
+            String prefixChars, String fromFilePrefix, Locale locale,
+            boolean localeExplicit, ResourceBundle resourceBundle,
+            boolean cjkWidthHack, TextWidthCounter textWidthCounter,
+            int defaultFormatWidth, boolean terminalWidthDetection,
+            boolean singleMetavar,
             boolean noDestConversionForPositionalArgs,
             boolean includeArgumentNamesAsKeysInResult,
-            boolean mustHelpTextIncludeMutualExclusivity) {
+            boolean mustHelpTextIncludeMutualExclusivity,
+            Map<Class<?>, ArrayConverter<?>> arrayConverters,
+            boolean stackTraceEnabled, ParseListener parseListener,
+            AtomicLong definitionVersion, AtomicBoolean dynamicText) {
         prog_ = prog;
         addHelp_ = addHelp;
         prefixChars_ = prefixChars;
@@ -60,31 +154,112 @@ public class ArgumentParserConfigurationImpl
         fromFilePrefix_ = fromFilePrefix;
         fromFilePrefixPattern_ = fromFilePrefix == null ? null : new PrefixPattern(
                 fromFilePrefix);
+        locale_ = locale;
+        localeExplicit_ = localeExplicit;
         resourceBundle_ = resourceBundle;
+        cjkWidthHack_ = cjkWidthHack;
         textWidthCounter_ = textWidthCounter;
-        formatWidth_ = formatWidth;
+        defaultFormatWidth_ = defaultFormatWidth;
+        terminalWidthDetection_ = terminalWidthDetection;
         singleMetavar_ = singleMetavar;
         noDestConversionForPositionalArgs_ = noDestConversionForPositionalArgs;
         includeArgumentNamesAsKeysInResult_ = includeArgumentNamesAsKeysInResult;
         mustHelpTextIncludeMutualExclusivity_ = mustHelpTextIncludeMutualExclusivity;
+        arrayConverters_ = arrayConverters;
+        stackTraceEnabled_ = stackTraceEnabled;
+        parseListener_ = parseListener;
+        definitionVersion_ = definitionVersion;
+        dynamicText_ = dynamicText;
     }
 
     ArgumentParserConfigurationImpl forSubparser(boolean addHelp,
             String prefixChars) {
         return new ArgumentParserConfigurationImpl(prog_, addHelp, prefixChars,
-                fromFilePrefix_, resourceBundle_, textWidthCounter_,
-                formatWidth_, singleMetavar_,
+                fromFilePrefix_, locale_, localeExplicit_, resourceBundle_,
+                cjkWidthHack_, textWidthCounter_, defaultFormatWidth_, terminalWidthDetection_, singleMetavar_,
                 noDestConversionForPositionalArgs_,
                 includeArgumentNamesAsKeysInResult_,
-                mustHelpTextIncludeMutualExclusivity_);
+                mustHelpTextIncludeMutualExclusivity_, arrayConverters_,
+                stackTraceEnabled_, parseListener_, definitionVersion_,
+                dynamicText_);
+    }
+
+    /**
+     * <p>
+     * Returns the width of formatted text.
+     * </p>
+     * <p>
+     * If terminal width detection is enabled, the terminal width is detected
+     * on the first call, i.e. when help or usage is formatted for the first
+     * time, rather than when the parser is built.
+     * </p>
+     *
+     * @return The width of formatted text.
+     */
+    int getFormatWidth() {
+        int w = formatWidth_;
+        if (w == 0) {
+            w = defaultFormatWidth_;
+            if (terminalWidthDetection_) {
+                int tw = new TerminalWidth().getTerminalWidth() - 5;
+                if (tw > 0) {
+                    w = tw;
+                }
+            }
+            formatWidth_ = w;
+        }
+        return w;
+    }
+
+    /**
+     * Records that the definition of a parser, one of its arguments, groups
+     * or subparsers has changed, so that cached help and usage text is
+     * formatted again.
+     */
+    void definitionChanged() {
+        definitionVersion_.incrementAndGet();
+    }
+
+    long getDefinitionVersion() {
+        return definitionVersion_.get();
+    }
+
+    /**
+     * Records that an argument has text in help or usage which can change
+     * without a change of the definition, e.g. the values of a
+     * {@link net.sourceforge.argparse4j.impl.choice.DynamicArgumentChoice}
+     * or a help, description or epilog supplier. Help of such a parser is
+     * not cached.
+     */
+    void dynamicTextAdded() {
+        dynamicText_.set(true);
+    }
+
+    boolean hasDynamicText() {
+        return dynamicText_.get();
     }
 
     public ResourceBundle getResourceBundle() {
-        return resourceBundle_;
+        ResourceBundle bundle = resourceBundle_;
+        if (bundle == null) {
+            bundle = resourceBundles_.get(locale_);
+            resourceBundle_ = bundle;
+        }
+        return bundle;
     }
 
     @Override
     public Locale getLocale() {
-        return resourceBundle_.getLocale();
+        return getResourceBundle().getLocale();
+    }
+
+    @Override
+    public boolean isStackTraceEnabled() {
+        return stackTraceEnabled_ || DEBUG;
+    }
+
+    @Override
+    public String getProg() {
+        return prog_;
     }
 }
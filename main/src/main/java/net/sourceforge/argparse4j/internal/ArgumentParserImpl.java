@@ -26,6 +26,8 @@ package net.sourceforge.argparse4j.internal;
 import net.sourceforge.argparse4j.annotation.Arg;
 import net.sourceforge.argparse4j.helper.*;
 import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.impl.action.HelpArgumentAction;
+import net.sourceforge.argparse4j.impl.action.VersionArgumentAction;
 import net.sourceforge.argparse4j.inf.*;
 
 import java.io.*;
@@ -34,7 +36,9 @@ import java.lang.reflect.Method;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -56,17 +60,31 @@ public final class ArgumentParserImpl implements ArgumentParser {
     private final SubparsersImpl subparsers_ = new SubparsersImpl(this);
     private final ArgumentParserImpl mainParser_;
     private final String command_;
+    /**
+     * The names of the sub-commands leading to this parser, separated by
+     * spaces, or the empty string for the main parser. Passed to
+     * {@link ParseListener}.
+     */
+    private final String commandPath_;
     private final ArgumentParserConfigurationImpl config_;
     private String usage_ = "";
     private String description_ = "";
+    private Supplier<String> descriptionSupplier_;
     private String epilog_ = "";
+    private Supplier<String> epilogSupplier_;
     private String version_ = "";
     private boolean defaultHelp_ = false;
     private boolean negNumFlag_ = false;
+    private volatile FormattedText helpText_;
+    private volatile FormattedText usageText_;
+    private final AtomicLong formatCacheHits_ = new AtomicLong();
+    private final AtomicLong formatCacheMisses_ = new AtomicLong();
 
-    private static final Pattern NEG_NUM_PATTERN = Pattern.compile("-\\d+");
-    private static final Pattern SHORT_OPTS_PATTERN = Pattern
-            .compile("-[^-].*");
+    /**
+     * Returned by {@link #convert(ParseState, ArgumentImpl, String, int)} if
+     * the conversion failed and the error was collected as a diagnostic.
+     */
+    private static final Object CONVERSION_FAILED = new Object();
 
     public ArgumentParserImpl(ArgumentParserConfigurationImpl config) {
         this(config, null, null);
@@ -77,11 +95,14 @@ public final class ArgumentParserImpl implements ArgumentParser {
         this.config_ = config;
         this.command_ = command;
         this.mainParser_ = mainParser;
+        this.commandPath_ = mainParser == null ? ""
+                : mainParser.commandPath_.isEmpty() ? command
+                        : mainParser.commandPath_ + " " + command;
         if (config.prefixChars_ == null || config.prefixChars_.isEmpty()) {
             throw new IllegalArgumentException(
                     "prefixChars cannot be a null or empty");
         }
-        if (config.formatWidth_ <= 0) {
+        if (config.defaultFormatWidth_ <= 0) {
             throw new IllegalArgumentException(
                     "formatWidth must be greater than 0");
         }
@@ -89,7 +110,7 @@ public final class ArgumentParserImpl implements ArgumentParser {
             String prefix = config.prefixChars_.substring(0, 1);
             addArgument(prefix + "h", prefix + prefix + "help")
                     .action(Arguments.help())
-                    .help(localize("help"))
+                    .helpKey("help")
                     .setDefault(Arguments.SUPPRESS);
         }
     }
@@ -114,7 +135,7 @@ public final class ArgumentParserImpl implements ArgumentParser {
                 }
             }
             for (String flag : arg.getFlags()) {
-                if (NEG_NUM_PATTERN.matcher(flag).matches()) {
+                if (isNegativeNumber(flag)) {
                     negNumFlag_ = true;
                 }
                 namedArgIndex_.put(flag, arg);
@@ -132,6 +153,7 @@ public final class ArgumentParserImpl implements ArgumentParser {
             }
             posArgs_.add(arg);
         }
+        config_.definitionChanged();
         return arg;
     }
 
@@ -145,6 +167,7 @@ public final class ArgumentParserImpl implements ArgumentParser {
         ArgumentGroupImpl group = new ArgumentGroupImpl(this, title);
         group.setIndex(argGroups_.size());
         argGroups_.add(group);
+        config_.definitionChanged();
         return group;
     }
 
@@ -159,12 +182,14 @@ public final class ArgumentParserImpl implements ArgumentParser {
         group.setIndex(argGroups_.size());
         group.setMutex(true);
         argGroups_.add(group);
+        config_.definitionChanged();
         return group;
     }
 
     @Override
     public ArgumentParserImpl usage(String usage) {
         usage_ = TextHelper.nonNull(usage);
+        config_.definitionChanged();
         return this;
     }
 
@@ -178,12 +203,41 @@ public final class ArgumentParserImpl implements ArgumentParser {
     @Override
     public ArgumentParserImpl description(String description) {
         description_ = TextHelper.nonNull(description);
+        descriptionSupplier_ = null;
+        config_.definitionChanged();
+        return this;
+    }
+
+    @Override
+    public ArgumentParserImpl descriptionSupplier(
+            Supplier<String> description) {
+        if (description == null) {
+            throw new IllegalArgumentException("description cannot be null");
+        }
+        description_ = "";
+        descriptionSupplier_ = description;
+        config_.dynamicTextAdded();
+        config_.definitionChanged();
         return this;
     }
 
     @Override
     public ArgumentParserImpl epilog(String epilog) {
         epilog_ = TextHelper.nonNull(epilog);
+        epilogSupplier_ = null;
+        config_.definitionChanged();
+        return this;
+    }
+
+    @Override
+    public ArgumentParserImpl epilogSupplier(Supplier<String> epilog) {
+        if (epilog == null) {
+            throw new IllegalArgumentException("epilog cannot be null");
+        }
+        epilog_ = "";
+        epilogSupplier_ = epilog;
+        config_.dynamicTextAdded();
+        config_.definitionChanged();
         return this;
     }
 
@@ -196,6 +250,7 @@ public final class ArgumentParserImpl implements ArgumentParser {
     @Override
     public ArgumentParserImpl defaultHelp(boolean defaultHelp) {
         defaultHelp_ = defaultHelp;
+        config_.definitionChanged();
         return this;
     }
 
@@ -203,6 +258,40 @@ public final class ArgumentParserImpl implements ArgumentParser {
         return defaultHelp_;
     }
 
+    String getUsage() {
+        return usage_;
+    }
+
+    String getDescription() {
+        return descriptionSupplier_ == null ? description_
+                : TextHelper.nonNull(descriptionSupplier_.get());
+    }
+
+    String getEpilog() {
+        return epilogSupplier_ == null ? epilog_
+                : TextHelper.nonNull(epilogSupplier_.get());
+    }
+
+    String getVersion() {
+        return version_;
+    }
+
+    List<ArgumentImpl> getNamedArgs() {
+        return namedArgs_;
+    }
+
+    List<ArgumentImpl> getPositionalArgs() {
+        return posArgs_;
+    }
+
+    List<ArgumentGroupImpl> getArgumentGroups() {
+        return argGroups_;
+    }
+
+    Map<String, Object> getDefaults() {
+        return defaults_;
+    }
+
     private void printArgumentHelp(PrintWriter writer, List<ArgumentImpl> args,
             int format_width) {
         for (ArgumentImpl arg : args) {
@@ -223,12 +312,17 @@ public final class ArgumentParserImpl implements ArgumentParser {
 
     @Override
     public void printHelp(PrintWriter writer) {
-        int formatWidth = config_.formatWidth_;
+        writer.print(formatHelp());
+    }
+
+    private void printHelp(PrintWriter writer, int formatWidth) {
         printUsage(writer, formatWidth);
-        if (!description_.isEmpty()) {
+        String description = descriptionSupplier_ == null ? description_
+                : TextHelper.nonNull(descriptionSupplier_.get());
+        if (!description.isEmpty()) {
             writer.println();
             writer.println(TextHelper.wrap(config_.textWidthCounter_, 
-                   description_, formatWidth, 0, "", ""));
+                   description, formatWidth, 0, "", ""));
         }
         boolean subparsersUntitled = subparsers_.getTitle().isEmpty()
                 && subparsers_.getDescription().isEmpty();
@@ -266,9 +360,11 @@ public final class ArgumentParserImpl implements ArgumentParser {
                 group.printHelp(writer, formatWidth);
             }
         }
-        if (!epilog_.isEmpty()) {
+        String epilog = epilogSupplier_ == null ? epilog_
+                : TextHelper.nonNull(epilogSupplier_.get());
+        if (!epilog.isEmpty()) {
             writer.println();
-            writer.println(TextHelper.wrap(config_.textWidthCounter_, epilog_,
+            writer.println(TextHelper.wrap(config_.textWidthCounter_, epilog,
                     formatWidth, 0, "", ""));
         }
     }
@@ -288,9 +384,140 @@ public final class ArgumentParserImpl implements ArgumentParser {
 
     @Override
     public String formatHelp() {
+        ParseListener listener = config_.parseListener_;
+        long start = listener == null ? 0 : System.nanoTime();
+        int formatWidth = config_.getFormatWidth();
+        // Read the version before formatting, so that a concurrent change
+        // leaves a stale entry behind rather than a wrong one.
+        long version = config_.getDefinitionVersion();
+        ResourceBundle bundle = config_.getResourceBundle();
+        FormattedText text = helpText_;
+        if (text != null && !config_.hasDynamicText()
+                && text.isValidFor(version, formatWidth, bundle)) {
+            formatCacheHits_.incrementAndGet();
+            String help = text.getText();
+            if (listener != null) {
+                listener.helpFormatted(this, commandPath_, help.length(), true,
+                        System.nanoTime() - start);
+            }
+            return help;
+        }
+        formatCacheMisses_.incrementAndGet();
         StringWriter writer = new StringWriter();
-        printHelp(new PrintWriter(writer));
-        return writer.toString();
+        PrintWriter printWriter = new PrintWriter(writer);
+        printHelp(printWriter, formatWidth);
+        printWriter.flush();
+        String help = writer.toString();
+        helpText_ = new FormattedText(version, formatWidth, bundle, help);
+        if (listener != null) {
+            listener.helpFormatted(this, commandPath_, help.length(), false,
+                    System.nanoTime() - start);
+        }
+        return help;
+    }
+
+    /**
+     * <p>
+     * Returns the number of times {@link #formatHelp()},
+     * {@link #formatUsage()} and the methods printing help or usage reused
+     * text formatted earlier.
+     * </p>
+     * <p>
+     * Formatted text is reused until the definition of this parser, its
+     * arguments, groups or subparsers changes through their methods.
+     * Argument defaults, choices and types are assumed not to change how they
+     * are rendered once they are attached, except for a
+     * {@link net.sourceforge.argparse4j.impl.choice.DynamicArgumentChoice}
+     * and a metavar given as a supplier. Text is not reused at all once one
+     * of these is attached to the parser or one of its subparsers.
+     * </p>
+     *
+     * @return The number of cache hits.
+     * @since 0.9.1
+     */
+    public long getFormatCacheHits() {
+        return formatCacheHits_.get();
+    }
+
+    /**
+     * Returns the number of times help or usage text had to be formatted
+     * because no up to date text was cached.
+     *
+     * @return The number of cache misses.
+     * @since 0.9.1
+     */
+    public long getFormatCacheMisses() {
+        return formatCacheMisses_.get();
+    }
+
+    /**
+     * Writes the help and usage text of this parser, formatted at the default
+     * format width of its configuration without terminal width detection,
+     * for {@link #readPrecompiledText(DataInput)}.
+     *
+     * @param out
+     *            The output to write to.
+     * @throws IOException
+     *             If writing fails.
+     * @since 0.9.1
+     */
+    public void writePrecompiledText(DataOutput out) throws IOException {
+        int formatWidth = config_.defaultFormatWidth_;
+        StringWriter helpWriter = new StringWriter();
+        PrintWriter printWriter = new PrintWriter(helpWriter);
+        printHelp(printWriter, formatWidth);
+        printWriter.flush();
+        StringWriter usageWriter = new StringWriter();
+        printWriter = new PrintWriter(usageWriter);
+        printUsageText(printWriter, formatWidth);
+        printWriter.flush();
+        out.writeInt(formatWidth);
+        writeText(out, config_.getResourceBundle().getLocale().toLanguageTag());
+        writeText(out, helpWriter.toString());
+        writeText(out, usageWriter.toString());
+    }
+
+    /**
+     * Uses the help and usage text written by
+     * {@link #writePrecompiledText(DataOutput)} for an equivalent parser as
+     * if it had been formatted by this parser. It is used as long as the
+     * format width and the locale of the resource bundle are the same, and
+     * the definition of this parser does not change.
+     *
+     * @param in
+     *            The input to read from.
+     * @throws IOException
+     *             If reading fails.
+     * @since 0.9.1
+     */
+    public void readPrecompiledText(DataInput in) throws IOException {
+        int formatWidth = in.readInt();
+        Locale bundleLocale = Locale.forLanguageTag(readText(in));
+        String help = readText(in);
+        String usage = readText(in);
+        long version = config_.getDefinitionVersion();
+        helpText_ = new FormattedText(version, formatWidth, bundleLocale, help);
+        usageText_ = new FormattedText(version, formatWidth, bundleLocale,
+                usage);
+    }
+
+    private static void writeText(DataOutput out, String text)
+            throws IOException {
+        // writeUTF() is limited to 64 KiB, which the help of a large parser
+        // can exceed.
+        byte[] bytes = text.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readText(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("malformed precompiled text");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, UTF_8);
     }
 
     private void printArgumentUsage(PrintWriter writer, List<String> opts,
@@ -325,10 +552,33 @@ public final class ArgumentParserImpl implements ArgumentParser {
 
     @Override
     public void printUsage(PrintWriter writer) {
-        printUsage(writer, config_.formatWidth_);
+        printUsage(writer, config_.getFormatWidth());
     }
 
     private void printUsage(PrintWriter writer, int format_width) {
+        writer.print(formatUsage(format_width));
+    }
+
+    private String formatUsage(int format_width) {
+        long version = config_.getDefinitionVersion();
+        ResourceBundle bundle = config_.getResourceBundle();
+        FormattedText text = usageText_;
+        if (text != null && !config_.hasDynamicText()
+                && text.isValidFor(version, format_width, bundle)) {
+            formatCacheHits_.incrementAndGet();
+            return text.getText();
+        }
+        formatCacheMisses_.incrementAndGet();
+        StringWriter writer = new StringWriter();
+        PrintWriter printWriter = new PrintWriter(writer);
+        printUsageText(printWriter, format_width);
+        printWriter.flush();
+        String usage = writer.toString();
+        usageText_ = new FormattedText(version, format_width, bundle, usage);
+        return usage;
+    }
+
+    private void printUsageText(PrintWriter writer, int format_width) {
         if (!usage_.isEmpty()) {
             writer.print(localize("usage") + " ");
             writer.println(substitutePlaceholder(usage_));
@@ -480,9 +730,7 @@ public final class ArgumentParserImpl implements ArgumentParser {
 
     @Override
     public String formatUsage() {
-        StringWriter writer = new StringWriter();
-        printUsage(new PrintWriter(writer));
-        return writer.toString();
+        return formatUsage(config_.getFormatWidth());
     }
 
     @Override
@@ -558,6 +806,36 @@ public final class ArgumentParserImpl implements ArgumentParser {
         return new Namespace(attrs);
     }
 
+    @Override
+    public ParseResult tryParse(String[] args) {
+        Map<String, Object> attrs = new HashMap<>();
+        ParseState state = new ParseState(args, negNumFlag_, null);
+        state.collectDiagnostics();
+        ParseListener listener = config_.parseListener_;
+        long start = 0;
+        if (listener != null) {
+            listener.parseStarted(this, args);
+            start = System.nanoTime();
+        }
+        try {
+            parseArgs(state, attrs);
+        } catch (ArgumentParserException e) {
+            state.diagnostics.add(new ParseDiagnostic(
+                    ParseDiagnostic.Kind.OTHER, null, -1, e));
+        }
+        if (listener != null) {
+            ArgumentParserException error = null;
+            for (ParseDiagnostic diagnostic : state.diagnostics) {
+                if (diagnostic.getException() != null) {
+                    error = diagnostic.getException();
+                    break;
+                }
+            }
+            listener.parseFinished(this, System.nanoTime() - start, error);
+        }
+        return new ParseResult(new Namespace(attrs), state.diagnostics);
+    }
+
     @Override
     public Namespace parseKnownArgs(String[] args, List<String> unknown)
             throws ArgumentParserException {
@@ -629,7 +907,8 @@ public final class ArgumentParserImpl implements ArgumentParser {
                                     return null;
                                 });
                         field.set(userData,
-                                ReflectHelper.list2Array(field.getType(), val));
+                                ReflectHelper.list2Array(field.getType(), val,
+                                        config_.arrayConverters_));
                     } catch (RuntimeException e) {
                         if (!ann.ignoreError()) {
                             throw e;
@@ -669,7 +948,8 @@ public final class ArgumentParserImpl implements ArgumentParser {
                                     return null;
                                 });
                         method.invoke(userData,
-                                ReflectHelper.list2Array(fargs[0], val));
+                                ReflectHelper.list2Array(fargs[0], val,
+                                        config_.arrayConverters_));
                     } catch (RuntimeException e) {
                         if (!ann.ignoreError()) {
                             throw e;
@@ -700,9 +980,26 @@ public final class ArgumentParserImpl implements ArgumentParser {
     private void parseArgsAtOffsetZero(String[] args, List<String> unknown,
             Map<String, Object> attrs) throws ArgumentParserException {
         ParseState state = new ParseState(args, negNumFlag_, unknown);
-        parseArgs(state, attrs);
-        if (state.deferredException != null) {
-            throw state.deferredException;
+        ParseListener listener = config_.parseListener_;
+        if (listener == null) {
+            parseArgs(state, attrs);
+            if (state.deferredException != null) {
+                throw state.deferredException;
+            }
+            return;
+        }
+        listener.parseStarted(this, args);
+        long start = System.nanoTime();
+        ArgumentParserException error;
+        try {
+            parseArgs(state, attrs);
+            error = state.deferredException;
+        } catch (ArgumentParserException e) {
+            error = e;
+        }
+        listener.parseFinished(this, System.nanoTime() - start, error);
+        if (error != null) {
+            throw error;
         }
     }
 
@@ -716,7 +1013,7 @@ public final class ArgumentParserImpl implements ArgumentParser {
      * @return true if term forms a valid concatenated short options.
      */
     private boolean checkConcatenatedShortOpts(String term) {
-        if (SHORT_OPTS_PATTERN.matcher(term).matches()) {
+        if (isShortOpts(term)) {
             for (int i = 1, termLen = term.length(); i < termLen; ++i) {
                 String shortFlag = "-" + term.charAt(i);
                 ArgumentImpl arg = namedArgIndex_.get(shortFlag);
@@ -764,9 +1061,30 @@ public final class ArgumentParserImpl implements ArgumentParser {
         // and/or flag forms concatenated short options.
         // Sort in order to make unit test easier.
         Collections.sort(cand);
-        throw new ArgumentParserException(String.format(TextHelper.LOCALE_ROOT,
-                localize("ambiguousOptionError"), flag,
-                TextHelper.concat(cand, 0, ", ")), this);
+        throw new ArgumentParserException(this, null, "ambiguousOptionError",
+                flag, TextHelper.concat(cand, 0, ", "));
+    }
+
+    /**
+     * Calls {@link #resolveNextFlag(String)}, reporting the time to the
+     * listener if there is one.
+     */
+    private ArgumentImpl resolveFlag(String flag)
+            throws ArgumentParserException {
+        ParseListener listener = config_.parseListener_;
+        if (listener == null) {
+            return resolveNextFlag(flag);
+        }
+        long start = System.nanoTime();
+        ArgumentImpl arg = null;
+        try {
+            arg = resolveNextFlag(flag);
+            return arg;
+        } finally {
+            listener.phaseCompleted(commandPath_,
+                    ParseListener.Phase.FLAG_RESOLUTION, arg,
+                    System.nanoTime() - start);
+        }
     }
 
     void parseArgs(ParseState state, Map<String, Object> attrs)
@@ -778,7 +1096,11 @@ public final class ArgumentParserImpl implements ArgumentParser {
         while (state.isArgAvail()) {
             // We first evaluate flagFound(state) before comparing arg to "--"
             // in order to expand arguments from file.
-            if (flagFound(state) && !"--".equals(state.getArg())) {
+            boolean flagFound = flagFound(state);
+            if (!state.isArgAvail()) {
+                break;
+            }
+            if (flagFound && !"--".equals(state.getArg())) {
                 String term = state.getArg();
                 int p = term.indexOf("=");
                 String flag;
@@ -790,7 +1112,15 @@ public final class ArgumentParserImpl implements ArgumentParser {
                     flag = term.substring(0, p);
                     embeddedValue = term.substring(p + 1);
                 }
-                ArgumentImpl arg = resolveNextFlag(flag);
+                ArgumentImpl arg;
+                try {
+                    arg = resolveFlag(flag);
+                } catch (ArgumentParserException e) {
+                    report(state, ParseDiagnostic.Kind.AMBIGUOUS, null,
+                            state.position(state.index), e);
+                    ++state.index;
+                    continue;
+                }
                 if (arg == null) {
                     // Assign null for clarity
                     embeddedValue = null;
@@ -816,10 +1146,10 @@ public final class ArgumentParserImpl implements ArgumentParser {
                                 }
                                 break;
                             }
-                            checkMutex(arg, groupUsed);
-                            final ArgumentImpl finalArg = arg;
-                            arg.run(this, attrs, shortFlag, null,
-                                    value -> addArgValue(attrs, finalArg, value));
+                            checkMutex(state, arg, groupUsed,
+                                    state.position(state.index));
+                            runAction(state, attrs, arg, shortFlag, null,
+                                    state.position(state.index));
                             used.add(arg);
                             // Set null to avoid using it twice.
                             arg = null;
@@ -827,20 +1157,22 @@ public final class ArgumentParserImpl implements ArgumentParser {
                     }
                     if (!shortOptsFound) {
                         if (state.unknown == null) {
-                            throw new UnrecognizedArgumentException(
-                                    formatUnrecognizedArgumentErrorMessage(
-                                            state, term), this, term);
+                            report(state,
+                                    ParseDiagnostic.Kind.UNRECOGNIZED_ARGUMENT,
+                                    null, state.position(state.index),
+                                    new UnrecognizedArgumentException(this,
+                                            term, "unrecognizedArgumentsError",
+                                            term, formatFromFileTip(state)));
+                        } else {
+                            state.unknown.add(unknownStart == -1 ? term : term
+                                    .charAt(0) + term.substring(unknownStart));
                         }
-
-                        state.unknown
-                                .add(unknownStart == -1 ? term : term
-                                        .charAt(0)
-                                        + term.substring(unknownStart));
                     }
                 }
                 ++state.index;
                 if (arg != null) {
-                    checkMutex(arg, groupUsed);
+                    checkMutex(state, arg, groupUsed,
+                            state.position(state.index - 1));
                     processArg(attrs, state, arg, flag, embeddedValue);
                     used.add(arg);
                 }
@@ -853,16 +1185,21 @@ public final class ArgumentParserImpl implements ArgumentParser {
                 accumulatePositionalArg(state, arg);
             } else if (!state.consumedSeparator && subparsers_.hasSubCommand()) {
                 processPositionalArgs(attrs, state);
-                checkRequiredArgument(state, used);
-                checkRequiredMutex(state, groupUsed);
+                checkRequired(state, used, groupUsed);
                 state.resetPosArgs();
                 subparsers_.parseArg(state, attrs);
                 return;
             } else if (state.unknown == null) {
-                throw new ArgumentParserException(
-                        formatUnrecognizedArgumentErrorMessage(state,
-                                TextHelper.concat(state.args, state.index, " ")),
-                        this);
+                // When collecting diagnostics, report the token alone and go
+                // on, so that flags following it are still processed.
+                report(state, ParseDiagnostic.Kind.UNRECOGNIZED_ARGUMENT, null,
+                        state.position(state.index),
+                        new ArgumentParserException(this, null,
+                                "unrecognizedArgumentsError",
+                                state.diagnostics == null ? TextHelper.concat(
+                                        state.args, state.index, " ") : state
+                                        .getArg(), formatFromFileTip(state)));
+                ++state.index;
             } else {
                 state.unknown.add(state.getArg());
                 ++state.index;
@@ -870,39 +1207,70 @@ public final class ArgumentParserImpl implements ArgumentParser {
         }
         // all arguments are consumed here
         if (subparsers_.hasSubCommand()) {
-            throw new ArgumentParserException(
-                    localize("tooFewArgumentsError"), this);
+            report(state, ParseDiagnostic.Kind.MISSING_ARGUMENT, null, -1,
+                    new ArgumentParserException(this, null,
+                            "tooFewArgumentsError"));
         }
         processPositionalArgs(attrs, state);
+        checkRequired(state, used, groupUsed);
+    }
+
+    private void checkRequired(ParseState state, Set<ArgumentImpl> used,
+            ArgumentImpl[] groupUsed) {
+        ParseListener listener = config_.parseListener_;
+        long start = listener == null ? 0 : System.nanoTime();
         checkRequiredArgument(state, used);
         checkRequiredMutex(state, groupUsed);
+        if (listener != null) {
+            listener.phaseCompleted(commandPath_,
+                    ParseListener.Phase.VALIDATION, null,
+                    System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Reports an error the parser can recover from. Unless diagnostics are
+     * collected, {@code e} is thrown.
+     * 
+     * @param state
+     *            Current parser state
+     * @param kind
+     *            The kind of the diagnostic
+     * @param arg
+     *            The argument the error is about, or null
+     * @param position
+     *            The position of the offending token, or -1
+     * @param e
+     *            The error
+     * @throws ArgumentParserException
+     *             {@code e}, if diagnostics are not collected
+     */
+    void report(ParseState state, ParseDiagnostic.Kind kind, ArgumentImpl arg,
+            int position, ArgumentParserException e)
+            throws ArgumentParserException {
+        if (state.diagnostics == null) {
+            throw e;
+        }
+        state.diagnostics.add(new ParseDiagnostic(kind, arg, position, e));
     }
 
     /**
-     * Format message for "Unrecognized arguments" error.
+     * Format the tip appended to "Unrecognized arguments" error if the
+     * unrecognized arguments were read from a file.
      * 
      * @param state
      *            Current parser state
-     * @param args
-     *            Textual representation of unrecognized arguments to be
-     *            included in the message as is.
-     * @return formatted error message
+     * @return formatted tip, or empty string if not applicable
      */
-    private String formatUnrecognizedArgumentErrorMessage(ParseState state,
-            String args) {
-        return String
-                .format(TextHelper.LOCALE_ROOT,
-                        localize("unrecognizedArgumentsError"),
-                        args,
-                        state.index > state.lastFromFileArgIndex ? ""
-                                : String.format(
-                                        TextHelper.LOCALE_ROOT,
-                                        localize("trailingWhiteSpacesInFileTip"),
-                                        config_.fromFilePrefixPattern_.getPrefixChars()
-                                                .length() == 1 ? config_.fromFilePrefixPattern_
-                                                .getPrefixChars() : "["
-                                                + config_.fromFilePrefixPattern_
-                                                        .getPrefixChars() + "]"));
+    private String formatFromFileTip(ParseState state) {
+        if (state.index > state.lastFromFileArgIndex) {
+            return "";
+        }
+        String prefixChars = config_.fromFilePrefixPattern_.getPrefixChars();
+        return MessageLocalization.format(config_.getResourceBundle(),
+                "trailingWhiteSpacesInFileTip",
+                prefixChars.length() == 1 ? prefixChars : "[" + prefixChars
+                        + "]");
     }
 
     /**
@@ -913,11 +1281,14 @@ public final class ArgumentParserImpl implements ArgumentParser {
      *            The argument currently processed
      * @param groupUsed
      *            The cache of used argument in each groups.
+     * @param position
+     *            The position of the flag of {@code arg}.
      * @throws ArgumentParserException
      *             If another option in mutually exclusive group has already
      *             been used.
      */
-    private void checkMutex(ArgumentImpl arg, ArgumentImpl[] groupUsed)
+    private void checkMutex(ParseState state, ArgumentImpl arg,
+            ArgumentImpl[] groupUsed, int position)
             throws ArgumentParserException {
         if (arg.getArgumentGroup() != null) {
             if (arg.getArgumentGroup().isMutex()) {
@@ -926,10 +1297,10 @@ public final class ArgumentParserImpl implements ArgumentParser {
                 if (usedMutexArg == null) {
                     groupUsed[arg.getArgumentGroup().getIndex()] = arg;
                 } else if (usedMutexArg != arg) {
-                    throw new ArgumentParserException(String.format(
-                            TextHelper.LOCALE_ROOT,
-                            localize("notAllowedWithArgumentError"),
-                            usedMutexArg.textualName()), this, arg);
+                    report(state, ParseDiagnostic.Kind.CONFLICTING_ARGUMENTS,
+                            arg, position, new ArgumentParserException(this,
+                                    arg, "notAllowedWithArgumentError",
+                                    usedMutexArg.textualName()));
                 }
             }
         }
@@ -945,25 +1316,26 @@ public final class ArgumentParserImpl implements ArgumentParser {
     private void processArg(Map<String, Object> res, ParseState state,
             ArgumentImpl arg, String flag, String embeddedValue)
             throws ArgumentParserException {
+        int flagPosition = state.position(state.index - 1);
         if (!arg.getAction().consumeArgument()) {
             if (embeddedValue == null) {
-                arg.run(this, res, flag, null,
-                        value -> addArgValue(res, arg, value));
-                return;
+                runAction(state, res, arg, flag, null, flagPosition);
             } else {
-                throw new ArgumentParserException(String.format(
-                        TextHelper.LOCALE_ROOT,
-                        localize("ignoreImplicitArgumentError"),
-                        embeddedValue), this, arg);
+                report(state, ParseDiagnostic.Kind.UNEXPECTED_VALUE, arg,
+                        flagPosition, new ArgumentParserException(this, arg,
+                                "ignoreImplicitArgumentError", embeddedValue));
             }
+            return;
         }
         if (arg.getMinNumArg() == -1
                 || (arg.getMinNumArg() == 0 && arg.getMaxNumArg() == 1)) {
             // In case of: option takes exactly one argument, or nargs("?")
             String argVal = null;
+            int argValPosition = flagPosition;
             if (embeddedValue == null) {
                 if (state.isArgAvail() && !flagFound(state)) {
                     argVal = state.getArg();
+                    argValPosition = state.position(state.index);
                     ++state.index;
                 }
             } else {
@@ -971,41 +1343,138 @@ public final class ArgumentParserImpl implements ArgumentParser {
             }
             if (argVal == null) {
                 if (arg.getMinNumArg() == -1) {
-                    throw new ArgumentParserException(
-                            localize("expectedOneArgumentError"), this, arg);
+                    report(state, ParseDiagnostic.Kind.MISSING_VALUE, arg,
+                            flagPosition, new ArgumentParserException(this,
+                                    arg, "expectedOneArgumentError"));
+                    return;
                 }
                 // This is a special treatment for nargs("?"). If flag is
                 // given but no argument follows, produce const value.
-                arg.run(this, res, flag, arg.getConst(),
-                        value -> addArgValue(res, arg, value));
+                runAction(state, res, arg, flag, arg.getConst(), flagPosition);
             } else {
-                arg.run(this, res, flag, arg.convert(this, argVal),
-                        value -> addArgValue(res, arg, value));
+                Object value = convert(state, arg, argVal, argValPosition);
+                if (value != CONVERSION_FAILED) {
+                    runAction(state, res, arg, flag, value, flagPosition);
+                }
             }
             return;
         }
 
         List<Object> list = new ArrayList<>();
+        int consumed = 0;
+        boolean failed = false;
         if (embeddedValue == null) {
-            for (int i = 0; i < arg.getMaxNumArg() && state.isArgAvail(); ++i, ++state.index) {
+            for (; consumed < arg.getMaxNumArg() && state.isArgAvail(); ++consumed, ++state.index) {
                 if (flagFound(state)) {
                     break;
                 }
-                list.add(arg.convert(this, state.getArg()));
+                Object value = convert(state, arg, state.getArg(),
+                        state.position(state.index));
+                if (value == CONVERSION_FAILED) {
+                    failed = true;
+                } else {
+                    list.add(value);
+                }
             }
         } else {
-            list.add(arg.convert(this, embeddedValue));
+            consumed = 1;
+            Object value = convert(state, arg, embeddedValue, flagPosition);
+            if (value == CONVERSION_FAILED) {
+                failed = true;
+            } else {
+                list.add(value);
+            }
         }
-        if (list.size() < arg.getMinNumArg()) {
-            throw new ArgumentParserException(String.format(
-                    TextHelper.LOCALE_ROOT,
-                    localize("expectedNArgumentsError"),
-                    arg.getMinNumArg()), this, arg);
+        if (consumed < arg.getMinNumArg()) {
+            report(state, ParseDiagnostic.Kind.MISSING_VALUE, arg,
+                    flagPosition, new ArgumentParserException(this, arg,
+                            "expectedNArgumentsError", arg.getMinNumArg()));
+            return;
+        }
+        if (failed) {
+            return;
         }
         // For named arguments, always process the list even if it is
         // empty.
-        arg.run(this, res, flag, list,
-                value -> addArgValue(res, arg, value));
+        runAction(state, res, arg, flag, list, flagPosition);
+    }
+
+    /**
+     * Converts {@code value} for {@code arg}. If diagnostics are collected,
+     * a conversion error is reported and {@link #CONVERSION_FAILED} is
+     * returned.
+     */
+    private Object convert(ParseState state, ArgumentImpl arg, String value,
+            int position) throws ArgumentParserException {
+        ParseListener listener = config_.parseListener_;
+        long start = listener == null ? 0 : System.nanoTime();
+        Object result;
+        ArgumentParserException error = null;
+        try {
+            result = arg.convert(this, value);
+        } catch (ArgumentParserException e) {
+            result = CONVERSION_FAILED;
+            error = e;
+        }
+        if (listener != null) {
+            listener.phaseCompleted(commandPath_,
+                    ParseListener.Phase.CONVERSION, arg,
+                    System.nanoTime() - start);
+        }
+        if (error != null) {
+            report(state, ParseDiagnostic.Kind.INVALID_VALUE, arg, position,
+                    error);
+        }
+        return result;
+    }
+
+    /**
+     * Runs the action of {@code arg}. If diagnostics are collected, help and
+     * version actions are reported instead of run, and errors raised by the
+     * action are reported.
+     */
+    private void runAction(ParseState state, Map<String, Object> res,
+            ArgumentImpl arg, String flag, Object value, int position)
+            throws ArgumentParserException {
+        if (state.diagnostics == null) {
+            run(arg, res, flag, value);
+            return;
+        }
+        if (arg.getAction() instanceof HelpArgumentAction) {
+            state.diagnostics.add(new ParseDiagnostic(
+                    ParseDiagnostic.Kind.HELP, arg, position, null));
+            return;
+        }
+        if (arg.getAction() instanceof VersionArgumentAction) {
+            state.diagnostics.add(new ParseDiagnostic(
+                    ParseDiagnostic.Kind.VERSION, arg, position, null));
+            return;
+        }
+        try {
+            run(arg, res, flag, value);
+        } catch (HelpScreenException e) {
+            state.diagnostics.add(new ParseDiagnostic(
+                    ParseDiagnostic.Kind.HELP, arg, position, e));
+        } catch (ArgumentParserException e) {
+            state.diagnostics.add(new ParseDiagnostic(
+                    ParseDiagnostic.Kind.OTHER, arg, position, e));
+        }
+    }
+
+    private void run(ArgumentImpl arg, Map<String, Object> res, String flag,
+            Object value) throws ArgumentParserException {
+        ParseListener listener = config_.parseListener_;
+        if (listener == null) {
+            arg.run(this, res, flag, value, new ValueSetter(res, arg));
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            arg.run(this, res, flag, value, new ValueSetter(res, arg));
+        } finally {
+            listener.phaseCompleted(commandPath_, ParseListener.Phase.ACTION,
+                    arg, System.nanoTime() - start);
+        }
     }
 
     /**
@@ -1024,7 +1493,7 @@ public final class ArgumentParserImpl implements ArgumentParser {
         if (arg.getMinNumArg() == -1
                 || (arg.getMinNumArg() == 0 && arg.getMaxNumArg() == 1)) {
             // In case of: option takes exactly one argument, or nargs("?")
-            state.posArgArgs.add(state.getArg());
+            state.addPosArg();
             ++state.index;
             ++state.posArgIndex;
             return;
@@ -1033,7 +1502,7 @@ public final class ArgumentParserImpl implements ArgumentParser {
             if (flagFound(state)) {
                 break;
             }
-            state.posArgArgs.add(state.getArg());
+            state.addPosArg();
         }
         if (state.posArgConsumed == arg.getMaxNumArg()) {
             // all possible parameters are consumed for this positional
@@ -1044,9 +1513,26 @@ public final class ArgumentParserImpl implements ArgumentParser {
     }
 
     /**
-     * This function processes named arguments accumulated in state.
+     * This function processes positional arguments accumulated in state.
      */
-    private void processPositionalArgs(Map<String, Object> res, ParseState state)
+    private void processPositionalArgs(Map<String, Object> res,
+            ParseState state) throws ArgumentParserException {
+        ParseListener listener = config_.parseListener_;
+        if (listener == null) {
+            assignPositionalArgs(res, state);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            assignPositionalArgs(res, state);
+        } finally {
+            listener.phaseCompleted(commandPath_,
+                    ParseListener.Phase.POSITIONAL, null,
+                    System.nanoTime() - start);
+        }
+    }
+
+    private void assignPositionalArgs(Map<String, Object> res, ParseState state)
             throws ArgumentParserException {
         // we have gathered all available positional parameters in state. Let's
         // see it can provide enough parameters for positional arguments.
@@ -1072,33 +1558,32 @@ public final class ArgumentParserImpl implements ArgumentParser {
             mustLeft[i] += mustLeft[i + 1];
         }
         if (mustLeft[0] > state.posArgArgs.size()) {
-            throw new ArgumentParserException(localize("tooFewArgumentsError"),
-                    this);
+            report(state, ParseDiagnostic.Kind.MISSING_ARGUMENT, null, -1,
+                    new ArgumentParserException(this, null,
+                            "tooFewArgumentsError"));
+            return;
         }
         int argIndex = 0;
         for (int i = 0; i < posArgs_.size(); ++i) {
             ArgumentImpl arg = posArgs_.get(i);
             if (!arg.getAction().consumeArgument()) {
-                arg.run(this, res, null, null,
-                        value -> addArgValue(res, arg, value));
-                continue;
-            }
-            if (arg.getMinNumArg() == -1) {
-                // consumes exactly one parameter
-                arg.run(this, res, null,
-                        arg.convert(this, state.posArgArgs.get(argIndex++)),
-                        value -> addArgValue(res, arg, value));
+                runAction(state, res, arg, null, null, -1);
                 continue;
             }
-            if (arg.getMinNumArg() == 0 && arg.getMaxNumArg() == 1) {
-                // consumes 0 or 1 parameter
-                if (mustLeft[i + 1] == state.posArgArgs.size() - argIndex) {
+            if (arg.getMinNumArg() == -1
+                    || (arg.getMinNumArg() == 0 && arg.getMaxNumArg() == 1)) {
+                // consumes exactly one parameter, or 0 or 1 parameter
+                if (arg.getMinNumArg() == 0
+                        && mustLeft[i + 1] == state.posArgArgs.size() - argIndex) {
                     // cannot consume parameter here
                     continue;
                 }
-                arg.run(this, res, null,
-                        arg.convert(this, state.posArgArgs.get(argIndex++)),
-                        value -> addArgValue(res, arg, value));
+                int position = posArgPosition(state, argIndex);
+                Object value = convert(state, arg,
+                        state.posArgArgs.get(argIndex++), position);
+                if (value != CONVERSION_FAILED) {
+                    runAction(state, res, arg, null, value, position);
+                }
                 continue;
             }
             int n = Math.min(arg.getMaxNumArg(), state.posArgArgs.size()
@@ -1111,24 +1596,45 @@ public final class ArgumentParserImpl implements ArgumentParser {
             }
 
             List<Object> list = new ArrayList<>(n);
+            int position = posArgPosition(state, argIndex);
+            boolean failed = false;
             for (; n > 0; --n) {
-                list.add(arg.convert(this, state.posArgArgs.get(argIndex++)));
+                Object value = convert(state, arg,
+                        state.posArgArgs.get(argIndex),
+                        posArgPosition(state, argIndex));
+                ++argIndex;
+                if (value == CONVERSION_FAILED) {
+                    failed = true;
+                } else {
+                    list.add(value);
+                }
+            }
+            if (!failed) {
+                runAction(state, res, arg, null, list, position);
             }
-            arg.run(this, res, null, list,
-                    value -> addArgValue(res, arg, value));
         }
     }
 
+    private static int posArgPosition(ParseState state, int argIndex) {
+        return state.posArgPositions == null ? -1 : state.posArgPositions
+                .get(argIndex);
+    }
+
     /**
      * Returns true if state.getArg() is flag. Note that if "--" is met and not
      * consumed, this function returns true, because "--" is treated as special
      * named argument. If prefixFileChar is found in prefix of argument, read
-     * arguments from that file and expand arguments in state necessary.
+     * arguments from that file and expand arguments in state necessary. If no
+     * argument is left after the expansion, e.g. the last argument file is
+     * empty, this function returns true as well.
      */
     private boolean flagFound(ParseState state) throws ArgumentParserException {
         while (fromFileFound(state)) {
             extendArgs(state,
                     config_.fromFilePrefixPattern_.removePrefix(state.getArg()));
+            if (!state.isArgAvail()) {
+                return true;
+            }
         }
         String term = state.getArg();
         if (state.consumedSeparator) {
@@ -1137,8 +1643,50 @@ public final class ArgumentParserImpl implements ArgumentParser {
             return true;
         }
         return config_.prefixPattern_.match(term)
-                && (state.negNumFlag || !NEG_NUM_PATTERN.matcher(term)
-                        .matches());
+                && (state.negNumFlag || !isNegativeNumber(term));
+    }
+
+    /**
+     * Returns {@code true} if {@code term} is a negative number, i.e. a
+     * {@code -} followed by one or more ASCII digits.
+     */
+    private static boolean isNegativeNumber(String term) {
+        int len = term.length();
+        if (len < 2 || term.charAt(0) != '-') {
+            return false;
+        }
+        for (int i = 1; i < len; ++i) {
+            char c = term.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if {@code term} looks like concatenated short
+     * options: {@code -}, a character other than {@code -} and then anything
+     * but line terminators.
+     */
+    private static boolean isShortOpts(String term) {
+        int len = term.length();
+        if (len < 2 || term.charAt(0) != '-' || term.charAt(1) == '-') {
+            return false;
+        }
+        for (int i = 2; i < len; ++i) {
+            switch (term.charAt(i)) {
+            case '\n':
+            case '\r':
+            case '\u0085':
+            case '\u2028':
+            case '\u2029':
+                return false;
+            default:
+                break;
+            }
+        }
+        return true;
     }
 
     private boolean fromFileFound(ParseState state) {
@@ -1156,17 +1704,26 @@ public final class ArgumentParserImpl implements ArgumentParser {
      */
     private void extendArgs(ParseState state, String file)
             throws ArgumentParserException {
+        ParseListener listener = config_.parseListener_;
+        long start = listener == null ? 0 : System.nanoTime();
+        int position = state.position(state.index);
         List<String> list = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-                new FileInputStream(file), UTF_8))) {
+        long bytes = 0;
+        IOException error = null;
+        try (FileInputStream in = new FileInputStream(file);
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(in, UTF_8))) {
             String line;
             while ((line = reader.readLine()) != null) {
                 list.add(line);
             }
+            if (listener != null) {
+                bytes = in.getChannel().position();
+            }
         } catch (IOException e) {
-            throw new ArgumentParserException(String.format(
-                    TextHelper.LOCALE_ROOT,
-                    localize("couldNotReadFromFileError"), file), e, this);
+            // If diagnostics are collected, go on as if the file were empty.
+            error = e;
+            list.clear();
         }
         // No action needed. Ignore errors during closing.
         int offset = state.index + 1;
@@ -1180,6 +1737,18 @@ public final class ArgumentParserImpl implements ArgumentParser {
             state.lastFromFileArgIndex += -offset + list.size();
         }
         state.resetArgs(newArgs);
+        if (listener != null) {
+            long nanos = System.nanoTime() - start;
+            listener.phaseCompleted(commandPath_,
+                    ParseListener.Phase.FROM_FILE, null, nanos);
+            listener.fromFileRead(commandPath_, file, bytes, list.size(),
+                    nanos);
+        }
+        if (error != null) {
+            report(state, ParseDiagnostic.Kind.UNREADABLE_FILE, null,
+                    position, new ArgumentParserException(error, this, null,
+                            "couldNotReadFromFileError", file));
+        }
     }
 
     private void checkRequiredArgument(ParseState state, Set<ArgumentImpl> used) {
@@ -1188,10 +1757,14 @@ public final class ArgumentParserImpl implements ArgumentParser {
         }
         for (ArgumentImpl arg : namedArgs_) {
             if (arg.isRequired() && !used.contains(arg)) {
-                state.deferredException = new ArgumentParserException(
-                        String.format(TextHelper.LOCALE_ROOT,
-                                localize("argumentIsRequiredError"),
-                                arg.textualName()), this);
+                ArgumentParserException e = new ArgumentParserException(this,
+                        null, "argumentIsRequiredError", arg.textualName());
+                if (state.diagnostics == null) {
+                    state.deferredException = e;
+                } else {
+                    state.diagnostics.add(new ParseDiagnostic(
+                            ParseDiagnostic.Kind.MISSING_ARGUMENT, arg, -1, e));
+                }
             }
         }
         // we already handled the case where arguments is too few for positional
@@ -1211,10 +1784,14 @@ public final class ArgumentParserImpl implements ArgumentParser {
                         sb.append(arg.textualName()).append(" ");
                     }
                 }
-                state.deferredException = new ArgumentParserException(
-                        String.format(TextHelper.LOCALE_ROOT,
-                                localize("oneOfTheArgumentsIsRequiredError"),
-                                sb.toString()), this);
+                ArgumentParserException e = new ArgumentParserException(this,
+                        null, "oneOfTheArgumentsIsRequiredError", sb.toString());
+                if (state.diagnostics == null) {
+                    state.deferredException = e;
+                } else {
+                    state.diagnostics.add(new ParseDiagnostic(
+                            ParseDiagnostic.Kind.MISSING_ARGUMENT, null, -1, e));
+                }
             }
         }
     }
@@ -1297,10 +1874,10 @@ public final class ArgumentParserImpl implements ArgumentParser {
             return;
         }
         printUsage(writer);
-        writer.write(TextHelper.wrap(config_.textWidthCounter_,String.format(
-                TextHelper.LOCALE_ROOT, localize("errorLine"),
-                config_.prog_, e.getMessage()), config_.formatWidth_, 0, "",
-                ""));
+        writer.write(TextHelper.wrap(config_.textWidthCounter_,
+                MessageLocalization.format(config_.getResourceBundle(),
+                        "errorLine", config_.prog_, e.getMessage()),
+                config_.getFormatWidth(), 0, "", ""));
         if (e instanceof UnrecognizedArgumentException) {
             UnrecognizedArgumentException ex = (UnrecognizedArgumentException) e;
             String argument = ex.getArgument();
@@ -1356,6 +1933,26 @@ public final class ArgumentParserImpl implements ArgumentParser {
         return dp[1][bLen];
     }
 
+    /**
+     * Stores the value produced by the action of an argument. This is a class
+     * rather than a lambda, so that parsing does not bootstrap
+     * {@code java.lang.invoke} in applications which do not use it otherwise.
+     */
+    private final class ValueSetter implements Consumer<Object> {
+        private final Map<String, Object> res_;
+        private final ArgumentImpl arg_;
+
+        ValueSetter(Map<String, Object> res, ArgumentImpl arg) {
+            res_ = res;
+            arg_ = arg;
+        }
+
+        @Override
+        public void accept(Object value) {
+            addArgValue(res_, arg_, value);
+        }
+    }
+
     private static class SubjectBody {
         public String subject;
         String body;
@@ -1496,7 +2093,19 @@ public final class ArgumentParserImpl implements ArgumentParser {
      * @return the substituted string
      */
     private String substitutePlaceholder(String src) {
-        return src.replaceAll(Pattern.quote("${prog}"), config_.prog_);
+        String placeholder = "${prog}";
+        int i = src.indexOf(placeholder);
+        if (i == -1) {
+            return src;
+        }
+        StringBuilder sb = new StringBuilder(src.length());
+        int start = 0;
+        do {
+            sb.append(src, start, i).append(config_.prog_);
+            start = i + placeholder.length();
+            i = src.indexOf(placeholder, start);
+        } while (i != -1);
+        return sb.append(src, start, src.length()).toString();
     }
 
     public String getCommand() {
@@ -1516,6 +2125,21 @@ public final class ArgumentParserImpl implements ArgumentParser {
                 .getPrefixChars();
     }
 
+    /**
+     * Returns the arguments of this parser and, recursively, of its
+     * sub-commands.
+     * 
+     * @return The arguments.
+     */
+    public List<ArgumentImpl> getAllArguments() {
+        List<ArgumentImpl> args = new ArrayList<>(namedArgs_);
+        args.addAll(posArgs_);
+        for (SubparserImpl subparser : subparsers_.getParsers()) {
+            args.addAll(subparser.getParser().getAllArguments());
+        }
+        return args;
+    }
+
     /**
      * Returns main (parent) parser.
      * 
@@ -1525,6 +2149,16 @@ public final class ArgumentParserImpl implements ArgumentParser {
         return mainParser_;
     }
 
+    /**
+     * Returns the names of the sub-commands leading to this parser.
+     * 
+     * @return The command names separated by spaces, or an empty string if
+     *         this object is a root parser.
+     */
+    String getCommandPath() {
+        return commandPath_;
+    }
+
     String localize(String messageKey) {
         return MessageLocalization.localize(config_.getResourceBundle(),
                 messageKey);
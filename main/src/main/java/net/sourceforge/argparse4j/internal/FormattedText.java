@@ -0,0 +1,51 @@
+package net.sourceforge.argparse4j.internal;
+
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+/**
+ * Help or usage text formatted by {@link ArgumentParserImpl}, together with
+ * the state it was formatted for. It is reused as long as the parser
+ * definition, the format width and the resource bundle stay the same.
+ * Precompiled text was formatted by another JVM, and is matched by the locale
+ * of its resource bundle instead.
+ */
+final class FormattedText {
+
+    private final long definitionVersion_;
+    private final int formatWidth_;
+    private final ResourceBundle resourceBundle_;
+    private final Locale bundleLocale_;
+    private final String text_;
+
+    FormattedText(long definitionVersion, int formatWidth,
+            ResourceBundle resourceBundle, String text) {
+        definitionVersion_ = definitionVersion;
+        formatWidth_ = formatWidth;
+        resourceBundle_ = resourceBundle;
+        bundleLocale_ = null;
+        text_ = text;
+    }
+
+    FormattedText(long definitionVersion, int formatWidth,
+            Locale bundleLocale, String text) {
+        definitionVersion_ = definitionVersion;
+        formatWidth_ = formatWidth;
+        resourceBundle_ = null;
+        bundleLocale_ = bundleLocale;
+        text_ = text;
+    }
+
+    boolean isValidFor(long definitionVersion, int formatWidth,
+            ResourceBundle resourceBundle) {
+        return definitionVersion_ == definitionVersion
+                && formatWidth_ == formatWidth
+                && (resourceBundle_ == resourceBundle
+                        || resourceBundle_ == null && bundleLocale_
+                                .equals(resourceBundle.getLocale()));
+    }
+
+    String getText() {
+        return text_;
+    }
+}
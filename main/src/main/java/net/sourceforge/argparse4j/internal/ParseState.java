@@ -27,6 +27,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.ParseDiagnostic;
 
 class ParseState {
     /**
@@ -37,6 +38,11 @@ class ParseState {
      * Index in args array, which points next argument to process.
      */
     int index;
+    /**
+     * Position of {@code args[0]} in the command line with the contents of
+     * argument files in place of the file names.
+     */
+    int indexBase;
     /**
      * Index in {@link #args} array, which points to the last argument read from
      * file. -1 means that no argument is read from file. If arguments are read
@@ -60,6 +66,12 @@ class ParseState {
      */
     ArgumentParserException deferredException;
 
+    /**
+     * Diagnostics collected instead of throwing errors, or null if errors are
+     * thrown.
+     */
+    List<ParseDiagnostic> diagnostics;
+
     /**
      * Index of positional argument (Argument object) we are currently
      * processing.
@@ -77,6 +89,12 @@ class ParseState {
      */
     List<String> posArgArgs;
 
+    /**
+     * Positions of {@link #posArgArgs} in the command line, if diagnostics
+     * are collected.
+     */
+    List<Integer> posArgPositions;
+
     /**
      * Accumulated unknown arguments, if not null.
      */
@@ -94,7 +112,16 @@ class ParseState {
         this.unknown = unknown;
     }
 
+    /**
+     * Switches to collecting diagnostics instead of throwing errors.
+     */
+    void collectDiagnostics() {
+        this.diagnostics = new ArrayList<>();
+        this.posArgPositions = new ArrayList<>();
+    }
+
     void resetArgs(String[] args) {
+        this.indexBase += this.index;
         this.args = args;
         this.index = 0;
     }
@@ -103,6 +130,20 @@ class ParseState {
         return args[index];
     }
 
+    /**
+     * Returns the position of {@code args[index]} in the command line.
+     */
+    int position(int index) {
+        return indexBase + index;
+    }
+
+    void addPosArg() {
+        posArgArgs.add(getArg());
+        if (posArgPositions != null) {
+            posArgPositions.add(position(index));
+        }
+    }
+
     boolean isArgAvail() {
         return index < args.length;
     }
@@ -111,5 +152,8 @@ class ParseState {
         this.posArgIndex = 0;
         this.posArgConsumed = 0;
         this.posArgArgs.clear();
+        if (this.posArgPositions != null) {
+            this.posArgPositions.clear();
+        }
     }
 }
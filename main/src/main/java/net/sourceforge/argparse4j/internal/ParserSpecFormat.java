@@ -0,0 +1,80 @@
+package net.sourceforge.argparse4j.internal;
+
+/**
+ * <p>
+ * The constants of the binary format of parser specs, shared by
+ * {@link ParserSpecWriter} and {@link ParserSpecReader}. Kinds are stored as
+ * their index in these arrays, and written to JSON by name.
+ * </p>
+ * <p>
+ * The arrays may only be appended to, and only together with a new
+ * {@link #VERSION}. This class refers to no other classes, so that reading a
+ * spec loads only the classes which the parser uses.
+ * </p>
+ * <p>
+ * <strong>The application code must not use this class directly.</strong>
+ * </p>
+ */
+final class ParserSpecFormat {
+
+    static final byte[] MAGIC = { 'A', 'P', '4', 'J' };
+    static final int VERSION = 2;
+
+    static final String[] ACTIONS = { "store", "storeTrue", "storeFalse",
+            "storeConst", "append", "appendConst", "help", "version",
+            "count" };
+
+    static final String[] TYPES = { "string", "reflect", "constructor",
+            "enum", "enumString", "enumNameIgnoreCase",
+            "enumStringIgnoreCase", "boolean", "integer", "long", "double",
+            "size", "duration", "file" };
+    static final int TYPE_STRING = 0;
+    static final int TYPE_REFLECT = 1;
+    static final int TYPE_CONSTRUCTOR = 2;
+    static final int TYPE_ENUM = 3;
+    static final int TYPE_ENUM_STRING = 4;
+    static final int TYPE_ENUM_NAME_IGNORE_CASE = 5;
+    static final int TYPE_ENUM_STRING_IGNORE_CASE = 6;
+    static final int TYPE_BOOLEAN = 7;
+    static final int TYPE_INTEGER = 8;
+    static final int TYPE_LONG = 9;
+    static final int TYPE_DOUBLE = 10;
+    static final int TYPE_SIZE = 11;
+    static final int TYPE_DURATION = 12;
+    static final int TYPE_FILE = 13;
+
+    static final String[] CHOICES = { "none", "collection", "range",
+            "pattern", "intervalSet" };
+    static final int CHOICE_NONE = 0;
+    static final int CHOICE_COLLECTION = 1;
+    static final int CHOICE_RANGE = 2;
+    static final int CHOICE_PATTERN = 3;
+    static final int CHOICE_INTERVAL_SET = 4;
+
+    static final String[] VALUES = { "null", "string", "boolean", "integer",
+            "long", "double", "float", "short", "byte", "character",
+            "bigInteger", "bigDecimal", "enum", "file", "duration", "list" };
+    static final int VALUE_NULL = 0;
+    static final int VALUE_STRING = 1;
+    static final int VALUE_BOOLEAN = 2;
+    static final int VALUE_INTEGER = 3;
+    static final int VALUE_LONG = 4;
+    static final int VALUE_DOUBLE = 5;
+    static final int VALUE_FLOAT = 6;
+    static final int VALUE_SHORT = 7;
+    static final int VALUE_BYTE = 8;
+    static final int VALUE_CHARACTER = 9;
+    static final int VALUE_BIG_INTEGER = 10;
+    static final int VALUE_BIG_DECIMAL = 11;
+    static final int VALUE_ENUM = 12;
+    static final int VALUE_FILE = 13;
+    static final int VALUE_DURATION = 14;
+    static final int VALUE_LIST = 15;
+
+    static final String[] VERIFICATIONS = { "exists", "notExists", "isFile",
+            "isDirectory", "canRead", "canWrite", "canWriteParent",
+            "canCreate", "canExecute", "isAbsolute" };
+
+    private ParserSpecFormat() {
+    }
+}
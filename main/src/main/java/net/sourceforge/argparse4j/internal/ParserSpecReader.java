@@ -0,0 +1,612 @@
+package net.sourceforge.argparse4j.internal;
+
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.ACTIONS;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.CHOICES;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.CHOICE_COLLECTION;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.CHOICE_INTERVAL_SET;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.CHOICE_PATTERN;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.CHOICE_RANGE;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.MAGIC;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPES;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_BOOLEAN;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_CONSTRUCTOR;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_DOUBLE;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_DURATION;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_ENUM;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_ENUM_NAME_IGNORE_CASE;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_ENUM_STRING;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_ENUM_STRING_IGNORE_CASE;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_FILE;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_INTEGER;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_LONG;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_REFLECT;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_SIZE;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUES;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_BIG_DECIMAL;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_BIG_INTEGER;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_BOOLEAN;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_BYTE;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_CHARACTER;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_DOUBLE;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_DURATION;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_ENUM;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_FILE;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_FLOAT;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_INTEGER;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_LIST;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_LONG;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_SHORT;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_STRING;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VERSION;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import net.sourceforge.argparse4j.helper.TextHelper;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.impl.choice.CollectionArgumentChoice;
+import net.sourceforge.argparse4j.impl.choice.IntervalSetArgumentChoice;
+import net.sourceforge.argparse4j.impl.choice.PatternArgumentChoice;
+import net.sourceforge.argparse4j.impl.choice.RangeArgumentChoice;
+import net.sourceforge.argparse4j.impl.type.BooleanArgumentType;
+import net.sourceforge.argparse4j.impl.type.CaseInsensitiveEnumNameArgumentType;
+import net.sourceforge.argparse4j.impl.type.CaseInsensitiveEnumStringArgumentType;
+import net.sourceforge.argparse4j.impl.type.ConstructorArgumentType;
+import net.sourceforge.argparse4j.impl.type.DoubleArgumentType;
+import net.sourceforge.argparse4j.impl.type.DurationArgumentType;
+import net.sourceforge.argparse4j.impl.type.EnumArgumentType;
+import net.sourceforge.argparse4j.impl.type.EnumStringArgumentType;
+import net.sourceforge.argparse4j.impl.type.FileArgumentType;
+import net.sourceforge.argparse4j.impl.type.IntegerArgumentType;
+import net.sourceforge.argparse4j.impl.type.LongArgumentType;
+import net.sourceforge.argparse4j.impl.type.ReflectArgumentType;
+import net.sourceforge.argparse4j.impl.type.SizeArgumentType;
+import net.sourceforge.argparse4j.inf.ArgumentAction;
+import net.sourceforge.argparse4j.inf.ArgumentChoice;
+import net.sourceforge.argparse4j.inf.ArgumentType;
+import net.sourceforge.argparse4j.inf.Subparser;
+
+/**
+ * <p>
+ * Reads a parser spec in the binary format written by
+ * {@link ParserSpecWriter}, and builds the parser it describes.
+ * </p>
+ * <p>
+ * The main parser is built right away. Each sub-command is added with the
+ * definition of its arguments left in the spec, and is defined from it when
+ * it is first needed, so that loading costs little more than the main parser
+ * regardless of the number of sub-commands.
+ * </p>
+ * <p>
+ * <strong>The application code must not use this class directly.</strong>
+ * </p>
+ */
+public final class ParserSpecReader {
+
+    private static final ArgumentAction[] ACTION_INSTANCES = {
+            Arguments.store(), Arguments.storeTrue(), Arguments.storeFalse(),
+            Arguments.storeConst(), Arguments.append(),
+            Arguments.appendConst(), Arguments.help(), Arguments.version(),
+            Arguments.count() };
+
+    private final ByteBuffer in_;
+    private final ClassLoader loader_;
+
+    private ParserSpecReader(ByteBuffer in, ClassLoader loader) {
+        in_ = in;
+        loader_ = loader;
+    }
+
+    /**
+     * Builds the parser described by {@code spec}.
+     *
+     * @param spec
+     *            The spec in the binary format. It must not be modified
+     *            afterwards, because sub-commands are read from it later.
+     * @param loader
+     *            The class loader of the classes named in the spec, e.g.
+     *            enum types.
+     * @return The main parser.
+     * @throws IOException
+     *             If {@code spec} is not a parser spec, has an unsupported
+     *             version or is truncated.
+     * @throws IllegalStateException
+     *             If a class named in the spec cannot be loaded. For the
+     *             arguments of a sub-command, this is thrown when the
+     *             sub-command is first needed.
+     */
+    public static ArgumentParserImpl read(byte[] spec, ClassLoader loader)
+            throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(spec);
+        if (spec.length < MAGIC.length + 4) {
+            throw new IOException("not a parser spec");
+        }
+        for (byte b : MAGIC) {
+            if (in.get() != b) {
+                throw new IOException("not a parser spec");
+            }
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IOException(String.format(TextHelper.LOCALE_ROOT,
+                    "unsupported parser spec version %d", version));
+        }
+        try {
+            return new ParserSpecReader(in, loader).readParser();
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("malformed parser spec", e);
+        }
+    }
+
+    private ArgumentParserImpl readParser() {
+        String prog = string();
+        boolean addHelp = bool();
+        String prefixChars = string();
+        String fromFilePrefix = string();
+        String localeTag = string();
+        Locale locale = localeTag.isEmpty() ? null
+                : Locale.forLanguageTag(localeTag);
+        boolean cjkWidthHack = bool();
+        int formatWidth = in_.getInt();
+        boolean terminalWidthDetection = bool();
+        boolean singleMetavar = bool();
+        boolean noDestConversionForPositionalArgs = bool();
+        boolean includeArgumentNamesAsKeysInResult = bool();
+        boolean mustHelpTextIncludeMutualExclusivity = bool();
+        boolean stackTrace = bool();
+        ArgumentParserImpl parser = new ArgumentParserImpl(
+                new ArgumentParserConfigurationImpl(prog, addHelp,
+                        prefixChars, fromFilePrefix, locale, cjkWidthHack,
+                        formatWidth, terminalWidthDetection, singleMetavar,
+                        noDestConversionForPositionalArgs,
+                        includeArgumentNamesAsKeysInResult,
+                        mustHelpTextIncludeMutualExclusivity,
+                        new HashMap<>(), stackTrace, null));
+        readBody(parser);
+        return parser;
+    }
+
+    private void readBody(ArgumentParserImpl parser) {
+        // Setters are only called for values other than the defaults of a
+        // new parser, which makes loading a spec cheaper than builder code.
+        String usage = string();
+        if (!usage.isEmpty()) {
+            parser.usage(usage);
+        }
+        String description = string();
+        if (!description.isEmpty()) {
+            parser.description(description);
+        }
+        String epilog = string();
+        if (!epilog.isEmpty()) {
+            parser.epilog(epilog);
+        }
+        String version = string();
+        if (!version.isEmpty()) {
+            parser.version(version);
+        }
+        if (bool()) {
+            parser.defaultHelp(true);
+        }
+
+        for (int i = 0, n = in_.getInt(); i < n; ++i) {
+            parser.setDefault(string(), value());
+        }
+
+        int numGroups = in_.getInt();
+        List<ArgumentGroupImpl> groups = new ArrayList<>(numGroups);
+        for (int i = 0; i < numGroups; ++i) {
+            String title = string();
+            String groupDescription = string();
+            boolean mutex = bool();
+            boolean required = bool();
+            ArgumentGroupImpl group = (ArgumentGroupImpl) (mutex
+                    ? parser.addMutuallyExclusiveGroup(title)
+                    : parser.addArgumentGroup(title));
+            if (!groupDescription.isEmpty()) {
+                group.description(groupDescription);
+            }
+            if (required) {
+                group.required(true);
+            }
+            groups.add(group);
+        }
+
+        for (int i = 0, n = in_.getInt(); i < n; ++i) {
+            readArgument(parser, groups);
+        }
+
+        SubparsersImpl subparsers = parser.addSubparsers();
+        String subparsersHelp = string();
+        if (!subparsersHelp.isEmpty()) {
+            subparsers.help(subparsersHelp);
+        }
+        String title = string();
+        if (!title.isEmpty()) {
+            subparsers.title(title);
+        }
+        String subparsersDescription = string();
+        if (!subparsersDescription.isEmpty()) {
+            subparsers.description(subparsersDescription);
+        }
+        String dest = string();
+        if (!dest.isEmpty()) {
+            subparsers.dest(dest);
+        }
+        String metavar = string();
+        if (!metavar.isEmpty()) {
+            subparsers.metavar(metavar);
+        }
+        for (int i = 0, n = in_.getInt(); i < n; ++i) {
+            String command = string();
+            String[] aliases = strings();
+            String help = string();
+            boolean helpSuppressed = bool();
+            boolean addHelp = bool();
+            String prefixChars = string();
+            ByteBuffer body = block();
+            SubparserImpl subparser = subparsers.addParser(command, addHelp,
+                    prefixChars, new CommandDefiner(body, loader_));
+            if (!help.isEmpty()) {
+                subparser.help(help);
+            }
+            if (helpSuppressed) {
+                subparser.help(Arguments.SUPPRESS);
+            }
+            if (aliases.length > 0) {
+                subparser.aliases(aliases);
+            }
+        }
+    }
+
+    private void readArgument(ArgumentParserImpl parser,
+            List<ArgumentGroupImpl> groups) {
+        String name = string();
+        String[] flags = strings();
+        String[] nameOrFlags = name == null ? flags : new String[] { name };
+        String dest = string();
+        int group = in_.getInt();
+        ArgumentImpl arg = group < 0 ? parser.addArgument(nameOrFlags)
+                : groups.get(group).addArgument(nameOrFlags);
+        if (!dest.equals(arg.getDest())) {
+            arg.dest(dest);
+        }
+        int action = kind(ACTIONS.length);
+        if (action != 0) {
+            arg.action(ACTION_INSTANCES[action]);
+        }
+        ArgumentType<?> type = type();
+        if (type != null) {
+            arg.type(type);
+        }
+        ArgumentChoice choice = choice();
+        if (choice != null) {
+            arg.choices(choice);
+        }
+        Object constValue = value();
+        if (constValue != null || arg.getConst() != null) {
+            arg.setConst(constValue);
+        }
+        Object defaultValue = value();
+        if (defaultValue != null || arg.getRawDefault() != null) {
+            arg.setDefault(defaultValue);
+        }
+        if (bool()) {
+            arg.setDefault(Arguments.SUPPRESS);
+        }
+        if (bool()) {
+            arg.help(Arguments.SUPPRESS);
+        }
+        if (bool()) {
+            arg.required(true);
+        }
+        String[] metavar = strings();
+        if (metavar != null) {
+            arg.metavar(metavar);
+        }
+        int minNumArg = in_.getInt();
+        int maxNumArg = in_.getInt();
+        if (minNumArg != -1 || maxNumArg != -1) {
+            arg.setNumArgs(minNumArg, maxNumArg);
+        }
+        String help = string();
+        if (!help.isEmpty()) {
+            arg.help(help);
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes", "deprecation" })
+    private ArgumentType<?> type() {
+        switch (kind(TYPES.length)) {
+            case TYPE_REFLECT:
+                return new ReflectArgumentType<>(loadClass(string()));
+            case TYPE_CONSTRUCTOR:
+                return new ConstructorArgumentType<>(loadClass(string()));
+            case TYPE_ENUM:
+                return new EnumArgumentType(loadClass(string()));
+            case TYPE_ENUM_STRING:
+                return new EnumStringArgumentType(loadClass(string()));
+            case TYPE_ENUM_NAME_IGNORE_CASE:
+                return new CaseInsensitiveEnumNameArgumentType(
+                        loadClass(string()));
+            case TYPE_ENUM_STRING_IGNORE_CASE:
+                return new CaseInsensitiveEnumStringArgumentType(
+                        loadClass(string()));
+            case TYPE_BOOLEAN:
+                return new BooleanArgumentType(string(), string());
+            case TYPE_INTEGER: {
+                boolean bounded = bool();
+                int min = in_.getInt();
+                int max = in_.getInt();
+                return bounded ? new IntegerArgumentType(min, max)
+                        : new IntegerArgumentType();
+            }
+            case TYPE_LONG: {
+                boolean bounded = bool();
+                long min = in_.getLong();
+                long max = in_.getLong();
+                return bounded ? new LongArgumentType(min, max)
+                        : new LongArgumentType();
+            }
+            case TYPE_DOUBLE: {
+                boolean bounded = bool();
+                double min = in_.getDouble();
+                double max = in_.getDouble();
+                return bounded ? new DoubleArgumentType(min, max)
+                        : new DoubleArgumentType();
+            }
+            case TYPE_SIZE:
+                return new SizeArgumentType(in_.getLong(), in_.getLong());
+            case TYPE_DURATION: {
+                String unit = string();
+                return new DurationArgumentType(
+                        unit == null ? null : TimeUnit.valueOf(unit));
+            }
+            case TYPE_FILE: {
+                FileArgumentType type = new FileArgumentType();
+                if (bool()) {
+                    type.acceptSystemIn();
+                }
+                for (int i = 0, n = in_.getInt(); i < n; ++i) {
+                    if (i > 0) {
+                        type.or();
+                    }
+                    readFileVerification(type);
+                }
+                return type;
+            }
+            default:
+                // The type of an argument is a string by default.
+                return null;
+        }
+    }
+
+    private void readFileVerification(FileArgumentType type) {
+        if (bool()) {
+            type.verifyExists();
+        }
+        if (bool()) {
+            type.verifyNotExists();
+        }
+        if (bool()) {
+            type.verifyIsFile();
+        }
+        if (bool()) {
+            type.verifyIsDirectory();
+        }
+        if (bool()) {
+            type.verifyCanRead();
+        }
+        if (bool()) {
+            type.verifyCanWrite();
+        }
+        if (bool()) {
+            type.verifyCanWriteParent();
+        }
+        if (bool()) {
+            type.verifyCanCreate();
+        }
+        if (bool()) {
+            type.verifyCanExecute();
+        }
+        if (bool()) {
+            type.verifyIsAbsolute();
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private ArgumentChoice choice() {
+        switch (kind(CHOICES.length)) {
+            case CHOICE_COLLECTION: {
+                boolean set = bool();
+                int n = count(in_.getInt());
+                Collection<Object> values = set ? new LinkedHashSet<>()
+                        : new ArrayList<>(n);
+                for (int i = 0; i < n; ++i) {
+                    values.add(value());
+                }
+                return new CollectionArgumentChoice<>(values);
+            }
+            case CHOICE_RANGE: {
+                Comparable min = (Comparable) value();
+                Comparable max = (Comparable) value();
+                return new RangeArgumentChoice(min, max);
+            }
+            case CHOICE_PATTERN:
+                return new PatternArgumentChoice(
+                        PatternArgumentChoice.Syntax.valueOf(string()),
+                        strings());
+            case CHOICE_INTERVAL_SET: {
+                IntervalSetArgumentChoice.Builder builder = bool()
+                        ? IntervalSetArgumentChoice.longBuilder()
+                        : IntervalSetArgumentChoice.intBuilder();
+                for (int i = 0, n = in_.getInt(); i < n; ++i) {
+                    builder.add(in_.getLong(), in_.getLong());
+                }
+                return builder.build();
+            }
+            default:
+                return null;
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Object value() {
+        switch (kind(VALUES.length)) {
+            case VALUE_STRING:
+                return string();
+            case VALUE_BOOLEAN:
+                return bool();
+            case VALUE_INTEGER:
+                return in_.getInt();
+            case VALUE_LONG:
+                return in_.getLong();
+            case VALUE_DOUBLE:
+                return in_.getDouble();
+            case VALUE_FLOAT:
+                return (float) in_.getDouble();
+            case VALUE_SHORT:
+                return (short) in_.getInt();
+            case VALUE_BYTE:
+                return (byte) in_.getInt();
+            case VALUE_CHARACTER:
+                return (char) in_.getInt();
+            case VALUE_BIG_INTEGER:
+                return new BigInteger(string());
+            case VALUE_BIG_DECIMAL:
+                return new BigDecimal(string());
+            case VALUE_ENUM: {
+                Class type = loadClass(string());
+                return Enum.valueOf(type, string());
+            }
+            case VALUE_FILE:
+                return new File(string());
+            case VALUE_DURATION:
+                return Duration.parse(string());
+            case VALUE_LIST: {
+                int n = count(in_.getInt());
+                List<Object> list = new ArrayList<>(n);
+                for (int i = 0; i < n; ++i) {
+                    list.add(value());
+                }
+                return list;
+            }
+            default:
+                return null;
+        }
+    }
+
+    private Class<?> loadClass(String name) {
+        try {
+            return Class.forName(name, false, loader_);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(String.format(
+                    TextHelper.LOCALE_ROOT,
+                    "class %s named in the parser spec cannot be loaded",
+                    name), e);
+        }
+    }
+
+    private int kind(int count) {
+        int kind = in_.get();
+        if (kind < 0 || kind >= count) {
+            throw new IllegalArgumentException(String.format(
+                    TextHelper.LOCALE_ROOT, "unknown kind %d", kind));
+        }
+        return kind;
+    }
+
+    private boolean bool() {
+        return in_.get() != 0;
+    }
+
+    private String string() {
+        int length = in_.getInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > in_.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        if (length == 0) {
+            return "";
+        }
+        String s = new String(in_.array(), in_.arrayOffset() + in_.position(),
+                length, StandardCharsets.UTF_8);
+        in_.position(in_.position() + length);
+        return s;
+    }
+
+    private String[] strings() {
+        int n = in_.getInt();
+        if (n == -1) {
+            return null;
+        }
+        String[] strings = new String[count(n)];
+        for (int i = 0; i < n; ++i) {
+            strings[i] = string();
+        }
+        return strings;
+    }
+
+    /**
+     * Checks the number of elements which follow, each of which takes at
+     * least one byte, so that a malformed spec does not allocate an array of
+     * a negative or huge size.
+     */
+    private int count(int n) {
+        if (n < 0 || n > in_.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return n;
+    }
+
+    private ByteBuffer block() {
+        int length = in_.getInt();
+        if (length < 0 || length > in_.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        ByteBuffer block = in_.slice();
+        block.limit(length);
+        in_.position(in_.position() + length);
+        return block;
+    }
+
+    /**
+     * Defines a sub-command from its part of the spec. Not a lambda, see
+     * {@code ArgumentParserImpl.ValueSetter}.
+     */
+    private static final class CommandDefiner implements Consumer<Subparser> {
+        private final ByteBuffer body_;
+        private final ClassLoader loader_;
+
+        CommandDefiner(ByteBuffer body, ClassLoader loader) {
+            body_ = body;
+            loader_ = loader;
+        }
+
+        @Override
+        public void accept(Subparser subparser) {
+            try {
+                new ParserSpecReader(body_.duplicate(), loader_)
+                        .readBody(((SubparserImpl) subparser).getParser());
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new IllegalStateException("malformed parser spec", e);
+            }
+        }
+    }
+}
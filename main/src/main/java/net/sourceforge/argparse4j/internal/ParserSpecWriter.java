@@ -0,0 +1,889 @@
+package net.sourceforge.argparse4j.internal;
+
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.ACTIONS;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.CHOICES;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.CHOICE_COLLECTION;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.CHOICE_INTERVAL_SET;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.CHOICE_NONE;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.CHOICE_PATTERN;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.CHOICE_RANGE;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.MAGIC;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPES;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_BOOLEAN;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_CONSTRUCTOR;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_DOUBLE;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_DURATION;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_ENUM;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_ENUM_NAME_IGNORE_CASE;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_ENUM_STRING;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_ENUM_STRING_IGNORE_CASE;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_FILE;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_INTEGER;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_LONG;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_REFLECT;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.TYPE_SIZE;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUES;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_BIG_DECIMAL;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_BIG_INTEGER;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_BOOLEAN;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_BYTE;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_CHARACTER;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_DOUBLE;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_DURATION;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_ENUM;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_FILE;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_FLOAT;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_INTEGER;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_LIST;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_LONG;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_NULL;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_SHORT;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VALUE_STRING;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VERIFICATIONS;
+import static net.sourceforge.argparse4j.internal.ParserSpecFormat.VERSION;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.argparse4j.helper.TextHelper;
+import net.sourceforge.argparse4j.impl.action.AppendArgumentAction;
+import net.sourceforge.argparse4j.impl.action.AppendConstArgumentAction;
+import net.sourceforge.argparse4j.impl.action.CountArgumentAction;
+import net.sourceforge.argparse4j.impl.action.HelpArgumentAction;
+import net.sourceforge.argparse4j.impl.action.StoreArgumentAction;
+import net.sourceforge.argparse4j.impl.action.StoreConstArgumentAction;
+import net.sourceforge.argparse4j.impl.action.StoreFalseArgumentAction;
+import net.sourceforge.argparse4j.impl.action.StoreTrueArgumentAction;
+import net.sourceforge.argparse4j.impl.action.VersionArgumentAction;
+import net.sourceforge.argparse4j.impl.choice.CollectionArgumentChoice;
+import net.sourceforge.argparse4j.impl.choice.IntervalSetArgumentChoice;
+import net.sourceforge.argparse4j.impl.choice.PatternArgumentChoice;
+import net.sourceforge.argparse4j.impl.choice.RangeArgumentChoice;
+import net.sourceforge.argparse4j.impl.type.BooleanArgumentType;
+import net.sourceforge.argparse4j.impl.type.CaseInsensitiveEnumArgumentType;
+import net.sourceforge.argparse4j.impl.type.CaseInsensitiveEnumNameArgumentType;
+import net.sourceforge.argparse4j.impl.type.CaseInsensitiveEnumStringArgumentType;
+import net.sourceforge.argparse4j.impl.type.ConstructorArgumentType;
+import net.sourceforge.argparse4j.impl.type.DoubleArgumentType;
+import net.sourceforge.argparse4j.impl.type.DurationArgumentType;
+import net.sourceforge.argparse4j.impl.type.EnumArgumentType;
+import net.sourceforge.argparse4j.impl.type.EnumStringArgumentType;
+import net.sourceforge.argparse4j.impl.type.FileArgumentType;
+import net.sourceforge.argparse4j.impl.type.FileVerification;
+import net.sourceforge.argparse4j.impl.type.IntegerArgumentType;
+import net.sourceforge.argparse4j.impl.type.LongArgumentType;
+import net.sourceforge.argparse4j.impl.type.ReflectArgumentType;
+import net.sourceforge.argparse4j.impl.type.SizeArgumentType;
+import net.sourceforge.argparse4j.impl.type.StringArgumentType;
+import net.sourceforge.argparse4j.inf.ArgumentChoice;
+import net.sourceforge.argparse4j.inf.ArgumentType;
+import net.sourceforge.argparse4j.inf.FeatureControl;
+
+/**
+ * <p>
+ * Writes the definition of a parser as a parser spec, either in the compact
+ * binary format read by {@link ParserSpecReader} or as JSON for inspection.
+ * </p>
+ * <p>
+ * Both formats are produced by the same walk over the parser, so that they
+ * always have the same content. The binary format is the sequence of the
+ * values in the order of the walk, without names. Strings are stored as their
+ * length in bytes, -1 for {@code null}, followed by UTF-8. The definition of
+ * each sub-command is a block prefixed with its length, so that the reader
+ * can skip it until the sub-command is needed.
+ * </p>
+ * <p>
+ * <strong>The application code must not use this class directly.</strong>
+ * </p>
+ */
+public final class ParserSpecWriter {
+
+    /**
+     * The classes of the actions in the order of
+     * {@link ParserSpecFormat#ACTIONS}.
+     */
+    private static final Class<?>[] ACTION_CLASSES = {
+            StoreArgumentAction.class, StoreTrueArgumentAction.class,
+            StoreFalseArgumentAction.class, StoreConstArgumentAction.class,
+            AppendArgumentAction.class, AppendConstArgumentAction.class,
+            HelpArgumentAction.class, VersionArgumentAction.class,
+            CountArgumentAction.class };
+
+    /**
+     * The classes of the types in the order of {@link ParserSpecFormat#TYPES}.
+     */
+    @SuppressWarnings("deprecation")
+    private static final Class<?>[] TYPE_CLASSES = {
+            StringArgumentType.class, ReflectArgumentType.class,
+            ConstructorArgumentType.class, EnumArgumentType.class,
+            EnumStringArgumentType.class,
+            CaseInsensitiveEnumNameArgumentType.class,
+            CaseInsensitiveEnumStringArgumentType.class,
+            BooleanArgumentType.class, IntegerArgumentType.class,
+            LongArgumentType.class, DoubleArgumentType.class,
+            SizeArgumentType.class, DurationArgumentType.class,
+            FileArgumentType.class };
+
+    private ParserSpecWriter() {
+    }
+
+    /**
+     * Returns the spec of {@code parser} in the binary format.
+     *
+     * @param parser
+     *            The main parser.
+     * @return The spec.
+     * @throws IllegalArgumentException
+     *             If the parser uses something which cannot be stored, e.g.
+     *             a custom argument type.
+     */
+    public static byte[] toBytes(ArgumentParserImpl parser) {
+        BinaryOutput out = new BinaryOutput();
+        out.bytes(MAGIC);
+        out.integer(null, VERSION);
+        writeParser(out, parser);
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns the spec of {@code parser} as JSON.
+     *
+     * @param parser
+     *            The main parser.
+     * @return The JSON text, ending with a newline.
+     * @throws IllegalArgumentException
+     *             If the parser uses something which cannot be stored, e.g.
+     *             a custom argument type.
+     */
+    public static String toJson(ArgumentParserImpl parser) {
+        JsonOutput out = new JsonOutput();
+        out.beginObject(null);
+        out.integer("version", VERSION);
+        writeParser(out, parser);
+        out.endObject();
+        return out.toString();
+    }
+
+    private static void writeParser(Output out, ArgumentParserImpl parser) {
+        if (parser.getMainParser() != null) {
+            throw new IllegalArgumentException(
+                    "only a main parser can be stored in a parser spec");
+        }
+        ArgumentParserConfigurationImpl config = parser.getConfig();
+        if (!config.arrayConverters_.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "array converters cannot be stored in a parser spec");
+        }
+        out.beginObject("config");
+        out.string("prog", config.prog_);
+        out.bool("addHelp", config.addHelp_);
+        out.string("prefixChars", config.prefixChars_);
+        out.string("fromFilePrefix", parser.getFromFilePrefixChars());
+        // The default locale and the width counter which follows from it
+        // are those of the machine loading the spec, not of the build.
+        out.string("locale", config.localeExplicit_
+                ? config.locale_.toLanguageTag() : "");
+        out.bool("cjkWidthHack", config.cjkWidthHack_);
+        out.integer("formatWidth", config.defaultFormatWidth_);
+        out.bool("terminalWidthDetection", config.terminalWidthDetection_);
+        out.bool("singleMetavar", config.singleMetavar_);
+        out.bool("noDestConversionForPositionalArgs",
+                config.noDestConversionForPositionalArgs_);
+        out.bool("includeArgumentNamesAsKeysInResult",
+                config.includeArgumentNamesAsKeysInResult_);
+        out.bool("mustHelpTextIncludeMutualExclusivity",
+                config.mustHelpTextIncludeMutualExclusivity_);
+        out.bool("stackTrace", config.stackTraceEnabled_);
+        out.endObject();
+        out.beginObject("parser");
+        writeBody(out, parser);
+        out.endObject();
+    }
+
+    private static void writeBody(Output out, ArgumentParserImpl parser) {
+        out.string("usage", parser.getUsage());
+        out.string("description", parser.getDescription());
+        out.string("epilog", parser.getEpilog());
+        out.string("version", parser.getVersion());
+        out.bool("defaultHelp", parser.isDefaultHelp());
+
+        Map<String, Object> defaults = new TreeMap<>(parser.getDefaults());
+        out.beginArray("defaults", defaults.size());
+        for (Map.Entry<String, Object> e : defaults.entrySet()) {
+            out.beginObject(null);
+            out.string("dest", e.getKey());
+            writeValue(out, "value", e.getValue(), "default " + e.getKey());
+            out.endObject();
+        }
+        out.endArray();
+
+        List<ArgumentGroupImpl> groups = parser.getArgumentGroups();
+        out.beginArray("groups", groups.size());
+        for (ArgumentGroupImpl group : groups) {
+            out.beginObject(null);
+            out.string("title", group.getTitle());
+            out.string("description", group.getDescription());
+            out.bool("mutex", group.isMutex());
+            out.bool("required", group.isRequired());
+            out.endObject();
+        }
+        out.endArray();
+
+        List<ArgumentImpl> args = definitionOrder(parser);
+        out.beginArray("arguments", args.size());
+        for (ArgumentImpl arg : args) {
+            out.beginObject(null);
+            writeArgument(out, arg);
+            out.endObject();
+        }
+        out.endArray();
+
+        SubparsersImpl subparsers = parser.addSubparsers();
+        out.beginObject("subparsers");
+        out.string("help", subparsers.getHelp());
+        out.string("title", subparsers.getTitle());
+        out.string("description", subparsers.getDescription());
+        out.string("dest", subparsers.getDest());
+        out.string("metavar", subparsers.getMetavar());
+        Collection<SubparserImpl> commands = subparsers.getParsers();
+        out.beginArray("commands", commands.size());
+        for (SubparserImpl command : commands) {
+            out.beginObject(null);
+            out.string("command", command.getCommand());
+            writeStrings(out, "aliases", command.getAliases());
+            out.string("help", command.getHelp());
+            out.bool("helpSuppressed",
+                    command.getHelpControl() == FeatureControl.SUPPRESS);
+            out.bool("addHelp", command.getConfig().addHelp_);
+            out.string("prefixChars", command.getConfig().prefixChars_);
+            out.beginBlock("parser");
+            writeBody(out, command.getParser());
+            out.endBlock();
+            out.endObject();
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    /**
+     * <p>
+     * Returns the arguments of {@code parser} in an order in which adding
+     * them again gives the same order of the named arguments, of the
+     * positional arguments and of the arguments of each group.
+     * </p>
+     * <p>
+     * The order in which the arguments were added is not recorded, but each
+     * of these lists is in that order, so the lists are merged by taking
+     * an argument only when it is first in all lists which contain it. The
+     * help argument added by the parser itself is left out.
+     * </p>
+     */
+    static List<ArgumentImpl> definitionOrder(ArgumentParserImpl parser) {
+        List<List<ArgumentImpl>> lists = new ArrayList<>();
+        List<ArgumentImpl> named = parser.getNamedArgs();
+        if (parser.getConfig().addHelp_ && !named.isEmpty()) {
+            named = named.subList(1, named.size());
+        }
+        lists.add(named);
+        lists.add(parser.getPositionalArgs());
+        for (ArgumentGroupImpl group : parser.getArgumentGroups()) {
+            lists.add(group.getArgs());
+        }
+        int total = named.size() + parser.getPositionalArgs().size();
+        int[] heads = new int[lists.size()];
+        List<ArgumentImpl> result = new ArrayList<>(total);
+        while (result.size() < total) {
+            ArgumentImpl next = null;
+            for (int i = 0; i < 2 && next == null; ++i) {
+                if (heads[i] < lists.get(i).size()) {
+                    ArgumentImpl arg = lists.get(i).get(heads[i]);
+                    ArgumentGroupImpl group = arg.getArgumentGroup();
+                    if (group == null || heads[group.getIndex() + 2] < group
+                            .getArgs().size()
+                            && group.getArgs().get(
+                                    heads[group.getIndex() + 2]) == arg) {
+                        next = arg;
+                        heads[i]++;
+                        if (group != null) {
+                            heads[group.getIndex() + 2]++;
+                        }
+                    }
+                }
+            }
+            if (next == null) {
+                throw new IllegalStateException(
+                        "inconsistent order of arguments");
+            }
+            result.add(next);
+        }
+        return result;
+    }
+
+    private static void writeArgument(Output out, ArgumentImpl arg) {
+        String where = "argument " + arg.textualName();
+        out.string("name", arg.getName());
+        writeStrings(out, "flags", arg.getFlags() == null ? null
+                : Arrays.asList(arg.getFlags()));
+        out.string("dest", arg.getDest());
+        out.integer("group", arg.getArgumentGroup() == null ? -1
+                : arg.getArgumentGroup().getIndex());
+        out.kind("action", ACTIONS,
+                indexOf(ACTION_CLASSES, arg.getAction(), where, "action"));
+        writeType(out, arg.getType(), where);
+        writeChoice(out, arg.getChoice(), where);
+        writeValue(out, "const", arg.getConst(), where);
+        writeValue(out, "default", arg.getRawDefault(), where);
+        out.bool("defaultSuppressed",
+                arg.getDefaultControl() == FeatureControl.SUPPRESS);
+        out.bool("helpSuppressed",
+                arg.getHelpControl() == FeatureControl.SUPPRESS);
+        out.bool("required", arg.isRequired());
+        String[] metavar = arg.getMetavar();
+        writeStrings(out, "metavar",
+                metavar == null ? null : Arrays.asList(metavar));
+        out.integer("minNumArg", arg.getMinNumArg());
+        out.integer("maxNumArg", arg.getMaxNumArg());
+        out.string("help", arg.getHelp());
+    }
+
+    @SuppressWarnings("deprecation")
+    private static void writeType(Output out, ArgumentType<?> type,
+            String where) {
+        int kind = indexOf(TYPE_CLASSES, type, where, "type");
+        out.beginObject("type");
+        out.kind("kind", TYPES, kind);
+        switch (kind) {
+            case TYPE_REFLECT:
+                out.string("class",
+                        ((ReflectArgumentType<?>) type).getType().getName());
+                break;
+            case TYPE_CONSTRUCTOR:
+                out.string("class", ((ConstructorArgumentType<?>) type)
+                        .getType().getName());
+                break;
+            case TYPE_ENUM:
+                out.string("class",
+                        ((EnumArgumentType<?>) type).getType().getName());
+                break;
+            case TYPE_ENUM_STRING:
+                out.string("class", ((EnumStringArgumentType<?>) type)
+                        .getType().getName());
+                break;
+            case TYPE_ENUM_NAME_IGNORE_CASE:
+            case TYPE_ENUM_STRING_IGNORE_CASE:
+                out.string("class",
+                        ((CaseInsensitiveEnumArgumentType<?>) type).getType()
+                                .getName());
+                break;
+            case TYPE_BOOLEAN:
+                BooleanArgumentType booleanType = (BooleanArgumentType) type;
+                out.string("trueValue", booleanType.getTrueValue());
+                out.string("falseValue", booleanType.getFalseValue());
+                break;
+            case TYPE_INTEGER:
+                IntegerArgumentType intType = (IntegerArgumentType) type;
+                out.bool("bounded", intType.isBounded());
+                out.integer("min", intType.getMin());
+                out.integer("max", intType.getMax());
+                break;
+            case TYPE_LONG:
+                LongArgumentType longType = (LongArgumentType) type;
+                out.bool("bounded", longType.isBounded());
+                out.longInteger("min", longType.getMin());
+                out.longInteger("max", longType.getMax());
+                break;
+            case TYPE_DOUBLE:
+                DoubleArgumentType doubleType = (DoubleArgumentType) type;
+                out.bool("bounded", doubleType.isBounded());
+                out.floating("min", doubleType.getMin());
+                out.floating("max", doubleType.getMax());
+                break;
+            case TYPE_SIZE:
+                SizeArgumentType sizeType = (SizeArgumentType) type;
+                out.longInteger("min", sizeType.getMin());
+                out.longInteger("max", sizeType.getMax());
+                break;
+            case TYPE_DURATION: {
+                TimeUnit unit = ((DurationArgumentType) type).getDefaultUnit();
+                out.string("defaultUnit", unit == null ? null : unit.name());
+                break;
+            }
+            case TYPE_FILE:
+                FileArgumentType fileType = (FileArgumentType) type;
+                out.bool("acceptSystemIn", fileType.isAcceptSystemIn());
+                List<FileVerification> chain = new ArrayList<>();
+                for (FileVerification v = fileType
+                        .getFileVerification(); v != null; v = v
+                                .getNextFileVerification()) {
+                    chain.add(v);
+                }
+                out.beginArray("verifications", chain.size());
+                for (FileVerification v : chain) {
+                    boolean[] flags = { v.verifyExists, v.verifyNotExists,
+                            v.verifyIsFile, v.verifyIsDirectory,
+                            v.verifyCanRead, v.verifyCanWrite,
+                            v.verifyCanWriteParent, v.verifyCanCreate,
+                            v.verifyCanExecute, v.verifyIsAbsolute };
+                    out.beginObject(null);
+                    for (int i = 0; i < flags.length; ++i) {
+                        out.bool(VERIFICATIONS[i], flags[i]);
+                    }
+                    out.endObject();
+                }
+                out.endArray();
+                break;
+            default:
+                break;
+        }
+        out.endObject();
+    }
+
+    private static void writeChoice(Output out, ArgumentChoice choice,
+            String where) {
+        out.beginObject("choice");
+        if (choice == null) {
+            out.kind("kind", CHOICES, CHOICE_NONE);
+        } else if (choice.getClass() == CollectionArgumentChoice.class) {
+            Collection<?> values = ((CollectionArgumentChoice<?>) choice)
+                    .getValues();
+            out.kind("kind", CHOICES, CHOICE_COLLECTION);
+            out.bool("set", values instanceof Set);
+            out.beginArray("values", values.size());
+            for (Object value : values) {
+                writeValue(out, null, value, where);
+            }
+            out.endArray();
+        } else if (choice.getClass() == RangeArgumentChoice.class) {
+            RangeArgumentChoice<?> range = (RangeArgumentChoice<?>) choice;
+            out.kind("kind", CHOICES, CHOICE_RANGE);
+            writeValue(out, "min", range.getMin(), where);
+            writeValue(out, "max", range.getMax(), where);
+        } else if (choice.getClass() == PatternArgumentChoice.class) {
+            PatternArgumentChoice pattern = (PatternArgumentChoice) choice;
+            out.kind("kind", CHOICES, CHOICE_PATTERN);
+            out.string("syntax", pattern.getSyntax().name());
+            writeStrings(out, "patterns", pattern.getPatterns());
+        } else if (choice.getClass() == IntervalSetArgumentChoice.class) {
+            IntervalSetArgumentChoice set = (IntervalSetArgumentChoice) choice;
+            out.kind("kind", CHOICES, CHOICE_INTERVAL_SET);
+            out.bool("long", set.getType() == Long.class);
+            out.beginArray("ranges", set.getRangeCount());
+            for (int i = 0; i < set.getRangeCount(); ++i) {
+                out.beginObject(null);
+                out.longInteger("first", set.getFirst(i));
+                out.longInteger("last", set.getLast(i));
+                out.endObject();
+            }
+            out.endArray();
+        } else {
+            throw unsupported(where, "choice", choice);
+        }
+        out.endObject();
+    }
+
+    private static void writeValue(Output out, String name, Object value,
+            String where) {
+        out.beginObject(name);
+        if (value == null) {
+            out.kind("kind", VALUES, VALUE_NULL);
+        } else if (value instanceof String) {
+            out.kind("kind", VALUES, VALUE_STRING);
+            out.string("value", (String) value);
+        } else if (value instanceof Boolean) {
+            out.kind("kind", VALUES, VALUE_BOOLEAN);
+            out.bool("value", (Boolean) value);
+        } else if (value instanceof Integer) {
+            out.kind("kind", VALUES, VALUE_INTEGER);
+            out.integer("value", (Integer) value);
+        } else if (value instanceof Long) {
+            out.kind("kind", VALUES, VALUE_LONG);
+            out.longInteger("value", (Long) value);
+        } else if (value instanceof Double) {
+            out.kind("kind", VALUES, VALUE_DOUBLE);
+            out.floating("value", (Double) value);
+        } else if (value instanceof Float) {
+            out.kind("kind", VALUES, VALUE_FLOAT);
+            out.floating("value", (Float) value);
+        } else if (value instanceof Short) {
+            out.kind("kind", VALUES, VALUE_SHORT);
+            out.integer("value", (Short) value);
+        } else if (value instanceof Byte) {
+            out.kind("kind", VALUES, VALUE_BYTE);
+            out.integer("value", (Byte) value);
+        } else if (value instanceof Character) {
+            out.kind("kind", VALUES, VALUE_CHARACTER);
+            out.integer("value", (Character) value);
+        } else if (value.getClass() == BigInteger.class) {
+            out.kind("kind", VALUES, VALUE_BIG_INTEGER);
+            out.string("value", value.toString());
+        } else if (value.getClass() == BigDecimal.class) {
+            out.kind("kind", VALUES, VALUE_BIG_DECIMAL);
+            out.string("value", value.toString());
+        } else if (value instanceof Enum) {
+            out.kind("kind", VALUES, VALUE_ENUM);
+            out.string("class",
+                    ((Enum<?>) value).getDeclaringClass().getName());
+            out.string("value", ((Enum<?>) value).name());
+        } else if (value.getClass() == File.class) {
+            out.kind("kind", VALUES, VALUE_FILE);
+            out.string("value", ((File) value).getPath());
+        } else if (value instanceof Duration) {
+            out.kind("kind", VALUES, VALUE_DURATION);
+            out.string("value", value.toString());
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            out.kind("kind", VALUES, VALUE_LIST);
+            out.beginArray("values", list.size());
+            for (Object element : list) {
+                writeValue(out, null, element, where);
+            }
+            out.endArray();
+        } else {
+            throw unsupported(where, "value", value);
+        }
+        out.endObject();
+    }
+
+    private static void writeStrings(Output out, String name,
+            List<String> strings) {
+        if (strings == null) {
+            out.beginArray(name, -1);
+        } else {
+            out.beginArray(name, strings.size());
+            for (String s : strings) {
+                out.string(null, s);
+            }
+        }
+        out.endArray();
+    }
+
+    private static int indexOf(Class<?>[] classes, Object obj, String where,
+            String what) {
+        for (int i = 0; i < classes.length; ++i) {
+            if (obj.getClass() == classes[i]) {
+                return i;
+            }
+        }
+        throw unsupported(where, what, obj);
+    }
+
+    private static IllegalArgumentException unsupported(String where,
+            String what, Object obj) {
+        return new IllegalArgumentException(String.format(
+                TextHelper.LOCALE_ROOT,
+                "%s: %s of class %s cannot be stored in a parser spec", where,
+                what, obj.getClass().getName()));
+    }
+
+    /**
+     * The target of the walk over a parser. Names are {@code null} for the
+     * elements of an array.
+     */
+    private interface Output {
+        void beginObject(String name);
+
+        void endObject();
+
+        /**
+         * Begins an array of {@code size} elements, or {@code null} if
+         * {@code size} is -1.
+         */
+        void beginArray(String name, int size);
+
+        void endArray();
+
+        /**
+         * Begins an object which the binary format prefixes with its length.
+         */
+        void beginBlock(String name);
+
+        void endBlock();
+
+        void string(String name, String value);
+
+        void bool(String name, boolean value);
+
+        void integer(String name, int value);
+
+        void longInteger(String name, long value);
+
+        void floating(String name, double value);
+
+        void kind(String name, String[] kinds, int kind);
+    }
+
+    private static final class BinaryOutput implements Output {
+        private byte[] buf_ = new byte[1024];
+        private int size_;
+        private int[] blocks_ = new int[8];
+        private int depth_;
+
+        private void ensure(int n) {
+            if (size_ + n > buf_.length) {
+                buf_ = Arrays.copyOf(buf_, Math.max(buf_.length * 2,
+                        size_ + n));
+            }
+        }
+
+        void bytes(byte[] b) {
+            ensure(b.length);
+            System.arraycopy(b, 0, buf_, size_, b.length);
+            size_ += b.length;
+        }
+
+        private void writeInt(int pos, int value) {
+            buf_[pos] = (byte) (value >>> 24);
+            buf_[pos + 1] = (byte) (value >>> 16);
+            buf_[pos + 2] = (byte) (value >>> 8);
+            buf_[pos + 3] = (byte) value;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf_, size_);
+        }
+
+        @Override
+        public void beginObject(String name) {
+        }
+
+        @Override
+        public void endObject() {
+        }
+
+        @Override
+        public void beginArray(String name, int size) {
+            integer(name, size);
+        }
+
+        @Override
+        public void endArray() {
+        }
+
+        @Override
+        public void beginBlock(String name) {
+            if (depth_ == blocks_.length) {
+                blocks_ = Arrays.copyOf(blocks_, depth_ * 2);
+            }
+            blocks_[depth_++] = size_;
+            integer(name, 0);
+        }
+
+        @Override
+        public void endBlock() {
+            int start = blocks_[--depth_];
+            writeInt(start, size_ - start - 4);
+        }
+
+        @Override
+        public void string(String name, String value) {
+            if (value == null) {
+                integer(name, -1);
+            } else {
+                byte[] b = value.getBytes(StandardCharsets.UTF_8);
+                integer(name, b.length);
+                bytes(b);
+            }
+        }
+
+        @Override
+        public void bool(String name, boolean value) {
+            ensure(1);
+            buf_[size_++] = (byte) (value ? 1 : 0);
+        }
+
+        @Override
+        public void integer(String name, int value) {
+            ensure(4);
+            writeInt(size_, value);
+            size_ += 4;
+        }
+
+        @Override
+        public void longInteger(String name, long value) {
+            integer(name, (int) (value >>> 32));
+            integer(name, (int) value);
+        }
+
+        @Override
+        public void floating(String name, double value) {
+            longInteger(name, Double.doubleToLongBits(value));
+        }
+
+        @Override
+        public void kind(String name, String[] kinds, int kind) {
+            ensure(1);
+            buf_[size_++] = (byte) kind;
+        }
+    }
+
+    private static final class JsonOutput implements Output {
+        private final StringBuilder sb_ = new StringBuilder();
+        private int depth_;
+        private boolean first_ = true;
+        private boolean nullArray_;
+
+        private void name(String name) {
+            if (!first_) {
+                sb_.append(',');
+            }
+            first_ = false;
+            if (depth_ > 0) {
+                sb_.append('\n');
+                for (int i = 0; i < depth_; ++i) {
+                    sb_.append("  ");
+                }
+            }
+            if (name != null) {
+                quote(name);
+                sb_.append(": ");
+            }
+        }
+
+        private void open(String name, char c) {
+            name(name);
+            sb_.append(c);
+            ++depth_;
+            first_ = true;
+        }
+
+        private void close(char c) {
+            --depth_;
+            if (!first_) {
+                sb_.append('\n');
+                for (int i = 0; i < depth_; ++i) {
+                    sb_.append("  ");
+                }
+            }
+            sb_.append(c);
+            first_ = false;
+        }
+
+        private void quote(String s) {
+            sb_.append('"');
+            for (int i = 0; i < s.length(); ++i) {
+                char c = s.charAt(i);
+                switch (c) {
+                    case '"':
+                        sb_.append("\\\"");
+                        break;
+                    case '\\':
+                        sb_.append("\\\\");
+                        break;
+                    case '\n':
+                        sb_.append("\\n");
+                        break;
+                    case '\t':
+                        sb_.append("\\t");
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            sb_.append(String.format(TextHelper.LOCALE_ROOT,
+                                    "\\u%04x", (int) c));
+                        } else {
+                            sb_.append(c);
+                        }
+                }
+            }
+            sb_.append('"');
+        }
+
+        @Override
+        public void beginObject(String name) {
+            open(name, '{');
+        }
+
+        @Override
+        public void endObject() {
+            close('}');
+        }
+
+        @Override
+        public void beginArray(String name, int size) {
+            if (size == -1) {
+                name(name);
+                sb_.append("null");
+                nullArray_ = true;
+            } else {
+                open(name, '[');
+            }
+        }
+
+        @Override
+        public void endArray() {
+            if (nullArray_) {
+                nullArray_ = false;
+            } else {
+                close(']');
+            }
+        }
+
+        @Override
+        public void beginBlock(String name) {
+            beginObject(name);
+        }
+
+        @Override
+        public void endBlock() {
+            endObject();
+        }
+
+        @Override
+        public void string(String name, String value) {
+            name(name);
+            if (value == null) {
+                sb_.append("null");
+            } else {
+                quote(value);
+            }
+        }
+
+        @Override
+        public void bool(String name, boolean value) {
+            name(name);
+            sb_.append(value);
+        }
+
+        @Override
+        public void integer(String name, int value) {
+            name(name);
+            sb_.append(value);
+        }
+
+        @Override
+        public void longInteger(String name, long value) {
+            name(name);
+            sb_.append(value);
+        }
+
+        @Override
+        public void floating(String name, double value) {
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                string(name, Double.toString(value));
+            } else {
+                name(name);
+                sb_.append(value);
+            }
+        }
+
+        @Override
+        public void kind(String name, String[] kinds, int kind) {
+            string(name, kinds[kind]);
+        }
+
+        @Override
+        public String toString() {
+            return sb_.toString() + "\n";
+        }
+    }
+}
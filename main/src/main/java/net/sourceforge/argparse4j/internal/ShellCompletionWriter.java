@@ -0,0 +1,884 @@
+package net.sourceforge.argparse4j.internal;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import net.sourceforge.argparse4j.impl.choice.CollectionArgumentChoice;
+import net.sourceforge.argparse4j.impl.choice.DynamicArgumentChoice;
+import net.sourceforge.argparse4j.impl.type.BooleanArgumentType;
+import net.sourceforge.argparse4j.impl.type.CaseInsensitiveEnumArgumentType;
+import net.sourceforge.argparse4j.impl.type.CaseInsensitiveEnumStringArgumentType;
+import net.sourceforge.argparse4j.impl.type.EnumArgumentType;
+import net.sourceforge.argparse4j.impl.type.EnumStringArgumentType;
+import net.sourceforge.argparse4j.impl.type.FileArgumentType;
+import net.sourceforge.argparse4j.impl.type.FileVerification;
+import net.sourceforge.argparse4j.impl.type.ReflectArgumentType;
+import net.sourceforge.argparse4j.inf.ArgumentChoice;
+import net.sourceforge.argparse4j.inf.ArgumentType;
+import net.sourceforge.argparse4j.inf.FeatureControl;
+
+/**
+ * <p>
+ * Writes bash, zsh and fish completion scripts for a parser, and completes
+ * the values of dynamic choices when a script calls back into the
+ * application.
+ * </p>
+ * <p>
+ * The scripts of all shells share one design. The words before the cursor are
+ * walked with the flags which take values, the number of values they take and
+ * the sub-commands of each parser, which yields the current sub-command, the
+ * flag whose value is completed, if any, and the index of the positional
+ * argument. The current word is then completed from the flags, the
+ * sub-commands, fixed words, files or directories, all without running the
+ * application. Only the values of a {@link DynamicArgumentChoice} are
+ * completed by running the application with {@link #REQUEST_ENV} set to the
+ * key of the argument, which is the path of sub-command names, a colon and the
+ * first flag or the dest of the argument.
+ * </p>
+ * <p>
+ * Abbreviated flags, flags with attached values like {@code -n3} and arguments
+ * read from files are not recognized while walking the words.
+ * </p>
+ * <p>
+ * <strong>The application code must not use this class directly.</strong>
+ * </p>
+ */
+public final class ShellCompletionWriter {
+
+    /**
+     * The environment variable containing the key of the argument to
+     * complete.
+     */
+    public static final String REQUEST_ENV = "ARGPARSE4J_COMPLETE";
+
+    /**
+     * The environment variable containing the beginning of the value to
+     * complete.
+     */
+    public static final String PREFIX_ENV = "ARGPARSE4J_COMPLETE_PREFIX";
+
+    private ShellCompletionWriter() {
+    }
+
+    private enum Kind {
+        NONE, WORDS, FILE, DIRECTORY, DYNAMIC
+    }
+
+    private static final class Completion {
+        final String key_;
+        final Kind kind_;
+        final List<String> words_;
+
+        Completion(String key, Kind kind, List<String> words) {
+            key_ = key;
+            kind_ = kind;
+            words_ = words;
+        }
+    }
+
+    private static final class Flag {
+        final String[] names_;
+        final boolean suppressed_;
+        /** The maximum number of values, {@link Integer#MAX_VALUE} for many. */
+        final int values_;
+        final Completion completion_;
+
+        Flag(String[] names, boolean suppressed, int values,
+                Completion completion) {
+            names_ = names;
+            suppressed_ = suppressed;
+            values_ = values;
+            completion_ = completion;
+        }
+    }
+
+    private static final class Command {
+        final List<String> names_;
+        final boolean suppressed_;
+        final String path_;
+
+        Command(List<String> names, boolean suppressed, String path) {
+            names_ = names;
+            suppressed_ = suppressed;
+            path_ = path;
+        }
+    }
+
+    /**
+     * A parser: the main parser or a sub-command.
+     */
+    private static final class Node {
+        final String path_;
+        final String prefixChars_;
+        final List<Flag> flags_ = new ArrayList<>();
+        /** The completion of each word taken by positional arguments. */
+        final List<Completion> positionals_ = new ArrayList<>();
+        /** The completion of the remaining words, or {@code null}. */
+        Completion remaining_;
+        final List<Command> commands_ = new ArrayList<>();
+
+        Node(String path, String prefixChars) {
+            path_ = path;
+            prefixChars_ = prefixChars;
+        }
+    }
+
+    /**
+     * Returns the bash completion script of {@code parser}.
+     *
+     * @param parser
+     *            The main parser.
+     * @return The script.
+     */
+    public static String bash(ArgumentParserImpl parser) {
+        List<Node> nodes = nodes(parser);
+        String prog = parser.getConfig().prog_;
+        String fn = "_argparse4j_" + identifier(prog);
+        StringBuilder sb = new StringBuilder();
+        sb.append("# bash completion for ").append(prog)
+                .append(", generated by argparse4j.\n");
+        sb.append("# Values of dynamic choices are completed by running ")
+                .append(prog).append(" with ").append(REQUEST_ENV)
+                .append(" set.\n\n");
+
+        sb.append(fn).append("_words() {\n");
+        sb.append("    local w\n");
+        sb.append("    for w in \"$@\"; do\n");
+        sb.append("        [[ $w == \"$cur\"* ]] && COMPREPLY+=(\"$w\")\n");
+        sb.append("    done\n");
+        sb.append("}\n\n");
+
+        sb.append(fn).append("_value() {\n");
+        sb.append("    local w\n");
+        sb.append("    case $1 in\n");
+        for (Completion completion : completions(nodes)) {
+            sb.append("    ").append(quote(completion.key_)).append(")\n");
+            sb.append("        ");
+            switch (completion.kind_) {
+                case WORDS:
+                    sb.append(fn).append("_words").append(quoteAll(
+                            completion.words_));
+                    break;
+                case FILE:
+                case DIRECTORY:
+                    sb.append("compopt -o filenames 2>/dev/null\n");
+                    sb.append("        while IFS= read -r w; do "
+                            + "COMPREPLY+=(\"$w\"); done < <(compgen ")
+                            .append(completion.kind_ == Kind.FILE ? "-f"
+                                    : "-d")
+                            .append(" -- \"$cur\")");
+                    break;
+                default:
+                    sb.append("while IFS= read -r w; do "
+                            + "COMPREPLY+=(\"$w\"); done < <(")
+                            .append(callback(completion.key_, "\"$cur\"",
+                                    "\"${COMP_WORDS[0]}\""))
+                            .append(")");
+                    break;
+            }
+            sb.append(" ;;\n");
+        }
+        sb.append("    esac\n");
+        sb.append("}\n\n");
+
+        writeIsFlag(sb, fn + "_isflag() {\n", nodes, false);
+
+        sb.append(fn).append("() {\n");
+        sb.append("    local cur=${COMP_WORDS[COMP_CWORD]} node= pos=0 "
+                + "nvals=0 flag= sep= w i\n");
+        sb.append("    COMPREPLY=()\n");
+        sb.append("    for ((i = 1; i < COMP_CWORD; i++)); do\n");
+        sb.append("        w=${COMP_WORDS[i]}\n");
+        writeWalk(sb, fn, nodes);
+        sb.append("    done\n");
+        writeComplete(sb, fn, nodes, fn + "_words", "_value \"$flag\"");
+        sb.append("}\n\n");
+        sb.append("complete -F ").append(fn).append(" ")
+                .append(quote(prog)).append("\n");
+        return sb.toString();
+    }
+
+    /**
+     * Returns the zsh completion script of {@code parser}.
+     *
+     * @param parser
+     *            The main parser.
+     * @return The script.
+     */
+    public static String zsh(ArgumentParserImpl parser) {
+        List<Node> nodes = nodes(parser);
+        String prog = parser.getConfig().prog_;
+        String fn = "_argparse4j_" + identifier(prog);
+        StringBuilder sb = new StringBuilder();
+        sb.append("#compdef ").append(prog).append("\n");
+        sb.append("# zsh completion for ").append(prog)
+                .append(", generated by argparse4j.\n");
+        sb.append("# Values of dynamic choices are completed by running ")
+                .append(prog).append(" with ").append(REQUEST_ENV)
+                .append(" set.\n\n");
+
+        sb.append(fn).append("_value() {\n");
+        sb.append("    case $1 in\n");
+        for (Completion completion : completions(nodes)) {
+            sb.append("    ").append(quote(completion.key_)).append(")\n");
+            sb.append("        ");
+            switch (completion.kind_) {
+                case WORDS:
+                    sb.append("compadd --").append(quoteAll(
+                            completion.words_));
+                    break;
+                case FILE:
+                    sb.append("_files");
+                    break;
+                case DIRECTORY:
+                    sb.append("_files -/");
+                    break;
+                default:
+                    sb.append("compadd -- ${(f)\"$(").append(callback(
+                            completion.key_, "\"$PREFIX\"", "${words[1]}"))
+                            .append(")\"}");
+                    break;
+            }
+            sb.append(" ;;\n");
+        }
+        sb.append("    esac\n");
+        sb.append("}\n\n");
+
+        writeIsFlag(sb, fn + "_isflag() {\n", nodes, false);
+
+        sb.append(fn).append("() {\n");
+        // "path" is tied to PATH in zsh, so the sub-command is in "node".
+        sb.append("    local cur=${words[CURRENT]} node= pos=0 nvals=0 "
+                + "flag= sep= w i\n");
+        sb.append("    for ((i = 2; i < CURRENT; i++)); do\n");
+        sb.append("        w=${words[i]}\n");
+        writeWalk(sb, fn, nodes);
+        sb.append("    done\n");
+        writeComplete(sb, fn, nodes, "compadd --", "_value \"$flag\"");
+        sb.append("}\n\n");
+        sb.append("if [[ $zsh_eval_context[-1] == loadautofunc ]]; then\n");
+        sb.append("    ").append(fn).append(" \"$@\"\n");
+        sb.append("else\n");
+        sb.append("    compdef ").append(fn).append(" ").append(quote(prog))
+                .append("\n");
+        sb.append("fi\n");
+        return sb.toString();
+    }
+
+    /**
+     * Returns the fish completion script of {@code parser}.
+     *
+     * @param parser
+     *            The main parser.
+     * @return The script.
+     */
+    public static String fish(ArgumentParserImpl parser) {
+        List<Node> nodes = nodes(parser);
+        String prog = parser.getConfig().prog_;
+        String fn = "__argparse4j_" + identifier(prog);
+        StringBuilder sb = new StringBuilder();
+        sb.append("# fish completion for ").append(prog)
+                .append(", generated by argparse4j.\n");
+        sb.append("# Values of dynamic choices are completed by running ")
+                .append(prog).append(" with ").append(REQUEST_ENV)
+                .append(" set.\n\n");
+
+        sb.append("function ").append(fn).append("_value\n");
+        sb.append("    switch $argv[1]\n");
+        for (Completion completion : completions(nodes)) {
+            sb.append("        case ").append(fishQuote(completion.key_))
+                    .append("\n");
+            sb.append("            ");
+            switch (completion.kind_) {
+                case WORDS:
+                    sb.append("printf '%s\\n'").append(fishQuoteAll(
+                            completion.words_));
+                    break;
+                case FILE:
+                    sb.append("__fish_complete_path $argv[2]");
+                    break;
+                case DIRECTORY:
+                    sb.append("__fish_complete_directories $argv[2]");
+                    break;
+                default:
+                    sb.append("env ").append(REQUEST_ENV).append("=")
+                            .append(fishQuote(completion.key_)).append(" ")
+                            .append(PREFIX_ENV)
+                            .append("=$argv[2] $argv[3] 2>/dev/null");
+                    break;
+            }
+            sb.append("\n");
+        }
+        sb.append("    end\n");
+        sb.append("end\n\n");
+
+        writeIsFlag(sb, "function " + fn + "_isflag\n", nodes, true);
+
+        sb.append("function ").append(fn).append("\n");
+        sb.append("    set -l tokens (commandline -opc)\n");
+        sb.append("    set -l cur (commandline -ct)\n");
+        sb.append("    set -l node ''\n");
+        sb.append("    set -l pos 0\n");
+        sb.append("    set -l nvals 0\n");
+        sb.append("    set -l flag ''\n");
+        sb.append("    set -l sep ''\n");
+        sb.append("    for w in $tokens[2..-1]\n");
+        sb.append("        if test -z \"$sep\"; and ").append(fn)
+                .append("_isflag \"$node:$w\"\n");
+        sb.append("            set nvals 0\n");
+        sb.append("            set flag ''\n");
+        sb.append("            switch \"$node:$w\"\n");
+        for (Node node : nodes) {
+            if (node.prefixChars_.indexOf('-') != -1) {
+                sb.append("                case ")
+                        .append(fishQuote(node.path_ + ":--")).append("\n");
+                sb.append("                    set sep 1\n");
+            }
+            for (Flag flag : node.flags_) {
+                if (flag.values_ == 0) {
+                    continue;
+                }
+                sb.append("                case");
+                for (String name : flag.names_) {
+                    sb.append(" ").append(fishQuote(node.path_ + ":" + name));
+                }
+                sb.append("\n");
+                sb.append("                    set nvals ")
+                        .append(flag.values_).append("\n");
+                sb.append("                    set flag ")
+                        .append(fishQuote(flag.completion_.key_))
+                        .append("\n");
+            }
+        }
+        sb.append("            end\n");
+        sb.append("        else if test $nvals -gt 0\n");
+        sb.append("            set nvals (math $nvals - 1)\n");
+        sb.append("        else\n");
+        sb.append("            switch \"$node:$w\"\n");
+        for (Node node : nodes) {
+            for (Command command : node.commands_) {
+                sb.append("                case");
+                for (String name : command.names_) {
+                    sb.append(" ").append(fishQuote(node.path_ + ":" + name));
+                }
+                sb.append("\n");
+                sb.append("                    set node ")
+                        .append(fishQuote(command.path_)).append("\n");
+                sb.append("                    set pos 0\n");
+            }
+        }
+        sb.append("                case '*'\n");
+        sb.append("                    set pos (math $pos + 1)\n");
+        sb.append("            end\n");
+        sb.append("        end\n");
+        sb.append("    end\n");
+        // As for bash and zsh, a prefix character alone begins a flag.
+        sb.append("    if test -z \"$sep\"; and ").append(fn)
+                .append("_isflag \"$node:$cur\"x\n");
+        sb.append("        switch \"$node\"\n");
+        for (Node node : nodes) {
+            List<String> names = flagNames(node);
+            if (!names.isEmpty()) {
+                sb.append("            case ").append(fishQuote(node.path_))
+                        .append("\n");
+                sb.append("                printf '%s\\n'")
+                        .append(fishQuoteAll(names)).append("\n");
+            }
+        }
+        sb.append("        end\n");
+        sb.append("    else if test $nvals -gt 0\n");
+        sb.append("        ").append(fn)
+                .append("_value \"$flag\" \"$cur\" $tokens[1]\n");
+        sb.append("    else\n");
+        sb.append("        switch \"$node:$pos\"\n");
+        for (Node node : nodes) {
+            List<Completion> positionals = node.positionals_;
+            for (int i = 0; i < positionals.size(); ++i) {
+                if (positionals.get(i).kind_ != Kind.NONE) {
+                    sb.append("            case ")
+                            .append(fishQuote(node.path_ + ":" + i))
+                            .append("\n");
+                    sb.append("                ").append(fn)
+                            .append("_value ")
+                            .append(fishQuote(positionals.get(i).key_))
+                            .append(" \"$cur\" $tokens[1]\n");
+                }
+            }
+            if (node.remaining_ != null) {
+                if (node.remaining_.kind_ != Kind.NONE) {
+                    sb.append("            case ")
+                            .append(fishQuote(node.path_ + ":*"))
+                            .append("\n");
+                    sb.append("                ").append(fn)
+                            .append("_value ")
+                            .append(fishQuote(node.remaining_.key_))
+                            .append(" \"$cur\" $tokens[1]\n");
+                }
+            } else {
+                List<String> names = commandNames(node);
+                if (!names.isEmpty()) {
+                    sb.append("            case ").append(fishQuote(
+                            node.path_ + ":" + positionals.size()))
+                            .append("\n");
+                    sb.append("                printf '%s\\n'")
+                            .append(fishQuoteAll(names)).append("\n");
+                }
+            }
+        }
+        sb.append("        end\n");
+        sb.append("    end\n");
+        sb.append("end\n\n");
+        sb.append("complete -c ").append(fishQuote(prog)).append(" -f -a '(")
+                .append(fn).append(")'\n");
+        return sb.toString();
+    }
+
+    /**
+     * Returns the values of the argument named by {@code key} which start
+     * with {@code prefix}, for a completion script calling back into the
+     * application.
+     *
+     * @param parser
+     *            The main parser.
+     * @param key
+     *            The key of the argument.
+     * @param prefix
+     *            The beginning of the value.
+     * @return The values, or an empty list if there is no such argument.
+     */
+    public static List<String> complete(ArgumentParserImpl parser, String key,
+            String prefix) {
+        int colon = key.lastIndexOf(':');
+        if (colon == -1) {
+            return Collections.emptyList();
+        }
+        String path = key.substring(0, colon);
+        String id = key.substring(colon + 1);
+        if (!path.isEmpty()) {
+            for (String name : path.split(" ")) {
+                SubparserImpl command = null;
+                for (SubparserImpl candidate : parser.addSubparsers()
+                        .getParsers()) {
+                    if (candidate.getCommand().equals(name)) {
+                        command = candidate;
+                        break;
+                    }
+                }
+                if (command == null) {
+                    return Collections.emptyList();
+                }
+                parser = command.getParser();
+            }
+        }
+        ArgumentImpl arg = null;
+        for (ArgumentImpl candidate : parser.getNamedArgs()) {
+            if (candidate.getFlags()[0].equals(id)) {
+                arg = candidate;
+            }
+        }
+        for (ArgumentImpl candidate : parser.getPositionalArgs()) {
+            if (candidate.getDest().equals(id)) {
+                arg = candidate;
+            }
+        }
+        if (arg == null) {
+            return Collections.emptyList();
+        }
+        List<String> values = new ArrayList<>();
+        for (String value : words(arg, true)) {
+            if (value.startsWith(prefix)) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    private static List<Node> nodes(ArgumentParserImpl parser) {
+        List<Node> nodes = new ArrayList<>();
+        addNode(nodes, parser, "");
+        return nodes;
+    }
+
+    private static void addNode(List<Node> nodes, ArgumentParserImpl parser,
+            String path) {
+        Node node = new Node(path, parser.getConfig().prefixChars_);
+        nodes.add(node);
+        for (ArgumentImpl arg : parser.getNamedArgs()) {
+            int values = arg.getAction().consumeArgument() ? maxValues(arg)
+                    : 0;
+            node.flags_.add(new Flag(arg.getFlags(),
+                    arg.getHelpControl() == FeatureControl.SUPPRESS, values,
+                    values == 0 ? null
+                            : completion(arg, path + ":" + arg.getFlags()[0])));
+        }
+        for (ArgumentImpl arg : parser.getPositionalArgs()) {
+            Completion completion = completion(arg, path + ":" + arg.getDest());
+            int values = maxValues(arg);
+            if (values == Integer.MAX_VALUE) {
+                // Later positional arguments cannot be told apart.
+                node.remaining_ = completion;
+                break;
+            }
+            for (int i = 0; i < values; ++i) {
+                node.positionals_.add(completion);
+            }
+        }
+        for (SubparserImpl command : parser.addSubparsers().getParsers()) {
+            List<String> names = new ArrayList<>();
+            names.add(command.getCommand());
+            names.addAll(command.getAliases());
+            String commandPath = path.isEmpty() ? command.getCommand()
+                    : path + " " + command.getCommand();
+            node.commands_.add(new Command(names,
+                    command.getHelpControl() == FeatureControl.SUPPRESS,
+                    commandPath));
+            addNode(nodes, command.getParser(), commandPath);
+        }
+    }
+
+    private static int maxValues(ArgumentImpl arg) {
+        int max = arg.getMaxNumArg();
+        return max == -1 ? 1 : max;
+    }
+
+    private static Completion completion(ArgumentImpl arg, String key) {
+        ArgumentChoice choice = arg.getChoice();
+        if (choice instanceof DynamicArgumentChoice) {
+            return new Completion(key, Kind.DYNAMIC, null);
+        }
+        ArgumentType<?> type = arg.getType();
+        if (choice == null && type instanceof FileArgumentType) {
+            return new Completion(key,
+                    isDirectory(((FileArgumentType) type)
+                            .getFileVerification()) ? Kind.DIRECTORY
+                                    : Kind.FILE,
+                    null);
+        }
+        if (choice == null && type instanceof ReflectArgumentType
+                && ((ReflectArgumentType<?>) type).getType()
+                        .equals(File.class)) {
+            return new Completion(key, Kind.FILE, null);
+        }
+        List<String> words = words(arg, false);
+        return words == null ? new Completion(key, Kind.NONE, null)
+                : new Completion(key, Kind.WORDS, words);
+    }
+
+    /**
+     * Returns whether each alternative of {@code verification} requires a
+     * directory.
+     */
+    private static boolean isDirectory(FileVerification verification) {
+        for (FileVerification v = verification; v != null; v = v
+                .getNextFileVerification()) {
+            if (!v.verifyIsDirectory) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the words accepted by {@code arg}, or {@code null} if they
+     * cannot be listed. The values of a {@link DynamicArgumentChoice} are
+     * only listed if {@code dynamic} is {@code true}.
+     */
+    private static List<String> words(ArgumentImpl arg, boolean dynamic) {
+        ArgumentChoice choice = arg.getChoice();
+        ArgumentType<?> type = arg.getType();
+        Collection<?> values;
+        if (choice instanceof DynamicArgumentChoice) {
+            if (!dynamic) {
+                return null;
+            }
+            values = ((DynamicArgumentChoice<?>) choice).getValues();
+        } else if (choice instanceof CollectionArgumentChoice) {
+            values = ((CollectionArgumentChoice<?>) choice).getValues();
+        } else if (choice != null) {
+            return null;
+        } else if (type instanceof BooleanArgumentType) {
+            BooleanArgumentType booleanType = (BooleanArgumentType) type;
+            return Arrays.asList(booleanType.getTrueValue(),
+                    booleanType.getFalseValue());
+        } else {
+            Class<?> enumType = enumType(type);
+            if (enumType == null) {
+                return null;
+            }
+            values = Arrays.asList(enumType.getEnumConstants());
+        }
+        boolean useToString = type instanceof EnumStringArgumentType
+                || type instanceof CaseInsensitiveEnumStringArgumentType;
+        List<String> words = new ArrayList<>(values.size());
+        for (Object value : values) {
+            words.add(value instanceof Enum && !useToString
+                    ? ((Enum<?>) value).name()
+                    : String.valueOf(value));
+        }
+        return words;
+    }
+
+    private static Class<?> enumType(ArgumentType<?> type) {
+        Class<?> enumType = null;
+        if (type instanceof ReflectArgumentType) {
+            enumType = ((ReflectArgumentType<?>) type).getType();
+        } else if (type instanceof EnumArgumentType) {
+            enumType = ((EnumArgumentType<?>) type).getType();
+        } else if (type instanceof EnumStringArgumentType) {
+            enumType = ((EnumStringArgumentType<?>) type).getType();
+        } else if (type instanceof CaseInsensitiveEnumArgumentType) {
+            enumType = ((CaseInsensitiveEnumArgumentType<?>) type).getType();
+        }
+        return enumType != null && enumType.isEnum() ? enumType : null;
+    }
+
+    /**
+     * Returns the completions of flag values and positional arguments, which
+     * are the cases of the value function of the scripts.
+     */
+    private static List<Completion> completions(List<Node> nodes) {
+        List<Completion> completions = new ArrayList<>();
+        for (Node node : nodes) {
+            for (Flag flag : node.flags_) {
+                if (flag.completion_ != null) {
+                    addCompletion(completions, flag.completion_);
+                }
+            }
+            for (Completion completion : node.positionals_) {
+                addCompletion(completions, completion);
+            }
+            if (node.remaining_ != null) {
+                addCompletion(completions, node.remaining_);
+            }
+        }
+        return completions;
+    }
+
+    private static void addCompletion(List<Completion> completions,
+            Completion completion) {
+        if (completion.kind_ != Kind.NONE
+                && !completions.contains(completion)) {
+            completions.add(completion);
+        }
+    }
+
+    /**
+     * Writes the bash or zsh function, or the fish function, which succeeds if
+     * its argument, the sub-command path, a colon and a word, is a flag.
+     */
+    private static void writeIsFlag(StringBuilder sb, String header,
+            List<Node> nodes, boolean fish) {
+        sb.append(header);
+        if (fish) {
+            sb.append("    switch $argv[1]\n");
+            sb.append("        case");
+        } else {
+            sb.append("    case $1 in\n");
+            sb.append("    ");
+        }
+        String separator = "";
+        for (Node node : nodes) {
+            for (int i = 0; i < node.prefixChars_.length(); ++i) {
+                String prefix = node.path_ + ":" + node.prefixChars_.charAt(i);
+                if (fish) {
+                    // Quoted wildcards still match in fish case patterns.
+                    sb.append(" ").append(fishQuote(prefix + "?*"));
+                } else {
+                    sb.append(separator).append(quote(prefix)).append("?*");
+                    separator = "|";
+                }
+            }
+        }
+        if (fish) {
+            sb.append("\n");
+            sb.append("            return 0\n");
+            sb.append("    end\n");
+            sb.append("    return 1\n");
+            sb.append("end\n\n");
+        } else {
+            sb.append(") return 0 ;;\n");
+            sb.append("    esac\n");
+            sb.append("    return 1\n");
+            sb.append("}\n\n");
+        }
+    }
+
+    /**
+     * Writes the body of the bash or zsh loop over the words before the
+     * cursor.
+     */
+    private static void writeWalk(StringBuilder sb, String fn,
+            List<Node> nodes) {
+        sb.append("        if [[ -z $sep ]] && ").append(fn)
+                .append("_isflag \"$node:$w\"; then\n");
+        sb.append("            nvals=0 flag=\n");
+        sb.append("            case $node:$w in\n");
+        for (Node node : nodes) {
+            if (node.prefixChars_.indexOf('-') != -1) {
+                sb.append("            ").append(quote(node.path_ + ":--"))
+                        .append(") sep=1 ;;\n");
+            }
+            for (Flag flag : node.flags_) {
+                if (flag.values_ == 0) {
+                    continue;
+                }
+                sb.append("            ");
+                String separator = "";
+                for (String name : flag.names_) {
+                    sb.append(separator).append(quote(node.path_ + ":" + name));
+                    separator = "|";
+                }
+                sb.append(") nvals=").append(flag.values_).append(" flag=")
+                        .append(quote(flag.completion_.key_)).append(" ;;\n");
+            }
+        }
+        sb.append("            esac\n");
+        sb.append("        elif ((nvals > 0)); then\n");
+        sb.append("            ((nvals--))\n");
+        sb.append("        else\n");
+        sb.append("            case $node:$w in\n");
+        for (Node node : nodes) {
+            for (Command command : node.commands_) {
+                sb.append("            ");
+                String separator = "";
+                for (String name : command.names_) {
+                    sb.append(separator).append(quote(node.path_ + ":" + name));
+                    separator = "|";
+                }
+                sb.append(") node=").append(quote(command.path_))
+                        .append(" pos=0 ;;\n");
+            }
+        }
+        sb.append("            *) ((pos++)) ;;\n");
+        sb.append("            esac\n");
+        sb.append("        fi\n");
+    }
+
+    /**
+     * Writes the bash or zsh code completing the word at the cursor. A prefix
+     * character alone is the beginning of a flag there, so a character is
+     * appended to the word before asking whether it is a flag.
+     */
+    private static void writeComplete(StringBuilder sb, String fn,
+            List<Node> nodes, String addWords, String value) {
+        sb.append("    if [[ -z $sep ]] && ").append(fn)
+                .append("_isflag \"$node:${cur}x\"; then\n");
+        sb.append("        case $node in\n");
+        for (Node node : nodes) {
+            List<String> names = flagNames(node);
+            if (!names.isEmpty()) {
+                sb.append("        ").append(quote(node.path_)).append(") ")
+                        .append(addWords).append(quoteAll(names))
+                        .append(" ;;\n");
+            }
+        }
+        sb.append("        esac\n");
+        sb.append("    elif ((nvals > 0)); then\n");
+        sb.append("        ").append(fn).append(value).append("\n");
+        sb.append("    else\n");
+        sb.append("        case $node:$pos in\n");
+        for (Node node : nodes) {
+            List<Completion> positionals = node.positionals_;
+            for (int i = 0; i < positionals.size(); ++i) {
+                if (positionals.get(i).kind_ != Kind.NONE) {
+                    sb.append("        ").append(quote(node.path_ + ":" + i))
+                            .append(") ").append(fn).append("_value ")
+                            .append(quote(positionals.get(i).key_))
+                            .append(" ;;\n");
+                }
+            }
+            if (node.remaining_ != null) {
+                if (node.remaining_.kind_ != Kind.NONE) {
+                    sb.append("        ").append(quote(node.path_ + ":"))
+                            .append("*) ").append(fn).append("_value ")
+                            .append(quote(node.remaining_.key_))
+                            .append(" ;;\n");
+                }
+            } else {
+                List<String> names = commandNames(node);
+                if (!names.isEmpty()) {
+                    sb.append("        ").append(quote(
+                            node.path_ + ":" + positionals.size()))
+                            .append(") ").append(addWords)
+                            .append(quoteAll(names)).append(" ;;\n");
+                }
+            }
+        }
+        sb.append("        esac\n");
+        sb.append("    fi\n");
+    }
+
+    private static List<String> flagNames(Node node) {
+        List<String> names = new ArrayList<>();
+        for (Flag flag : node.flags_) {
+            if (!flag.suppressed_) {
+                names.addAll(Arrays.asList(flag.names_));
+            }
+        }
+        return names;
+    }
+
+    private static List<String> commandNames(Node node) {
+        List<String> names = new ArrayList<>();
+        for (Command command : node.commands_) {
+            if (!command.suppressed_) {
+                names.addAll(command.names_);
+            }
+        }
+        return names;
+    }
+
+    private static String callback(String key, String prefix, String prog) {
+        return REQUEST_ENV + "=" + quote(key) + " " + PREFIX_ENV + "=" + prefix
+                + " " + prog + " 2>/dev/null";
+    }
+
+    /**
+     * Returns {@code prog} with all characters other than letters, digits and
+     * underscores replaced, for the names of the functions of a script.
+     */
+    private static String identifier(String prog) {
+        StringBuilder sb = new StringBuilder(prog.length());
+        for (int i = 0; i < prog.length(); ++i) {
+            char c = prog.charAt(i);
+            sb.append(c < 0x80 && (Character.isLetterOrDigit(c) || c == '_')
+                    ? c : '_');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Quotes {@code s} for bash and zsh.
+     */
+    private static String quote(String s) {
+        return "'" + s.replace("'", "'\\''") + "'";
+    }
+
+    private static String quoteAll(List<String> words) {
+        StringBuilder sb = new StringBuilder();
+        for (String word : words) {
+            sb.append(" ").append(quote(word));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Quotes {@code s} for fish, where backslashes and single quotes are
+     * escaped within single quotes.
+     */
+    private static String fishQuote(String s) {
+        return "'" + s.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+
+    private static String fishQuoteAll(List<String> words) {
+        StringBuilder sb = new StringBuilder();
+        for (String word : words) {
+            sb.append(" ").append(fishQuote(word));
+        }
+        return sb.toString();
+    }
+}
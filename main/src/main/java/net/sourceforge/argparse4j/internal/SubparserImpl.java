@@ -28,6 +28,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import net.sourceforge.argparse4j.helper.TextHelper;
 import net.sourceforge.argparse4j.inf.Argument;
@@ -37,6 +39,7 @@ import net.sourceforge.argparse4j.inf.ArgumentParserException;
 import net.sourceforge.argparse4j.inf.FeatureControl;
 import net.sourceforge.argparse4j.inf.MutuallyExclusiveGroup;
 import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.ParseResult;
 import net.sourceforge.argparse4j.inf.Subparser;
 import net.sourceforge.argparse4j.inf.Subparsers;
 
@@ -49,230 +52,319 @@ public final class SubparserImpl implements Subparser, ArgumentParser {
     private final List<String> aliases_ = new ArrayList<>();
     private final ArgumentParserImpl parser_;
     private String help_ = "";
+    private Supplier<String> helpSupplier_;
     private FeatureControl helpControl_;
+    /**
+     * Defines the arguments of a lazily defined sub-command, or null once it
+     * is defined.
+     */
+    private volatile Consumer<Subparser> definer_;
+    private boolean defining_;
+    /**
+     * Thrown by the definer. The sub-command is then left partly defined, so
+     * it is never used, nor is the definer run again.
+     */
+    private Throwable definerFailure_;
 
     SubparserImpl(ArgumentParserConfigurationImpl config, String command,
             ArgumentParserImpl mainParser) {
+        this(config, command, mainParser, null);
+    }
+
+    SubparserImpl(ArgumentParserConfigurationImpl config, String command,
+            ArgumentParserImpl mainParser, Consumer<Subparser> definer) {
         command_ = command;
         parser_ = new ArgumentParserImpl(config, command, mainParser);
+        definer_ = definer;
+    }
+
+    /**
+     * Returns the parser of this sub-command, after running the definer of a
+     * lazily defined sub-command if it has not run yet. The definer may call
+     * the methods of this object, which then see the parser as it is. If the
+     * definer threw an exception, every later call throws
+     * {@link IllegalStateException} with it as the cause.
+     */
+    private ArgumentParserImpl parser() {
+        if (definer_ != null) {
+            define();
+        }
+        return parser_;
+    }
+
+    private synchronized void define() {
+        Consumer<Subparser> definer = definer_;
+        if (definer == null || defining_) {
+            return;
+        }
+        if (definerFailure_ != null) {
+            throw new IllegalStateException(String.format(
+                    TextHelper.LOCALE_ROOT,
+                    "sub-command %s could not be defined", command_),
+                    definerFailure_);
+        }
+        defining_ = true;
+        try {
+            definer.accept(this);
+            definer_ = null;
+        } catch (RuntimeException | Error e) {
+            definerFailure_ = e;
+            throw e;
+        } finally {
+            defining_ = false;
+        }
     }
 
     @Override
     public Argument addArgument(String... nameOrFlags) {
-        return parser_.addArgument(nameOrFlags);
+        return parser().addArgument(nameOrFlags);
     }
 
     @Override
     public ArgumentGroup addArgumentGroup(String title) {
-        return parser_.addArgumentGroup(title);
+        return parser().addArgumentGroup(title);
     }
 
     @Override
     public MutuallyExclusiveGroup addMutuallyExclusiveGroup() {
-        return parser_.addMutuallyExclusiveGroup();
+        return parser().addMutuallyExclusiveGroup();
     }
 
     @Override
     public MutuallyExclusiveGroup addMutuallyExclusiveGroup(String title) {
-        return parser_.addMutuallyExclusiveGroup(title);
+        return parser().addMutuallyExclusiveGroup(title);
     }
 
     @Override
     public Subparsers addSubparsers() {
-        return parser_.addSubparsers();
+        return parser().addSubparsers();
     }
 
     @Override
     public SubparserImpl usage(String usage) {
-        parser_.usage(usage);
+        parser().usage(usage);
         return this;
     }
 
     @Override
     public SubparserImpl description(String description) {
-        parser_.description(description);
+        parser().description(description);
+        return this;
+    }
+
+    @Override
+    public SubparserImpl descriptionSupplier(Supplier<String> description) {
+        parser().descriptionSupplier(description);
         return this;
     }
 
     @Override
     public SubparserImpl epilog(String epilog) {
-        parser_.epilog(epilog);
+        parser().epilog(epilog);
+        return this;
+    }
+
+    @Override
+    public SubparserImpl epilogSupplier(Supplier<String> epilog) {
+        parser().epilogSupplier(epilog);
         return this;
     }
 
     @Override
     public SubparserImpl version(String version) {
-        parser_.version(version);
+        parser().version(version);
         return this;
     }
 
     @Override
     public SubparserImpl defaultHelp(boolean defaultHelp) {
-        parser_.defaultHelp(defaultHelp);
+        parser().defaultHelp(defaultHelp);
         return this;
     }
 
     @Override
     public void printHelp() {
-        parser_.printHelp();
+        parser().printHelp();
     }
 
     @Override
     public void printHelp(PrintWriter writer) {
-        parser_.printHelp(writer);
+        parser().printHelp(writer);
     }
 
     @Override
     public String formatHelp() {
-        return parser_.formatHelp();
+        return parser().formatHelp();
     }
 
     @Override
     public void printUsage() {
-        parser_.printUsage();
+        parser().printUsage();
     }
 
     @Override
     public void printUsage(PrintWriter writer) {
-        parser_.printUsage(writer);
+        parser().printUsage(writer);
     }
 
     @Override
     public String formatUsage() {
-        return parser_.formatUsage();
+        return parser().formatUsage();
     }
 
     @Override
     public void printVersion() {
-        parser_.printVersion();
+        parser().printVersion();
     }
 
     @Override
     public void printVersion(PrintWriter writer) {
-        parser_.printVersion(writer);
+        parser().printVersion(writer);
     }
 
     @Override
     public String formatVersion() {
-        return parser_.formatVersion();
+        return parser().formatVersion();
     }
 
     @Override
     public SubparserImpl setDefault(String dest, Object value) {
-        parser_.setDefault(dest, value);
+        parser().setDefault(dest, value);
         return this;
     }
 
     @Override
     public SubparserImpl setDefaults(Map<String, Object> attrs) {
-        parser_.setDefaults(attrs);
+        parser().setDefaults(attrs);
         return this;
     }
 
     @Override
     public Object getDefault(String dest) {
-        return parser_.getDefault(dest);
+        return parser().getDefault(dest);
     }
 
     @Override
     public SubparserImpl help(String help) {
         help_ = TextHelper.nonNull(help);
+        helpSupplier_ = null;
+        parser_.getConfig().definitionChanged();
+        return this;
+    }
+
+    @Override
+    public SubparserImpl helpSupplier(Supplier<String> help) {
+        if (help == null) {
+            throw new IllegalArgumentException("help cannot be null");
+        }
+        help_ = "";
+        helpSupplier_ = help;
+        parser_.getConfig().dynamicTextAdded();
+        parser_.getConfig().definitionChanged();
         return this;
     }
 
     @Override
     public SubparserImpl help(FeatureControl ctrl) {
         helpControl_ = ctrl;
+        parser_.getConfig().definitionChanged();
         return this;
     }
 
     @Override
     public Namespace parseArgsOrFail(String[] args) {
-        return parser_.parseArgsOrFail(args);
+        return parser().parseArgsOrFail(args);
     }
 
     @Override
     public Namespace parseArgs(String[] args) throws ArgumentParserException {
-        return parser_.parseArgs(args);
+        return parser().parseArgs(args);
+    }
+
+    @Override
+    public ParseResult tryParse(String[] args) {
+        return parser().tryParse(args);
     }
 
     @Override
     public void parseArgs(String[] args, Map<String, Object> attrs)
             throws ArgumentParserException {
-        parser_.parseArgs(args, attrs);
+        parser().parseArgs(args, attrs);
     }
 
     @Override
     public void parseArgs(String[] args, Object userData)
             throws ArgumentParserException {
-        parser_.parseArgs(args, userData);
+        parser().parseArgs(args, userData);
     }
 
     @Override
     public void parseArgs(String[] args, Map<String, Object> attrs,
             Object userData) throws ArgumentParserException {
-        parser_.parseArgs(args, attrs, userData);
+        parser().parseArgs(args, attrs, userData);
     }
 
     @Override
     public Namespace parseKnownArgsOrFail(String[] args, List<String> unknown) {
-        return parser_.parseKnownArgsOrFail(args, unknown);
+        return parser().parseKnownArgsOrFail(args, unknown);
     }
 
     @Override
     public Namespace parseKnownArgs(String[] args, List<String> unknown)
             throws ArgumentParserException {
-        return parser_.parseKnownArgs(args, unknown);
+        return parser().parseKnownArgs(args, unknown);
     }
 
     @Override
     public void parseKnownArgs(String[] args, List<String> unknown,
             Map<String, Object> attrs) throws ArgumentParserException {
-        parser_.parseKnownArgs(args, unknown, attrs);
+        parser().parseKnownArgs(args, unknown, attrs);
     }
 
     @Override
     public void parseKnownArgs(String[] args, List<String> unknown,
             Object userData) throws ArgumentParserException {
-        parser_.parseKnownArgs(args, unknown, userData);
+        parser().parseKnownArgs(args, unknown, userData);
     }
 
     @Override
     public void parseKnownArgs(String[] args, List<String> unknown,
             Map<String, Object> attrs, Object userData)
             throws ArgumentParserException {
-        parser_.parseKnownArgs(args, unknown, attrs, userData);
+        parser().parseKnownArgs(args, unknown, attrs, userData);
     }
 
     @Override
     public void handleError(ArgumentParserException e) {
-        parser_.handleError(e);
+        parser().handleError(e);
     }
 
     @Override
     public void handleError(ArgumentParserException e, PrintWriter writer) {
-        parser_.handleError(e, writer);
+        parser().handleError(e, writer);
     }
 
     @Override
     public SubparserImpl aliases(String... alias) {
         parser_.getMainParser().addSubparsers().addAlias(this, alias);
         Collections.addAll(aliases_, alias);
+        parser_.getConfig().definitionChanged();
         return this;
     }
 
     void parseArgs(ParseState state, Map<String, Object> opts)
             throws ArgumentParserException {
-        parser_.parseArgs(state, opts);
+        parser().parseArgs(state, opts);
     }
 
     void printSubparserHelp(PrintWriter writer, int format_width) {
-        if (!help_.isEmpty()) {
+        String help = getHelp();
+        if (!help.isEmpty()) {
             String title = "  " + command_;
             if (!aliases_.isEmpty()) {
                 title += " (" + TextHelper.concat(aliases_, 0, ",") + ")";
             }
-            TextHelper.printHelp(writer, title, help_,
+            TextHelper.printHelp(writer, title, help,
                     parser_.getTextWidthCounter(), format_width);
         }
     }
@@ -281,6 +373,14 @@ public final class SubparserImpl implements Subparser, ArgumentParser {
         return parser_.getCommand();
     }
 
+    public ArgumentParserImpl getParser() {
+        return parser();
+    }
+
+    String getCommandPath() {
+        return parser_.getCommandPath();
+    }
+
     public ArgumentParserConfigurationImpl getConfig() {
         return parser_.getConfig();
     }
@@ -288,4 +388,13 @@ public final class SubparserImpl implements Subparser, ArgumentParser {
     FeatureControl getHelpControl() {
         return helpControl_;
     }
+
+    String getHelp() {
+        return helpSupplier_ == null ? help_
+                : TextHelper.nonNull(helpSupplier_.get());
+    }
+
+    List<String> getAliases() {
+        return aliases_;
+    }
 }
@@ -27,13 +27,18 @@ import java.io.PrintWriter;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import net.sourceforge.argparse4j.helper.MessageLocalization;
 import net.sourceforge.argparse4j.helper.TextHelper;
 import net.sourceforge.argparse4j.inf.ArgumentParserException;
 import net.sourceforge.argparse4j.inf.FeatureControl;
+import net.sourceforge.argparse4j.inf.ParseDiagnostic;
+import net.sourceforge.argparse4j.inf.ParseListener;
+import net.sourceforge.argparse4j.inf.Subparser;
 import net.sourceforge.argparse4j.inf.Subparsers;
 
 /**
@@ -72,6 +77,25 @@ public final class SubparsersImpl implements Subparsers {
     @Override
     public SubparserImpl addParser(String command, boolean addHelp,
             String prefixChars) {
+        return addParser(command, addHelp, prefixChars, null);
+    }
+
+    @Override
+    public SubparserImpl addParser(String command, String help,
+            Consumer<Subparser> definer) {
+        if (definer == null) {
+            throw new IllegalArgumentException("definer cannot be null");
+        }
+        return addParser(command, true, mainParser_.getPrefixChars(), definer)
+                .help(help);
+    }
+
+    /**
+     * Adds a sub-command, which is defined by {@code definer} when it is
+     * first needed, or right away if {@code definer} is {@code null}.
+     */
+    SubparserImpl addParser(String command, boolean addHelp,
+            String prefixChars, Consumer<Subparser> definer) {
         if (command == null || command.isEmpty()) {
             throw new IllegalArgumentException(
                     "command cannot be null or empty");
@@ -82,26 +106,37 @@ public final class SubparsersImpl implements Subparsers {
         }
         SubparserImpl parser = new SubparserImpl(
                 mainParser_.getConfig().forSubparser(addHelp, prefixChars),
-                command, mainParser_);
+                command, mainParser_, definer);
         parsers_.put(command, parser);
+        mainParser_.getConfig().definitionChanged();
         return parser;
     }
 
+    /**
+     * Returns the sub-commands, each once regardless of its aliases.
+     */
+    Collection<SubparserImpl> getParsers() {
+        return new LinkedHashSet<>(parsers_.values());
+    }
+
     @Override
     public SubparsersImpl dest(String dest) {
         dest_ = TextHelper.nonNull(dest);
+        mainParser_.getConfig().definitionChanged();
         return this;
     }
 
     @Override
     public SubparsersImpl help(String help) {
         help_ = TextHelper.nonNull(help);
+        mainParser_.getConfig().definitionChanged();
         return this;
     }
 
     @Override
     public SubparsersImpl title(String title) {
         title_ = TextHelper.nonNull(title);
+        mainParser_.getConfig().definitionChanged();
         return this;
     }
 
@@ -109,9 +144,22 @@ public final class SubparsersImpl implements Subparsers {
         return title_;
     }
 
+    String getHelp() {
+        return help_;
+    }
+
+    String getDest() {
+        return dest_;
+    }
+
+    String getMetavar() {
+        return metavar_;
+    }
+
     @Override
     public SubparsersImpl description(String description) {
         description_ = TextHelper.nonNull(description);
+        mainParser_.getConfig().definitionChanged();
         return this;
     }
 
@@ -122,6 +170,7 @@ public final class SubparsersImpl implements Subparsers {
     @Override
     public SubparsersImpl metavar(String metavar) {
         metavar_ = TextHelper.nonNull(metavar);
+        mainParser_.getConfig().definitionChanged();
         return this;
     }
 
@@ -168,10 +217,9 @@ public final class SubparsersImpl implements Subparsers {
             } else if (size > 1) {
                 // Sort it to make unit test easier
                 Collections.sort(cand);
-                throw new ArgumentParserException(String.format(
-                        TextHelper.LOCALE_ROOT,
-                        localize("ambiguousCommandError"), command,
-                        TextHelper.concat(cand, 0, ", ")), mainParser_);
+                throw new ArgumentParserException(mainParser_, null,
+                        "ambiguousCommandError", command,
+                        TextHelper.concat(cand, 0, ", "));
             }
         }
         return ap;
@@ -182,19 +230,36 @@ public final class SubparsersImpl implements Subparsers {
         if (parsers_.isEmpty()) {
             throw new IllegalArgumentException("too many arguments");
         }
-        SubparserImpl ap = resolveNextSubparser(state.getArg());
+        ParseListener listener = mainParser_.getConfig().parseListener_;
+        long start = listener == null ? 0 : System.nanoTime();
+        SubparserImpl ap;
+        try {
+            ap = resolveNextSubparser(state.getArg());
+        } catch (ArgumentParserException e) {
+            mainParser_.report(state, ParseDiagnostic.Kind.AMBIGUOUS, null,
+                    state.position(state.index), e);
+            return;
+        }
         if (ap == null) {
             StringBuilder sb = new StringBuilder();
             for (Map.Entry<String, SubparserImpl> entry : parsers_.entrySet()) {
                 sb.append("'").append(entry.getKey()).append("', ");
             }
             sb.delete(sb.length() - 2, sb.length());
-            throw new UnrecognizedCommandException(String.format(
-                    TextHelper.LOCALE_ROOT,
-                    localize("invalidChoiceError"), state.getArg(),
-                    sb.toString()), mainParser_, state.getArg());
+            // The rest of the command line cannot be interpreted without
+            // knowing the command.
+            mainParser_.report(state,
+                    ParseDiagnostic.Kind.UNRECOGNIZED_COMMAND, null,
+                    state.position(state.index),
+                    new UnrecognizedCommandException(mainParser_,
+                            state.getArg(), "invalidChoiceError",
+                            state.getArg(), sb.toString()));
         } else {
             ++state.index;
+            if (listener != null) {
+                listener.commandSelected(ap.getCommandPath(),
+                        System.nanoTime() - start);
+            }
             ap.parseArgs(state, opts);
             // Call after parseArgs to overwrite dest_ attribute set by
             // sub-parsers.
@@ -16,12 +16,10 @@
  */
 package net.sourceforge.argparse4j.internal;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Returns the column width of the command line terminal from which this program
@@ -30,11 +28,27 @@ import java.util.regex.Pattern;
  * Currently works on Linux and OSX.
  * 
  * Returns -1 if the column width cannot be determined for some reason.
+ * 
+ * The width is probed in this order: the {@code COLUMNS} environment
+ * variable, the width detected earlier in this JVM, and finally
+ * {@code stty size} run against {@code /dev/tty}. The last probe starts a
+ * process, so its result, including failure, is remembered for the lifetime
+ * of the JVM, and the process is given at most {@link #PROBE_TIMEOUT_MILLIS}
+ * milliseconds to finish.
  */
 public class TerminalWidth {
 
     private static final int UNKNOWN_WIDTH = -1;
 
+    private static final int UNRESOLVED_WIDTH = -2;
+
+    /**
+     * The time in milliseconds to wait for {@code stty} before giving up.
+     */
+    static final long PROBE_TIMEOUT_MILLIS = 500;
+
+    private static volatile int detectedWidth_ = UNRESOLVED_WIDTH;
+
     public static void main(String[] args) {
         System.out.println("terminalWidth: "
                 + new TerminalWidth().getTerminalWidth());
@@ -50,15 +64,31 @@ public class TerminalWidth {
             }
         }
 
-        try {
-            return getTerminalWidth2();
-        } catch (IOException e) {
-            return UNKNOWN_WIDTH;
+        int w = detectedWidth_;
+        if (w == UNRESOLVED_WIDTH) {
+            synchronized (TerminalWidth.class) {
+                w = detectedWidth_;
+                if (w == UNRESOLVED_WIDTH) {
+                    try {
+                        w = getTerminalWidth2();
+                    } catch (IOException e) {
+                        w = UNKNOWN_WIDTH;
+                    }
+                    detectedWidth_ = w;
+                }
+            }
         }
+        return w;
+    }
+
+    /**
+     * Forgets the width detected by the process probe, so that the next call
+     * of {@link #getTerminalWidth()} probes again.
+     */
+    static void resetDetectedWidth() {
+        detectedWidth_ = UNRESOLVED_WIDTH;
     }
 
-    // see
-    // http://grokbase.com/t/gg/clojure/127qwgscvc/how-do-you-determine-terminal-console-width-in-%60lein-repl%60
     private int getTerminalWidth2() throws IOException {
         String osName = System.getProperty("os.name");
         boolean isOSX = osName.startsWith("Mac OS X");
@@ -68,66 +98,79 @@ public class TerminalWidth {
             return UNKNOWN_WIDTH; // actually, this might also work on Solaris
                                   // but this hasn't been tested
         }
-        ProcessBuilder builder = new ProcessBuilder(whichSh().toString(),
-                "-c", "stty -a < /dev/tty");
-        builder.redirectErrorStream(true);
+        File tty = new File("/dev/tty");
+        if (!tty.canRead()) {
+            return UNKNOWN_WIDTH;
+        }
+        // stty reads the terminal settings from its standard input. Running it
+        // directly with /dev/tty as input saves starting a shell.
+        ProcessBuilder builder = new ProcessBuilder(whichStty().toString(),
+                "size");
+        builder.redirectInput(tty);
+        builder.redirectError(ProcessBuilder.Redirect.PIPE);
         Process process = builder.start();
-        InputStream in = process.getInputStream();
-        ByteArrayOutputStream resultBytes = new ByteArrayOutputStream();
         try {
-            byte[] buf = new byte[1024];
-            int len;
-            while ((len = in.read(buf)) >= 0) {
-                resultBytes.write(buf, 0, len);
+            try {
+                if (!process.waitFor(PROBE_TIMEOUT_MILLIS,
+                        TimeUnit.MILLISECONDS) || process.exitValue() != 0) {
+                    return UNKNOWN_WIDTH;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return UNKNOWN_WIDTH;
             }
+            // The output, "<rows> <columns>", is far smaller than the pipe
+            // buffer, so reading it after the process exited is safe.
+            return parseColumns(readFully(process.getInputStream()));
         } finally {
-            in.close();
+            process.destroy();
         }
+    }
 
-        String result = new String(resultBytes.toByteArray());
-        // System.out.println("result=" + result);
-
+    private static String readFully(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
         try {
-            if (process.waitFor() != 0) {
-                return UNKNOWN_WIDTH;
+            byte[] buf = new byte[64];
+            int len;
+            while ((len = in.read(buf)) >= 0) {
+                for (int i = 0; i < len; ++i) {
+                    sb.append((char) (buf[i] & 0xff));
+                }
             }
-        } catch (InterruptedException e) {
-            return UNKNOWN_WIDTH;
+        } finally {
+            in.close();
         }
+        return sb.toString();
+    }
 
-        String pattern;
-        if (isOSX) {
-            // Extract columns from a line such as this:
-            // speed 9600 baud; 39 rows; 80 columns;
-            pattern = "(\\d+) columns";
-        } else {
-            // Extract columns from a line such as this:
-            // speed 9600 baud; rows 50; columns 83; line = 0;
-            pattern = "columns (\\d+)";
-        }
-        Matcher m = Pattern.compile(pattern).matcher(result);
-        if (!m.find()) {
+    /**
+     * Extracts the columns from the output of {@code stty size}, which is the
+     * number of rows and columns separated by a space, e.g. {@code "50 83"}.
+     */
+    static int parseColumns(String output) {
+        String s = output.trim();
+        int sp = s.indexOf(' ');
+        if (sp == -1) {
             return UNKNOWN_WIDTH;
         }
-        result = m.group(1);
-
         try {
-            return Integer.parseInt(result);
+            int columns = Integer.parseInt(s.substring(sp + 1).trim());
+            return columns > 0 ? columns : UNKNOWN_WIDTH;
         } catch (NumberFormatException e) {
             return UNKNOWN_WIDTH;
         }
     }
 
-    private File whichSh() throws IOException {
+    private File whichStty() throws IOException {
         String path = System.getenv("PATH");
         if (path != null) {
-          for (String dir : path.split(Pattern.quote(File.pathSeparator))) {
-              File command = new File(dir.trim(), "sh");
-              if (command.canExecute()) {
-                  return command.getAbsoluteFile();
-              }
-          }
+            for (String dir : path.split(File.pathSeparator)) {
+                File command = new File(dir.trim(), "stty");
+                if (command.canExecute()) {
+                    return command.getAbsoluteFile();
+                }
+            }
         }
-        throw new IOException("No command 'sh' on path " + path);
+        throw new IOException("No command 'stty' on path " + path);
     }
 }
@@ -40,6 +40,18 @@ public class UnrecognizedArgumentException extends ArgumentParserException {
         argument_ = argument;
     }
 
+    /**
+     * Creates the exception whose message is {@code messageKey} of the
+     * resource bundle of {@code parser}, formatted when it is first requested.
+     *
+     * @since 0.9.1
+     */
+    public UnrecognizedArgumentException(ArgumentParser parser,
+            String argument, String messageKey, Object... messageArgs) {
+        super(parser, null, messageKey, messageArgs);
+        argument_ = argument;
+    }
+
     public String getArgument() {
         return argument_;
     }
@@ -40,6 +40,18 @@ public class UnrecognizedCommandException extends ArgumentParserException {
         command_ = command;
     }
 
+    /**
+     * Creates the exception whose message is {@code messageKey} of the
+     * resource bundle of {@code parser}, formatted when it is first requested.
+     *
+     * @since 0.9.1
+     */
+    public UnrecognizedCommandException(ArgumentParser parser,
+            String command, String messageKey, Object... messageArgs) {
+        super(parser, null, messageKey, messageArgs);
+        command_ = command;
+    }
+
     public String getCommand() {
         return command_;
     }
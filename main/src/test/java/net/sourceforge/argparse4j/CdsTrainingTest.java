@@ -0,0 +1,40 @@
+package net.sourceforge.argparse4j;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+
+import org.junit.Test;
+
+public class CdsTrainingTest {
+
+    @Test
+    public void testMainPrintsNothing() {
+        PrintStream out = System.out;
+        PrintStream err = System.err;
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(buf));
+            System.setErr(new PrintStream(buf));
+            CdsTraining.main(new String[0]);
+        } finally {
+            System.setOut(out);
+            System.setErr(err);
+        }
+        assertEquals("", buf.toString());
+    }
+
+    @Test
+    public void testTrain() {
+        ArgumentParser parser = ArgumentParsers.newFor("prog").build();
+        parser.addArgument("--foo").type(Integer.class).required(true);
+        CdsTraining.train(parser, new String[] { "--foo", "1" },
+                new String[] { "--foo", "x" }, new String[] { "-h" },
+                new String[0]);
+        assertEquals(1, parser.parseArgsOrFail(new String[] { "--foo", "1" })
+                .getInt("foo").intValue());
+    }
+}
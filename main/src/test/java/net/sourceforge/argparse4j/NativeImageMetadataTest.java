@@ -0,0 +1,100 @@
+package net.sourceforge.argparse4j;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.List;
+
+import net.sourceforge.argparse4j.annotation.Arg;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.Subparser;
+
+import org.junit.Test;
+
+public class NativeImageMetadataTest {
+
+    enum Mode {
+        A, B
+    }
+
+    public static class ValueOf {
+        public static ValueOf valueOf(String s) {
+            return new ValueOf();
+        }
+    }
+
+    static class Base {
+        @Arg
+        private int count;
+    }
+
+    static class Options extends Base {
+        @Arg(dest = "names")
+        private URI[] uris;
+
+        private String notAnnotated;
+
+        @Arg
+        void setFiles(List<File> files) {
+        }
+    }
+
+    @Test
+    public void testReflectConfig() {
+        ArgumentParser parser = ArgumentParsers.newFor("prog").build();
+        parser.addArgument("--count").type(int.class);
+        parser.addArgument("--big").type(BigInteger.class);
+        parser.addArgument("--mode").type(Mode.class);
+        parser.addArgument("--uri").type(URI.class);
+        Subparser sub = parser.addSubparsers().addParser("sub")
+                .aliases("s");
+        sub.addArgument("--value").type(ValueOf.class);
+        assertEquals("[\n"
+                + "  {\n"
+                + "    \"name\": \"java.net.URI\",\n"
+                + "    \"methods\": [\n"
+                + "      { \"name\": \"<init>\", \"parameterTypes\": [\"java.lang.String\"] }\n"
+                + "    ]\n"
+                + "  },\n"
+                + "  {\n"
+                + "    \"name\": \"java.net.URI[]\"\n"
+                + "  },\n"
+                + "  {\n"
+                + "    \"name\": \"net.sourceforge.argparse4j.NativeImageMetadataTest$Base\",\n"
+                + "    \"queryAllDeclaredFields\": true,\n"
+                + "    \"queryAllDeclaredMethods\": true,\n"
+                + "    \"fields\": [\n"
+                + "      { \"name\": \"count\", \"allowWrite\": true }\n"
+                + "    ]\n"
+                + "  },\n"
+                + "  {\n"
+                + "    \"name\": \"net.sourceforge.argparse4j.NativeImageMetadataTest$Options\",\n"
+                + "    \"queryAllDeclaredFields\": true,\n"
+                + "    \"queryAllDeclaredMethods\": true,\n"
+                + "    \"fields\": [\n"
+                + "      { \"name\": \"uris\", \"allowWrite\": true }\n"
+                + "    ],\n"
+                + "    \"methods\": [\n"
+                + "      { \"name\": \"setFiles\", \"parameterTypes\": [\"java.util.List\"] }\n"
+                + "    ]\n"
+                + "  },\n"
+                + "  {\n"
+                + "    \"name\": \"net.sourceforge.argparse4j.NativeImageMetadataTest$ValueOf\",\n"
+                + "    \"methods\": [\n"
+                + "      { \"name\": \"valueOf\", \"parameterTypes\": [\"java.lang.String\"] }\n"
+                + "    ]\n"
+                + "  }\n"
+                + "]\n",
+                NativeImageMetadata.reflectConfig(parser, Options.class));
+    }
+
+    @Test
+    public void testReflectConfigWithoutReflection() {
+        ArgumentParser parser = ArgumentParsers.newFor("prog").build();
+        parser.addArgument("--count").type(Integer.class);
+        parser.addArgument("--mode").type(Mode.class);
+        assertEquals("[\n]\n", NativeImageMetadata.reflectConfig(parser));
+    }
+}
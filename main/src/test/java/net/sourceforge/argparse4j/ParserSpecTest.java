@@ -0,0 +1,574 @@
+package net.sourceforge.argparse4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.impl.choice.IntervalSetArgumentChoice;
+import net.sourceforge.argparse4j.impl.choice.PatternArgumentChoice;
+import net.sourceforge.argparse4j.impl.choice.RangeArgumentChoice;
+import net.sourceforge.argparse4j.inf.ArgumentGroup;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.MutuallyExclusiveGroup;
+import net.sourceforge.argparse4j.inf.Subparser;
+import net.sourceforge.argparse4j.inf.Subparsers;
+
+import org.junit.Test;
+
+public class ParserSpecTest {
+
+    enum Mode {
+        FAST, SLOW
+    }
+
+    enum Color {
+        RED, GREEN;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static ArgumentParser newParser() {
+        ArgumentParser parser = ArgumentParsers.newFor("prog")
+                .fromFilePrefix("@").locale(Locale.US).build()
+                .description("Process some integers.")
+                .epilog("See the manual.").version("${prog} 1.0")
+                .defaultHelp(true);
+        parser.setDefault("func", "main");
+        parser.addArgument("-v", "--verbose").action(Arguments.count());
+        parser.addArgument("--version").action(Arguments.version());
+        ArgumentGroup group = parser.addArgumentGroup("limits")
+                .description("Limits of the run");
+        group.addArgument("--jobs").type(Arguments.intType(1, 64))
+                .setDefault(4).help("number of jobs");
+        parser.addArgument("integers").metavar("N").type(Integer.class)
+                .nargs(2).help("two integers for the accumulator");
+        group.addArgument("--timeout").type(Arguments.durationType())
+                .setDefault(Duration.ofSeconds(30));
+        group.addArgument("--memory").type(Arguments.sizeType());
+        MutuallyExclusiveGroup mutex = parser
+                .addMutuallyExclusiveGroup("mode").required(true);
+        mutex.addArgument("--fast").dest("mode").action(Arguments.storeConst())
+                .setConst(Mode.FAST);
+        mutex.addArgument("--slow").dest("mode").action(Arguments.storeConst())
+                .setConst(Mode.SLOW);
+        parser.addArgument("--color")
+                .type(Arguments.caseInsensitiveEnumStringType(Color.class))
+                .choices(EnumSet.of(Color.RED));
+        parser.addArgument("--port")
+                .type(Integer.class)
+                .choices(IntervalSetArgumentChoice.parseInts("1-1024,8080"));
+        parser.addArgument("--ratio").type(Double.class)
+                .choices(new RangeArgumentChoice<>(0.0, 1.0));
+        parser.addArgument("--name")
+                .choices(PatternArgumentChoice.globs("a*", "b?"));
+        parser.addArgument("--big").type(BigInteger.class)
+                .setDefault(BigInteger.TEN).help(Arguments.SUPPRESS);
+        parser.addArgument("--tag").action(Arguments.append())
+                .choices("x", "y", "z");
+        parser.addArgument("--pair").nargs(2).setDefault("x", "y");
+        parser.addArgument("--out").type(Arguments.fileType()
+                .verifyIsDirectory().or().verifyCanCreate());
+        parser.addArgument("--dry-run").action(Arguments.storeTrue())
+                .setDefault(Arguments.SUPPRESS);
+
+        Subparsers subparsers = parser.addSubparsers().title("commands")
+                .description("valid commands").dest("command")
+                .metavar("COMMAND").help("the command");
+        Subparser checkout = subparsers.addParser("checkout")
+                .aliases("co").help("check out a branch")
+                .setDefault("func", "checkout");
+        checkout.addArgument("branch").choices("main", "dev");
+        checkout.addArgument("-f").type(Arguments.booleanType("yes", "no"));
+        checkout.addArgument("file").nargs("?").setDefault(new File("a.txt"));
+        Subparser remote = subparsers.addParser("remote", false, "+")
+                .help(Arguments.SUPPRESS);
+        Subparsers remoteCommands = remote.addSubparsers();
+        remoteCommands.addParser("add").addArgument("name")
+                .type(Arguments.enumType(Mode.class));
+        remoteCommands.addParser("remove", "remove a remote",
+                sub -> sub.addArgument("+n", "++dry-run")
+                        .action(Arguments.storeFalse()));
+        return parser;
+    }
+
+    private static String parse(ArgumentParser parser, String... args) {
+        try {
+            return parser.parseArgs(args).toString();
+        } catch (ArgumentParserException e) {
+            return "error: " + e.getMessage();
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        ArgumentParser parser = newParser();
+        byte[] spec = ParserSpec.toBytes(parser);
+        ArgumentParser loaded = ParserSpec.read(spec);
+
+        assertEquals(parser.formatHelp(), loaded.formatHelp());
+        assertEquals(parser.formatUsage(), loaded.formatUsage());
+        assertEquals(parser.formatVersion(), loaded.formatVersion());
+        String[][] commandLines = {
+                { "--fast", "1", "2", "checkout", "dev" },
+                { "--slow", "-vv", "--jobs", "8", "--timeout", "2m",
+                        "--memory", "1k", "--color", "RED", "--port",
+                        "8080", "--ratio", "0.5", "--name", "ab",
+                        "--tag", "z", "--pair", "p", "q", "--dry-run", "3",
+                        "4", "co", "-f", "yes", "main", "b.txt" },
+                { "--fast", "1", "2", "remote", "add", "SLOW" },
+                { "--fast", "1", "2", "remote", "remove", "++dry-run" },
+                { "--fast", "1", "2", "--jobs", "65", "checkout", "main" },
+                { "--fast", "1", "2", "--port", "2000", "checkout", "main" },
+                { "--fast", "1", "2", "--name", "c", "checkout", "main" },
+                { "--fast", "--slow", "1", "2", "checkout", "main" },
+                { "1", "2", "checkout", "main" },
+                { "--fast", "1", "2", "checkout", "other" },
+                { "--fast", "1", "2", "remote", "add", "MEDIUM" } };
+        for (String[] args : commandLines) {
+            assertEquals(Arrays.toString(args), parse(parser, args),
+                    parse(loaded, args));
+        }
+        assertEquals(ParserSpec.toJson(parser), ParserSpec.toJson(loaded));
+        assertTrue(Arrays.equals(spec, ParserSpec.toBytes(loaded)));
+    }
+
+    /**
+     * Asserts that the parser loaded from the spec of {@code parser} formats
+     * the same help and usage, and parses each command line, split at
+     * spaces, to the same result or error.
+     */
+    private static void assertRoundTrip(ArgumentParser parser,
+            String... commandLines) throws IOException {
+        ArgumentParser loaded = ParserSpec.read(ParserSpec.toBytes(parser));
+        assertEquals(parser.formatHelp(), loaded.formatHelp());
+        assertEquals(parser.formatUsage(), loaded.formatUsage());
+        for (String commandLine : commandLines) {
+            String[] args = commandLine.isEmpty() ? new String[0]
+                    : commandLine.split(" ");
+            assertEquals(commandLine, parse(parser, args),
+                    parse(loaded, args));
+        }
+    }
+
+    private static ArgumentParser scenarioParser() {
+        return ArgumentParsers.newFor("argparse4j").locale(Locale.US)
+                .build();
+    }
+
+    @Test
+    public void testRoundTripNargs() throws IOException {
+        ArgumentParser parser = scenarioParser();
+        parser.addArgument("--foo").nargs("?").setConst("c").setDefault("d");
+        parser.addArgument("--pair").nargs(2);
+        parser.addArgument("--many").nargs("*").setDefault("many");
+        parser.addArgument("--some").nargs("+").type(Integer.class);
+        parser.addArgument("a");
+        parser.addArgument("b").nargs("*");
+        parser.addArgument("c").nargs(2);
+        parser.addArgument("d").nargs("?");
+        parser.addArgument("e");
+        parser.addArgument("f").nargs("*").setDefault("f1", "f2");
+        assertRoundTrip(parser, "a b1 b2 c1 c2 e", "a c1 c2 e --foo",
+                "a c1 c2 e --foo YY --pair 1 2", "a c1 c2 e --pair=3 4",
+                "a c1 c2 e --many", "a c1 c2 e --some 1 2 3",
+                "a c1 c2 e --some x", "a c1", "");
+    }
+
+    @Test
+    public void testRoundTripActions() throws IOException {
+        ArgumentParser parser = scenarioParser();
+        parser.addArgument("--on").action(Arguments.storeTrue());
+        parser.addArgument("--off").action(Arguments.storeFalse());
+        parser.addArgument("--const").action(Arguments.storeConst())
+                .setConst("const");
+        parser.addArgument("--append").action(Arguments.append())
+                .nargs("*");
+        parser.addArgument("--buzz").nargs("*").action(Arguments.append())
+                .setDefault("buzz");
+        parser.addArgument("-c").action(Arguments.appendConst())
+                .setConst(true);
+        parser.addArgument("-v", "--verbose").action(Arguments.count());
+        parser.addArgument("--version").action(Arguments.version());
+        assertRoundTrip(parser, "--on --off", "--const",
+                "--append a --append b --append", "--buzz", "--buzz 1 2",
+                "-cccc", "-v -vv -vvvv", "--verbose --verbose", "--on=x");
+    }
+
+    @Test
+    public void testRoundTripDefaults() throws IOException {
+        ArgumentParser parser = scenarioParser().defaultHelp(true);
+        parser.addArgument("-f").setDefault("foo");
+        parser.addArgument("-g").setDefault("bar").help("the g");
+        parser.addArgument("-s").setDefault(Arguments.SUPPRESS);
+        parser.addArgument("-r").required(true);
+        parser.addArgument("--hidden").help(Arguments.SUPPRESS);
+        parser.setDefault("foo", "FOO");
+        parser.addArgument("pos").nargs("*")
+                .setDefault(Arrays.asList("default"));
+        assertRoundTrip(parser, "-r x", "-r x -i input", "-r x -s y 1 2",
+                "-f", "", "-r x --hidden h");
+    }
+
+    @Test
+    public void testRoundTripMutexGroups() throws IOException {
+        ArgumentParser parser = scenarioParser();
+        MutuallyExclusiveGroup required = parser
+                .addMutuallyExclusiveGroup("mutex").required(true);
+        required.addArgument("--foo");
+        required.addArgument("--bar");
+        MutuallyExclusiveGroup optional = parser.addMutuallyExclusiveGroup()
+                .description("at most one");
+        optional.addArgument("-x").action(Arguments.storeTrue());
+        optional.addArgument("-y").action(Arguments.storeTrue());
+        parser.addArgumentGroup("group").description("a group")
+                .addArgument("--baz");
+        assertRoundTrip(parser, "--foo bar", "--foo bar --bar baz", "",
+                "--bar b -x", "--bar b -xy", "--bar b -x -y");
+    }
+
+    @Test
+    public void testRoundTripSubparsers() throws IOException {
+        ArgumentParser parser = scenarioParser();
+        parser.addArgument("-f");
+        parser.addArgument("--long-option");
+        Subparsers subparsers = parser.addSubparsers().dest("command")
+                .help("sub-command help");
+        Subparser install = subparsers.addParser("install")
+                .aliases("i", "add").help("install a package");
+        install.addArgument("pkg").nargs("+");
+        install.setDefault("func", "install");
+        subparsers.addParser("search").setDefault("func", "search")
+                .addArgument("term");
+        subparsers.addParser("clone").setDefault("func", "clone");
+        subparsers.addParser("clean", false).setDefault("func", "clean");
+        subparsers.addParser("hidden").help(Arguments.SUPPRESS);
+        assertRoundTrip(parser, "install aria2", "i a b", "add a",
+                "search x", "clo", "cle", "cl", "-f x --long x clean",
+                "--long-opt y search z", "hidden", "nosuch", "",
+                "search");
+    }
+
+    @Test
+    public void testRoundTripPrefixChars() throws IOException {
+        ArgumentParser parser = ArgumentParsers.newFor("argparse4j")
+                .locale(Locale.US).prefixChars("+-").build();
+        parser.addArgument("+f", "++foo").action(Arguments.storeTrue());
+        parser.addArgument("-b").action(Arguments.storeTrue());
+        parser.addArgument("-1").dest("one");
+        parser.addArgument("-2");
+        parser.addArgument("-ff");
+        parser.addArgument("foo").nargs("?");
+        Subparser sub = parser.addSubparsers().addParser("sub", true, "/");
+        sub.addArgument("/x").action(Arguments.storeTrue());
+        assertRoundTrip(parser, "+f -b", "++foo", "-1 X", "-12=x",
+                "-ff=a", "-- -2", "-2", "sub /x", "sub -x");
+    }
+
+    @Test
+    public void testRoundTripFromFilePrefix() throws IOException {
+        ArgumentParser parser = ArgumentParsers.newFor("argparse4j")
+                .locale(Locale.US).fromFilePrefix("@").build();
+        parser.addArgument("-f");
+        parser.addArgument("--baz").nargs(2);
+        parser.addArgument("x");
+        parser.addArgument("y").nargs(2);
+        Subparser subparser = parser.addSubparsers().addParser("add");
+        subparser.addArgument("--foo");
+        subparser.addArgument("--bar").action(Arguments.storeTrue());
+        assertRoundTrip(parser, "-f foo @target/test-classes/args.txt "
+                + "--baz alpha @target/test-classes/args2.txt x y1 "
+                + "@target/test-classes/args3.txt add --bar "
+                + "@target/test-classes/args4.txt",
+                "@target/test-classes/nosuchfile.txt");
+    }
+
+    @Test
+    public void testRoundTripStream() throws IOException {
+        ArgumentParser parser = newParser();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ParserSpec.write(parser, out);
+        ArgumentParser loaded = ParserSpec
+                .read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(parser.formatHelp(), loaded.formatHelp());
+    }
+
+    @Test
+    public void testArgumentOrderAcrossGroups() throws IOException {
+        ArgumentParser parser = ArgumentParsers.newFor("prog").build();
+        ArgumentGroup first = parser.addArgumentGroup("first");
+        ArgumentGroup second = parser.addArgumentGroup("second");
+        second.addArgument("c");
+        parser.addArgument("--a");
+        first.addArgument("b");
+        first.addArgument("--d");
+        second.addArgument("--e");
+        parser.addArgument("f");
+        ArgumentParser loaded = ParserSpec.read(ParserSpec.toBytes(parser));
+        assertEquals(parser.formatHelp(), loaded.formatHelp());
+        assertEquals(parse(parser, "1", "2", "3"),
+                parse(loaded, "1", "2", "3"));
+    }
+
+    @Test
+    public void testSubcommandsAreReadLazily() throws IOException {
+        ArgumentParser parser = ArgumentParsers.newFor("prog").build();
+        parser.addArgument("--mode").type(Mode.class);
+        Subparsers subparsers = parser.addSubparsers();
+        subparsers.addParser("paint").addArgument("color")
+                .type(Arguments.enumStringType(Color.class));
+        subparsers.addParser("run");
+        List<String> loaded = new ArrayList<>();
+        ClassLoader loader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve)
+                    throws ClassNotFoundException {
+                loaded.add(name);
+                return super.loadClass(name, resolve);
+            }
+        };
+        ArgumentParser reloaded = ParserSpec.read(ParserSpec.toBytes(parser),
+                loader);
+        assertEquals(Arrays.asList(Mode.class.getName()), loaded);
+        assertEquals("Namespace(mode=null)", parse(reloaded, "run"));
+        assertFalse(loaded.contains(Color.class.getName()));
+        assertEquals("Namespace(mode=FAST, color=green)",
+                parse(reloaded, "--mode", "FAST", "paint", "green"));
+        assertTrue(loaded.contains(Color.class.getName()));
+    }
+
+    @Test
+    public void testJson() {
+        ArgumentParser parser = ArgumentParsers.newFor("prog").addHelp(false)
+                .locale(Locale.US).build();
+        parser.addArgument("--level").type(Arguments.intType(0, 9))
+                .choices(3, 5).help("the \"level\"");
+        assertEquals("{\n"
+                + "  \"version\": 2,\n"
+                + "  \"config\": {\n"
+                + "    \"prog\": \"prog\",\n"
+                + "    \"addHelp\": false,\n"
+                + "    \"prefixChars\": \"-\",\n"
+                + "    \"fromFilePrefix\": null,\n"
+                + "    \"locale\": \"en-US\",\n"
+                + "    \"cjkWidthHack\": true,\n"
+                + "    \"formatWidth\": 75,\n"
+                + "    \"terminalWidthDetection\": true,\n"
+                + "    \"singleMetavar\": false,\n"
+                + "    \"noDestConversionForPositionalArgs\": false,\n"
+                + "    \"includeArgumentNamesAsKeysInResult\": false,\n"
+                + "    \"mustHelpTextIncludeMutualExclusivity\": false,\n"
+                + "    \"stackTrace\": true\n"
+                + "  },\n"
+                + "  \"parser\": {\n"
+                + "    \"usage\": \"\",\n"
+                + "    \"description\": \"\",\n"
+                + "    \"epilog\": \"\",\n"
+                + "    \"version\": \"\",\n"
+                + "    \"defaultHelp\": false,\n"
+                + "    \"defaults\": [],\n"
+                + "    \"groups\": [],\n"
+                + "    \"arguments\": [\n"
+                + "      {\n"
+                + "        \"name\": null,\n"
+                + "        \"flags\": [\n"
+                + "          \"--level\"\n"
+                + "        ],\n"
+                + "        \"dest\": \"level\",\n"
+                + "        \"group\": -1,\n"
+                + "        \"action\": \"store\",\n"
+                + "        \"type\": {\n"
+                + "          \"kind\": \"integer\",\n"
+                + "          \"bounded\": true,\n"
+                + "          \"min\": 0,\n"
+                + "          \"max\": 9\n"
+                + "        },\n"
+                + "        \"choice\": {\n"
+                + "          \"kind\": \"collection\",\n"
+                + "          \"set\": false,\n"
+                + "          \"values\": [\n"
+                + "            {\n"
+                + "              \"kind\": \"integer\",\n"
+                + "              \"value\": 3\n"
+                + "            },\n"
+                + "            {\n"
+                + "              \"kind\": \"integer\",\n"
+                + "              \"value\": 5\n"
+                + "            }\n"
+                + "          ]\n"
+                + "        },\n"
+                + "        \"const\": {\n"
+                + "          \"kind\": \"null\"\n"
+                + "        },\n"
+                + "        \"default\": {\n"
+                + "          \"kind\": \"null\"\n"
+                + "        },\n"
+                + "        \"defaultSuppressed\": false,\n"
+                + "        \"helpSuppressed\": false,\n"
+                + "        \"required\": false,\n"
+                + "        \"metavar\": null,\n"
+                + "        \"minNumArg\": -1,\n"
+                + "        \"maxNumArg\": -1,\n"
+                + "        \"help\": \"the \\\"level\\\"\"\n"
+                + "      }\n"
+                + "    ],\n"
+                + "    \"subparsers\": {\n"
+                + "      \"help\": \"\",\n"
+                + "      \"title\": \"\",\n"
+                + "      \"description\": \"\",\n"
+                + "      \"dest\": \"\",\n"
+                + "      \"metavar\": \"\",\n"
+                + "      \"commands\": []\n"
+                + "    }\n"
+                + "  }\n"
+                + "}\n", ParserSpec.toJson(parser));
+    }
+
+    @Test
+    public void testCustomTypeIsRejected() {
+        ArgumentParser parser = ArgumentParsers.newFor("prog").build();
+        parser.addArgument("--x").type((p, arg, value) -> value);
+        try {
+            ParserSpec.toBytes(parser);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(
+                    "argument --x: type of class "));
+        }
+    }
+
+    @Test
+    public void testCustomDefaultIsRejected() {
+        ArgumentParser parser = ArgumentParsers.newFor("prog").build();
+        parser.setDefault("x", new Object());
+        try {
+            ParserSpec.toBytes(parser);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("default x: value of class java.lang.Object cannot "
+                    + "be stored in a parser spec", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDefaultLocaleOfLoadingMachine() throws IOException {
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.GERMAN);
+            ArgumentParser parser = ArgumentParsers.newFor("prog").build();
+            parser.addArgument("--jobs");
+            byte[] spec = ParserSpec.toBytes(parser);
+            assertTrue(parser.formatHelp().contains("Benannte Argumente:"));
+
+            Locale.setDefault(Locale.US);
+            ArgumentParser loaded = ParserSpec.read(spec);
+            assertEquals(Locale.ENGLISH, loaded.getConfig().getLocale());
+            parser = ArgumentParsers.newFor("prog").build();
+            parser.addArgument("--jobs");
+            assertEquals(parser.formatHelp(), loaded.formatHelp());
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void testExplicitLocale() throws IOException {
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.US);
+            byte[] spec = ParserSpec.toBytes(ArgumentParsers.newFor("prog")
+                    .locale(Locale.GERMAN).build());
+
+            Locale.setDefault(Locale.FRENCH);
+            ArgumentParser loaded = ParserSpec.read(spec);
+            assertEquals(Locale.GERMAN, loaded.getConfig().getLocale());
+            assertTrue(loaded.formatHelp().contains("Benannte Argumente:"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSubparserIsRejected() {
+        ArgumentParser parser = ArgumentParsers.newFor("prog").build();
+        ParserSpec.toBytes(parser.addSubparsers().addParser("sub"));
+    }
+
+    @Test
+    public void testNotASpec() {
+        try {
+            ParserSpec.read(new byte[] { 'P', 'K', 3, 4, 0, 0, 0, 0 });
+            fail();
+        } catch (IOException e) {
+            assertEquals("not a parser spec", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testUnsupportedVersion() {
+        byte[] spec = ParserSpec
+                .toBytes(ArgumentParsers.newFor("prog").build());
+        spec[7] = 99;
+        try {
+            ParserSpec.read(spec);
+            fail();
+        } catch (IOException e) {
+            assertEquals("unsupported parser spec version 99",
+                    e.getMessage());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedSpec() throws IOException {
+        byte[] spec = ParserSpec.toBytes(newParser());
+        ParserSpec.read(Arrays.copyOf(spec, spec.length / 3));
+    }
+
+    @Test
+    public void testNegativeCount() {
+        ArgumentParser parser = ArgumentParsers.newFor("prog").build();
+        parser.addArgument("--zzzz");
+        byte[] spec = ParserSpec.toBytes(parser);
+        byte[] flag = { 0, 0, 0, 6, '-', '-', 'z', 'z', 'z', 'z' };
+        int i = indexOf(spec, flag);
+        assertTrue(i >= 4);
+        // The number of flags, which precedes the first flag.
+        spec[i - 1] = -2;
+        spec[i - 2] = -1;
+        spec[i - 3] = -1;
+        spec[i - 4] = -1;
+        try {
+            ParserSpec.read(spec);
+            fail();
+        } catch (IOException e) {
+            assertEquals("malformed parser spec", e.getMessage());
+        }
+    }
+
+    private static int indexOf(byte[] bytes, byte[] sub) {
+        for (int i = 0; i + sub.length <= bytes.length; ++i) {
+            if (Arrays.equals(Arrays.copyOfRange(bytes, i, i + sub.length),
+                    sub)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,220 @@
+package net.sourceforge.argparse4j;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Locale;
+
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.Subparsers;
+import net.sourceforge.argparse4j.internal.ArgumentParserImpl;
+
+import org.junit.Test;
+
+public class PrecompiledParserTest {
+
+    static ArgumentParser newParser() {
+        ArgumentParser parser = ArgumentParsers.newFor("prog")
+                .locale(Locale.US).terminalWidthDetection(false).build()
+                .description("Processes some integers.");
+        parser.addArgument("-v", "--verbose").action(Arguments.count())
+                .help("increase verbosity");
+        parser.addArgument("--jobs").type(Integer.class).setDefault(4)
+                .help("number of parallel jobs");
+        Subparsers subparsers = parser.addSubparsers().dest("command");
+        subparsers.addParser("run").help("run the program")
+                .addArgument("file").nargs("*");
+        return parser;
+    }
+
+    static ArgumentParser otherParser() {
+        return newParser();
+    }
+
+    static ArgumentParser definedElsewhere() {
+        ArgumentParser parser = ArgumentParsers.newFor("prog")
+                .locale(Locale.US).build();
+        Definitions.define(parser);
+        return parser;
+    }
+
+    static final class Definitions {
+
+        static void define(ArgumentParser parser) {
+            parser.addArgument("--jobs").type(Integer.class);
+        }
+    }
+
+    private static URL classPath() {
+        return PrecompiledParserTest.class.getProtectionDomain()
+                .getCodeSource().getLocation();
+    }
+
+    private static byte[] toBytes(String factoryMethod) throws Exception {
+        return PrecompiledParser.toBytes(PrecompiledParserTest.class.getName()
+                + "#" + factoryMethod, new URL[] { classPath() });
+    }
+
+    @Test
+    public void testLoad() throws Exception {
+        byte[] bytes = toBytes("newParser");
+        ArgumentParserImpl parser = (ArgumentParserImpl) PrecompiledParser
+                .load(PrecompiledParserTest.class, "newParser", bytes);
+        assertNotNull(parser);
+        ArgumentParser expected = newParser();
+        assertEquals(expected.formatHelp(), parser.formatHelp());
+        assertEquals(expected.formatUsage(), parser.formatUsage());
+        assertEquals(0, parser.getFormatCacheMisses());
+        assertEquals(2, parser.getFormatCacheHits());
+        String[] args = { "-vv", "--jobs", "8", "run", "a", "b" };
+        assertEquals(expected.parseArgs(args).getAttrs(),
+                parser.parseArgs(args).getAttrs());
+    }
+
+    @Test
+    public void testDefinitionChangeFormatsAgain() throws Exception {
+        ArgumentParserImpl parser = (ArgumentParserImpl) PrecompiledParser
+                .load(PrecompiledParserTest.class, "newParser",
+                        toBytes("newParser"));
+        parser.addArgument("--extra");
+        assertTrue(parser.formatHelp().contains("--extra"));
+        // Help and the usage included in it
+        assertEquals(2, parser.getFormatCacheMisses());
+    }
+
+    @Test
+    public void testStaleHashIsNotLoaded() throws Exception {
+        byte[] bytes = toBytes("newParser");
+        assertNull(PrecompiledParser.load(PrecompiledParserTest.class,
+                "otherParser", bytes));
+        bytes[15] ^= 1;
+        assertNull(PrecompiledParser.load(PrecompiledParserTest.class,
+                "newParser", bytes));
+    }
+
+    @Test
+    public void testMalformedIsNotLoaded() throws Exception {
+        byte[] bytes = toBytes("newParser");
+        assertNull(PrecompiledParser.load(PrecompiledParserTest.class,
+                "newParser", Arrays.copyOf(bytes, bytes.length - 1)));
+        assertNull(PrecompiledParser.load(PrecompiledParserTest.class,
+                "newParser", Arrays.copyOf(bytes, 20)));
+        bytes[0] = 'X';
+        assertNull(PrecompiledParser.load(PrecompiledParserTest.class,
+                "newParser", bytes));
+    }
+
+    @Test
+    public void testNewPrecompiledWithoutResource() throws Exception {
+        ArgumentParser parser = ArgumentParsers
+                .newPrecompiled(PrecompiledParserTest.class, "newParser");
+        assertEquals(newParser().formatHelp(), parser.formatHelp());
+        assertEquals(2, ((ArgumentParserImpl) parser).getFormatCacheMisses());
+    }
+
+    @Test
+    public void testNewPrecompiledWithUnknownMethod() {
+        try {
+            ArgumentParsers.newPrecompiled(PrecompiledParserTest.class,
+                    "noSuchMethod");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("cannot call factory method "
+                    + "net.sourceforge.argparse4j.PrecompiledParserTest"
+                    + "#noSuchMethod", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testWrite() throws Exception {
+        File dir = Files.createTempDirectory(
+                PrecompiledParserTest.class.getSimpleName()).toFile();
+        File file = PrecompiledParser.write(
+                PrecompiledParserTest.class.getName() + "#newParser",
+                new URL[] { classPath() }, dir);
+        try {
+            assertEquals(new File(dir, "META-INF/argparse4j/"
+                    + "net.sourceforge.argparse4j.PrecompiledParserTest"
+                    + ".newParser.parser"), file);
+            assertArrayEquals(toBytes("newParser"),
+                    Files.readAllBytes(file.toPath()));
+        } finally {
+            file.delete();
+            file.getParentFile().delete();
+            file.getParentFile().getParentFile().delete();
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void testChangeOfOtherClassIsDetected() throws Exception {
+        byte[] bytes = toBytes("definedElsewhere");
+        File dir = Files.createTempDirectory(
+                PrecompiledParserTest.class.getSimpleName()).toFile();
+        try {
+            copyClassFile(PrecompiledParserTest.class, dir);
+            File definitions = copyClassFile(Definitions.class, dir);
+            try (URLClassLoader loader = new URLClassLoader(
+                    new URL[] { dir.toURI().toURL() }, null)) {
+                Class<?> factoryClass = Class.forName(
+                        PrecompiledParserTest.class.getName(), false, loader);
+                assertNotNull(PrecompiledParser.load(factoryClass,
+                        "definedElsewhere", bytes));
+                try (OutputStream out = new FileOutputStream(definitions,
+                        true)) {
+                    out.write(0);
+                }
+                assertNull(PrecompiledParser.load(factoryClass,
+                        "definedElsewhere", bytes));
+            }
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testFactoryClassNotInClassPath() throws Exception {
+        try {
+            PrecompiledParser.toBytes(PrecompiledParserTest.class.getName()
+                    + "#newParser", new URL[0]);
+            fail();
+        } catch (IOException e) {
+            assertEquals("factory class of "
+                    + "net.sourceforge.argparse4j.PrecompiledParserTest"
+                    + "#newParser is not in the class path", e.getMessage());
+        }
+    }
+
+    private static File copyClassFile(Class<?> cls, File dir)
+            throws Exception {
+        String path = cls.getName().replace('.', '/') + ".class";
+        File file = new File(dir, path);
+        file.getParentFile().mkdirs();
+        Files.copy(new File(classPath().toURI()).toPath().resolve(path),
+                file.toPath());
+        return file;
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,146 @@
+package net.sourceforge.argparse4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+import net.sourceforge.argparse4j.ShellCompletion.Shell;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.impl.choice.DynamicArgumentChoice;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.Subparser;
+import net.sourceforge.argparse4j.inf.Subparsers;
+
+import org.junit.Test;
+
+public class ShellCompletionTest {
+
+    enum Mode {
+        FAST, SLOW;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static ArgumentParser newParser() {
+        ArgumentParser parser = ArgumentParsers.newFor("my-prog").build();
+        parser.addArgument("-v", "--verbose").action(Arguments.storeTrue());
+        parser.addArgument("--mode").type(Mode.class);
+        parser.addArgument("--level")
+                .type(Arguments.enumStringType(Mode.class));
+        parser.addArgument("--color").choices("red", "it's");
+        parser.addArgument("--secret").help(Arguments.SUPPRESS);
+        Subparsers subparsers = parser.addSubparsers();
+        Subparser checkout = subparsers.addParser("checkout").aliases("co");
+        checkout.addArgument("--into")
+                .type(Arguments.fileType().verifyIsDirectory());
+        checkout.addArgument("branch").choices(new DynamicArgumentChoice<>(
+                () -> Arrays.asList("main", "master", "dev")));
+        checkout.addArgument("files").type(File.class).nargs("*");
+        subparsers.addParser("hidden").help(Arguments.SUPPRESS);
+        return parser;
+    }
+
+    @Test
+    public void testBash() {
+        String script = ShellCompletion.script(newParser(), Shell.BASH);
+        assertTrue(script.contains("'') _argparse4j_my_prog_words '-h' "
+                + "'--help' '-v' '--verbose' '--mode' '--level' '--color' ;;"));
+        assertTrue(script.contains("_argparse4j_my_prog_words 'FAST' 'SLOW'"));
+        assertTrue(script.contains("_argparse4j_my_prog_words 'fast' 'slow'"));
+        assertTrue(script.contains("_argparse4j_my_prog_words 'red' 'it'\\''s'"));
+        assertTrue(script.contains("':checkout'|':co') node='checkout' pos=0"));
+        assertTrue(script.contains("':0') _argparse4j_my_prog_words "
+                + "'checkout' 'co' ;;"));
+        assertTrue(script.contains("compgen -d -- \"$cur\""));
+        assertTrue(script.contains("compgen -f -- \"$cur\""));
+        assertTrue(script.contains("ARGPARSE4J_COMPLETE='checkout:branch'"));
+        assertEquals(1, count(script, "ARGPARSE4J_COMPLETE="));
+        // Suppressed flags and sub-commands are recognized, but not offered.
+        assertTrue(script.contains("':--secret') nvals=1"));
+        assertFalse(script.contains("'--secret' "));
+        assertTrue(script.contains("':hidden') node='hidden' pos=0"));
+        assertTrue(script.endsWith("complete -F _argparse4j_my_prog "
+                + "'my-prog'\n"));
+    }
+
+    @Test
+    public void testZsh() {
+        String script = ShellCompletion.script(newParser(), Shell.ZSH);
+        assertTrue(script.startsWith("#compdef my-prog\n"));
+        assertTrue(script.contains("compadd -- 'FAST' 'SLOW'"));
+        assertTrue(script.contains("_files -/ ;;"));
+        assertTrue(script.contains("_files ;;"));
+        assertTrue(script.contains("ARGPARSE4J_COMPLETE='checkout:branch'"));
+        assertTrue(script.contains("compdef _argparse4j_my_prog 'my-prog'"));
+    }
+
+    @Test
+    public void testFish() {
+        String script = ShellCompletion.script(newParser(), Shell.FISH);
+        assertTrue(script.contains("printf '%s\\n' 'red' 'it\\'s'"));
+        assertTrue(script.contains("case ':checkout' ':co'"));
+        assertTrue(script.contains("__fish_complete_directories"));
+        assertTrue(script.contains("__fish_complete_path"));
+        assertTrue(script.contains("ARGPARSE4J_COMPLETE='checkout:branch'"));
+        assertTrue(script.endsWith("complete -c 'my-prog' -f -a "
+                + "'(__argparse4j_my_prog)'\n"));
+    }
+
+    @Test
+    public void testComplete() {
+        ArgumentParser parser = newParser();
+        assertEquals("main\nmaster\n", complete(parser, "checkout:branch",
+                "ma"));
+        assertEquals("main\nmaster\ndev\n", complete(parser, "checkout:branch",
+                ""));
+        assertEquals("it's\n", complete(parser, ":--color", "i"));
+        assertEquals("slow\n", complete(parser, ":--level", "s"));
+        assertEquals("", complete(parser, "nosuch:branch", ""));
+        assertEquals("", complete(parser, ":--nosuch", ""));
+        assertEquals("", complete(parser, "nokey", ""));
+    }
+
+    @Test
+    public void testCompleteWithoutRequest() {
+        if (System.getenv("ARGPARSE4J_COMPLETE") == null) {
+            assertFalse(ShellCompletion.complete(newParser()));
+        }
+    }
+
+    @Test
+    public void testLazySubcommand() {
+        ArgumentParser parser = ArgumentParsers.newFor("prog").build();
+        parser.addSubparsers().addParser("run", "run it",
+                p -> p.addArgument("--fast").action(Arguments.storeTrue()));
+        String script = ShellCompletion.script(parser, Shell.BASH);
+        assertTrue(script.contains("'run') _argparse4j_prog_words '-h' "
+                + "'--help' '--fast' ;;"));
+    }
+
+    private static String complete(ArgumentParser parser, String key,
+            String prefix) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ShellCompletion.complete(parser, key, prefix,
+                new PrintStream(out, true));
+        return new String(out.toByteArray(), StandardCharsets.UTF_8)
+                .replace(System.lineSeparator(), "\n");
+    }
+
+    private static int count(String s, String sub) {
+        int n = 0;
+        for (int i = s.indexOf(sub); i != -1; i = s.indexOf(sub, i + 1)) {
+            ++n;
+        }
+        return n;
+    }
+}
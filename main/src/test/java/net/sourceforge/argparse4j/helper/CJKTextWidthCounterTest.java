@@ -26,6 +26,13 @@ package net.sourceforge.argparse4j.helper;
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -44,4 +51,54 @@ public class CJKTextWidthCounterTest {
         assertThat(counter.width(s), is(16 + 12));
     }
 
+    @Test
+    public void testWidthOfRange() {
+        String s = "Hello \u4e16\u754c";
+        assertThat(counter.width(s, 6, 8), is(4));
+        assertThat(counter.width(s, 0, 5), is(5));
+    }
+
+    /**
+     * Checks the table against the Wide, Full and Ambiguous entries of the
+     * pinned Unicode version, generated by {@code wfarange.py --wfa}.
+     */
+    @Test
+    public void testTableIsInSyncWithUnicodeData() throws IOException {
+        String resource = "EastAsianWidth-"
+                + CJKTextWidthCounter.UNICODE_VERSION + "-WFA.txt";
+        BitSet wide = new BitSet();
+        try (InputStream in = getClass().getResourceAsStream(resource)) {
+            assertNotNull(resource, in);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    in, StandardCharsets.UTF_8));
+            assertEquals("# EastAsianWidth-"
+                    + CJKTextWidthCounter.UNICODE_VERSION + ".txt",
+                    reader.readLine());
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#")) {
+                    continue;
+                }
+                String range = line.substring(0, line.indexOf(';'));
+                int dots = range.indexOf("..");
+                int first = Integer.parseInt(
+                        dots == -1 ? range : range.substring(0, dots), 16);
+                int last = dots == -1 ? first : Integer.parseInt(
+                        range.substring(dots + 2), 16);
+                wide.set(first, last + 1);
+            }
+        }
+        for (int cp = 0; cp <= Character.MAX_CODE_POINT; ++cp) {
+            if (wide.get(cp) != CJKTextWidthCounter.isWide(cp)) {
+                fail(String.format(TextHelper.LOCALE_ROOT,
+                        "U+%04X is %s in Unicode %s", cp,
+                        wide.get(cp) ? "wide" : "narrow",
+                        CJKTextWidthCounter.UNICODE_VERSION));
+            }
+            if (cp < 0x100 && !Character.isSurrogate((char) cp)) {
+                assertThat(counter.width(new String(Character.toChars(cp))),
+                        is(wide.get(cp) ? 2 : 1));
+            }
+        }
+    }
 }
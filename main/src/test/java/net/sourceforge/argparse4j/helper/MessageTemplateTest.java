@@ -0,0 +1,83 @@
+package net.sourceforge.argparse4j.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Formattable;
+import java.util.Formatter;
+import java.util.IllegalFormatException;
+import java.util.ListResourceBundle;
+import java.util.ResourceBundle;
+
+import org.junit.Test;
+
+public class MessageTemplateTest {
+
+    private static void assertFormat(String pattern, Object... args) {
+        assertEquals(String.format(TextHelper.LOCALE_ROOT, pattern, args),
+                MessageTemplate.compile(pattern).format(args));
+    }
+
+    @Test
+    public void testFormat() {
+        assertFormat("invalid choice: '%s' (choose from %s)", "x", "{a,b}");
+        assertFormat("expected %d argument(s)", 3);
+        assertFormat("expected %d argument(s)", 3L);
+        assertFormat("expected %d argument(s)", BigInteger.TEN);
+        assertFormat("100%% sure%n");
+        assertFormat("%2$s before %1$s", "a", "b");
+        assertFormat("%s and %s", null, 1.5);
+        assertFormat("no arguments");
+        assertFormat("");
+    }
+
+    @Test
+    public void testFallbackToStringFormat() {
+        assertFormat("%5s|%-3d|%x", "a", 1, 255);
+        assertFormat("%s %<s", "a");
+        assertFormat("%d", (byte) -1);
+        assertFormat("%s", new Formattable() {
+            @Override
+            public void formatTo(Formatter formatter, int flags, int width,
+                    int precision) {
+                formatter.format("formattable");
+            }
+        });
+        try {
+            MessageTemplate.compile("%d").format(new BigDecimal("1.5"));
+            fail();
+        } catch (IllegalFormatException e) {
+        }
+        try {
+            MessageTemplate.compile("%s %s").format("a");
+            fail();
+        } catch (IllegalFormatException e) {
+        }
+    }
+
+    @Test
+    public void testAppendTo() {
+        StringBuilder sb = new StringBuilder("error: ");
+        MessageTemplate.compile("unrecognized arguments: '%s'%s").appendTo(sb,
+                "-x", "");
+        assertEquals("error: unrecognized arguments: '-x'", sb.toString());
+    }
+
+    @Test
+    public void testGetIsCachedPerBundle() {
+        ResourceBundle bundle = new ListResourceBundle() {
+            @Override
+            protected Object[][] getContents() {
+                return new Object[][] { { "key", "value: %s" } };
+            }
+        };
+        MessageTemplate template = MessageTemplate.get(bundle, "key");
+        assertSame(template, MessageTemplate.get(bundle, "key"));
+        assertEquals("value: 1", template.format(1));
+        assertEquals("value: 1",
+                MessageLocalization.format(bundle, "key", 1));
+    }
+}
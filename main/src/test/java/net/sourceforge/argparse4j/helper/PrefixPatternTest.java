@@ -63,4 +63,15 @@ public class PrefixPatternTest {
         assertEquals("-", pat.removePrefix("-"));
         assertEquals("--", pat.removePrefix("--"));
     }
+
+    @Test
+    public void testGetPrefixPattern() {
+        assertTrue(pat.getPrefixPattern().matcher("+-f").lookingAt());
+        assertTrue(!pat.getPrefixPattern().matcher("f").lookingAt());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyPrefixChars() {
+        new PrefixPattern("");
+    }
 }
@@ -26,6 +26,13 @@ package net.sourceforge.argparse4j.helper;
 import static java.util.Arrays.asList;
 import static org.junit.Assert.*;
 
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import net.sourceforge.argparse4j.inf.ArrayConverter;
+
 import org.junit.Test;
 
 public class ReflectHelperTest {
@@ -39,4 +46,77 @@ public class ReflectHelperTest {
         assertArrayEquals(
                 new int[][] { new int[] { 1, 2 }, new int[] { 3, 4 } }, a2);
     }
+
+    @Test
+    public void testList2ArrayPrimitiveAndString() {
+        assertArrayEquals(new long[] { 1L, 2L },
+                (long[]) ReflectHelper.list2Array(long[].class, asList(1L, 2L)));
+        // Widening from Integer elements, as Array.set() does.
+        assertArrayEquals(new long[] { 1L, 2L },
+                (long[]) ReflectHelper.list2Array(long[].class, asList(1, 2)));
+        assertArrayEquals(new double[] { 1.5, 2.5 },
+                (double[]) ReflectHelper.list2Array(double[].class,
+                        asList(1.5, 2.5)), 0.0);
+        assertArrayEquals(new boolean[] { true, false },
+                (boolean[]) ReflectHelper.list2Array(boolean[].class,
+                        asList(true, false)));
+        assertArrayEquals(new String[] { "a", "b" },
+                (String[]) ReflectHelper.list2Array(String[].class,
+                        asList("a", "b")));
+        assertArrayEquals(new Integer[] { 1, 2 },
+                (Integer[]) ReflectHelper.list2Array(Integer[].class,
+                        asList(1, 2)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testList2ArrayPrimitiveMismatch() {
+        ReflectHelper.list2Array(int[].class, asList(1, "2"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testList2ArrayReferenceMismatch() {
+        ReflectHelper.list2Array(String[].class, asList("1", 2));
+    }
+
+    @Test
+    public void testList2ArrayWithConverter() {
+        ArrayConverter<BigInteger[]> converter = new ArrayConverter<BigInteger[]>() {
+            @Override
+            public Class<BigInteger[]> getArrayType() {
+                return BigInteger[].class;
+            }
+
+            @Override
+            public BigInteger[] convert(List<?> list) {
+                BigInteger[] dest = new BigInteger[list.size()];
+                for (int i = 0; i < dest.length; ++i) {
+                    dest[i] = new BigInteger(list.get(i).toString());
+                }
+                return dest;
+            }
+        };
+        Map<Class<?>, ArrayConverter<?>> converters = Collections
+                .<Class<?>, ArrayConverter<?>> singletonMap(
+                        converter.getArrayType(), converter);
+        assertArrayEquals(
+                new BigInteger[] { BigInteger.ONE, BigInteger.TEN },
+                (BigInteger[]) ReflectHelper.list2Array(BigInteger[].class,
+                        asList("1", "10"), converters));
+        // Converters apply to nested arrays as well.
+        BigInteger[][] a2 = (BigInteger[][]) ReflectHelper.list2Array(
+                BigInteger[][].class, asList(asList("1"), asList("10")),
+                converters);
+        assertArrayEquals(new BigInteger[] { BigInteger.TEN }, a2[1]);
+    }
+
+    @Test
+    public void testList2ArrayLargeList() {
+        Integer[] boxed = new Integer[1000000];
+        for (int i = 0; i < boxed.length; ++i) {
+            boxed[i] = i;
+        }
+        int[] a = (int[]) ReflectHelper.list2Array(int[].class, asList(boxed));
+        assertEquals(boxed.length, a.length);
+        assertEquals(999999, a[999999]);
+    }
 }
@@ -0,0 +1,34 @@
+package net.sourceforge.argparse4j.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ListResourceBundle;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ResourceBundleCacheTest {
+
+    @Test
+    public void testGetLoadsOncePerLocale() {
+        final AtomicInteger loads = new AtomicInteger();
+        ResourceBundleCache cache = new ResourceBundleCache(locale -> {
+            loads.incrementAndGet();
+            return new ListResourceBundle() {
+                @Override
+                protected Object[][] getContents() {
+                    return new Object[][] { { "locale", locale.toString() } };
+                }
+            };
+        });
+        ResourceBundle en = cache.get(Locale.ENGLISH);
+        assertEquals("en", en.getString("locale"));
+        assertSame(en, cache.get(Locale.ENGLISH));
+        assertEquals(1, loads.get());
+        assertEquals("de", cache.get(Locale.GERMAN).getString("locale"));
+        assertEquals(2, loads.get());
+    }
+}
@@ -92,4 +92,35 @@ public class TextHelperTest {
         StringBuilder s3 = new StringBuilder("The Argparse4j");
         assertEquals("The       Argparse4j", TextHelper.adjustSpace(s3, 20, 14).toString());
     }
+
+    @Test
+    public void testTextWrapCJK() {
+        // Wide characters count 2 columns each.
+        assertEquals(String.format(TextHelper.LOCALE_ROOT,
+                "\u65e5\u672c\u8a9e  abc%n  def"),
+                TextHelper.wrap(new CJKTextWidthCounter(),
+                        "\u65e5\u672c\u8a9e abc def", 11, 0, "", "  "));
+    }
+
+    @Test
+    public void testTextWrapLineSeparators() {
+        assertEquals("alpha\n  bravo\r\n  charlie", TextHelper.wrap(
+                new ASCIITextWidthCounter(), "alpha\nbravo\r\ncharlie", 75,
+                0, "", "  "));
+    }
+
+    @Test
+    public void testAdjustSpaceLongLine() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100000; ++i) {
+            sb.append("a ");
+        }
+        int len = sb.length();
+        TextHelper.adjustSpace(sb, 2 * len, len);
+        // The trailing space is removed and len + 1 spaces are distributed
+        // over 99999 blocks.
+        assertEquals(2 * len, sb.length());
+        assertEquals('a', sb.charAt(0));
+        assertEquals('a', sb.charAt(sb.length() - 1));
+    }
 }
@@ -0,0 +1,65 @@
+package net.sourceforge.argparse4j.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.ParseListener.Phase;
+
+import org.junit.Test;
+
+public class ParseMetricsTest {
+
+    private static ArgumentParser newParser(ParseMetrics metrics) {
+        ArgumentParser parser = ArgumentParsers.newFor("prog")
+                .parseListener(metrics).locale(Locale.US).build();
+        parser.addArgument("--count").type(Integer.class);
+        parser.addArgument("--verbose").action(Arguments.storeTrue());
+        parser.addSubparsers().addParser("run").addArgument("files")
+                .nargs("*");
+        return parser;
+    }
+
+    @Test
+    public void testCounts() throws ArgumentParserException {
+        ParseMetrics metrics = new ParseMetrics();
+        ArgumentParser parser = newParser(metrics);
+        parser.parseArgs(new String[] { "--count", "1", "--verbose", "run",
+                "a", "b" });
+        parser.parseArgs(new String[] { "--count", "2", "run" });
+        try {
+            parser.parseArgs(new String[] { "--count", "x", "run" });
+        } catch (ArgumentParserException e) {
+            // Counted as failed.
+        }
+        assertEquals(3, metrics.getParseCount());
+        assertEquals(1, metrics.getFailedParseCount());
+        assertTrue(metrics.getParseNanos() > 0);
+        assertEquals(Arrays.asList("", "run"),
+                Arrays.asList(metrics.getCommands().toArray()));
+        assertEquals(4, metrics.getCount(Phase.FLAG_RESOLUTION));
+        assertEquals(3, metrics.getCount("", Phase.CONVERSION));
+        assertEquals(2, metrics.getCount("run", Phase.CONVERSION));
+        assertEquals(5, metrics.getCount(Phase.CONVERSION));
+        assertEquals(2, metrics.getSelectionCount("run"));
+        assertEquals(0, metrics.getSelectionCount("other"));
+        assertEquals(0, metrics.getCount("other", Phase.ACTION));
+        assertEquals(metrics.getNanos(Phase.CONVERSION),
+                metrics.getNanos("", Phase.CONVERSION)
+                        + metrics.getNanos("run", Phase.CONVERSION));
+        assertTrue(metrics.toString(), metrics.toString().startsWith(
+                "parses: 3 (1 failed), "));
+        assertTrue(metrics.toString(), metrics.toString().contains(
+                "run                  (selected)                2"));
+
+        metrics.reset();
+        assertEquals(0, metrics.getParseCount());
+        assertEquals(0, metrics.getCount(Phase.CONVERSION));
+        assertTrue(metrics.getCommands().isEmpty());
+    }
+}
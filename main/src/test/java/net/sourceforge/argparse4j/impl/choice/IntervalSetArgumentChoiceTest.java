@@ -0,0 +1,91 @@
+package net.sourceforge.argparse4j.impl.choice;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class IntervalSetArgumentChoiceTest {
+
+    private IntervalSetArgumentChoice choice = IntervalSetArgumentChoice
+            .intBuilder().add(9000, 9100).add(1, 1024).add(8080).build();
+
+    @Test
+    public void testContains() {
+        assertFalse(choice.contains(0));
+        assertTrue(choice.contains(1));
+        assertTrue(choice.contains(1024));
+        assertFalse(choice.contains(1025));
+        assertFalse(choice.contains(8079));
+        assertTrue(choice.contains(8080));
+        assertFalse(choice.contains(8081));
+        assertTrue(choice.contains(9050));
+        assertFalse(choice.contains(9101));
+        assertTrue(choice.contains((Object) 8080));
+        assertFalse(choice.contains((Object) Integer.MIN_VALUE));
+    }
+
+    @Test
+    public void testContainsEmpty() {
+        IntervalSetArgumentChoice empty = IntervalSetArgumentChoice
+                .intBuilder().build();
+        assertFalse(empty.contains(0));
+        assertEquals("{}", empty.textualFormat());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testContainsWithWrongType() {
+        choice.contains(Long.valueOf(10));
+    }
+
+    @Test
+    public void testMerge() {
+        IntervalSetArgumentChoice merged = IntervalSetArgumentChoice
+                .intBuilder().add(5, 10).add(1, 3).add(4).add(8, 20)
+                .add(30, 40).add(35, 36).build();
+        assertEquals(2, merged.getRangeCount());
+        assertEquals("{1-20,30-40}", merged.textualFormat());
+    }
+
+    @Test
+    public void testLongBounds() {
+        IntervalSetArgumentChoice longs = IntervalSetArgumentChoice
+                .longBuilder().add(Long.MAX_VALUE - 1, Long.MAX_VALUE)
+                .add(Long.MIN_VALUE).add(0, Long.MAX_VALUE - 2).build();
+        assertEquals(2, longs.getRangeCount());
+        assertTrue(longs.contains(Long.MAX_VALUE));
+        assertTrue(longs.contains(Long.MIN_VALUE));
+        assertFalse(longs.contains(-1L));
+        assertTrue(longs.contains((Object) 42L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIntOutOfRange() {
+        IntervalSetArgumentChoice.intBuilder().add(0, 1L << 32);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRange() {
+        IntervalSetArgumentChoice.intBuilder().add(10, 1);
+    }
+
+    @Test
+    public void testParse() {
+        assertEquals("{1-1024,8080,9000-9100}", IntervalSetArgumentChoice
+                .parseInts("8080, 9000-9100,1-1024").textualFormat());
+        assertEquals("{-10--1,3}", IntervalSetArgumentChoice
+                .parseLongs("{-10--1,3}").textualFormat());
+        assertEquals(choice.textualFormat(), IntervalSetArgumentChoice
+                .parseInts(choice.textualFormat()).textualFormat());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalid() {
+        IntervalSetArgumentChoice.parseInts("1-a");
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("{1-1024,8080,9000-9100}", choice.toString());
+    }
+
+}
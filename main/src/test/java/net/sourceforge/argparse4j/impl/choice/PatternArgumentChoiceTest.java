@@ -0,0 +1,182 @@
+package net.sourceforge.argparse4j.impl.choice;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class PatternArgumentChoiceTest {
+
+    @Test
+    public void testGlobs() {
+        PatternArgumentChoice choice = PatternArgumentChoice.globs(
+                "*.example.com", "host-??", "db[0-9]", "node[!0-9]",
+                "{alpha,beta}.local", "lit\\*");
+        assertTrue(choice.contains("www.example.com"));
+        assertTrue(choice.contains(".example.com"));
+        assertFalse(choice.contains("example.com"));
+        assertTrue(choice.contains("host-01"));
+        assertFalse(choice.contains("host-1"));
+        assertTrue(choice.contains("db7"));
+        assertFalse(choice.contains("dbx"));
+        assertTrue(choice.contains("nodex"));
+        assertFalse(choice.contains("node1"));
+        assertTrue(choice.contains("alpha.local"));
+        assertTrue(choice.contains("beta.local"));
+        assertFalse(choice.contains("gamma.local"));
+        assertTrue(choice.contains("lit*"));
+        assertFalse(choice.contains("litx"));
+    }
+
+    @Test
+    public void testRegexes() {
+        PatternArgumentChoice choice = PatternArgumentChoice.regexes(
+                "^v\\d+(\\.\\d+){0,2}$", "(?:foo|bar)+", "[a-f0-9]{4}",
+                "x.*?y", "\\w+@\\w+");
+        assertTrue(choice.contains("v1"));
+        assertTrue(choice.contains("v1.2.3"));
+        assertFalse(choice.contains("v1.2.3.4"));
+        assertTrue(choice.contains("foobarfoo"));
+        assertFalse(choice.contains(""));
+        assertTrue(choice.contains("beef"));
+        assertFalse(choice.contains("beefy"));
+        assertTrue(choice.contains("x-anything-y"));
+        assertTrue(choice.contains("me@host"));
+        assertFalse(choice.contains("me@"));
+    }
+
+    @Test
+    public void testNonAscii() {
+        PatternArgumentChoice choice = PatternArgumentChoice.globs("ét?",
+                "[あ-ん]*", "😀?");
+        assertTrue(choice.contains("été"));
+        assertTrue(choice.contains("あい"));
+        assertFalse(choice.contains("ア"));
+        assertTrue(choice.contains("😀x"));
+        assertFalse(choice.contains("😀"));
+    }
+
+    @Test
+    public void testManyPatterns() {
+        String[] globs = new String[300];
+        Pattern[] regexes = new Pattern[globs.length];
+        for (int i = 0; i < globs.length; ++i) {
+            globs[i] = (i % 10 == 0 ? "*." : "") + "svc" + i
+                    + "-[0-9][0-9].example.com";
+            regexes[i] = Pattern.compile((i % 10 == 0 ? ".*\\." : "") + "svc"
+                    + i + "-[0-9][0-9]\\.example\\.com");
+        }
+        PatternArgumentChoice choice = PatternArgumentChoice.globs(globs);
+        for (int i = 0; i < 400; ++i) {
+            for (String value : new String[] { "svc" + i + "-42.example.com",
+                    "a.svc" + i + "-07.example.com",
+                    "svc" + i + "-4.example.com" }) {
+                boolean expected = false;
+                for (Pattern regex : regexes) {
+                    expected |= regex.matcher(value).matches();
+                }
+                assertEquals(value, expected, choice.contains(value));
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentMatches() throws Exception {
+        String[] globs = new String[300];
+        for (int i = 0; i < globs.length; ++i) {
+            globs[i] = "*svc" + i + "-*[0-9].example.com";
+        }
+        final PatternArgumentChoice choice = PatternArgumentChoice
+                .globs(globs);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 4; ++t) {
+                final int offset = t;
+                results.add(executor.submit(() -> {
+                    int matched = 0;
+                    for (int i = 0; i < 400; ++i) {
+                        int n = (i + offset * 100) % 400;
+                        if (choice.contains("a.svc" + n + "-x7.example.com")) {
+                            ++matched;
+                        }
+                    }
+                    return matched;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(Integer.valueOf(300), result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        PatternArgumentChoice choice = new PatternArgumentChoice(
+                PatternArgumentChoice.Syntax.GLOB,
+                Collections.<String> emptyList());
+        assertFalse(choice.contains("a"));
+        assertFalse(choice.contains(""));
+    }
+
+    @Test
+    public void testClosestPatterns() {
+        PatternArgumentChoice choice = PatternArgumentChoice.globs(
+                "*.example.com", "api.internal", "api-v[0-9]", "db[0-9]");
+        assertEquals(Arrays.asList("api-v[0-9]"),
+                choice.closestPatterns("api-vx"));
+        assertEquals(Arrays.asList("api.internal"),
+                choice.closestPatterns("api.inter"));
+        assertEquals(Arrays.asList("*.example.com"),
+                choice.closestPatterns("www.example.co"));
+        assertEquals(Arrays.asList("api.internal", "api-v[0-9]"),
+                choice.closestPatterns("api"));
+        assertEquals("{api.internal,api-v[0-9]}",
+                choice.formatClosestPatterns("api"));
+    }
+
+    @Test
+    public void testFormatClosestPatternsIsCapped() {
+        PatternArgumentChoice choice = PatternArgumentChoice.globs("a", "b",
+                "c", "d", "e", "f");
+        assertEquals("{a,b,c,d,e,...}", choice.formatClosestPatterns("z"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testContainsWithWrongType() {
+        PatternArgumentChoice.globs("*").contains(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBackReferenceIsRejected() {
+        PatternArgumentChoice.regexes("(a)\\1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLookaheadIsRejected() {
+        PatternArgumentChoice.regexes("(?=a)a");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnclosedClassIsRejected() {
+        PatternArgumentChoice.globs("[abc");
+    }
+
+    @Test
+    public void testTextualFormat() {
+        assertEquals("{*.txt,*.md}",
+                PatternArgumentChoice.globs("*.txt", "*.md").textualFormat());
+    }
+}
@@ -0,0 +1,76 @@
+package net.sourceforge.argparse4j.impl.type;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Locale;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.mock.MockArgument;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DoubleArgumentTypeTest {
+
+    private ArgumentParser ap;
+    private MockArgument ma;
+
+    @Before
+    public void setup() {
+        ap = ArgumentParsers.newFor("argparse4j").locale(Locale.US).build();
+        ma = new MockArgument();
+    }
+
+    @Test
+    public void testConvert() throws ArgumentParserException {
+        DoubleArgumentType t = new DoubleArgumentType();
+        assertEquals(1.5, t.convertToDouble(ap, ma, "1.5"), 0);
+        assertEquals(-0.5, t.convertToDouble(ap, ma, "-.5"), 0);
+        assertEquals(2.0, t.convertToDouble(ap, ma, "2."), 0);
+        assertEquals(1.5e-3, t.convertToDouble(ap, ma, "1.5E-3"), 0);
+        assertEquals(1000.25, t.convertToDouble(ap, ma, "1_000.2_5"), 0);
+        assertEquals(1e10, t.convertToDouble(ap, ma, "1e1_0"), 0);
+        assertEquals(3.0, t.convertToDouble(ap, ma, "0x1.8p1"), 0);
+        assertEquals(0.1, t.convertToDouble(ap, ma, "0.1"), 0);
+        assertEquals(Double.NEGATIVE_INFINITY,
+                t.convertToDouble(ap, ma, "-Infinity"), 0);
+        assertTrue(Double.isNaN(t.convertToDouble(ap, ma, "NaN")));
+    }
+
+    @Test
+    public void testConvertInvalidSyntax() {
+        DoubleArgumentType t = new DoubleArgumentType();
+        for (String value : new String[] { "", ".", "1e", "1.5f", "1d",
+                " 1", "_1", "1_", "1_.5", "1._5", "1e_5", "0x1.8", "1..2",
+                "inf" }) {
+            try {
+                t.convert(ap, ma, value);
+                fail(value);
+            } catch (ArgumentParserException e) {
+                assertEquals("argument null: could not convert '" + value
+                        + "' to number (double precision)", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testConvertWithRange() throws ArgumentParserException {
+        DoubleArgumentType t = new DoubleArgumentType(0.0, 1.0);
+        assertEquals(1.0, t.convertToDouble(ap, ma, "1"), 0);
+        for (String value : new String[] { "1.0001", "NaN", "-0.1" }) {
+            try {
+                t.convert(ap, ma, value);
+                fail(value);
+            } catch (ArgumentParserException e) {
+                assertEquals("argument null: invalid choice: '" + value
+                        + "' (choose from {0.0..1.0})", e.getMessage());
+            }
+        }
+        assertArrayEquals(new String[] { "{0.0..1.0}" }, t.inferMetavar());
+    }
+}
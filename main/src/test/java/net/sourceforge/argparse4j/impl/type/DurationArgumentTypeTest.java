@@ -0,0 +1,93 @@
+package net.sourceforge.argparse4j.impl.type;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.mock.MockArgument;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DurationArgumentTypeTest {
+
+    private ArgumentParser ap;
+    private MockArgument ma;
+
+    @Before
+    public void setup() {
+        ap = ArgumentParsers.newFor("argparse4j").locale(Locale.US).build();
+        ma = new MockArgument();
+    }
+
+    @Test
+    public void testConvert() throws ArgumentParserException {
+        DurationArgumentType t = new DurationArgumentType();
+        assertEquals(Duration.ofMillis(250), t.convert(ap, ma, "250ms"));
+        assertEquals(Duration.ofMinutes(90), t.convert(ap, ma, "1h30m"));
+        assertEquals(Duration.ofMinutes(90), t.convert(ap, ma, "1.5h"));
+        assertEquals(Duration.ofDays(2).plusSeconds(5),
+                t.convert(ap, ma, "2d5s"));
+        assertEquals(Duration.ofNanos(1_001_001),
+                t.convert(ap, ma, "1ms1us1ns"));
+        assertEquals(Duration.ofNanos(3000), t.convert(ap, ma, "3µs"));
+        assertEquals(Duration.ofSeconds(1000), t.convert(ap, ma, "1_000s"));
+        assertEquals(Duration.ofMinutes(90), t.convert(ap, ma, "PT1H30M"));
+        assertEquals(1_500_000_000L, t.convertToNanos(ap, ma, "1.5s"));
+        assertEquals(Long.valueOf(2_000L), t.nanos().convert(ap, ma, "2us"));
+    }
+
+    @Test
+    public void testConvertWithDefaultUnit() throws ArgumentParserException {
+        DurationArgumentType t = new DurationArgumentType(TimeUnit.SECONDS);
+        assertEquals(Duration.ofSeconds(30), t.convert(ap, ma, "30"));
+        assertEquals(Duration.ofMillis(2500), t.convert(ap, ma, "2.5"));
+        assertEquals(Duration.ofMinutes(2), t.convert(ap, ma, "2m"));
+        try {
+            t.convert(ap, ma, "1m30");
+            fail();
+        } catch (ArgumentParserException e) {
+            assertEquals("argument null: could not convert '1m30' to duration",
+                    e.getMessage());
+        }
+    }
+
+    @Test
+    public void testConvertInvalidSyntax() {
+        DurationArgumentType t = new DurationArgumentType();
+        for (String value : new String[] { "", "30", "h", "1x", "1m1h",
+                "1s1s", "1.5ns", "-1s", "1 s", "1u", "PT-1S", "P1X" }) {
+            try {
+                t.convert(ap, ma, value);
+                fail(value);
+            } catch (ArgumentParserException e) {
+                assertEquals("argument null: could not convert '" + value
+                        + "' to duration", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testConvertTooLong() {
+        try {
+            new DurationArgumentType().convert(ap, ma, "300000d");
+            fail();
+        } catch (ArgumentParserException e) {
+            assertEquals("argument null: invalid choice: '300000d' (choose"
+                    + " from {0ns..9223372036854775807ns})", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testInferMetavar() {
+        assertArrayEquals(new String[] { "[Nd][Nh][Nm][Ns][Nms][Nus][Nns]" },
+                new DurationArgumentType().inferMetavar());
+    }
+}
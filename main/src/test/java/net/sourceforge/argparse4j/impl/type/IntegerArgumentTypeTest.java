@@ -0,0 +1,103 @@
+package net.sourceforge.argparse4j.impl.type;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.Locale;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.mock.MockArgument;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class IntegerArgumentTypeTest {
+
+    private ArgumentParser ap;
+    private MockArgument ma;
+
+    @Before
+    public void setup() {
+        ap = ArgumentParsers.newFor("argparse4j").locale(Locale.US).build();
+        ma = new MockArgument();
+    }
+
+    @Test
+    public void testConvert() throws ArgumentParserException {
+        IntegerArgumentType t = new IntegerArgumentType();
+        assertEquals(Integer.valueOf(42), t.convert(ap, ma, "42"));
+        assertEquals(Integer.valueOf(-42), t.convert(ap, ma, "-42"));
+        assertEquals(Integer.valueOf(42), t.convert(ap, ma, "+42"));
+        assertEquals(Integer.valueOf(10), t.convert(ap, ma, "010"));
+        assertEquals(Integer.valueOf(255), t.convert(ap, ma, "0xff"));
+        assertEquals(Integer.valueOf(-255), t.convert(ap, ma, "-0XFF"));
+        assertEquals(Integer.valueOf(8), t.convert(ap, ma, "0o10"));
+        assertEquals(Integer.valueOf(5), t.convert(ap, ma, "0b101"));
+        assertEquals(Integer.valueOf(1000000), t.convert(ap, ma, "1_000_000"));
+        assertEquals(Integer.valueOf(0xcafe), t.convert(ap, ma, "0xca_fe"));
+        assertEquals(Integer.MAX_VALUE, t.convertToInt(ap, ma, "2147483647"));
+        assertEquals(Integer.MIN_VALUE, t.convertToInt(ap, ma, "-2147483648"));
+    }
+
+    @Test
+    public void testConvertInvalidSyntax() {
+        IntegerArgumentType t = new IntegerArgumentType();
+        for (String value : new String[] { "", "-", "0x", "1.0", "_1", "1_",
+                "1__0", "0x_1", "0b102", "12a", " 1", "١٢" }) {
+            try {
+                t.convert(ap, ma, value);
+                fail(value);
+            } catch (ArgumentParserException e) {
+                assertEquals("argument null: could not convert '" + value
+                        + "' to integer (32 bits)", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testConvertOutOfRange() {
+        IntegerArgumentType t = new IntegerArgumentType();
+        for (String value : new String[] { "2147483648", "-2147483649",
+                "0xffffffff", "99999999999999999999" }) {
+            try {
+                t.convert(ap, ma, value);
+                fail(value);
+            } catch (ArgumentParserException e) {
+                assertEquals("argument null: invalid choice: '" + value
+                        + "' (choose from {-2147483648..2147483647})",
+                        e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testConvertWithRange() throws ArgumentParserException {
+        IntegerArgumentType t = new IntegerArgumentType(1, 65535);
+        assertEquals(Integer.valueOf(1), t.convert(ap, ma, "1"));
+        assertEquals(Integer.valueOf(65535), t.convert(ap, ma, "0xffff"));
+        try {
+            t.convert(ap, ma, "0");
+            fail();
+        } catch (ArgumentParserException e) {
+            assertEquals(
+                    "argument null: invalid choice: '0' (choose from {1..65535})",
+                    e.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRange() {
+        new IntegerArgumentType(2, 1);
+    }
+
+    @Test
+    public void testInferMetavar() {
+        assertNull(new IntegerArgumentType().inferMetavar());
+        assertArrayEquals(new String[] { "{1..65535}" },
+                new IntegerArgumentType(1, 65535).inferMetavar());
+    }
+}
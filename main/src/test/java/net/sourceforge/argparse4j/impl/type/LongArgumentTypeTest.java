@@ -0,0 +1,77 @@
+package net.sourceforge.argparse4j.impl.type;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Locale;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.mock.MockArgument;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class LongArgumentTypeTest {
+
+    private ArgumentParser ap;
+    private MockArgument ma;
+
+    @Before
+    public void setup() {
+        ap = ArgumentParsers.newFor("argparse4j").locale(Locale.US).build();
+        ma = new MockArgument();
+    }
+
+    @Test
+    public void testConvert() throws ArgumentParserException {
+        LongArgumentType t = new LongArgumentType();
+        assertEquals(Long.valueOf(4294967296L), t.convert(ap, ma, "4294967296"));
+        assertEquals(Long.MAX_VALUE, t.convertToLong(ap, ma,
+                "9_223_372_036_854_775_807"));
+        assertEquals(Long.MIN_VALUE, t.convertToLong(ap, ma,
+                "-9223372036854775808"));
+        assertEquals(Long.MAX_VALUE, t.convertToLong(ap, ma,
+                "0x7fff_ffff_ffff_ffff"));
+        assertEquals(Long.MIN_VALUE, t.convertToLong(ap, ma,
+                "-0x8000000000000000"));
+        assertEquals(0777L, t.convertToLong(ap, ma, "0o777"));
+    }
+
+    @Test
+    public void testConvertOverflow() {
+        LongArgumentType t = new LongArgumentType();
+        try {
+            t.convert(ap, ma, "9223372036854775808");
+            fail();
+        } catch (ArgumentParserException e) {
+            assertEquals("argument null: invalid choice: '9223372036854775808'"
+                    + " (choose from {-9223372036854775808..9223372036854775807})",
+                    e.getMessage());
+        }
+        // Syntax errors take precedence over overflow.
+        try {
+            t.convert(ap, ma, "99999999999999999999x");
+            fail();
+        } catch (ArgumentParserException e) {
+            assertEquals("argument null: could not convert"
+                    + " '99999999999999999999x' to integer (64 bits)",
+                    e.getMessage());
+        }
+    }
+
+    @Test
+    public void testConvertWithRange() throws ArgumentParserException {
+        LongArgumentType t = new LongArgumentType(0, 0xffffffffL);
+        assertEquals(Long.valueOf(0xffffffffL), t.convert(ap, ma, "0xffffffff"));
+        try {
+            t.convert(ap, ma, "-1");
+            fail();
+        } catch (ArgumentParserException e) {
+            assertEquals(
+                    "argument null: invalid choice: '-1' (choose from {0..4294967295})",
+                    e.getMessage());
+        }
+    }
+}
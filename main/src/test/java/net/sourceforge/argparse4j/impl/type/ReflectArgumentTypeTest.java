@@ -24,10 +24,14 @@
 package net.sourceforge.argparse4j.impl.type;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.Locale;
 
 import net.sourceforge.argparse4j.ArgumentParsers;
@@ -186,6 +190,43 @@ public class ReflectArgumentTypeTest {
         }
     }
 
+    @Test
+    public void testConvertJdkTypes() throws ArgumentParserException {
+        ArgumentParser ap = ArgumentParsers.newFor("argparse4j")
+                .locale(Locale.US).build();
+        assertEquals(Long.valueOf(-5), createRA(Long.class).convert(null, null, "-5"));
+        assertEquals((Short) (short) 7, createRA(Short.class).convert(null, null, "7"));
+        assertEquals((Byte) (byte) 7, createRA(Byte.class).convert(null, null, "7"));
+        assertEquals(1.5, createRA(Double.class).convert(null, null, "1.5"), 0);
+        assertEquals(1.5f, createRA(Float.class).convert(null, null, "1.5"), 0);
+        assertEquals(Boolean.TRUE, createRA(Boolean.class).convert(null, null, "TRUE"));
+        assertEquals(Boolean.FALSE, createRA(Boolean.class).convert(null, null, "yes"));
+        assertEquals("foo", createRA(String.class).convert(null, null, "foo"));
+        assertEquals(new BigInteger("123456789012345678901234567890"),
+                createRA(BigInteger.class).convert(null, null,
+                        "123456789012345678901234567890"));
+        assertEquals(new BigDecimal("1.50"),
+                createRA(BigDecimal.class).convert(null, null, "1.50"));
+        try {
+            createRA(Byte.class).convert(ap, ma, "300");
+            fail();
+        } catch (ArgumentParserException e) {
+            assertEquals("argument null: could not convert '300' to integer (8 bits)",
+                    e.getMessage());
+            assertTrue(e.getCause() instanceof NumberFormatException);
+        }
+    }
+
+    @Test
+    public void testRequiresReflection() {
+        assertFalse(createRA(Integer.class).requiresReflection());
+        assertFalse(createRA(BigDecimal.class).requiresReflection());
+        assertFalse(createRA(Lang.class).requiresReflection());
+        assertTrue(createRA(NonStringValueOf.class).requiresReflection());
+        assertTrue(createRA(StringBuilder.class).requiresReflection());
+        assertSame(StringBuilder.class, createRA(StringBuilder.class).getType());
+    }
+
     @Test
     public void testConvertNonStringValueOf() throws ArgumentParserException {
         ReflectArgumentType<NonStringValueOf> at = createRA(NonStringValueOf.class);
@@ -0,0 +1,84 @@
+package net.sourceforge.argparse4j.impl.type;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Locale;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.mock.MockArgument;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SizeArgumentTypeTest {
+
+    private ArgumentParser ap;
+    private MockArgument ma;
+
+    @Before
+    public void setup() {
+        ap = ArgumentParsers.newFor("argparse4j").locale(Locale.US).build();
+        ma = new MockArgument();
+    }
+
+    @Test
+    public void testConvert() throws ArgumentParserException {
+        SizeArgumentType t = new SizeArgumentType();
+        assertEquals(Long.valueOf(100), t.convert(ap, ma, "100"));
+        assertEquals(100L, t.convertToBytes(ap, ma, "100B"));
+        assertEquals(512L << 20, t.convertToBytes(ap, ma, "512MiB"));
+        assertEquals(512L << 20, t.convertToBytes(ap, ma, "512mi"));
+        assertEquals(4L << 30, t.convertToBytes(ap, ma, "4G"));
+        assertEquals(4L << 30, t.convertToBytes(ap, ma, "4g"));
+        assertEquals(4000000000L, t.convertToBytes(ap, ma, "4GB"));
+        assertEquals(1000L, t.convertToBytes(ap, ma, "1kB"));
+        assertEquals(1536L, t.convertToBytes(ap, ma, "1.5KiB"));
+        assertEquals(2500000L, t.convertToBytes(ap, ma, "2.5MB"));
+        assertEquals(1_000_000L, t.convertToBytes(ap, ma, "1_000_000"));
+        assertEquals(1L << 60, t.convertToBytes(ap, ma, "1EiB"));
+        assertEquals(7L << 60, t.convertToBytes(ap, ma, "7E"));
+    }
+
+    @Test
+    public void testConvertInvalidSyntax() {
+        SizeArgumentType t = new SizeArgumentType();
+        for (String value : new String[] { "", "B", "KiB", "-1", "1 KiB",
+                "1KiBB", "1XB", "0.5B", "1_", "_1", "1.2.3" }) {
+            try {
+                t.convert(ap, ma, value);
+                fail(value);
+            } catch (ArgumentParserException e) {
+                assertEquals("argument null: could not convert '" + value
+                        + "' to size in bytes", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testConvertOutOfRange() {
+        try {
+            new SizeArgumentType().convert(ap, ma, "8EiB");
+            fail();
+        } catch (ArgumentParserException e) {
+            assertEquals("argument null: invalid choice: '8EiB' (choose from"
+                    + " {0..9223372036854775807})", e.getMessage());
+        }
+        try {
+            new SizeArgumentType(1 << 20, 1 << 30).convert(ap, ma, "2G");
+            fail();
+        } catch (ArgumentParserException e) {
+            assertEquals("argument null: invalid choice: '2G' (choose from"
+                    + " {1048576..1073741824})", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testInferMetavar() {
+        assertArrayEquals(new String[] { "N[{K,M,G,T,P,E}[i]][B]" },
+                new SizeArgumentType().inferMetavar());
+    }
+}
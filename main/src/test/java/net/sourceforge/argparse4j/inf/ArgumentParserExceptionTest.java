@@ -0,0 +1,129 @@
+package net.sourceforge.argparse4j.inf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+
+import org.junit.Test;
+
+public class ArgumentParserExceptionTest {
+
+    private final ArgumentParser ap = ArgumentParsers.newFor("argparse4j")
+            .locale(Locale.US).build();
+
+    @Test
+    public void testMessageIsFormattedLazily() {
+        final AtomicInteger calls = new AtomicInteger();
+        Object value = new Object() {
+            @Override
+            public String toString() {
+                calls.incrementAndGet();
+                return "x";
+            }
+        };
+        Argument arg = ap.addArgument("--foo");
+        ArgumentParserException e = new ArgumentParserException(ap, arg,
+                "invalidChoiceError", value, "{a,b}");
+        assertEquals(0, calls.get());
+        assertEquals("argument --foo: invalid choice: 'x' (choose from {a,b})",
+                e.getMessage());
+        assertEquals(e.getMessage(), e.getMessage());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testChoicesAreFormattedLazily() {
+        final AtomicInteger calls = new AtomicInteger();
+        ap.addArgument("--foo").choices(new ArgumentChoice() {
+            @Override
+            public boolean contains(Object val) {
+                return false;
+            }
+
+            @Override
+            public String textualFormat() {
+                calls.incrementAndGet();
+                return "{a,b}";
+            }
+        });
+        try {
+            ap.parseArgs(new String[] { "--foo", "x" });
+            fail();
+        } catch (ArgumentParserException e) {
+            assertEquals(0, calls.get());
+            assertEquals("argument --foo: invalid choice: 'x' "
+                    + "(choose from {a,b})", e.getMessage());
+            assertEquals(1, calls.get());
+        }
+    }
+
+    @Test
+    public void testMessage() {
+        assertEquals("too few arguments", new ArgumentParserException(ap,
+                null, "tooFewArgumentsError").getMessage());
+        assertEquals("argument --foo: bar", new ArgumentParserException(
+                "bar", ap, ap.addArgument("--foo")).getMessage());
+        assertEquals("bar", new ArgumentParserException("bar", ap)
+                .getMessage());
+        assertNull(new ArgumentParserException(ap).getMessage());
+    }
+
+    @Test
+    public void testSerializeResolvesMessage() throws Exception {
+        ArgumentParserException e = new ArgumentParserException(ap,
+                ap.addArgument("--foo"), "expectedNArgumentsError", 2);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(e);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            ArgumentParserException read = (ArgumentParserException) in
+                    .readObject();
+            assertEquals(e.getMessage(), read.getMessage());
+            assertNull(read.getParser());
+        }
+    }
+
+    @Test
+    public void testStackTrace() {
+        ArgumentParserException e = new ArgumentParserException(ap, null,
+                "tooFewArgumentsError");
+        StackTraceElement top = e.getStackTrace()[0];
+        assertEquals(getClass().getName(), top.getClassName());
+        assertEquals("testStackTrace", top.getMethodName());
+    }
+
+    @Test
+    public void testStackTraceDisabled() {
+        ArgumentParser parser = ArgumentParsers.newFor("argparse4j")
+                .stackTraceEnabled(false).build();
+        parser.addArgument("--foo").type(Integer.class);
+        assertFalse(parser.getConfig().isStackTraceEnabled());
+        try {
+            parser.parseArgs(new String[] { "--foo", "x" });
+            fail();
+        } catch (ArgumentParserException e) {
+            assertEquals(0, e.getStackTrace().length);
+            assertTrue(e.getMessage().startsWith("argument --foo: "));
+        }
+        ArgumentParser sub = parser.addSubparsers().addParser("sub");
+        try {
+            sub.parseArgs(new String[] { "-x" });
+            fail();
+        } catch (ArgumentParserException e) {
+            assertEquals(0, e.getStackTrace().length);
+        }
+    }
+}
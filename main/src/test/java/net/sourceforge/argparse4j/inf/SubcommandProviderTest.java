@@ -0,0 +1,120 @@
+package net.sourceforge.argparse4j.inf;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+
+public class SubcommandProviderTest {
+
+    private static final AtomicInteger checkoutInitialized = new AtomicInteger();
+
+    public static class CheckoutProvider implements SubcommandProvider {
+        @Override
+        public String getCommand() {
+            return "checkout";
+        }
+
+        @Override
+        public String getHelp() {
+            return "switch branches";
+        }
+
+        @Override
+        public String[] getAliases() {
+            return new String[] { "co" };
+        }
+
+        @Override
+        public void define(Subparser subparser) {
+            CheckoutCommand.define(subparser);
+        }
+    }
+
+    /**
+     * Stands for the classes of a plug-in, which are only initialized when
+     * the sub-command is defined.
+     */
+    static class CheckoutCommand {
+        static {
+            checkoutInitialized.incrementAndGet();
+        }
+
+        static void define(Subparser subparser) {
+            subparser.addArgument("branch");
+        }
+    }
+
+    public static class RemoveProvider implements SubcommandProvider {
+        static final AtomicInteger defined = new AtomicInteger();
+
+        @Override
+        public String getCommand() {
+            return "remove";
+        }
+
+        @Override
+        public void define(Subparser subparser) {
+            defined.incrementAndGet();
+            subparser.addArgument("file");
+        }
+    }
+
+    @Test
+    public void testAddProviders() throws ArgumentParserException {
+        ArgumentParser ap = ArgumentParsers.newFor("prog")
+                .terminalWidthDetection(false).build();
+        ap.addSubparsers().dest("command").addProviders();
+
+        assertEquals("usage: prog [-h] {checkout,co,remove} ...\n"
+                + "\n"
+                + "positional arguments:\n"
+                + "  {checkout,co,remove}\n"
+                + "    checkout (co)        switch branches\n"
+                + "\n"
+                + "named arguments:\n"
+                + "  -h, --help             show this help message and exit\n",
+                ap.formatHelp());
+        assertEquals(0, RemoveProvider.defined.get());
+
+        Namespace res = ap.parseArgs(new String[] { "remove", "a.txt" });
+        assertEquals("remove", res.get("command"));
+        assertEquals("a.txt", res.get("file"));
+        assertEquals(1, RemoveProvider.defined.get());
+        assertEquals(0, checkoutInitialized.get());
+
+        res = ap.parseArgs(new String[] { "co", "main" });
+        assertEquals("checkout", res.get("command"));
+        assertEquals("main", res.get("branch"));
+        assertEquals(1, checkoutInitialized.get());
+        assertEquals(1, RemoveProvider.defined.get());
+    }
+
+    @Test
+    public void testAddProvidersIterable() throws ArgumentParserException {
+        ArgumentParser ap = ArgumentParsers.newFor("prog").build();
+        SubcommandProvider provider = new SubcommandProvider() {
+            @Override
+            public String getCommand() {
+                return "sync";
+            }
+
+            @Override
+            public void define(Subparser subparser) {
+                subparser.addArgument("--all")
+                        .action(Arguments.storeTrue());
+            }
+        };
+        ap.addSubparsers().addProviders(asList(provider));
+        assertTrue(ap.parseArgs(new String[] { "sync", "--all" })
+                .getBoolean("all"));
+        assertFalse(ap.parseArgs(new String[] { "sync" }).getBoolean("all"));
+    }
+}
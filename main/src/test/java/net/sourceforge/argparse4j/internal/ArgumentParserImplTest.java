@@ -39,6 +39,7 @@ import static org.junit.Assert.*;
 
 import java.io.FileInputStream;
 import java.io.PrintWriter;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -50,13 +51,19 @@ import net.sourceforge.argparse4j.annotation.Arg;
 import net.sourceforge.argparse4j.helper.HelpScreenException;
 import net.sourceforge.argparse4j.helper.TextHelper;
 import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.impl.choice.DynamicArgumentChoice;
+import net.sourceforge.argparse4j.impl.choice.PatternArgumentChoice;
 import net.sourceforge.argparse4j.inf.Argument;
 import net.sourceforge.argparse4j.inf.ArgumentAction;
 import net.sourceforge.argparse4j.inf.ArgumentGroup;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
 import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.ArrayConverter;
 import net.sourceforge.argparse4j.inf.MutuallyExclusiveGroup;
 import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.ParseDiagnostic;
+import net.sourceforge.argparse4j.inf.ParseListener;
+import net.sourceforge.argparse4j.inf.ParseResult;
 import net.sourceforge.argparse4j.inf.Subparser;
 import net.sourceforge.argparse4j.inf.Subparsers;
 import net.sourceforge.argparse4j.internal.ArgumentParserImpl.Candidate;
@@ -122,6 +129,20 @@ public class ArgumentParserImplTest {
         }
     }
 
+    @Test
+    public void testPatternChoiceReportsClosestPatterns() throws ArgumentParserException {
+        ap.addArgument("--host").choices(
+                PatternArgumentChoice.globs("*.example.com", "db[0-9]"));
+        assertEquals("db1", ap.parseArgs("--host db1".split(" ")).get("host"));
+        try {
+            ap.parseArgs("--host dbx".split(" "));
+            fail();
+        } catch(ArgumentParserException e) {
+            assertEquals("argument --host: invalid choice: 'dbx' (closest patterns: {db[0-9]})",
+                         e.getMessage());
+        }
+    }
+
     @Test
     public void testRequiredNamedArgWithSubcommand() {
         ap.addArgument("--foo").required(true);
@@ -1057,6 +1078,150 @@ public class ArgumentParserImplTest {
         
     }
 
+    @Test
+    public void testParseArgsWithUserDataArrayConverter()
+            throws ArgumentParserException {
+        class Out {
+            @Arg
+            BigInteger[] nums;
+            @Arg
+            long[] sizes;
+        }
+        ArgumentParser parser = ArgumentParsers.newFor("argparse4j")
+                .arrayConverter(new ArrayConverter<BigInteger[]>() {
+                    @Override
+                    public Class<BigInteger[]> getArrayType() {
+                        return BigInteger[].class;
+                    }
+
+                    @Override
+                    public BigInteger[] convert(List<?> list) {
+                        BigInteger[] dest = new BigInteger[list.size()];
+                        for (int i = 0; i < dest.length; ++i) {
+                            dest[i] = new BigInteger((String) list.get(i));
+                        }
+                        return dest;
+                    }
+                }).build();
+        parser.addArgument("--nums").nargs("*");
+        parser.addArgument("--sizes").nargs("*").type(Long.class);
+        Out out = new Out();
+        parser.parseArgs("--nums 1 10 --sizes 2 3".split(" "), out);
+        assertArrayEquals(new BigInteger[] { BigInteger.ONE, BigInteger.TEN },
+                out.nums);
+        assertArrayEquals(new long[] { 2L, 3L }, out.sizes);
+    }
+
+    @Test
+    public void testFormatWidth() {
+        ArgumentParserImpl parser = (ArgumentParserImpl) ArgumentParsers
+                .newFor("argparse4j").terminalWidthDetection(false)
+                .defaultFormatWidth(42).build();
+        assertEquals(42,
+                ((ArgumentParserConfigurationImpl) parser.getConfig())
+                        .getFormatWidth());
+        parser = (ArgumentParserImpl) ArgumentParsers.newFor("argparse4j")
+                .terminalWidthDetection(true).build();
+        assertTrue(((ArgumentParserConfigurationImpl) parser.getConfig())
+                .getFormatWidth() > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveDefaultFormatWidth() {
+        ArgumentParsers.newFor("argparse4j").terminalWidthDetection(true)
+                .defaultFormatWidth(0).build();
+    }
+
+    @Test
+    public void testFormatCache() {
+        ArgumentParserImpl parser = (ArgumentParserImpl) ap;
+        Argument foo = ap.addArgument("--foo");
+        String help = ap.formatHelp();
+        long misses = parser.getFormatCacheMisses();
+        assertSame(help, ap.formatHelp());
+        assertEquals(misses, parser.getFormatCacheMisses());
+        assertEquals(1, parser.getFormatCacheHits());
+        String usage = ap.formatUsage();
+        assertSame(usage, ap.formatUsage());
+
+        foo.help("foo help");
+        String help2 = ap.formatHelp();
+        assertNotEquals(help, help2);
+        assertTrue(help2.contains("foo help"));
+
+        ap.addArgument("--bar");
+        assertTrue(ap.formatUsage().contains("[--bar BAR]"));
+
+        // Usage of a subparser includes the arguments of its parent.
+        Subparser sub = ap.addSubparsers().addParser("sub");
+        String subUsage = sub.formatUsage();
+        assertSame(subUsage, sub.formatUsage());
+        ap.addArgument("file");
+        assertTrue(sub.formatUsage().contains("file sub"));
+    }
+
+    @Test
+    public void testFormatCacheWithDynamicText() {
+        List<String> branches = new ArrayList<>(asList("main"));
+        ap.addArgument("branch").choices(
+                new DynamicArgumentChoice<>(() -> branches));
+        Subparser sub = ap.addSubparsers().addParser("sub");
+        String[] metavar = { "X" };
+        sub.addArgument("--x").metavarSupplier(() -> metavar.clone());
+        assertTrue(ap.formatUsage().contains("{main}"));
+        assertTrue(sub.formatUsage().contains("[--x X]"));
+        branches.add("dev");
+        metavar[0] = "Y";
+        assertTrue(ap.formatUsage().contains("{main,dev}"));
+        assertTrue(ap.formatHelp().contains("{main,dev}"));
+        assertTrue(sub.formatUsage().contains("[--x Y]"));
+        assertEquals(0, ((ArgumentParserImpl) ap).getFormatCacheHits());
+    }
+
+    @Test
+    public void testFormatCacheWithTextSuppliers() {
+        String[] text = { "one" };
+        ap.descriptionSupplier(() -> "description " + text[0])
+                .epilogSupplier(() -> "epilog " + text[0]);
+        ap.addArgumentGroup("group")
+                .descriptionSupplier(() -> "group " + text[0]);
+        ap.addArgument("--foo").helpSupplier(() -> "foo " + text[0]);
+        ap.addSubparsers().addParser("sub")
+                .helpSupplier(() -> "sub " + text[0]);
+        ap.formatHelp();
+        text[0] = "two";
+        String help = ap.formatHelp();
+        for (String s : asList("description", "epilog", "group", "foo",
+                "sub")) {
+            assertTrue(help, help.contains(s + " two"));
+        }
+        assertEquals(0, ((ArgumentParserImpl) ap).getFormatCacheHits());
+    }
+
+    @Test
+    public void testFormatCacheWithLocalizedHelp() {
+        ap.formatHelp();
+        ap.formatHelp();
+        assertEquals(1, ((ArgumentParserImpl) ap).getFormatCacheHits());
+    }
+
+    @Test
+    public void testConfigProg() {
+        Subparser sub = ap.addSubparsers().addParser("sub");
+        assertEquals("argparse4j", ap.getConfig().getProg());
+        assertEquals("argparse4j", sub.getConfig().getProg());
+    }
+
+    @Test
+    public void testDefaultHelpIsLocalizedLazily() {
+        ArgumentParserImpl parser = (ArgumentParserImpl) ArgumentParsers
+                .newFor("argparse4j").terminalWidthDetection(false)
+                .locale(Locale.GERMAN).build();
+        String help = parser.formatHelp();
+        assertTrue(help.contains("Benutzung: argparse4j"));
+        assertTrue(help.contains("zeigt diese Hilfe und beendet sich."));
+    }
+
     @Test
     public void testFormatUsage() {
         assertEquals(String.format(
@@ -1121,6 +1286,57 @@ public class ArgumentParserImplTest {
                 ap.formatHelp());
     }
 
+    @Test
+    public void testFormatHelpWithSuppliers() throws ArgumentParserException {
+        final List<String> resolved = new ArrayList<>();
+        ap.descriptionSupplier(() -> {
+            resolved.add("description");
+            return "This is argparse4j.";
+        }).epilogSupplier(() -> {
+            resolved.add("epilog");
+            return "This is epilog.";
+        });
+        ap.addArgumentGroup("group1").descriptionSupplier(() -> {
+            resolved.add("group1");
+            return "group1 description";
+        }).addArgument("--foo").metavarSupplier(() -> {
+            resolved.add("metavar");
+            return new String[] { "F" };
+        }).helpSupplier(() -> {
+            resolved.add("help");
+            return "foo help";
+        });
+        Subparser sub = ap.addSubparsers().addParser("bar").helpSupplier(() -> {
+            resolved.add("bar");
+            return "bar help";
+        });
+        ap.parseArgs(new String[] { "--foo", "x", "bar" });
+        assertEquals(emptyList(), resolved);
+        assertEquals(String.format(
+                  TextHelper.LOCALE_ROOT,
+                  "usage: argparse4j [-h] [--foo F] {bar} ...%n"
+                + "%n"
+                + "This is argparse4j.%n"
+                + "%n"
+                + "positional arguments:%n"
+                + "  {bar}%n"
+                + "    bar                  bar help%n"
+                + "%n"
+                + "named arguments:%n"
+                + "  -h, --help             show this help message and exit%n"
+                + "%n"
+                + "group1:%n"
+                + "  group1 description%n"
+                + "%n"
+                + "  --foo F                foo help%n"
+                + "%n" + "This is epilog.%n"),
+                ap.formatHelp());
+        assertTrue(resolved.containsAll(asList("description", "epilog",
+                "group1", "metavar", "help", "bar")));
+        sub.help("bar help 2");
+        assertTrue(ap.formatHelp().contains("bar help 2"));
+    }
+
     @Test
     public void testFormatHelpWithArgumentGroupWithoutTitleAndDescription() {
         ap.description("This is argparse4j.").epilog("This is epilog.");
@@ -1508,4 +1724,240 @@ public class ArgumentParserImplTest {
     public void testHelpThrowsHelpScreenException() throws ArgumentParserException {
         ap.parseArgs(new String[]{"--help"});
     }
+
+    @Test
+    public void testTryParse() {
+        ap.addArgument("--int").type(Integer.class);
+        ap.addArgument("--pair").nargs(2);
+        ap.addArgument("--req").required(true);
+        ap.addArgument("--flag").action(storeTrue());
+        ap.addArgument("pos").type(Integer.class);
+        MutuallyExclusiveGroup group = ap.addMutuallyExclusiveGroup();
+        group.addArgument("-a").action(storeTrue());
+        group.addArgument("-b").action(storeTrue());
+
+        ParseResult res = ap.tryParse(new String[] { "--int", "x", "-a",
+                "-b", "--flag=1", "--bogus", "y", "--pair", "1" });
+        assertFalse(res.isSuccess());
+        assertNull(res.getNamespace());
+        List<ParseDiagnostic> diags = res.getDiagnostics();
+        assertEquals(7, diags.size());
+        assertDiagnostic(diags.get(0), ParseDiagnostic.Kind.INVALID_VALUE, 1,
+                "couldNotConvertToError");
+        assertEquals("argument --int: could not convert 'x' to integer (32 bits)",
+                diags.get(0).getMessage());
+        assertDiagnostic(diags.get(1),
+                ParseDiagnostic.Kind.CONFLICTING_ARGUMENTS, 3,
+                "notAllowedWithArgumentError");
+        assertDiagnostic(diags.get(2), ParseDiagnostic.Kind.UNEXPECTED_VALUE,
+                4, "ignoreImplicitArgumentError");
+        assertDiagnostic(diags.get(3),
+                ParseDiagnostic.Kind.UNRECOGNIZED_ARGUMENT, 5,
+                "unrecognizedArgumentsError");
+        assertDiagnostic(diags.get(4), ParseDiagnostic.Kind.MISSING_VALUE, 7,
+                "expectedNArgumentsError");
+        assertDiagnostic(diags.get(5), ParseDiagnostic.Kind.INVALID_VALUE, 6,
+                "couldNotConvertToError");
+        assertEquals("argument pos: could not convert 'y' to integer (32 bits)",
+                diags.get(5).getMessage());
+        assertDiagnostic(diags.get(6), ParseDiagnostic.Kind.MISSING_ARGUMENT,
+                -1, "argumentIsRequiredError");
+        assertEquals("--req", diags.get(6).getArgument().textualName());
+
+        res = ap.tryParse(new String[] { "--req", "r", "--int", "1", "2" });
+        assertTrue(res.isSuccess());
+        assertEquals(Integer.valueOf(1), res.getNamespace().getInt("int"));
+        assertEquals(Integer.valueOf(2), res.getNamespace().getInt("pos"));
+    }
+
+    @Test
+    public void testTryParseHelpAndVersion() {
+        ap.version("1.0");
+        ap.addArgument("--version").action(Arguments.version());
+        ParseResult res = ap.tryParse(new String[] { "-h", "--version" });
+        assertEquals(2, res.getDiagnostics().size());
+        assertDiagnostic(res.getDiagnostics().get(0),
+                ParseDiagnostic.Kind.HELP, 0, null);
+        assertDiagnostic(res.getDiagnostics().get(1),
+                ParseDiagnostic.Kind.VERSION, 1, null);
+    }
+
+    @Test
+    public void testTryParseSubcommand() {
+        Subparsers subparsers = ap.addSubparsers();
+        subparsers.addParser("install").addArgument("--force")
+                .type(Integer.class);
+        subparsers.addParser("info");
+        ParseResult res = ap.tryParse(new String[] { "in" });
+        assertDiagnostic(res.getDiagnostics().get(0),
+                ParseDiagnostic.Kind.AMBIGUOUS, 0, "ambiguousCommandError");
+        res = ap.tryParse(new String[] { "remove", "--force", "x" });
+        assertEquals(1, res.getDiagnostics().size());
+        assertDiagnostic(res.getDiagnostics().get(0),
+                ParseDiagnostic.Kind.UNRECOGNIZED_COMMAND, 0,
+                "invalidChoiceError");
+        res = ap.tryParse(new String[] { "install", "--force", "x" });
+        assertDiagnostic(res.getDiagnostics().get(0),
+                ParseDiagnostic.Kind.INVALID_VALUE, 2,
+                "couldNotConvertToError");
+        res = ap.tryParse(zeroArgs);
+        assertDiagnostic(res.getDiagnostics().get(0),
+                ParseDiagnostic.Kind.MISSING_ARGUMENT, -1,
+                "tooFewArgumentsError");
+    }
+
+    @Test
+    public void testTryParseFromFile() {
+        ap = (ArgumentParserImpl) ArgumentParsers.newFor("argparse4j")
+                .fromFilePrefix("@").locale(Locale.US).build();
+        ap.addArgument("--int").type(Integer.class);
+        ParseResult res = ap.tryParse(new String[] {
+                "@target/no-such-file", "--int", "x" });
+        assertEquals(2, res.getDiagnostics().size());
+        assertDiagnostic(res.getDiagnostics().get(0),
+                ParseDiagnostic.Kind.UNREADABLE_FILE, 0,
+                "couldNotReadFromFileError");
+        assertDiagnostic(res.getDiagnostics().get(1),
+                ParseDiagnostic.Kind.INVALID_VALUE, 1,
+                "couldNotConvertToError");
+    }
+
+    private static final class RecordingListener implements ParseListener {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void parseStarted(ArgumentParser parser, String[] args) {
+            events.add("parseStarted " + args.length);
+        }
+
+        @Override
+        public void phaseCompleted(String command, Phase phase,
+                Argument argument, long nanos) {
+            assertTrue(nanos >= 0);
+            events.add(phase + " '" + command + "' "
+                    + (argument == null ? "-" : argument.getDest()));
+        }
+
+        @Override
+        public void fromFileRead(String command, String file, long bytes,
+                int arguments, long nanos) {
+            events.add("fromFileRead '" + command + "' " + file + " "
+                    + bytes + " " + arguments);
+        }
+
+        @Override
+        public void commandSelected(String command, long nanos) {
+            events.add("commandSelected '" + command + "'");
+        }
+
+        @Override
+        public void parseFinished(ArgumentParser parser, long nanos,
+                ArgumentParserException error) {
+            events.add("parseFinished "
+                    + (error == null ? "-" : error.getMessage()));
+        }
+
+        @Override
+        public void helpFormatted(ArgumentParser parser, String command,
+                int length, boolean cached, long nanos) {
+            assertTrue(nanos >= 0);
+            events.add("helpFormatted '" + command + "' " + length + " "
+                    + cached);
+        }
+    }
+
+    @Test
+    public void testParseListener() throws ArgumentParserException {
+        RecordingListener listener = new RecordingListener();
+        ap = (ArgumentParserImpl) ArgumentParsers.newFor("argparse4j")
+                .fromFilePrefix("@").parseListener(listener)
+                .locale(Locale.US).build();
+        ap.addArgument("-f");
+        ap.addArgument("--count").type(Integer.class);
+        Subparser remote = ap.addSubparsers().addParser("remote");
+        Subparser add = remote.addSubparsers().addParser("add");
+        add.addArgument("name").required(true);
+        ap.parseArgs(new String[] { "@target/test-classes/args.txt",
+                "--cou", "3", "remote", "add", "origin" });
+        assertEquals(asList(
+                "parseStarted 6",
+                "FROM_FILE '' -",
+                "fromFileRead '' target/test-classes/args.txt 7 2",
+                "FLAG_RESOLUTION '' f",
+                "CONVERSION '' f",
+                "ACTION '' f",
+                "FLAG_RESOLUTION '' count",
+                "CONVERSION '' count",
+                "ACTION '' count",
+                "POSITIONAL '' -",
+                "VALIDATION '' -",
+                "commandSelected 'remote'",
+                "POSITIONAL 'remote' -",
+                "VALIDATION 'remote' -",
+                "commandSelected 'remote add'",
+                "CONVERSION 'remote add' name",
+                "ACTION 'remote add' name",
+                "POSITIONAL 'remote add' -",
+                "VALIDATION 'remote add' -",
+                "parseFinished -"), listener.events);
+
+        listener.events.clear();
+        try {
+            ap.parseArgs(new String[] { "--count", "x" });
+            fail();
+        } catch (ArgumentParserException e) {
+            assertEquals(asList(
+                    "parseStarted 2",
+                    "FLAG_RESOLUTION '' count",
+                    "CONVERSION '' count",
+                    "parseFinished " + e.getMessage()), listener.events);
+        }
+
+        listener.events.clear();
+        ParseResult res = ap.tryParse(new String[] { "--count", "x",
+                "--unknown" });
+        assertEquals(asList(
+                "parseStarted 3",
+                "FLAG_RESOLUTION '' count",
+                "CONVERSION '' count",
+                "FLAG_RESOLUTION '' -",
+                "POSITIONAL '' -",
+                "VALIDATION '' -",
+                "parseFinished " + res.getDiagnostics().get(0).getMessage()),
+                listener.events);
+    }
+
+    @Test
+    public void testParseListenerHelpFormatted()
+            throws ArgumentParserException {
+        RecordingListener listener = new RecordingListener();
+        ap = (ArgumentParserImpl) ArgumentParsers.newFor("argparse4j")
+                .parseListener(listener).locale(Locale.US).build();
+        Subparser remote = ap.addSubparsers().addParser("remote");
+        int length = ap.formatHelp().length();
+        ap.formatHelp();
+        int remoteLength = remote.formatHelp().length();
+        try {
+            ap.parseArgs(new String[] { "-h" });
+            fail();
+        } catch (HelpScreenException e) {
+            // expected
+        }
+        assertEquals(asList(
+                "helpFormatted '' " + length + " false",
+                "helpFormatted '' " + length + " true",
+                "helpFormatted 'remote' " + remoteLength + " false",
+                "parseStarted 1",
+                "FLAG_RESOLUTION '' help",
+                "helpFormatted '' " + length + " true",
+                "ACTION '' help",
+                "parseFinished Help Screen"), listener.events);
+    }
+
+    private static void assertDiagnostic(ParseDiagnostic diag,
+            ParseDiagnostic.Kind kind, int tokenIndex, String messageKey) {
+        assertEquals(diag.toString(), kind, diag.getKind());
+        assertEquals(diag.toString(), tokenIndex, diag.getTokenIndex());
+        assertEquals(diag.toString(), messageKey, diag.getMessageKey());
+    }
 }
@@ -23,11 +23,21 @@
  */
 package net.sourceforge.argparse4j.internal;
 
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
 import net.sourceforge.argparse4j.ArgumentParsers;
 import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparsers;
 
 import org.junit.Test;
 
@@ -90,4 +100,103 @@ public class SubparsersImplTest {
 
         assertTrue(subparsers.hasNotSuppressedSubCommand());
     }
+
+    @Test
+    public void testAddParserLazy() throws ArgumentParserException {
+        ArgumentParserImpl ap = (ArgumentParserImpl) ArgumentParsers
+                .newFor("prog").terminalWidthDetection(false).build();
+        Subparsers subparsers = ap.addSubparsers().dest("command");
+        List<String> defined = new ArrayList<>();
+        subparsers.addParser("checkout", "switch branches", parser -> {
+            defined.add("checkout");
+            parser.addArgument("branch");
+            parser.addSubparsers().addParser("nested", "nested command",
+                    nested -> {
+                        defined.add("nested");
+                        nested.addArgument("--depth").type(Integer.class);
+                    });
+        }).aliases("co");
+        subparsers.addParser("remove", "remove files", parser -> {
+            defined.add("remove");
+            parser.addArgument("file");
+        });
+
+        assertEquals("usage: prog [-h] {checkout,co,remove} ...\n"
+                + "\n"
+                + "positional arguments:\n"
+                + "  {checkout,co,remove}\n"
+                + "    checkout (co)        switch branches\n"
+                + "    remove               remove files\n"
+                + "\n"
+                + "named arguments:\n"
+                + "  -h, --help             show this help message and exit\n",
+                ap.formatHelp());
+        assertTrue(defined.isEmpty());
+
+        Namespace res = ap.parseArgs(new String[] { "co", "main", "nested",
+                "--depth", "3" });
+        assertEquals("checkout", res.get("command"));
+        assertEquals("main", res.get("branch"));
+        assertEquals(3, (int) res.getInt("depth"));
+        assertEquals(asList("checkout", "nested"), defined);
+
+        ap.parseArgs(new String[] { "checkout", "main", "nested" });
+        assertEquals(asList("checkout", "nested"), defined);
+    }
+
+    @Test
+    public void testAddParserLazyDefinedByMethods() {
+        ArgumentParserImpl ap = (ArgumentParserImpl) ArgumentParsers
+                .newFor("prog").build();
+        List<String> defined = new ArrayList<>();
+        SubparserImpl subparser = ap.addSubparsers().addParser("checkout",
+                "switch branches", parser -> {
+                    defined.add("checkout");
+                    parser.addArgument("branch");
+                });
+        ap.addSubparsers().addParser("remove", "remove files", parser -> {
+            defined.add("remove");
+            parser.addArgument("file");
+        });
+        subparser.addArgument("--force");
+        assertEquals(asList("checkout"), defined);
+        assertEquals("usage: prog checkout [-h] [--force FORCE] branch\n",
+                subparser.formatUsage());
+        // -h of each parser, branch, --force and file
+        assertEquals(6, ap.getAllArguments().size());
+        assertEquals(asList("checkout", "remove"), defined);
+    }
+
+    @Test
+    public void testAddParserLazyDefinerFails() throws ArgumentParserException {
+        ArgumentParserImpl ap = (ArgumentParserImpl) ArgumentParsers
+                .newFor("prog").build();
+        IllegalStateException failure = new IllegalStateException(
+                "cannot load class");
+        ap.addSubparsers().addParser("run", "run it", parser -> {
+            parser.addArgument("--fast");
+            throw failure;
+        });
+        try {
+            ap.parseArgs(new String[] { "run" });
+            fail();
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+        try {
+            ap.parseArgs(new String[] { "run" });
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("sub-command run could not be defined",
+                    e.getMessage());
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddParserLazyNullDefiner() {
+        ArgumentParserImpl ap = (ArgumentParserImpl) ArgumentParsers
+                .newFor("prog").build();
+        ap.addSubparsers().addParser("checkout", "switch branches", null);
+    }
 }
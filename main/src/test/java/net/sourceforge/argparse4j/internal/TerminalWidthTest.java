@@ -0,0 +1,24 @@
+package net.sourceforge.argparse4j.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class TerminalWidthTest {
+
+    @Test
+    public void testParseColumns() {
+        assertEquals(83, TerminalWidth.parseColumns("50 83\n"));
+        assertEquals(-1, TerminalWidth.parseColumns("0 0\n"));
+        assertEquals(-1, TerminalWidth.parseColumns("50\n"));
+        assertEquals(-1, TerminalWidth.parseColumns(""));
+        assertEquals(-1, TerminalWidth.parseColumns("stty: invalid argument"));
+    }
+
+    @Test
+    public void testGetTerminalWidthIsStable() {
+        TerminalWidth.resetDetectedWidth();
+        int w = new TerminalWidth().getTerminalWidth();
+        assertEquals(w, new TerminalWidth().getTerminalWidth());
+    }
+}
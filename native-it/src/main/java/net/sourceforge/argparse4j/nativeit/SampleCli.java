@@ -0,0 +1,146 @@
+package net.sourceforge.argparse4j.nativeit;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.annotation.Arg;
+import net.sourceforge.argparse4j.helper.HelpScreenException;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Subparser;
+import net.sourceforge.argparse4j.inf.Subparsers;
+
+/**
+ * Sample command line interface built as a native image by the integration
+ * test. It uses the features which need reflection: a type converted by its
+ * {@code valueOf(String)} method, one converted by its constructor, and
+ * {@link Arg} annotated fields and methods, including an array.
+ */
+public final class SampleCli {
+
+    enum Mode {
+        FAST, SAFE
+    }
+
+    /**
+     * Converted by {@code valueOf(String)}.
+     */
+    public static final class Version {
+        private final int major_;
+        private final int minor_;
+
+        private Version(int major, int minor) {
+            major_ = major;
+            minor_ = minor;
+        }
+
+        public static Version valueOf(String s) {
+            int dot = s.indexOf('.');
+            if (dot == -1) {
+                throw new IllegalArgumentException(s);
+            }
+            return new Version(Integer.parseInt(s.substring(0, dot)),
+                    Integer.parseInt(s.substring(dot + 1)));
+        }
+
+        @Override
+        public String toString() {
+            return major_ + "." + minor_;
+        }
+    }
+
+    /**
+     * Converted by the constructor.
+     */
+    public static final class Name {
+        private final String name_;
+
+        public Name(String name) {
+            name_ = name.toUpperCase();
+        }
+
+        @Override
+        public String toString() {
+            return name_;
+        }
+    }
+
+    static class BaseOptions {
+        @Arg(dest = "verbose")
+        boolean verbose;
+    }
+
+    static final class Options extends BaseOptions {
+        @Arg
+        String command;
+
+        @Arg
+        int count;
+
+        @Arg
+        Mode mode;
+
+        @Arg
+        Version version;
+
+        @Arg
+        Name name;
+
+        @Arg
+        BigInteger big;
+
+        @Arg(dest = "files")
+        Name[] files;
+
+        String renamed;
+
+        @Arg(dest = "target")
+        void setTarget(String target) {
+            renamed = "target:" + target;
+        }
+
+        @Override
+        public String toString() {
+            return "command=" + command + " count=" + count + " mode=" + mode
+                    + " version=" + version + " name=" + name + " big=" + big
+                    + " files=" + Arrays.toString(files) + " verbose="
+                    + verbose + " " + renamed;
+        }
+    }
+
+    private SampleCli() {
+    }
+
+    static ArgumentParser newParser() {
+        ArgumentParser parser = ArgumentParsers.newFor("sample-cli").build()
+                .description("Sample CLI for the native image test.");
+        parser.addArgument("-v", "--verbose").action(Arguments.storeTrue());
+        parser.addArgument("--count").type(int.class).setDefault(1);
+        parser.addArgument("--mode").type(Mode.class).setDefault(Mode.SAFE);
+        parser.addArgument("--big").type(BigInteger.class)
+                .setDefault(BigInteger.ZERO);
+        Subparsers subparsers = parser.addSubparsers().dest("command");
+        Subparser run = subparsers.addParser("run").help("runs");
+        run.addArgument("--version").type(Version.class).required(true);
+        run.addArgument("--name").type(Name.class);
+        run.addArgument("--target").setDefault("none");
+        run.addArgument("files").type(Name.class).nargs("*");
+        return parser;
+    }
+
+    public static void main(String[] args) {
+        ArgumentParser parser = newParser();
+        Options options = new Options();
+        try {
+            parser.parseArgs(args, options);
+        } catch (HelpScreenException e) {
+            System.exit(0);
+        } catch (ArgumentParserException e) {
+            parser.handleError(e);
+            System.exit(2);
+        }
+        System.out.println(options);
+    }
+}
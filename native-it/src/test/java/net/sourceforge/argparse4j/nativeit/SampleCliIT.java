@@ -0,0 +1,77 @@
+package net.sourceforge.argparse4j.nativeit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Runs the native image of {@link SampleCli}, whose path is given by system
+ * property {@code native.image}.
+ */
+public class SampleCliIT {
+
+    private static final class Result {
+        int exitValue;
+        String out;
+    }
+
+    private static Result run(String... args) throws IOException,
+            InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("native.image"));
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .start();
+        Result result = new Result();
+        result.out = read(process.getInputStream());
+        result.exitValue = process.waitFor();
+        return result;
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        byte[] b = new byte[4096];
+        for (int n; (n = in.read(b)) != -1;) {
+            buf.write(b, 0, n);
+        }
+        return new String(buf.toByteArray(), StandardCharsets.UTF_8).replace(
+                "\r\n", "\n");
+    }
+
+    @Test
+    public void testParse() throws Exception {
+        Result result = run("-v", "--count", "3", "--mode", "FAST", "--big",
+                "123456789012345678901234567890", "run", "--version", "1.2",
+                "--name", "foo", "--target", "bar", "a", "b");
+        assertEquals(result.out, 0, result.exitValue);
+        assertEquals("command=run count=3 mode=FAST version=1.2 name=FOO "
+                + "big=123456789012345678901234567890 files=[A, B] "
+                + "verbose=true target:bar\n", result.out);
+    }
+
+    @Test
+    public void testInvalidValue() throws Exception {
+        Result result = run("run", "--version", "1");
+        assertEquals(2, result.exitValue);
+        assertTrue(result.out, result.out.contains(
+                "argument --version: could not convert '1'"));
+    }
+
+    @Test
+    public void testHelp() throws Exception {
+        Result result = run("-h");
+        assertEquals(0, result.exitValue);
+        assertTrue(result.out, result.out.startsWith("usage: sample-cli"));
+        assertTrue(result.out, result.out.contains(
+                "Sample CLI for the native image test."));
+    }
+}
@@ -1,27 +1,85 @@
 #!/usr/bin/env python
+"""Generates the East Asian Width table of CJKTextWidthCounter.
+
+Usage:
+
+    wfarange.py < EastAsianWidth.txt
+        Prints the UNICODE_VERSION and WIDE_RANGES declarations of
+        CJKTextWidthCounter.
+
+    wfarange.py --wfa < EastAsianWidth.txt
+        Prints only the Wide, Fullwidth and Ambiguous entries, in the format
+        of EastAsianWidth.txt. CJKTextWidthCounterTest checks the table
+        against this output, which is kept in
+        main/src/test/resources/net/sourceforge/argparse4j/helper/.
+
+The input is EastAsianWidth.txt of the Unicode Character Database, or the
+output of --wfa. The Unicode version is pinned to UNICODE_VERSION; updating it
+means changing it here, regenerating both outputs and updating the test
+resource and CJKTextWidthCounter together.
+"""
 from __future__ import print_function
 import sys
 import re
 
-res = [(0, 0, '')]
-pat = re.compile(r'^([^;]+);([WAF]).*')
+UNICODE_VERSION = '10.0.0'
+
+header_pat = re.compile(r'^# EastAsianWidth-(\d+\.\d+\.\d+)\.txt')
+pat = re.compile(r'^([0-9A-Fa-f.]+);([WAF])\b.*')
+
+version = None
+header = []
+entries = []
 for line in sys.stdin:
+    if version is None:
+        m = header_pat.match(line)
+        if m:
+            version = m.group(1)
+            header.append(line.rstrip('\r\n'))
+            continue
+    if line.startswith('# Date:') and len(header) == 1:
+        header.append(line.rstrip('\r\n'))
+        continue
     m = pat.match(line)
     if m:
         if '..' in m.group(1):
             first, last = (int(x, 16) for x in m.group(1).split('..'))
-            last += 1
         else:
-            first = int(m.group(1), 16)
-            last = first+1
-        lastrange = res[len(res)-1]
-        if lastrange[1] == first and lastrange[2] == m.group(2):
-            res[len(res)-1] = (lastrange[0], last, lastrange[2])
+            first = last = int(m.group(1), 16)
+        entries.append((first, last + 1, m.group(2)))
+
+if version != UNICODE_VERSION:
+    sys.exit('expected EastAsianWidth-{}.txt, got {}'.format(
+        UNICODE_VERSION, version))
+
+entries.sort()
+
+if len(sys.argv) > 1 and sys.argv[1] == '--wfa':
+    for h in header:
+        print(h)
+    for first, last, w in entries:
+        if last - first == 1:
+            print('{:04X};{}'.format(first, w))
         else:
-            res.append((first, last, m.group(2)))
-print ("private static final CpRange[] ranges_ = {")
-for r in res:
-    if r[1] == 0:
-        continue
-    print("new CpRange(0x{:04X}, 0x{:04X}, EastAsianWidth.{}),".format(r[0], r[1], r[2]))
-print ("};")
+            print('{:04X}..{:04X};{}'.format(first, last - 1, w))
+    sys.exit(0)
+
+# W, F and A all count 2 columns, so adjacent ranges are merged regardless of
+# their kind.
+ranges = []
+for first, last, w in entries:
+    if ranges and ranges[-1][1] == first:
+        ranges[-1] = (ranges[-1][0], last)
+    else:
+        ranges.append((first, last))
+
+print('    static final String UNICODE_VERSION = "{}";'.format(version))
+print()
+print('    private static final int[] WIDE_RANGES = {')
+values = []
+for first, last in ranges:
+    values.append('0x{:04X}'.format(first))
+    values.append('0x{:04X}'.format(last))
+for i in range(0, len(values), 6):
+    print('            ' + ', '.join(values[i:i + 6]) + ',')
+print('    };')